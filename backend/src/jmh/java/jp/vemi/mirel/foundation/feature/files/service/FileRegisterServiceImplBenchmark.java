@@ -0,0 +1,106 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.foundation.feature.files.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jp.vemi.framework.storage.StorageService;
+import jp.vemi.mirel.foundation.abst.dao.repository.FileManagementRepository;
+
+/**
+ * {@link FileRegisterServiceImpl} のZIP作成のベンチマークです。<br/>
+ * 生成結果を模したディレクトリをZIP化して登録する処理を計測します。
+ * ストレージとリポジトリは何もしないスタブに置き換えます。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileRegisterServiceImplBenchmark {
+
+    /** 生成ファイル数 */
+    @Param({ "10", "100", "1000" })
+    public int files;
+
+    /** 1ファイルあたりの行数 */
+    @Param({ "50" })
+    public int lines;
+
+    private Path outputDir;
+
+    private FileRegisterServiceImpl service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        outputDir = Files.createTempDirectory("register-jmh-");
+        Path root = outputDir.resolve("250101000000000");
+        for (int i = 0; i < files; i++) {
+            Path file = root.resolve("src/main/java/pkg" + (i % 10) + "/Generated" + i + ".java");
+            Files.createDirectories(file.getParent());
+            StringBuilder sb = new StringBuilder();
+            for (int l = 0; l < lines; l++) {
+                sb.append("    private String field").append(l).append(" = \"value").append(l).append("\";\n");
+            }
+            Files.writeString(file, sb, StandardCharsets.UTF_8);
+        }
+
+        service = new FileRegisterServiceImpl();
+        service.fileManagementRepository = stub(FileManagementRepository.class);
+        service.storageService = stub(StorageService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(outputDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Pair<String, String> registerZip() {
+        return service.register(outputDir.resolve("250101000000000").toFile(), true);
+    }
+
+    /**
+     * 何もしないスタブを作成します。<br/>
+     * save は引数をそのまま返し、ストレージへの書き込みは破棄します。
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(final Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> args[0];
+                    case "openOutputStream" -> OutputStream.nullOutputStream();
+                    case "exists", "equals" -> false;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> type.getSimpleName() + "Stub";
+                    default -> null;
+                });
+    }
+}
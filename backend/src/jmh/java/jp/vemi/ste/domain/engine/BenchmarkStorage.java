@@ -0,0 +1,71 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.ste.domain.engine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import jp.vemi.framework.config.StorageConfig;
+
+/**
+ * ベンチマーク用のストレージ設定です。<br/>
+ * Spring コンテキストを起動せずに {@link StorageConfig} を一時ディレクトリへ向けます。
+ */
+final class BenchmarkStorage {
+
+    private BenchmarkStorage() {
+    }
+
+    /**
+     * 一時ディレクトリをストレージとして設定します。
+     *
+     * @return ストレージディレクトリ
+     */
+    static Path setUp() {
+        try {
+            final Path storageDir = Files.createTempDirectory("promarker-jmh-");
+            setField("configuredStorageDir", storageDir.toString());
+            setField("configuredUserStencilDir", storageDir.resolve("apps/promarker/stencil/user").toString());
+            setField("configuredStandardStencilDir",
+                    storageDir.resolve("apps/promarker/stencil/standard").toString());
+            setField("configuredSamplesStencilDir", "classpath:/promarker/stencil/samples");
+            setField("initialized", true);
+            return storageDir;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * ディレクトリを削除します。
+     *
+     * @param dir
+     *            ディレクトリ
+     */
+    static void delete(final Path dir) {
+        if (dir == null || false == Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void setField(final String name, final Object value) {
+        try {
+            final Field field = StorageConfig.class.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(null, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to configure StorageConfig." + name, e);
+        }
+    }
+}
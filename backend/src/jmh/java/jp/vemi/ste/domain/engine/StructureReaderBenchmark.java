@@ -0,0 +1,111 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.ste.domain.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link StructureReader} のベンチマークです。<br/>
+ * 行数を変えた構造定義Excelを生成し、ユーザーモデル（ファイルパス指定）と
+ * イベントモデル（ストリーム指定）の読込を計測します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StructureReaderBenchmark {
+
+    private static final String[] MASTER_HEADER = { "model", "sheetName", "startLine", "column", "dataElement",
+            "skipEmpty", "nouse" };
+
+    private static final String[] COLUMNS = { "A", "B", "C", "D", "E", "F", "G", "H" };
+
+    /** データシートの行数 */
+    @Param({ "100", "1000", "10000", "50000" })
+    public int rows;
+
+    private Path workbook;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workbook = Files.createTempFile("structure-jmh-", ".xlsx");
+        try (SXSSFWorkbook book = new SXSSFWorkbook(200); OutputStream out = Files.newOutputStream(workbook)) {
+            Sheet master = book.createSheet("_@generate");
+            Row header = master.createRow(4);
+            for (int i = 0; i < MASTER_HEADER.length; i++) {
+                header.createCell(i).setCellValue(MASTER_HEADER[i]);
+            }
+            for (int i = 0; i < COLUMNS.length; i++) {
+                Row row = master.createRow(5 + i);
+                row.createCell(0).setCellValue("entities");
+                row.createCell(1).setCellValue("Entity");
+                row.createCell(2).setCellValue(3);
+                row.createCell(3).setCellValue(COLUMNS[i]);
+                row.createCell(4).setCellValue("field" + i);
+                if (i == 0) {
+                    row.createCell(5).setCellValue("x");
+                }
+            }
+
+            Sheet entity = book.createSheet("Entity");
+            entity.createRow(0).createCell(0).setCellValue("Entity");
+            for (int r = 0; r < rows; r++) {
+                Row row = entity.createRow(2 + r);
+                row.createCell(0).setCellValue("Entity" + r);
+                for (int c = 1; c < COLUMNS.length; c++) {
+                    if (c % 2 == 0) {
+                        row.createCell(c).setCellValue(r * 1.5 + c);
+                    } else {
+                        row.createCell(c).setCellValue("value-" + (r % 500) + "-" + c);
+                    }
+                }
+            }
+            book.write(out);
+            book.dispose();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(workbook);
+    }
+
+    @Benchmark
+    public Map<String, List<Map<String, Object>>> readUsermodel() {
+        return new StructureReader().read(workbook.toString());
+    }
+
+    @Benchmark
+    public Map<String, List<Map<String, Object>>> readStreaming() throws IOException {
+        try (InputStream in = Files.newInputStream(workbook)) {
+            return new StructureReader().read(in);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.ste.domain.engine;
+
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import jp.vemi.ste.domain.context.SteContext;
+import jp.vemi.ste.domain.dto.yml.StencilSettingsYml;
+
+/**
+ * {@link TemplateEngineProcessor} のベンチマークです。<br/>
+ * 同梱のサンプルステンシル（/samples/hello-world）を対象に、設定読込と生成を計測します。
+ * キャッシュ・カタログインデックスの有無を切り替えて比較できます。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateEngineProcessorBenchmark {
+
+    private static final String STENCIL = "/samples/hello-world";
+
+    private static final String SERIAL = "250913A";
+
+    /** カタログインデックス・各種キャッシュを有効にするか */
+    @Param({ "true", "false" })
+    public boolean cached;
+
+    private Path storageDir;
+
+    private ResourcePatternResolver resolver;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        storageDir = BenchmarkStorage.setUp();
+        resolver = new PathMatchingResourcePatternResolver();
+
+        StencilCatalogIndex.shared().configure(cached);
+        if (cached) {
+            StencilCatalogIndex.shared().rebuild(resolver);
+        }
+        StencilSettingsCache.shared().configure(cached, StencilSettingsCache.DEFAULT_MAX_ENTRIES);
+        StencilTemplateCache.shared().configure(cached, 64, 256);
+    }
+
+    @TearDown(Level.Iteration)
+    public void cleanOutput() {
+        BenchmarkStorage.delete(Path.of(TemplateEngineProcessor.getOutputBaseStorageDir()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkStorage.delete(storageDir);
+    }
+
+    private TemplateEngineProcessor newProcessor() {
+        SteContext context = SteContext.standard(STENCIL, SERIAL);
+        context.put("message", "Hello, Benchmark!");
+        context.put("userName", "Developer");
+        context.put("language", "ja");
+        return TemplateEngineProcessor.create(context, resolver);
+    }
+
+    @Benchmark
+    public StencilSettingsYml getStencilSettings() {
+        return newProcessor().getStencilSettings();
+    }
+
+    @Benchmark
+    public String execute() {
+        return newProcessor().execute();
+    }
+
+    @Benchmark
+    public void executeToZip() {
+        newProcessor().executeToZip(TemplateEngineProcessor.createGenerateId(), OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.framework.storage;
+
+/**
+ * 書き込みを中断できる出力ストリーム。
+ * <p>
+ * {@link StorageService#openOutputStream(String)} が返すストリームのうち、
+ * 書き込み途中で失敗した内容を保存せずに破棄できるものが実装します。
+ * {@link #abort()} 後のクローズでは何も保存しません。
+ * </p>
+ */
+public interface Abortable {
+
+    /**
+     * 書き込みを中断し、途中までの内容を破棄します。
+     */
+    void abort();
+}
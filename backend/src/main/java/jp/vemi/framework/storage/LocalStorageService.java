@@ -6,8 +6,10 @@ package jp.vemi.framework.storage;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -68,6 +70,21 @@ public class LocalStorageService implements StorageService {
         logger.debug("Saved file to: {}", SanitizeUtil.forLog(filePath));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * 同じディレクトリの一時ファイルへ書き込み、クローズ時に保存先へ移動します（中断時は一時ファイルを削除）。
+     * </p>
+     */
+    @Override
+    public OutputStream openOutputStream(String path) throws IOException {
+        Path filePath = resolveSecurePath(path);
+        Files.createDirectories(filePath.getParent());
+        Path tempPath = Files.createTempFile(filePath.getParent(), filePath.getFileName().toString(), ".part");
+        logger.debug("Opened output stream to: {}", SanitizeUtil.forLog(filePath));
+        return new LocalFileOutputStream(tempPath, filePath);
+    }
+
     @Override
     public void saveFile(String path, byte[] data) throws IOException {
         saveFile(path, new ByteArrayInputStream(data), data.length);
@@ -133,4 +150,54 @@ public class LocalStorageService implements StorageService {
     public File getFile(String path) {
         return resolveSecurePath(path).toFile();
     }
+
+    /**
+     * 一時ファイルへ書き込み、クローズ時に保存先へ移動する OutputStream。
+     */
+    private static final class LocalFileOutputStream extends FilterOutputStream implements Abortable {
+
+        private final Path tempPath;
+        private final Path filePath;
+        private boolean closed = false;
+
+        LocalFileOutputStream(Path tempPath, Path filePath) throws IOException {
+            super(Files.newOutputStream(tempPath));
+            this.tempPath = tempPath;
+            this.filePath = filePath;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                out.close();
+                Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                Files.deleteIfExists(tempPath);
+                throw e;
+            }
+        }
+
+        @Override
+        public void abort() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                out.close();
+                Files.deleteIfExists(tempPath);
+            } catch (IOException e) {
+                logger.warn("Failed to delete aborted file: {}", SanitizeUtil.forLog(tempPath), e);
+            }
+        }
+    }
 }
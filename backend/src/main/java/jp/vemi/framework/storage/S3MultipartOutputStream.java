@@ -0,0 +1,187 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.framework.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jp.vemi.framework.util.SanitizeUtil;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+/**
+ * S3 Multipart Upload を使用してパート単位で送信する OutputStream。
+ * <p>
+ * メモリ上には1パート分のバッファのみを保持します。
+ * 1パートに満たないデータはクローズ時に通常の PutObject で保存します。
+ * 送信エラー時や {@link #abort()} の呼び出し時は Multipart Upload を中断（Abort）し、オブジェクトを作成しません。
+ * </p>
+ */
+class S3MultipartOutputStream extends OutputStream implements Abortable {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3MultipartOutputStream.class);
+
+    /** パートサイズ（S3 の最小パートサイズは 5MiB） */
+    static final int PART_SIZE = 8 * 1024 * 1024;
+
+    private final S3Client s3Client;
+    private final String bucket;
+    private final String key;
+
+    private final byte[] buffer = new byte[PART_SIZE];
+    private int position = 0;
+
+    private String uploadId;
+    private final List<CompletedPart> parts = new ArrayList<>();
+    private boolean closed = false;
+
+    S3MultipartOutputStream(S3Client s3Client, String bucket, String key) {
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+        this.key = key;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (position == buffer.length) {
+            flushPart();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (position == buffer.length) {
+                flushPart();
+            }
+            int size = Math.min(len, buffer.length - position);
+            System.arraycopy(b, off, buffer, position, size);
+            position += size;
+            off += size;
+            len -= size;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            if (uploadId == null) {
+                // 1パート未満: 通常アップロード
+                PutObjectRequest request = PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentLength((long) position)
+                        .build();
+                s3Client.putObject(request, RequestBody.fromBytes(copyBuffer()));
+                logger.debug("Saved file to R2: {}", SanitizeUtil.forLog(key));
+                return;
+            }
+
+            if (position > 0) {
+                uploadPart();
+            }
+            CompleteMultipartUploadRequest request = CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build();
+            s3Client.completeMultipartUpload(request);
+            logger.debug("Completed multipart upload to R2: {} ({} parts)", SanitizeUtil.forLog(key), parts.size());
+        } catch (Exception e) {
+            abortUpload();
+            throw new IOException("Failed to save file: " + key, e);
+        }
+    }
+
+    /**
+     * アップロードを中断します。以降のクローズでは保存しません。
+     */
+    @Override
+    public void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        abortUpload();
+    }
+
+    private void flushPart() throws IOException {
+        try {
+            if (uploadId == null) {
+                CreateMultipartUploadRequest request = CreateMultipartUploadRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .build();
+                uploadId = s3Client.createMultipartUpload(request).uploadId();
+            }
+            uploadPart();
+        } catch (Exception e) {
+            closed = true;
+            abortUpload();
+            throw new IOException("Failed to upload part: " + key, e);
+        }
+    }
+
+    private void uploadPart() {
+        int partNumber = parts.size() + 1;
+        UploadPartRequest request = UploadPartRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) position)
+                .build();
+        String eTag = s3Client.uploadPart(request, RequestBody.fromBytes(copyBuffer())).eTag();
+        parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+        position = 0;
+    }
+
+    private byte[] copyBuffer() {
+        byte[] data = new byte[position];
+        System.arraycopy(buffer, 0, data, 0, position);
+        return data;
+    }
+
+    private void abortUpload() {
+        if (uploadId == null) {
+            return;
+        }
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (Exception e) {
+            logger.warn("Failed to abort multipart upload: {}", SanitizeUtil.forLog(key), e);
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed: " + key);
+        }
+    }
+}
@@ -6,6 +6,7 @@ package jp.vemi.framework.storage;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URL;
 import java.time.Duration;
@@ -179,6 +180,14 @@ public class S3StorageService implements StorageService, DisposableBean {
         }
     }
 
+    /**
+     * Multipart Upload でパート単位に送信する OutputStream を返します。
+     */
+    @Override
+    public OutputStream openOutputStream(String path) throws IOException {
+        return new S3MultipartOutputStream(s3Client, bucket, toS3Key(path));
+    }
+
     @Override
     public List<String> listFiles(String pathPrefix) {
         String fullPrefix = toS3Key(pathPrefix);
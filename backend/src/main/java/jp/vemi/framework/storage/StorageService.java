@@ -3,8 +3,10 @@
  */
 package jp.vemi.framework.storage;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
 import java.time.Duration;
 import java.util.List;
@@ -45,6 +47,43 @@ public interface StorageService {
      */
     void saveFile(String path, InputStream data, long contentLength) throws IOException;
 
+    /**
+     * ファイルへ書き込む OutputStream を取得します。
+     * <p>
+     * 内容全体をメモリに保持せずに保存する場合に使用します。
+     * ストリームをクローズした時点で保存が確定します。
+     * 書き込みに失敗した場合は、クローズせずに {@link Abortable#abort()} で破棄してください。
+     * 既定の実装はメモリに蓄積し、クローズ時に {@link #saveFile(String, byte[])} で保存します。
+     * </p>
+     *
+     * @param path
+     *            ストレージ相対パス
+     * @return 書き込み用の OutputStream
+     * @throws IOException
+     *             オープンエラー
+     */
+    default OutputStream openOutputStream(String path) throws IOException {
+        class MemoryOutputStream extends ByteArrayOutputStream implements Abortable {
+            private boolean closed = false;
+
+            @Override
+            public void abort() {
+                closed = true;
+                reset();
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                saveFile(path, toByteArray());
+            }
+        }
+        return new MemoryOutputStream();
+    }
+
     /**
      * バイト配列からファイルを保存します。
      *
@@ -4,14 +4,18 @@
 package jp.vemi.framework.storage.gcs;
 
 import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
+import java.nio.channels.Channels;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import com.google.cloud.WriteChannel;
 import com.google.cloud.storage.Blob;
 import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.BlobInfo;
@@ -22,6 +26,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.StreamUtils;
 
+import jp.vemi.framework.storage.Abortable;
 import jp.vemi.framework.storage.StorageService;
 
 /**
@@ -81,6 +86,21 @@ public class GcsStorageService implements StorageService {
         storage.createFrom(blobInfo, data);
     }
 
+    /**
+     * Resumable Upload の WriteChannel を使用して、チャンク単位で送信する OutputStream を返します。
+     * <p>
+     * WriteChannel はクローズ時にオブジェクトを確定するため、中断時はクローズせずにセッションを破棄します
+     * （未確定の Resumable Upload セッションはオブジェクトを作成せずに失効します）。
+     * </p>
+     */
+    @Override
+    public OutputStream openOutputStream(String path) throws IOException {
+        String key = resolveKey(path);
+        BlobInfo blobInfo = BlobInfo.newBuilder(BlobId.of(bucketName, key)).build();
+        WriteChannel channel = storage.writer(blobInfo);
+        return new GcsOutputStream(channel);
+    }
+
     @Override
     public void saveFile(String path, byte[] data) throws IOException {
         String key = resolveKey(path);
@@ -144,4 +164,35 @@ public class GcsStorageService implements StorageService {
         }
         return basePath + path;
     }
+
+    /**
+     * WriteChannel へ書き込む OutputStream。中断時はチャネルをクローズせずに破棄します。
+     */
+    private static final class GcsOutputStream extends FilterOutputStream implements Abortable {
+
+        private boolean closed = false;
+
+        GcsOutputStream(WriteChannel channel) {
+            super(Channels.newOutputStream(channel));
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            out.close();
+        }
+
+        @Override
+        public void abort() {
+            closed = true;
+        }
+    }
 }
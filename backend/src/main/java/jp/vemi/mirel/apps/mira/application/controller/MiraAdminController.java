@@ -263,11 +263,37 @@ public class MiraAdminController {
         result.put("fileId", progress.getFileId());
         result.put("status", progress.getStatus().name());
         result.put("errorMessage", progress.getErrorMessage());
+        result.put("taskId", progress.getTaskId());
+        result.put("totalChunks", progress.getTotalChunks());
+        result.put("processedChunks", progress.getProcessedChunks());
         result.put("updatedAt", progress.getUpdatedAt());
 
         return ResponseEntity.ok(result);
     }
 
+    @GetMapping("/knowledge/reindex/tasks/{taskId}")
+    @Operation(summary = "一括再インデックス進捗確認", description = "タスク全体の進捗（ファイル数・チャンク数）を取得します")
+    public ResponseEntity<?> getReindexTaskProgress(@PathVariable String taskId) {
+        var progress = knowledgeBaseService.getBulkReindexProgress(taskId);
+
+        if (progress == null) {
+            return ResponseEntity.ok(Map.of(
+                    "taskId", taskId,
+                    "status", "NOT_FOUND"));
+        }
+        return ResponseEntity.ok(progress);
+    }
+
+    @PostMapping("/knowledge/reindex/tasks/{taskId}/cancel")
+    @Operation(summary = "一括再インデックス取消", description = "未着手のファイルの再インデックスを取り消します")
+    public ResponseEntity<Map<String, Object>> cancelReindexTask(@PathVariable String taskId) {
+        boolean found = knowledgeBaseService.cancelBulkReindex(taskId);
+
+        return ResponseEntity.ok(Map.of(
+                "taskId", taskId,
+                "status", found ? "CANCELLED" : "NOT_FOUND"));
+    }
+
     // ==========================================
     // Data Management
     // ==========================================
@@ -0,0 +1,90 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.dao.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Mira 会話要約エンティティ.
+ * <p>
+ * 会話の古いターンをまとめた要約と、要約済みの範囲（最後に要約したメッセージ）を保持します。
+ * 以降のターンでは要約と、それより新しいメッセージのみを履歴として送信します。
+ * </p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "mir_mira_conversation_summary")
+public class MiraConversationSummary {
+
+    /** 会話セッションID */
+    @Id
+    @Column(name = "conversation_id", columnDefinition = "VARCHAR(36)")
+    private String conversationId;
+
+    /** 要約本文 */
+    @Column(columnDefinition = "TEXT")
+    private String content;
+
+    /** 要約本文のトークン数（概算） */
+    @Column(name = "token_count")
+    private Integer tokenCount;
+
+    /** 最後に要約したメッセージのID */
+    @Column(name = "covered_message_id", columnDefinition = "VARCHAR(36)")
+    private String coveredMessageId;
+
+    /** 最後に要約したメッセージの作成日時 */
+    @Column(name = "covered_until")
+    private LocalDateTime coveredUntil;
+
+    /** 要約済みメッセージ数 */
+    @Column(name = "covered_messages")
+    private Integer coveredMessages;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * 指定メッセージが要約済みの範囲に含まれるか.
+     * <p>
+     * 新しい順に走査する前提で、最後に要約したメッセージ自身またはそれより前の日時のメッセージを要約済みとみなします。
+     * </p>
+     */
+    public boolean covers(MiraMessage message) {
+        return message.getId().equals(coveredMessageId)
+                || (coveredUntil != null && message.getCreatedAt() != null
+                        && message.getCreatedAt().isBefore(coveredUntil));
+    }
+}
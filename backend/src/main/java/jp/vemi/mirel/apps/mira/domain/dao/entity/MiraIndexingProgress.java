@@ -44,6 +44,14 @@ public class MiraIndexingProgress {
     @Column(name = "file_id", nullable = false)
     private String fileId;
 
+    /** 一括再インデックスのタスクID（単体のインデックス処理では null） */
+    @Column(name = "task_id", columnDefinition = "VARCHAR(36)")
+    private String taskId;
+
+    /** 試行回数 */
+    @Column(name = "attempts")
+    private Integer attempts;
+
     /** 処理ステータス */
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
@@ -92,6 +100,8 @@ public class MiraIndexingProgress {
         /** 完了 */
         COMPLETED,
         /** 失敗 */
-        FAILED
+        FAILED,
+        /** 取り消し */
+        CANCELLED
     }
 }
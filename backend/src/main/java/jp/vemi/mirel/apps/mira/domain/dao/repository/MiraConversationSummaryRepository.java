@@ -0,0 +1,16 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.dao.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraConversationSummary;
+
+/**
+ * Mira 会話要約リポジトリ（ID は会話セッションID）.
+ */
+@Repository
+public interface MiraConversationSummaryRepository extends JpaRepository<MiraConversationSummary, String> {
+}
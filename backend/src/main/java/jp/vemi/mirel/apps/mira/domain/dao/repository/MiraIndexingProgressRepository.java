@@ -3,12 +3,20 @@
  */
 package jp.vemi.mirel.apps.mira.domain.dao.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraIndexingProgress;
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraIndexingProgress.IndexingStatus;
 
 /**
  * Mira インデックス処理進捗リポジトリ.
@@ -20,4 +28,24 @@ public interface MiraIndexingProgressRepository extends JpaRepository<MiraIndexi
      * ファイルIDで進捗を検索.
      */
     Optional<MiraIndexingProgress> findByFileId(String fileId);
+
+    /**
+     * タスクIDで進捗を検索.
+     */
+    List<MiraIndexingProgress> findByTaskId(String taskId);
+
+    /**
+     * 一括再インデックスに属する、指定ステータスの進捗を検索.
+     */
+    List<MiraIndexingProgress> findByTaskIdIsNotNullAndStatusIn(Collection<IndexingStatus> statuses);
+
+    /**
+     * 処理済みチャンク数を加算（パイプラインの並列ステージから呼び出すため DB 側で加算）.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE MiraIndexingProgress p SET p.processedChunks = COALESCE(p.processedChunks, 0) + :delta, "
+            + "p.updatedAt = :now WHERE p.fileId = :fileId")
+    int incrementProcessedChunks(@Param("fileId") String fileId, @Param("delta") int delta,
+            @Param("now") LocalDateTime now);
 }
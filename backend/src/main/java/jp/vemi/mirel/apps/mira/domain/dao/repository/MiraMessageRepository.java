@@ -6,6 +6,7 @@ package jp.vemi.mirel.apps.mira.domain.dao.repository;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -36,6 +37,40 @@ public interface MiraMessageRepository extends JpaRepository<MiraMessage, String
     @Query("SELECT m FROM MiraMessage m WHERE m.conversationId = :conversationId ORDER BY m.createdAt DESC")
     List<MiraMessage> findRecentByConversationId(@Param("conversationId") String conversationId);
 
+    /**
+     * 会話セッションの最新メッセージを新しい順に取得（件数は pageable で指定）.
+     */
+    @Query("SELECT m FROM MiraMessage m WHERE m.conversationId = :conversationId"
+            + " ORDER BY m.createdAt DESC, m.id DESC")
+    List<MiraMessage> findLatestByConversationId(@Param("conversationId") String conversationId,
+            Pageable pageable);
+
+    /**
+     * 指定メッセージ（createdAt, id）より古いメッセージを新しい順に取得（キーセットページング）.
+     */
+    @Query("SELECT m FROM MiraMessage m WHERE m.conversationId = :conversationId"
+            + " AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id))"
+            + " ORDER BY m.createdAt DESC, m.id DESC")
+    List<MiraMessage> findOlderByConversationId(@Param("conversationId") String conversationId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") String id, Pageable pageable);
+
+    /**
+     * 会話セッションの最古のメッセージから古い順に取得（件数は pageable で指定）.
+     */
+    @Query("SELECT m FROM MiraMessage m WHERE m.conversationId = :conversationId"
+            + " ORDER BY m.createdAt ASC, m.id ASC")
+    List<MiraMessage> findOldestByConversationId(@Param("conversationId") String conversationId,
+            Pageable pageable);
+
+    /**
+     * 指定日時以降のメッセージ（指定メッセージを除く）を古い順に取得（会話要約の未要約範囲の読み込み用）.
+     */
+    @Query("SELECT m FROM MiraMessage m WHERE m.conversationId = :conversationId"
+            + " AND m.createdAt >= :createdAt AND m.id <> :id"
+            + " ORDER BY m.createdAt ASC, m.id ASC")
+    List<MiraMessage> findFromByConversationId(@Param("conversationId") String conversationId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") String id, Pageable pageable);
+
     /**
      * 会話セッションのメッセージを削除.
      */
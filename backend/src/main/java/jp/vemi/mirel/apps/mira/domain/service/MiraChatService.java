@@ -53,6 +53,9 @@ import lombok.extern.slf4j.Slf4j;
 @lombok.RequiredArgsConstructor
 public class MiraChatService {
 
+    /** 履歴のツール呼び出し（JSON）の復元に使う共有インスタンス. */
+    private static final com.fasterxml.jackson.databind.ObjectMapper TOOL_CALL_MAPPER = new com.fasterxml.jackson.databind.ObjectMapper();
+
     private final AiProviderFactory aiProviderFactory;
     private final ModeResolver modeResolver;
     private final PromptBuilder promptBuilder;
@@ -74,6 +77,10 @@ public class MiraChatService {
     private final ModelSelectionService modelSelectionService; // Phase 4: Model selection
     private final MiraKnowledgeBaseService knowledgeBaseService; // RAG Integration
     private final MiraRagContextBuilder ragContextBuilder; // RAG Context Builder
+    private final MiraConversationHistoryLoader historyLoader;
+    private final MiraConversationCache conversationCache;
+    private final jp.vemi.mirel.apps.mira.domain.dao.repository.MiraConversationSummaryRepository summaryRepository;
+    private final MiraConversationSummarizer conversationSummarizer;
 
     /**
      * 会話一覧取得.
@@ -631,6 +638,7 @@ public class MiraChatService {
             MiraConversation conv = conversation.get();
             conv.setStatus(MiraConversation.ConversationStatus.CLOSED);
             conversationRepository.save(conv);
+            conversationCache.invalidate(conversationId);
 
             log.info("会話をクリア: conversationId={}", SanitizeUtil.forLog(conversationId));
         }
@@ -759,6 +767,7 @@ public class MiraChatService {
             // タイトル更新
             conversation.setTitle(request.getTitle());
             conversationRepository.save(conversation);
+            conversationCache.invalidate(conversation.getId());
 
             log.debug("タイトル更新完了: conversationId={}, title={}",
                     SanitizeUtil.forLog(request.getConversationId()), SanitizeUtil.forLog(request.getTitle()));
@@ -819,7 +828,8 @@ public class MiraChatService {
             String conversationId, String tenantId, String userId, MiraMode mode) {
 
         if (conversationId != null && !conversationId.isEmpty()) {
-            Optional<MiraConversation> existing = conversationRepository.findById(conversationId);
+            Optional<MiraConversation> existing = conversationCache.getConversation(conversationId)
+                    .or(() -> conversationRepository.findById(conversationId));
 
             if (existing.isPresent()) {
                 // 所有者チェック
@@ -827,6 +837,7 @@ public class MiraChatService {
                         && existing.get().getUserId().equals(userId)) {
                     // 自分自身のものであれば返す
                     if (MiraConversation.ConversationStatus.ACTIVE.equals(existing.get().getStatus())) {
+                        conversationCache.putConversation(existing.get());
                         return existing.get();
                     }
                 } else {
@@ -858,7 +869,9 @@ public class MiraChatService {
                 .status(MiraConversation.ConversationStatus.ACTIVE)
                 .build();
 
-        return conversationRepository.save(conversation);
+        MiraConversation saved = conversationRepository.save(conversation);
+        conversationCache.putConversation(saved);
+        return saved;
     }
 
     private MiraConversation.ConversationMode toConversationMode(MiraMode mode) {
@@ -893,6 +906,7 @@ public class MiraChatService {
                 .build();
 
         messageRepository.save(message);
+        conversationCache.append(conversation.getId(), toHistoryMessage(message));
     }
 
     public MiraMessage saveAssistantMessage(MiraConversation conversation, AiResponse aiResponse, String content) {
@@ -929,7 +943,13 @@ public class MiraChatService {
 
         conversation.updateLastActivity();
         conversationRepository.save(conversation);
-        return messageRepository.save(message);
+        MiraMessage saved = messageRepository.save(message);
+        conversationCache.append(conversation.getId(), toHistoryMessage(message));
+        if (MiraMessage.ContentType.STRUCTURED_JSON != contentType) {
+            // 最終応答の保存後、古いターンの要約を非同期で更新
+            conversationSummarizer.requestSummary(conversation);
+        }
+        return saved;
     }
 
     public List<AiRequest.Message> loadConversationHistory(String conversationId, MessageConfig config) {
@@ -941,59 +961,88 @@ public class MiraChatService {
             }
         }
 
-        List<MiraMessage> messages = messageRepository
-                .findByConversationIdOrderByCreatedAtAsc(conversationId);
-
-        List<AiRequest.Message> history = new ArrayList<>();
-        for (MiraMessage msg : messages) {
-            if (MiraMessage.SenderType.USER.equals(msg.getSenderType())) {
-                history.add(AiRequest.Message.builder()
-                        .role("user")
-                        .content(msg.getContent())
-                        .build());
-            } else if (MiraMessage.SenderType.ASSISTANT.equals(msg.getSenderType())) {
-                AiRequest.Message.MessageBuilder builder = AiRequest.Message.builder()
-                        .role("assistant");
-
-                if (MiraMessage.ContentType.STRUCTURED_JSON.equals(msg.getContentType())) {
-                    // Deserialize ToolCalls
-                    try {
-                        com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                        List<AiRequest.Message.ToolCall> toolCalls = mapper.readValue(
-                                msg.getContent(),
-                                new com.fasterxml.jackson.core.type.TypeReference<List<AiRequest.Message.ToolCall>>() {
-                                });
-                        builder.toolCalls(toolCalls);
-                        builder.content(null); // Content must be null? Or should we keep text if mixed?
-                        // GitHub Models wants content:null if tool calls are present.
-                    } catch (Exception e) {
-                        log.warn("Failed to deserialize tool calls for msg={}", msg.getId(), e);
-                        builder.content(msg.getContent()); // Fallback
-                    }
-                } else {
-                    builder.content(msg.getContent());
+        // 進行中の会話はキャッシュから、それ以外は要約と、要約より新しいメッセージを設定の上限（件数・トークン数）まで DB から読み込む
+        List<AiRequest.Message> history = conversationCache.getHistory(conversationId);
+        if (history == null) {
+            jp.vemi.mirel.apps.mira.domain.dao.entity.MiraConversationSummary summary = summaryRepository
+                    .findById(conversationId).orElse(null);
+            List<MiraMessage> messages = historyLoader.loadRecent(conversationId, Integer.MAX_VALUE, summary);
+            List<AiRequest.Message> tail = new ArrayList<>(messages.size());
+            for (MiraMessage msg : messages) {
+                AiRequest.Message message = toHistoryMessage(msg);
+                if (message != null) {
+                    tail.add(message);
                 }
-                history.add(builder.build());
-            } else if (MiraMessage.SenderType.TOOL.equals(msg.getSenderType())) {
-                history.add(AiRequest.Message.builder()
-                        .role("tool")
-                        .toolCallId(msg.getToolCallId())
-                        .toolName(msg.getUsedModel()) // We store tool name in usedModel column for convenience
-                        .content(msg.getContent())
-                        .build());
             }
+            AiRequest.Message summaryMessage = summary != null
+                    ? MiraConversationSummarizer.toHistoryMessage(summary)
+                    : null;
+            conversationCache.putHistory(conversationId, summaryMessage, tail);
+
+            history = new ArrayList<>(tail.size() + 1);
+            if (summaryMessage != null) {
+                history.add(summaryMessage);
+            }
+            history.addAll(tail);
         }
 
         // recent チェック
         if (config != null && "recent".equals(config.getHistoryScope())) {
             int recentCount = config.getRecentCount() != null ? config.getRecentCount() : 5;
-            // 最後のN件を取得
-            if (history.size() > recentCount) {
-                return history.subList(history.size() - recentCount, history.size());
+            // 最後のN件を取得（要約と、呼び出し元が範囲外となったツール結果は除外）
+            int from = Math.max(0, history.size() - recentCount);
+            while (from < history.size()
+                    && ("tool".equals(history.get(from).getRole()) || "system".equals(history.get(from).getRole()))) {
+                from++;
             }
+            return new ArrayList<>(history.subList(from, history.size()));
         }
 
-        return history;
+        return new ArrayList<>(history);
+    }
+
+    /**
+     * 保存済みメッセージを AI リクエスト用の履歴メッセージへ変換します.
+     *
+     * @return 履歴メッセージ（SYSTEM は対象外のため null）
+     */
+    private AiRequest.Message toHistoryMessage(MiraMessage msg) {
+        if (MiraMessage.SenderType.USER.equals(msg.getSenderType())) {
+            return AiRequest.Message.builder()
+                    .role("user")
+                    .content(msg.getContent())
+                    .build();
+        } else if (MiraMessage.SenderType.ASSISTANT.equals(msg.getSenderType())) {
+            AiRequest.Message.MessageBuilder builder = AiRequest.Message.builder()
+                    .role("assistant");
+
+            if (MiraMessage.ContentType.STRUCTURED_JSON.equals(msg.getContentType())) {
+                // Deserialize ToolCalls
+                try {
+                    List<AiRequest.Message.ToolCall> toolCalls = TOOL_CALL_MAPPER.readValue(
+                            msg.getContent(),
+                            new com.fasterxml.jackson.core.type.TypeReference<List<AiRequest.Message.ToolCall>>() {
+                            });
+                    builder.toolCalls(toolCalls);
+                    builder.content(null); // Content must be null? Or should we keep text if mixed?
+                    // GitHub Models wants content:null if tool calls are present.
+                } catch (Exception e) {
+                    log.warn("Failed to deserialize tool calls for msg={}", msg.getId(), e);
+                    builder.content(msg.getContent()); // Fallback
+                }
+            } else {
+                builder.content(msg.getContent());
+            }
+            return builder.build();
+        } else if (MiraMessage.SenderType.TOOL.equals(msg.getSenderType())) {
+            return AiRequest.Message.builder()
+                    .role("tool")
+                    .toolCallId(msg.getToolCallId())
+                    .toolName(msg.getUsedModel()) // We store tool name in usedModel column for convenience
+                    .content(msg.getContent())
+                    .build();
+        }
+        return null;
     }
 
     private String extractSystemRole(ChatRequest request) {
@@ -1101,6 +1150,7 @@ public class MiraChatService {
         // 更新保存
         conversation.setTitle(title);
         conversationRepository.save(conversation);
+        conversationCache.invalidate(conversation.getId());
 
         log.info("Auto title generated: conversationId={}, title={}", SanitizeUtil.forLog(conversation.getId()),
                 SanitizeUtil.forLog(title));
@@ -1187,5 +1237,6 @@ public class MiraChatService {
                 .tokenCount(0) // Could estimate?
                 .build();
         messageRepository.save(message);
+        conversationCache.append(conversation.getId(), toHistoryMessage(message));
     }
 }
@@ -0,0 +1,318 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import jakarta.annotation.PreDestroy;
+import jp.vemi.framework.util.SanitizeUtil;
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraConversation;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiRequest;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.TokenCounter;
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 進行中の会話のインメモリキャッシュ.
+ * <p>
+ * 会話エンティティと直近の履歴（{@link AiRequest.Message}）を会話単位で保持し、続くターンで DB の読み込みを省きます。
+ * メッセージ保存時に履歴の末尾へ追加（ライトスルー）し、件数・トークン数の上限（mira.ai.history.*）を超えた古いものから外します。
+ * 一定時間アクセスのない会話は破棄します。
+ * </p>
+ * <p>
+ * 複数ノード構成では、更新のたびに Redis の Pub/Sub で他ノードへ無効化を通知します（mira.ai.conversation-cache.redis-enabled）。
+ * 通知はトランザクションのコミット後に送り、ロールバック時は自ノードのキャッシュを破棄します。
+ * </p>
+ */
+@Slf4j
+@Component
+public class MiraConversationCache {
+
+    private static final String INVALIDATION_CHANNEL = "mira:conversation:invalidate";
+
+    private final TokenCounter tokenCounter;
+    private final MiraAiProperties.HistoryConfig historyConfig;
+    private final boolean enabled;
+    private final Cache<String, Entry> cache;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public MiraConversationCache(
+            TokenCounter tokenCounter,
+            MiraAiProperties aiProperties,
+            ObjectProvider<StringRedisTemplate> redisTemplateProvider) {
+        MiraAiProperties.ConversationCacheConfig config = aiProperties.getConversationCache();
+        this.tokenCounter = tokenCounter;
+        this.historyConfig = aiProperties.getHistory();
+        this.enabled = config.isEnabled();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(1, config.getMaxConversations()))
+                .expireAfterAccess(Math.max(1, config.getIdleMinutes()), TimeUnit.MINUTES)
+                .build();
+
+        StringRedisTemplate template = enabled && config.isRedisEnabled()
+                ? redisTemplateProvider.getIfAvailable()
+                : null;
+        this.redisTemplate = template;
+        this.listenerContainer = template != null ? subscribe(template) : null;
+    }
+
+    private RedisMessageListenerContainer subscribe(StringRedisTemplate template) {
+        try {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(template.getRequiredConnectionFactory());
+            container.addMessageListener(
+                    (message, pattern) -> onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                    new ChannelTopic(INVALIDATION_CHANNEL));
+            container.afterPropertiesSet();
+            container.start();
+            return container;
+        } catch (Exception e) {
+            log.warn("Failed to subscribe conversation cache invalidation: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * キャッシュ済みの会話を取得します.
+     */
+    public Optional<MiraConversation> getConversation(String conversationId) {
+        if (!enabled || conversationId == null) {
+            return Optional.empty();
+        }
+        Entry entry = cache.getIfPresent(conversationId);
+        return entry != null ? Optional.ofNullable(entry.conversation) : Optional.empty();
+    }
+
+    /**
+     * DB から読み込んだ（または作成した）会話を保持します.
+     */
+    public void putConversation(MiraConversation conversation) {
+        if (!enabled || conversation == null || conversation.getId() == null) {
+            return;
+        }
+        entry(conversation.getId()).conversation = conversation;
+    }
+
+    /**
+     * キャッシュ済みの履歴を取得します.
+     *
+     * @return 履歴（古い順）、未読み込みの場合は null
+     */
+    public List<AiRequest.Message> getHistory(String conversationId) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(conversationId);
+        if (entry == null) {
+            return null;
+        }
+        synchronized (entry) {
+            if (entry.history == null) {
+                return null;
+            }
+            List<AiRequest.Message> history = new ArrayList<>(entry.history.size() + 1);
+            if (entry.summary != null) {
+                history.add(entry.summary);
+            }
+            entry.history.forEach(cached -> history.add(cached.message()));
+            return history;
+        }
+    }
+
+    /**
+     * DB から読み込んだ履歴を保持します.
+     *
+     * @param history
+     *            履歴（古い順）
+     */
+    public void putHistory(String conversationId, List<AiRequest.Message> history) {
+        putHistory(conversationId, null, history);
+    }
+
+    /**
+     * DB から読み込んだ会話要約と履歴を保持します.
+     * <p>
+     * 要約は常に履歴の先頭に置き、上限による切り詰めの対象外とします（トークン数には含めます）。
+     * </p>
+     *
+     * @param summary
+     *            会話要約のメッセージ（未要約の場合は null）
+     * @param history
+     *            要約より新しい履歴（古い順）
+     */
+    public void putHistory(String conversationId, AiRequest.Message summary, List<AiRequest.Message> history) {
+        if (!enabled) {
+            return;
+        }
+        Entry entry = entry(conversationId);
+        synchronized (entry) {
+            entry.summary = summary;
+            entry.summaryTokens = summary != null
+                    ? tokenCounter.count(summary.getContent(), MiraConversationHistoryLoader.TOKENIZER_MODEL)
+                    : 0;
+            entry.history = new ArrayDeque<>(history.size());
+            entry.tokens = 0;
+            for (AiRequest.Message message : history) {
+                add(entry, message);
+            }
+            trim(entry);
+        }
+    }
+
+    /**
+     * 保存したメッセージを履歴の末尾へ追加し、他ノードへ通知します.
+     * <p>
+     * 履歴を読み込んでいない会話には追加しません（次回の読み込みで DB から取得）。
+     * </p>
+     */
+    public void append(String conversationId, AiRequest.Message message) {
+        if (!enabled) {
+            return;
+        }
+        Entry entry = cache.getIfPresent(conversationId);
+        if (entry != null && message != null) {
+            synchronized (entry) {
+                if (entry.history != null) {
+                    add(entry, message);
+                    trim(entry);
+                }
+            }
+        }
+        afterCommit(conversationId);
+    }
+
+    /**
+     * 会話のキャッシュを破棄し、他ノードへ通知します.
+     */
+    public void invalidate(String conversationId) {
+        if (!enabled || conversationId == null) {
+            return;
+        }
+        cache.invalidate(conversationId);
+        afterCommit(conversationId);
+    }
+
+    private Entry entry(String conversationId) {
+        try {
+            return cache.get(conversationId, Entry::new);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void add(Entry entry, AiRequest.Message message) {
+        int tokens = tokenCounter.count(textOf(message), MiraConversationHistoryLoader.TOKENIZER_MODEL);
+        entry.history.addLast(new CachedMessage(message, tokens));
+        entry.tokens += tokens;
+    }
+
+    /**
+     * 件数・トークン数の上限を超えた古いメッセージと、先頭に残ったツール結果を外します（最新の 1 件は残す）.
+     */
+    private void trim(Entry entry) {
+        while (entry.history.size() > 1
+                && (entry.history.size() > historyConfig.getMaxMessages()
+                        || entry.tokens + entry.summaryTokens > historyConfig.getMaxTokens()
+                        || "tool".equals(entry.history.peekFirst().message().getRole()))) {
+            entry.tokens -= entry.history.removeFirst().tokens();
+        }
+    }
+
+    private static String textOf(AiRequest.Message message) {
+        if (message.getContent() != null || message.getToolCalls() == null) {
+            return message.getContent();
+        }
+        StringBuilder text = new StringBuilder();
+        for (AiRequest.Message.ToolCall call : message.getToolCalls()) {
+            text.append(call.getName()).append(' ').append(call.getArguments()).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * コミット後に他ノードへ無効化を通知し、ロールバック時は自ノードのキャッシュを破棄します.
+     */
+    private void afterCommit(String conversationId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(conversationId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    publish(conversationId);
+                } else {
+                    cache.invalidate(conversationId);
+                }
+            }
+        });
+    }
+
+    private void publish(String conversationId) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + ":" + conversationId);
+        } catch (Exception e) {
+            log.warn("Failed to publish conversation cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    void onInvalidation(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0 || payload.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        String conversationId = payload.substring(separator + 1);
+        cache.invalidate(conversationId);
+        if (log.isDebugEnabled()) {
+            log.debug("Conversation cache invalidated by another node: {}", SanitizeUtil.forLog(conversationId));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (listenerContainer != null) {
+            try {
+                listenerContainer.destroy();
+            } catch (Exception e) {
+                log.debug("Failed to stop conversation cache listener: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static final class Entry {
+        private volatile MiraConversation conversation;
+        private AiRequest.Message summary;
+        private int summaryTokens;
+        private Deque<CachedMessage> history;
+        private int tokens;
+    }
+
+    private record CachedMessage(AiRequest.Message message, int tokens) {
+    }
+}
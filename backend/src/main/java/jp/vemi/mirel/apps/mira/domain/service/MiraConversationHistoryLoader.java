@@ -0,0 +1,150 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraConversationSummary;
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraMessage;
+import jp.vemi.mirel.apps.mira.domain.dao.repository.MiraMessageRepository;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.TokenCounter;
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 会話履歴の読み込み.
+ * <p>
+ * 最新のメッセージから新しい順にページ単位（キーセットページング）で読み、
+ * 件数またはトークン数（{@link TokenCounter}）の上限に達した時点で打ち切ります。
+ * 会話全体を読み込まないため、長期間続く会話でも読み込み量は上限分に収まります。
+ * 会話要約がある場合は、要約済みの範囲に達した時点でも打ち切ります。
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class MiraConversationHistoryLoader {
+
+    /** トークン数の計測に使うモデル名. */
+    static final String TOKENIZER_MODEL = "gpt-4o";
+
+    private final MiraMessageRepository messageRepository;
+    private final TokenCounter tokenCounter;
+    private final MiraAiProperties aiProperties;
+
+    /**
+     * 直近のメッセージを読み込みます.
+     *
+     * @param conversationId
+     *            会話ID
+     * @param maxMessages
+     *            最大件数（設定 mira.ai.history.max-messages が上限）
+     * @return メッセージリスト（古い順）
+     */
+    public List<MiraMessage> loadRecent(String conversationId, int maxMessages) {
+        return loadRecent(conversationId, maxMessages, null);
+    }
+
+    /**
+     * 要約済みの範囲より新しい直近のメッセージを読み込みます.
+     * <p>
+     * トークン数の上限からは要約本文の分を差し引きます。
+     * </p>
+     *
+     * @param summary
+     *            会話要約（未要約の場合は null）
+     * @return メッセージリスト（古い順）
+     */
+    public List<MiraMessage> loadRecent(String conversationId, int maxMessages, MiraConversationSummary summary) {
+        MiraAiProperties.HistoryConfig config = aiProperties.getHistory();
+        int summaryTokens = summary != null && summary.getTokenCount() != null ? summary.getTokenCount() : 0;
+        return load(conversationId, Math.min(maxMessages, config.getMaxMessages()),
+                config.getMaxTokens() - summaryTokens, summary);
+    }
+
+    /**
+     * 要約済みの範囲より新しいメッセージをトークン数の上限なしで読み込みます（要約処理用）.
+     *
+     * @return メッセージリスト（古い順）
+     */
+    public List<MiraMessage> loadUnsummarized(String conversationId, MiraConversationSummary summary,
+            int maxMessages) {
+        return load(conversationId, maxMessages, Integer.MAX_VALUE, summary);
+    }
+
+    /**
+     * 要約済みの範囲より新しいメッセージを古い順に読み込みます（要約処理用）.
+     * <p>
+     * 未要約のメッセージが上限を超えて溜まっている場合でも、最も古いものから読み込みます。
+     * </p>
+     *
+     * @return メッセージリスト（古い順）
+     */
+    public List<MiraMessage> loadOldestUnsummarized(String conversationId, MiraConversationSummary summary,
+            int maxMessages) {
+        if (maxMessages <= 0) {
+            return new ArrayList<>();
+        }
+        PageRequest page = PageRequest.of(0, maxMessages);
+        if (summary == null || summary.getCoveredUntil() == null) {
+            return new ArrayList<>(messageRepository.findOldestByConversationId(conversationId, page));
+        }
+        // 要約済み判定（MiraConversationSummary#covers）と同じ境界
+        return new ArrayList<>(messageRepository.findFromByConversationId(conversationId,
+                summary.getCoveredUntil(), String.valueOf(summary.getCoveredMessageId()), page));
+    }
+
+    private List<MiraMessage> load(String conversationId, int limit, int tokenBudget,
+            MiraConversationSummary summary) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        int configuredPageSize = aiProperties.getHistory().getPageSize();
+        List<MiraMessage> newestFirst = new ArrayList<>();
+        int tokens = 0;
+        MiraMessage oldest = null;
+        boolean exhausted = false;
+        while (!exhausted && newestFirst.size() < limit) {
+            int pageSize = Math.max(1, Math.min(configuredPageSize, limit - newestFirst.size()));
+            PageRequest page = PageRequest.of(0, pageSize);
+            List<MiraMessage> messages = oldest == null
+                    ? messageRepository.findLatestByConversationId(conversationId, page)
+                    : messageRepository.findOlderByConversationId(conversationId, oldest.getCreatedAt(),
+                            oldest.getId(), page);
+
+            for (MiraMessage message : messages) {
+                if (summary != null && summary.covers(message)) {
+                    exhausted = true;
+                    break;
+                }
+                int cost = tokenCounter.count(message.getContent(), TOKENIZER_MODEL);
+                // 最新の 1 件は上限を超えても含める
+                if (!newestFirst.isEmpty() && tokens + cost > tokenBudget) {
+                    exhausted = true;
+                    break;
+                }
+                tokens += cost;
+                newestFirst.add(message);
+            }
+            if (messages.size() < pageSize) {
+                break;
+            }
+            oldest = messages.get(messages.size() - 1);
+        }
+
+        Collections.reverse(newestFirst);
+        // 呼び出し元のアシスタントメッセージが範囲外となったツール結果は除外
+        int start = 0;
+        while (start < newestFirst.size()
+                && MiraMessage.SenderType.TOOL.equals(newestFirst.get(start).getSenderType())) {
+            start++;
+        }
+        return new ArrayList<>(newestFirst.subList(start, newestFirst.size()));
+    }
+}
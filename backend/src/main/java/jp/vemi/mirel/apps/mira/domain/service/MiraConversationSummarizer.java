@@ -0,0 +1,238 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import jp.vemi.framework.util.SanitizeUtil;
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraConversation;
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraConversationSummary;
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraMessage;
+import jp.vemi.mirel.apps.mira.domain.dao.repository.MiraConversationSummaryRepository;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiProviderClient;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiProviderFactory;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiRequest;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiResponse;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.TokenCounter;
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 会話の段階的な要約（コンパクション）.
+ * <p>
+ * 未要約のメッセージが件数・トークン数の閾値を超えると、直近のメッセージを残して古いターンを
+ * 既存の要約と合わせて要約し直し、{@link MiraConversationSummary} として保存します。
+ * 要約は応答後に専用のスレッドプール（{@code miraSummaryExecutor}）で非同期に実行するため、
+ * ターンの応答時間やインデックス処理には影響しません。
+ * </p>
+ */
+@Slf4j
+@Component
+public class MiraConversationSummarizer {
+
+    private final MiraConversationSummaryRepository summaryRepository;
+    private final MiraConversationHistoryLoader historyLoader;
+    private final MiraConversationCache conversationCache;
+    private final AiProviderFactory aiProviderFactory;
+    private final TokenCounter tokenCounter;
+    private final Executor executor;
+    private final MiraAiProperties.SummaryConfig config;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public MiraConversationSummarizer(
+            MiraConversationSummaryRepository summaryRepository,
+            MiraConversationHistoryLoader historyLoader,
+            MiraConversationCache conversationCache,
+            AiProviderFactory aiProviderFactory,
+            TokenCounter tokenCounter,
+            @Qualifier("miraSummaryExecutor") Executor executor,
+            MiraAiProperties aiProperties) {
+        this.summaryRepository = summaryRepository;
+        this.historyLoader = historyLoader;
+        this.conversationCache = conversationCache;
+        this.aiProviderFactory = aiProviderFactory;
+        this.tokenCounter = tokenCounter;
+        this.executor = executor;
+        this.config = aiProperties.getSummary();
+    }
+
+    /**
+     * 要約を履歴の先頭に置くメッセージへ変換します.
+     */
+    public static AiRequest.Message toHistoryMessage(MiraConversationSummary summary) {
+        return AiRequest.Message.system("これまでの会話の要約:\n" + summary.getContent());
+    }
+
+    /**
+     * 必要に応じて会話の要約を非同期で更新します（同じ会話の要約は同時に 1 つまで）.
+     */
+    public void requestSummary(MiraConversation conversation) {
+        if (!config.isEnabled() || conversation == null) {
+            return;
+        }
+        String conversationId = conversation.getId();
+        if (!inFlight.add(conversationId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    summarize(conversation.getTenantId(), conversationId);
+                } catch (Exception e) {
+                    log.warn("Conversation summary failed for conversationId={}: {}",
+                            SanitizeUtil.forLog(conversationId), e.getMessage());
+                } finally {
+                    inFlight.remove(conversationId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(conversationId);
+            log.debug("Conversation summary skipped (executor busy): {}", SanitizeUtil.forLog(conversationId));
+        }
+    }
+
+    /**
+     * 閾値を超えていれば、直近のメッセージを残して古いターンを要約します.
+     * <p>
+     * 残す範囲は直近のメッセージ（最大 {@code max-pending-messages} 件）から決め、要約する範囲は
+     * 未要約のメッセージを古い順に読み込みます。1 回で読み込める件数を超えて溜まっている場合は、
+     * 残す範囲に達するまで古い順に繰り返し要約します（読み込み範囲より古いメッセージを飛ばさない）。
+     * </p>
+     *
+     * @return 要約を更新した場合 true
+     */
+    boolean summarize(String tenantId, String conversationId) {
+        int maxPending = config.getMaxPendingMessages();
+        // 直近のユーザーメッセージは常に残す
+        int keep = Math.max(1, config.getKeepRecentMessages());
+        int foldedTotal = 0;
+        int rounds = 0;
+        boolean caughtUp = false;
+        while (!caughtUp) {
+            MiraConversationSummary summary = summaryRepository.findById(conversationId).orElse(null);
+            List<MiraMessage> recent = historyLoader.loadUnsummarized(conversationId, summary, maxPending);
+            if (recent.size() <= keep) {
+                break;
+            }
+            int tokens = 0;
+            for (MiraMessage message : recent) {
+                tokens += tokenCounter.count(message.getContent(), MiraConversationHistoryLoader.TOKENIZER_MODEL);
+            }
+            if (tokens <= config.getTriggerTokens() && recent.size() <= config.getTriggerMessages()) {
+                break;
+            }
+
+            // 残す範囲はユーザーメッセージから始める（ツール呼び出しの途中で切らない）
+            int cut = recent.size() - keep;
+            while (cut > 0 && !MiraMessage.SenderType.USER.equals(recent.get(cut).getSenderType())) {
+                cut--;
+            }
+            if (cut == 0) {
+                break;
+            }
+            String firstKeptId = recent.get(cut).getId();
+
+            // 要約する範囲は最も古い未要約メッセージから、残す範囲の手前まで
+            List<MiraMessage> folded = new ArrayList<>();
+            for (MiraMessage message : historyLoader.loadOldestUnsummarized(conversationId, summary, maxPending)) {
+                if (message.getId().equals(firstKeptId)) {
+                    caughtUp = true;
+                    break;
+                }
+                folded.add(message);
+            }
+            if (folded.isEmpty()) {
+                break;
+            }
+
+            String content = generate(tenantId, summary, folded);
+            if (content == null || content.isBlank()) {
+                break;
+            }
+            save(conversationId, summary, content, folded);
+            foldedTotal += folded.size();
+            rounds++;
+        }
+
+        if (rounds == 0) {
+            return false;
+        }
+        // 次のターンで要約 + 直近のメッセージを読み直す
+        conversationCache.invalidate(conversationId);
+        log.info("Conversation summarized: conversationId={}, folded={}, rounds={}, caughtUp={}",
+                SanitizeUtil.forLog(conversationId), foldedTotal, rounds, caughtUp);
+        return true;
+    }
+
+    private void save(String conversationId, MiraConversationSummary summary, String content,
+            List<MiraMessage> folded) {
+        MiraMessage last = folded.get(folded.size() - 1);
+        if (summary == null) {
+            summary = MiraConversationSummary.builder().conversationId(conversationId).coveredMessages(0).build();
+        }
+        summary.setContent(content.strip());
+        summary.setTokenCount(tokenCounter.count(summary.getContent(), MiraConversationHistoryLoader.TOKENIZER_MODEL));
+        summary.setCoveredMessageId(last.getId());
+        summary.setCoveredUntil(last.getCreatedAt());
+        summary.setCoveredMessages(
+                (summary.getCoveredMessages() != null ? summary.getCoveredMessages() : 0) + folded.size());
+        summaryRepository.save(summary);
+    }
+
+    private String generate(String tenantId, MiraConversationSummary summary, List<MiraMessage> folded) {
+        AiProviderClient client = aiProviderFactory.createClient(tenantId);
+        if (client == null) {
+            log.warn("No AI provider available for conversation summary.");
+            return null;
+        }
+
+        StringBuilder prompt = new StringBuilder()
+                .append("以下の会話を、後続の応答に必要な事実・決定事項・ユーザーの意図や希望を保ったまま要約してください。\n")
+                .append("要約は").append(config.getMaxSummaryChars()).append("文字以内とし、要約本文のみを出力してください。\n");
+        if (summary != null && summary.getContent() != null) {
+            prompt.append("\n[これまでの要約]\n").append(summary.getContent()).append('\n');
+        }
+        prompt.append("\n[会話]\n");
+        for (MiraMessage message : folded) {
+            prompt.append(label(message)).append(": ").append(textOf(message)).append('\n');
+        }
+
+        AiResponse response = client.chat(AiRequest.builder()
+                .messages(List.of(AiRequest.Message.user(prompt.toString())))
+                .build());
+        if (response.hasError() || !response.isSuccess()) {
+            log.warn("Conversation summary error: {}", response.getErrorMessage());
+            return null;
+        }
+        return response.getContent();
+    }
+
+    private static String label(MiraMessage message) {
+        return switch (message.getSenderType()) {
+            case USER -> "ユーザー";
+            case ASSISTANT -> "アシスタント";
+            case TOOL -> "ツール(" + message.getUsedModel() + ")";
+            case SYSTEM -> "システム";
+        };
+    }
+
+    private String textOf(MiraMessage message) {
+        if (MiraMessage.ContentType.STRUCTURED_JSON.equals(message.getContentType())) {
+            return "（ツール呼び出し）";
+        }
+        String text = message.getContent() != null ? message.getContent() : "";
+        return text.length() > config.getMaxMessageChars()
+                ? text.substring(0, config.getMaxMessageChars()) + "…"
+                : text;
+    }
+}
@@ -9,6 +9,9 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 import org.springframework.ai.document.Document;
@@ -37,9 +40,13 @@ public class MiraHybridSearchService {
     private final RerankerService rerankerService;
     private final MiraSettingService settingService;
     private final jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties aiProperties;
+    private final MiraRetrievalExecutor retrievalExecutor;
+    private final MiraKeywordSearchService keywordSearchService;
 
     private static final int RRF_K = 60;
 
+    private static final Set<String> ALL_SCOPES = Set.of("SYSTEM", "TENANT", "USER");
+
     // セキュリティ: テーブル名として許可される正規表現パターン
     // PostgreSQLの識別子規則: 英数字とアンダースコアのみ、数字開始不可
     private static final java.util.regex.Pattern VALID_TABLE_NAME_PATTERN = java.util.regex.Pattern
@@ -76,6 +83,86 @@ public class MiraHybridSearchService {
         return finalResults.stream().limit(finalTopK).collect(Collectors.toList());
     }
 
+    /**
+     * 複数スコープを 1 回の検索で横断するハイブリッド検索.
+     * <p>
+     * スコープ条件を OR で結合したベクトル検索（埋め込みは 1 回）と Keyword 検索を 1 回ずつ実行し、
+     * 和集合に RRF を適用した後、スコープごとの上限件数（quota）で候補を絞り込みます。
+     * リランキングは融合後の候補に対して 1 回だけ実行します。
+     * </p>
+     *
+     * @param query
+     *            Search query
+     * @param vectorRequest
+     *            Vector search request (結合済みスコープフィルタ付き)
+     * @param scopeQuotas
+     *            スコープごとの上限件数（キーが検索対象スコープ）
+     * @param tenantId
+     *            Tenant ID
+     * @param userId
+     *            User ID
+     * @return List of documents sorted by RRF (or reranker) score
+     */
+    public List<Document> searchUnified(String query, SearchRequest vectorRequest, Map<String, Integer> scopeQuotas,
+            String tenantId, String userId) {
+        int keywordLimit = Math.max(vectorRequest.getTopK(), 20);
+        Future<List<Document>> vectorFuture = retrievalExecutor
+                .submit(() -> vectorStore.similaritySearch(vectorRequest));
+        Future<List<Document>> keywordFuture = retrievalExecutor
+                .submit(() -> keywordSearch(query, keywordLimit, scopeQuotas.keySet(), tenantId, userId,
+                        docs -> docs.stream()
+                                .filter(doc -> isInScopes(doc, scopeQuotas.keySet(), tenantId, userId))
+                                .collect(Collectors.toList())));
+
+        List<Document> vectorResults = prepareVectorDocs(
+                retrievalExecutor.awaitLeg(vectorFuture, Collections.emptyList(), "UNIFIED/vector"));
+        log.info("Hybrid/Unified vector results: {}", vectorResults.size());
+
+        List<Document> keywordResults = retrievalExecutor.awaitLeg(keywordFuture, Collections.emptyList(),
+                "UNIFIED/keyword");
+        log.info("Hybrid/Unified keyword results (after filter): {}", keywordResults.size());
+
+        int rrfTopK = Math.max(vectorRequest.getTopK(), 30);
+        List<Document> candidates = applyScopeQuotas(applyRRF(vectorResults, keywordResults, rrfTopK), scopeQuotas);
+
+        if (rerankerService.shouldRerank(tenantId, candidates.size())) {
+            return rerankerService.rerank(query, candidates, tenantId);
+        }
+        return candidates;
+    }
+
+    /**
+     * RRF 結果の順序を保ったまま、スコープごとの上限件数を適用.
+     */
+    private List<Document> applyScopeQuotas(List<Document> docs, Map<String, Integer> scopeQuotas) {
+        Map<String, Integer> counts = new HashMap<>();
+        List<Document> limited = new ArrayList<>();
+        for (Document doc : docs) {
+            String docScope = (String) doc.getMetadata().getOrDefault("scope", "");
+            int quota = scopeQuotas.getOrDefault(docScope, 0);
+            if (counts.merge(docScope, 1, Integer::sum) <= quota) {
+                limited.add(doc);
+            }
+        }
+        return limited;
+    }
+
+    /**
+     * ドキュメントが検索対象スコープに含まれるか判定（ベクトル検索のフィルタ条件と同一）.
+     */
+    private boolean isInScopes(Document doc, java.util.Set<String> scopes, String tenantId, String userId) {
+        Map<String, Object> meta = doc.getMetadata();
+        String docScope = (String) meta.getOrDefault("scope", "");
+        if (!scopes.contains(docScope)) {
+            return false;
+        }
+        return switch (docScope) {
+            case "TENANT" -> tenantId != null && tenantId.equals(meta.get("tenantId"));
+            case "USER" -> userId != null && userId.equals(meta.get("userId"));
+            default -> true;
+        };
+    }
+
     /**
      * Performs a hybrid search with debug information.
      */
@@ -91,28 +178,30 @@ public class MiraHybridSearchService {
      * searchとsearchDebugの両方からこのメソッドを呼び出すことで
      * ロジックの重複を排除します。
      * </p>
+     * <p>
+     * Vector検索とKeyword検索は並列に実行し、期限内に完了しなかった側は空の結果として融合します。
+     * </p>
      */
     private HybridSearchResult executeSearchPipeline(String query, SearchRequest vectorRequest,
             String scope, String tenantId, String userId) {
 
-        // 1. Vector Search
-        List<Document> vectorResults = vectorStore.similaritySearch(vectorRequest);
+        // 1. Vector Search / 2. Keyword Search (Native SQL) を並列実行
+        int keywordLimit = Math.max(vectorRequest.getTopK(), 20);
+        Future<List<Document>> vectorFuture = retrievalExecutor
+                .submit(() -> vectorStore.similaritySearch(vectorRequest));
+        Future<List<Document>> keywordFuture = retrievalExecutor
+                .submit(() -> keywordSearch(query, keywordLimit, toScopes(scope), tenantId, userId,
+                        docs -> filterInMemory(docs, scope, tenantId, userId)));
+
+        List<Document> vectorResults = retrievalExecutor.awaitLeg(vectorFuture, Collections.emptyList(),
+                scope + "/vector");
         log.info("Hybrid/Vector results: {}", vectorResults.size());
 
         // Process Vector Results (Score prep, Map creation)
         vectorResults = prepareVectorDocs(vectorResults);
 
-        // 2. Keyword Search (Native SQL)
-        int keywordLimit = Math.max(vectorRequest.getTopK(), 20);
-        List<Document> keywordResults = performKeywordSearch(query, keywordLimit);
-
-        // Sort by Term Frequency DESC before filtering/ranking
-        keywordResults.sort(Comparator
-                .comparingLong((Document d) -> ((Number) d.getMetadata().getOrDefault("termFrequency", 0L)).longValue())
-                .reversed());
-
-        // Apply scope filtering in memory for keyword results
-        keywordResults = filterInMemory(keywordResults, scope, tenantId, userId);
+        List<Document> keywordResults = retrievalExecutor.awaitLeg(keywordFuture, Collections.emptyList(),
+                scope + "/keyword");
         log.info("Hybrid/Keyword results (after filter): {}", keywordResults.size());
 
         // 3. Reciprocal Rank Fusion (候補を多めに取得)
@@ -122,6 +211,38 @@ public class MiraHybridSearchService {
         return new HybridSearchResult(vectorResults, keywordResults, rrfResults);
     }
 
+    /**
+     * 検索対象スコープ（未指定・不明な値の場合は全スコープ）.
+     */
+    private Set<String> toScopes(String scope) {
+        return scope != null && ALL_SCOPES.contains(scope) ? Set.of(scope) : ALL_SCOPES;
+    }
+
+    /**
+     * キーワード検索.
+     * <p>
+     * PostgreSQL では全文検索（スコープ条件は SQL で適用）を使用し、
+     * 利用できない場合（H2 等）は ILIKE 検索の結果を Term Frequency 順に並べ、fallbackFilter でスコープを絞り込みます。
+     * </p>
+     */
+    private List<Document> keywordSearch(String query, int limit, Set<String> scopes, String tenantId,
+            String userId, UnaryOperator<List<Document>> fallbackFilter) {
+        List<Document> fullTextResults = keywordSearchService.search(query, limit, scopes, tenantId, userId);
+        if (fullTextResults != null) {
+            return fullTextResults;
+        }
+
+        List<Document> keywordResults = new ArrayList<>(performKeywordSearch(query, limit));
+
+        // Sort by Term Frequency DESC before filtering/ranking
+        keywordResults.sort(Comparator
+                .comparingLong((Document d) -> ((Number) d.getMetadata().getOrDefault("termFrequency", 0L)).longValue())
+                .reversed());
+
+        // Apply scope filtering in memory for keyword results
+        return fallbackFilter.apply(keywordResults);
+    }
+
     private List<Document> performKeywordSearch(String query, int limit) {
         if (query == null || query.isBlank()) {
             return Collections.emptyList();
@@ -0,0 +1,422 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+import org.springframework.ai.document.ContentFormatter;
+import org.springframework.ai.document.DefaultContentFormatter;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.pgvector.PgVectorStore;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
+
+import jakarta.annotation.PreDestroy;
+import jp.vemi.framework.util.SanitizeUtil;
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraIndexingProgress;
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraIndexingProgress.IndexingStatus;
+import jp.vemi.mirel.apps.mira.domain.dao.repository.MiraIndexingProgressRepository;
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+import jp.vemi.mirel.apps.mira.infrastructure.monitoring.MiraMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ナレッジ取り込みパイプライン.
+ * <p>
+ * テキスト抽出 → チャンク分割 → 埋め込み（バッチ） → 登録（JDBC バッチ）の各ステージを
+ * 個別のスレッドプールで実行します。各ステージの待ち行列は上限付きで、満杯の場合は前段のステージが待機します。
+ * 登録済みチャンク数は {@link MiraIndexingProgress} に逐次反映します。
+ * </p>
+ * <p>
+ * 各チャンクには本文とメタデータから算出したハッシュ（{@value #CONTENT_HASH_KEY}）を付与し、
+ * 同一ファイルの既存ベクトルと比較します。内容が変わらないチャンクは既存の行をそのまま残し、
+ * 新規・変更チャンクのみを埋め込み、登録完了後に消えたチャンクの行を削除します。
+ * </p>
+ */
+@Slf4j
+@Component
+public class MiraIngestionPipeline {
+
+    /** チャンク内容のハッシュを格納するメタデータキー. */
+    public static final String CONTENT_HASH_KEY = "content_hash";
+
+    /** ハッシュ計算から除外するメタデータ（取り込みのたびに変わる値）. */
+    private static final Set<String> VOLATILE_METADATA_KEYS = Set.of(CONTENT_HASH_KEY, "created_at",
+            MiraQuestionGenerationQueue.GENERATED_QUESTIONS_KEY);
+
+    /** ハッシュ値を埋め込み対象テキストに含めないフォーマッター. */
+    static final ContentFormatter EMBED_FORMATTER = DefaultContentFormatter.builder()
+            .withExcludedEmbedMetadataKeys(CONTENT_HASH_KEY)
+            .build();
+
+    private final VectorStore vectorStore;
+    private final EmbeddingModel embeddingModel;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MiraIndexingProgressRepository progressRepository;
+    private final MiraAiProperties.IngestionConfig config;
+    private final String tableName;
+
+    private final Stage parseStage;
+    private final Stage chunkStage;
+    private final Stage embedStage;
+    private final Stage insertStage;
+
+    public MiraIngestionPipeline(
+            VectorStore vectorStore,
+            EmbeddingModel embeddingModel,
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            MiraIndexingProgressRepository progressRepository,
+            MiraMetrics metrics,
+            MiraAiProperties aiProperties) {
+        this.vectorStore = vectorStore;
+        this.embeddingModel = embeddingModel;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.progressRepository = progressRepository;
+        this.config = aiProperties.getIngestion();
+        this.tableName = aiProperties.getVectorStore().getTableName();
+
+        int capacity = config.getQueueCapacity();
+        this.parseStage = new Stage("parse", config.getParseConcurrency(), capacity, metrics);
+        this.chunkStage = new Stage("chunk", config.getChunkConcurrency(), capacity, metrics);
+        this.embedStage = new Stage("embed", config.getEmbedConcurrency(), capacity, metrics);
+        this.insertStage = new Stage("insert", config.getInsertConcurrency(), capacity, metrics);
+    }
+
+    /**
+     * ファイルを取り込みます（再インデックスジョブ外）.
+     *
+     * @param fileId
+     *            ファイルID（進捗の記録に使用）
+     * @param parser
+     *            テキスト抽出処理
+     * @param chunker
+     *            チャンク分割・メタデータ付与処理
+     * @return ファイルのチャンク数（変更がなく再登録しなかったチャンクを含む）
+     */
+    public CompletableFuture<Integer> ingest(
+            String fileId, Callable<List<Document>> parser, UnaryOperator<List<Document>> chunker) {
+        return ingest(fileId, null, parser, chunker);
+    }
+
+    /**
+     * ファイルを取り込みます.
+     *
+     * @param fileId
+     *            ファイルID（進捗の記録に使用）
+     * @param taskId
+     *            再インデックスジョブのタスクID（ジョブ外の取り込みは null）
+     * @param parser
+     *            テキスト抽出処理
+     * @param chunker
+     *            チャンク分割・メタデータ付与処理
+     * @return ファイルのチャンク数（変更がなく再登録しなかったチャンクを含む）
+     */
+    public CompletableFuture<Integer> ingest(String fileId, String taskId,
+            Callable<List<Document>> parser, UnaryOperator<List<Document>> chunker) {
+
+        return CompletableFuture
+                .supplyAsync(() -> parseStage.timed(() -> call(parser), List::size), parseStage)
+                .thenApplyAsync(documents -> chunkStage.timed(() -> chunker.apply(documents), List::size),
+                        chunkStage)
+                .thenCompose(chunks -> {
+                    ChunkDiff diff = diff(fileId, chunks);
+                    startProgress(fileId, taskId, chunks.size(), chunks.size() - diff.changed().size());
+                    boolean bulk = useBulkInsert();
+                    List<CompletableFuture<Void>> batches = new ArrayList<>();
+                    for (List<Document> batch : Lists.partition(diff.changed(),
+                            Math.max(1, config.getBatchSize()))) {
+                        batches.add(CompletableFuture
+                                .supplyAsync(() -> embedStage.timed(
+                                        () -> bulk ? embed(batch) : null, e -> batch.size()), embedStage)
+                                .thenAcceptAsync(embeddings -> insertStage.timed(
+                                        () -> insert(fileId, batch, embeddings), Integer::intValue), insertStage));
+                    }
+                    return CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new))
+                            .thenApply(v -> {
+                                if (!diff.staleIds().isEmpty()) {
+                                    vectorStore.delete(diff.staleIds());
+                                }
+                                log.info("Ingested fileId={}: chunks={}, embedded={}, unchanged={}, removed={}",
+                                        SanitizeUtil.forLog(fileId), chunks.size(), diff.changed().size(),
+                                        chunks.size() - diff.changed().size(), diff.staleIds().size());
+                                return chunks.size();
+                            });
+                })
+                .whenComplete((count, error) -> finishProgress(fileId, error));
+    }
+
+    /**
+     * 既存ベクトルとの差分を算出します.
+     * <p>
+     * 同一ハッシュの既存行があるチャンクは変更なしとして除外し、対応付かなかった既存行を削除対象とします。
+     * ハッシュを持たない旧形式の行はすべて削除対象になります。
+     * </p>
+     */
+    ChunkDiff diff(String fileId, List<Document> chunks) {
+        Map<String, Deque<String>> existing = new HashMap<>();
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, metadata->>'" + CONTENT_HASH_KEY + "' AS content_hash FROM " + tableName
+                        + " WHERE metadata->>'fileId' = ?",
+                fileId);
+        List<String> staleIds = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            String id = String.valueOf(row.get("id"));
+            Object hash = row.get("content_hash");
+            if (hash == null) {
+                staleIds.add(id);
+            } else {
+                existing.computeIfAbsent(hash.toString(), k -> new ArrayDeque<>()).add(id);
+            }
+        }
+
+        List<Document> changed = new ArrayList<>();
+        for (Document chunk : chunks) {
+            String hash = contentHash(chunk);
+            chunk.getMetadata().put(CONTENT_HASH_KEY, hash);
+            chunk.setContentFormatter(EMBED_FORMATTER);
+
+            Deque<String> ids = existing.get(hash);
+            if (ids == null || ids.isEmpty()) {
+                changed.add(chunk);
+            } else {
+                ids.poll();
+            }
+        }
+        existing.values().forEach(staleIds::addAll);
+        return new ChunkDiff(changed, staleIds);
+    }
+
+    /**
+     * チャンクのハッシュ（本文と、取り込みごとに変わる値を除いたメタデータの SHA-256）.
+     */
+    static String contentHash(Document chunk) {
+        Map<String, Object> metadata = new TreeMap<>();
+        chunk.getMetadata().forEach((key, value) -> {
+            if (!VOLATILE_METADATA_KEYS.contains(key)) {
+                metadata.put(key, value);
+            }
+        });
+        String source = chunk.getText() + "\n" + metadata;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 差分（埋め込み・登録が必要なチャンクと、削除する既存行の ID）.
+     */
+    record ChunkDiff(List<Document> changed, List<String> staleIds) {
+    }
+
+    private boolean useBulkInsert() {
+        return config.isBulkInsert() && vectorStore instanceof PgVectorStore;
+    }
+
+    private List<float[]> embed(List<Document> batch) {
+        List<String> texts = batch.stream()
+                .map(doc -> doc.getFormattedContent(MetadataMode.EMBED))
+                .toList();
+        return embeddingModel.embed(texts);
+    }
+
+    /**
+     * バッチを登録します（埋め込み済みの場合は JDBC バッチ、それ以外は VectorStore 経由）.
+     */
+    private int insert(String fileId, List<Document> batch, List<float[]> embeddings) {
+        if (embeddings == null || embeddings.size() != batch.size()) {
+            vectorStore.add(batch);
+        } else {
+            try {
+                bulkInsert(batch, embeddings);
+            } catch (DataAccessException | IllegalArgumentException e) {
+                log.warn("Bulk insert failed, falling back to VectorStore#add: fileId={}, error={}",
+                        SanitizeUtil.forLog(fileId), e.getMessage());
+                vectorStore.add(batch);
+            }
+        }
+        progressRepository.incrementProcessedChunks(fileId, batch.size(), LocalDateTime.now());
+        return batch.size();
+    }
+
+    private void bulkInsert(List<Document> batch, List<float[]> embeddings) {
+        String sql = "INSERT INTO " + tableName + " (id, content, metadata, embedding) "
+                + "VALUES (?, ?, ?::json, ?::vector) "
+                + "ON CONFLICT (id) DO UPDATE SET content = EXCLUDED.content, "
+                + "metadata = EXCLUDED.metadata, embedding = EXCLUDED.embedding";
+
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Document doc = batch.get(i);
+            args.add(new Object[] {
+                    UUID.fromString(doc.getId()),
+                    doc.getText(),
+                    toJson(doc),
+                    toVectorLiteral(embeddings.get(i))
+            });
+        }
+        jdbcTemplate.batchUpdate(sql, args);
+    }
+
+    private String toJson(Document doc) {
+        try {
+            return objectMapper.writeValueAsString(doc.getMetadata());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize metadata: " + doc.getId(), e);
+        }
+    }
+
+    static String toVectorLiteral(float[] vector) {
+        StringBuilder sb = new StringBuilder(vector.length * 10).append('[');
+        for (int i = 0; i < vector.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(vector[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    private void startProgress(String fileId, String taskId, int totalChunks, int unchangedChunks) {
+        try {
+            MiraIndexingProgress progress = progressRepository.findByFileId(fileId)
+                    .orElse(MiraIndexingProgress.builder()
+                            .fileId(fileId)
+                            .build());
+            // ジョブ外の取り込みでは以前のジョブのタスクIDを外し、中断時にそのジョブとして再開されないようにする
+            progress.setTaskId(taskId);
+            progress.setStatus(IndexingStatus.PROCESSING);
+            progress.setErrorMessage(null);
+            progress.setTotalChunks(totalChunks);
+            progress.setProcessedChunks(unchangedChunks);
+            progressRepository.save(progress);
+        } catch (Exception e) {
+            log.warn("Failed to initialize indexing progress for fileId={}", SanitizeUtil.forLog(fileId), e);
+        }
+    }
+
+    private void finishProgress(String fileId, Throwable error) {
+        try {
+            progressRepository.findByFileId(fileId).ifPresent(progress -> {
+                if (error == null) {
+                    progress.setStatus(IndexingStatus.COMPLETED);
+                } else {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause()
+                            : error;
+                    progress.setStatus(IndexingStatus.FAILED);
+                    progress.setErrorMessage(cause.getMessage());
+                }
+                progressRepository.save(progress);
+            });
+        } catch (Exception e) {
+            log.warn("Failed to finalize indexing progress for fileId={}", SanitizeUtil.forLog(fileId), e);
+        }
+    }
+
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parseStage.shutdown();
+        chunkStage.shutdown();
+        embedStage.shutdown();
+        insertStage.shutdown();
+    }
+
+    /**
+     * パイプラインのステージ（上限付き待ち行列を持つ固定サイズのスレッドプール）.
+     */
+    static final class Stage implements Executor {
+
+        private final String name;
+        private final MiraMetrics metrics;
+        private final ThreadPoolExecutor executor;
+
+        Stage(String name, int concurrency, int queueCapacity, MiraMetrics metrics) {
+            this.name = name;
+            this.metrics = metrics;
+            int threads = Math.max(1, concurrency);
+            BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+            this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue,
+                    Thread.ofPlatform().daemon().name("mira-ingest-" + name + "-", 0).factory(),
+                    (task, pool) -> {
+                        // 待ち行列が満杯の場合は投入側を待機させる（バックプレッシャー）
+                        if (pool.isShutdown()) {
+                            throw new RejectedExecutionException("Ingestion stage is shut down: " + name);
+                        }
+                        try {
+                            pool.getQueue().put(task);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new RejectedExecutionException("Interrupted while waiting for stage: " + name, e);
+                        }
+                    });
+            metrics.registerIngestionQueue(name, queue::size);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            executor.execute(command);
+        }
+
+        <T> T timed(Supplier<T> task, ToIntFunction<T> items) {
+            long start = System.currentTimeMillis();
+            T result = task.get();
+            metrics.recordIngestionStage(name, System.currentTimeMillis() - start,
+                    result != null ? items.applyAsInt(result) : 0);
+            return result;
+        }
+
+        void shutdown() {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,393 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.ai.document.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * PostgreSQL 全文検索によるキーワード検索.
+ * <p>
+ * ベクトルストアテーブルの {@code tsvector} 式インデックスと {@code pg_trgm} の GIN インデックスを使い、
+ * スコープ・テナント・ユーザー条件を WHERE 句に含めた検索を行います。
+ * インデックスは db/migration の V2026_10_17__mira_keyword_search_index.sql で作成し（CONCURRENTLY）、
+ * 実行時には作成せず存在の確認のみ行います。
+ * 英数字の語は {@code tsvector}（{@code ts_rank_cd} でランキング）、日本語の語は部分一致（{@code pg_trgm} インデックス）で照合します。
+ * {@code pg_trgm} は 3 文字未満のパターンにインデックスを使えないため、WHERE 句には 3 文字以上の語のみを使い、
+ * 2 文字の語はスコアの加点にのみ使います（全体がシーケンシャルスキャンにならないようにする）。
+ * </p>
+ * <p>
+ * PostgreSQL 以外（H2 等）やインデックスが未作成の場合は利用不可となり、呼び出し側は従来の ILIKE 検索にフォールバックします。
+ * 検索自体の失敗（タイムアウト等）はその呼び出しのみフォールバックします。
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MiraKeywordSearchService {
+
+    /** 全文検索用の式（インデックス定義と一致させる）. */
+    static final String TSV_EXPRESSION = "to_tsvector('simple', coalesce(content, ''))";
+
+    /** 1 クエリあたりの最大語数. */
+    private static final int MAX_TERMS = 16;
+
+    /** trigram インデックスを使える部分一致パターンの最小文字数. */
+    private static final int TRIGRAM = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MiraAiProperties aiProperties;
+
+    /** 全文検索が利用可能か（null: 未判定）. */
+    private volatile Boolean available;
+
+    /**
+     * 起動完了時に全文検索の利用可否（インデックスの有無）を判定します.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void detectIndex() {
+        isAvailable();
+    }
+
+    /**
+     * 全文検索が利用可能か判定します.
+     *
+     * @return 利用可能な場合 true
+     */
+    public boolean isAvailable() {
+        Boolean current = available;
+        if (current == null) {
+            current = detect();
+            available = current;
+        }
+        return current;
+    }
+
+    /**
+     * キーワード検索を実行します.
+     *
+     * @param query
+     *            検索クエリ
+     * @param limit
+     *            最大件数
+     * @param scopes
+     *            検索対象スコープ
+     * @param tenantId
+     *            テナントID
+     * @param userId
+     *            ユーザーID
+     * @return スコア降順のドキュメント。全文検索が利用できない場合は null
+     */
+    public List<Document> search(String query, int limit, Set<String> scopes, String tenantId, String userId) {
+        if (!isAvailable()) {
+            return null;
+        }
+
+        Terms terms = tokenize(query);
+        if (terms.isEmpty()) {
+            // インデックスで絞り込める語がない（2 文字の語のみ等）場合はベクトル検索のみに任せる
+            log.debug("[MiraKeywordSearch] No indexable terms in query, skipping keyword search");
+            return List.of();
+        }
+
+        List<Object> scoreParams = new ArrayList<>();
+        List<String> scoreParts = new ArrayList<>();
+        List<Object> matchParams = new ArrayList<>();
+        List<String> matchParts = new ArrayList<>();
+
+        if (!terms.lexemes().isEmpty()) {
+            String tsQuery = String.join(" | ", terms.lexemes());
+            scoreParts.add("ts_rank_cd(" + TSV_EXPRESSION + ", to_tsquery('simple', ?))");
+            scoreParams.add(tsQuery);
+            matchParts.add(TSV_EXPRESSION + " @@ to_tsquery('simple', ?)");
+            matchParams.add(tsQuery);
+        }
+        for (String substring : terms.substrings()) {
+            scoreParts.add("CASE WHEN content ILIKE ? THEN 1 ELSE 0 END");
+            scoreParams.add("%" + substring + "%");
+            matchParts.add("content ILIKE ?");
+            matchParams.add("%" + substring + "%");
+        }
+        for (String shortTerm : terms.shortTerms()) {
+            // 絞り込み済みの行のスコア計算のみ（WHERE 句には含めない）
+            scoreParts.add("CASE WHEN content ILIKE ? THEN 1 ELSE 0 END");
+            scoreParams.add("%" + shortTerm + "%");
+        }
+
+        List<Object> scopeParams = new ArrayList<>();
+        String scopePredicate = scopePredicate(scopes, tenantId, userId, scopeParams);
+        if (scopePredicate == null) {
+            return List.of();
+        }
+
+        String sql = "SELECT id, content, metadata, (" + String.join(" + ", scoreParts) + ") AS keyword_score"
+                + " FROM " + tableName()
+                + " WHERE (" + scopePredicate + ") AND (" + String.join(" OR ", matchParts) + ")"
+                + " ORDER BY keyword_score DESC LIMIT ?";
+
+        List<Object> params = new ArrayList<>(scoreParams);
+        params.addAll(scopeParams);
+        params.addAll(matchParams);
+        params.add(limit);
+
+        try {
+            return jdbcTemplate.query(sql, params.toArray(), (rs, rowNum) -> {
+                String content = rs.getString("content");
+                Map<String, Object> metadata = parseMetadata(rs.getString("metadata"));
+                metadata.put("termFrequency", countMatches(content, terms));
+                metadata.put("keyword_score", rs.getDouble("keyword_score"));
+                return new Document(rs.getString("id"), content, metadata);
+            });
+        } catch (Exception e) {
+            // タイムアウト等の一時的な失敗はこの呼び出しのみフォールバック（次回は全文検索を再試行）
+            log.warn("[MiraKeywordSearch] Full-text search failed, falling back to ILIKE for this query: {}",
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * スコープ条件の WHERE 句を構築します（ベクトル検索のフィルタ条件と同一）.
+     *
+     * @return 条件式。該当スコープがない場合は null
+     */
+    static String scopePredicate(Set<String> scopes, String tenantId, String userId, List<Object> params) {
+        List<String> clauses = new ArrayList<>();
+        if (scopes.contains("SYSTEM")) {
+            clauses.add("metadata->>'scope' = 'SYSTEM'");
+        }
+        if (scopes.contains("TENANT") && tenantId != null) {
+            clauses.add("(metadata->>'scope' = 'TENANT' AND metadata->>'tenantId' = ?)");
+            params.add(tenantId);
+        }
+        if (scopes.contains("USER") && userId != null) {
+            clauses.add("(metadata->>'scope' = 'USER' AND metadata->>'userId' = ?)");
+            params.add(userId);
+        }
+        return clauses.isEmpty() ? null : String.join(" OR ", clauses);
+    }
+
+    /**
+     * 検索語の抽出結果.
+     *
+     * @param lexemes
+     *            tsvector で照合する英数字の語（小文字）
+     * @param substrings
+     *            部分一致で照合する日本語の語（3 文字以上、trigram インデックスで絞り込み）
+     * @param shortTerms
+     *            スコアの加点にのみ使う 2 文字の日本語の語
+     */
+    record Terms(List<String> lexemes, List<String> substrings, List<String> shortTerms) {
+        boolean isEmpty() {
+            return lexemes.isEmpty() && substrings.isEmpty();
+        }
+    }
+
+    /**
+     * クエリを検索語に分割します.
+     * <p>
+     * 日本語は分かち書きされないため、文字種の境界で区切ります。
+     * 2 文字以下のひらがな（助詞等）は除外し、4 文字以上の漢字列は 3 文字ずつ（trigram）に分割します。
+     * 2 文字の漢字・カタカナ語はスコアの加点用とし、絞り込みに使える語が残らない場合は
+     * 日本語の連続部分を 3 文字ずつに分割して照合します（「経費の精算」→「経費の」「費の精」「の精算」）。
+     * </p>
+     */
+    static Terms tokenize(String query) {
+        Set<String> lexemes = new LinkedHashSet<>();
+        Set<String> substrings = new LinkedHashSet<>();
+        Set<String> shortTerms = new LinkedHashSet<>();
+        List<String> segments = new ArrayList<>();
+        if (query == null || query.isBlank()) {
+            return new Terms(List.of(), List.of(), List.of());
+        }
+
+        String normalized = java.text.Normalizer.normalize(query, java.text.Normalizer.Form.NFKC);
+        StringBuilder run = new StringBuilder();
+        StringBuilder segment = new StringBuilder();
+        CharType runType = CharType.SEPARATOR;
+        int[] codePoints = normalized.codePoints().toArray();
+        for (int i = 0; i <= codePoints.length; i++) {
+            CharType type = i < codePoints.length ? CharType.of(codePoints[i]) : CharType.SEPARATOR;
+            if (type != runType) {
+                addTerms(run.toString(), runType, lexemes, substrings, shortTerms);
+                run.setLength(0);
+                runType = type;
+            }
+            if (!type.isJapanese() && !segment.isEmpty()) {
+                segments.add(segment.toString());
+                segment.setLength(0);
+            }
+            if (i < codePoints.length && type != CharType.SEPARATOR) {
+                run.appendCodePoint(codePoints[i]);
+                if (type.isJapanese()) {
+                    segment.appendCodePoint(codePoints[i]);
+                }
+            }
+        }
+
+        if (lexemes.isEmpty() && substrings.isEmpty()) {
+            // 2 文字の語・助詞のみ等の場合は、日本語の連続部分を 3 文字ずつで照合
+            for (String japanese : segments) {
+                int[] cps = japanese.codePoints().toArray();
+                for (int i = 0; i + TRIGRAM <= cps.length; i++) {
+                    String window = new String(cps, i, TRIGRAM);
+                    if (!window.codePoints().allMatch(cp -> CharType.of(cp) == CharType.HIRAGANA)) {
+                        substrings.add(window);
+                    }
+                }
+            }
+        }
+
+        List<String> lexemeList = lexemes.stream().limit(MAX_TERMS).collect(Collectors.toList());
+        List<String> substringList = substrings.stream().limit(Math.max(0, MAX_TERMS - lexemeList.size()))
+                .collect(Collectors.toList());
+        List<String> shortTermList = shortTerms.stream().limit(MAX_TERMS).collect(Collectors.toList());
+        return new Terms(lexemeList, substringList, shortTermList);
+    }
+
+    private static void addTerms(String run, CharType type, Set<String> lexemes, Set<String> substrings,
+            Set<String> shortTerms) {
+        if (run.isEmpty()) {
+            return;
+        }
+        int length = run.codePointCount(0, run.length());
+        switch (type) {
+            case WORD -> lexemes.add(run.toLowerCase(Locale.ROOT));
+            case KATAKANA -> {
+                if (length >= TRIGRAM) {
+                    substrings.add(run);
+                } else if (length == 2) {
+                    shortTerms.add(run);
+                }
+            }
+            case HIRAGANA -> {
+                if (length >= TRIGRAM) {
+                    substrings.add(run);
+                }
+            }
+            case HAN -> {
+                if (length > TRIGRAM) {
+                    int[] cps = run.codePoints().toArray();
+                    for (int i = 0; i + TRIGRAM <= cps.length; i++) {
+                        substrings.add(new String(cps, i, TRIGRAM));
+                    }
+                } else if (length == TRIGRAM) {
+                    substrings.add(run);
+                } else if (length == 2) {
+                    shortTerms.add(run);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * 文字種.
+     */
+    private enum CharType {
+        SEPARATOR, WORD, HAN, HIRAGANA, KATAKANA;
+
+        boolean isJapanese() {
+            return this == HAN || this == HIRAGANA || this == KATAKANA;
+        }
+
+        static CharType of(int codePoint) {
+            if (codePoint == 'ー') {
+                return KATAKANA;
+            }
+            Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+            if (script == Character.UnicodeScript.HAN) {
+                return HAN;
+            }
+            if (script == Character.UnicodeScript.HIRAGANA) {
+                return HIRAGANA;
+            }
+            if (script == Character.UnicodeScript.KATAKANA) {
+                return KATAKANA;
+            }
+            return Character.isLetterOrDigit(codePoint) ? WORD : SEPARATOR;
+        }
+    }
+
+    private long countMatches(String content, Terms terms) {
+        String lower = content == null ? "" : content.toLowerCase(Locale.ROOT);
+        return terms.lexemes().stream().filter(lower::contains).count()
+                + terms.substrings().stream().filter(lower::contains).count()
+                + terms.shortTerms().stream().filter(lower::contains).count();
+    }
+
+    private boolean detect() {
+        String mode = aiProperties.getKeywordSearch().getMode();
+        if ("ilike".equalsIgnoreCase(mode)) {
+            return false;
+        }
+        try {
+            String product = jdbcTemplate
+                    .execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            boolean postgres = product != null && product.toLowerCase(Locale.ROOT).contains("postgresql");
+            boolean indexed = postgres && hasIndexes();
+            log.info("[MiraKeywordSearch] Database={}, mode={}, fullText={}", product, mode, indexed);
+            if (postgres && !indexed) {
+                log.warn("[MiraKeywordSearch] Full-text indexes on {} not found, using ILIKE. "
+                        + "Apply db/migration/V2026_10_17__mira_keyword_search_index.sql to enable.", tableName());
+            }
+            return indexed;
+        } catch (Exception e) {
+            log.warn("[MiraKeywordSearch] Failed to detect database product: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean hasIndexes() {
+        String table = tableName();
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_indexes WHERE tablename = ? AND indexname IN (?, ?)",
+                Integer.class, table, table + "_content_tsv_idx", table + "_content_trgm_idx");
+        return count != null && count == 2;
+    }
+
+    private String tableName() {
+        String tableName = aiProperties.getVectorStore().getTableName();
+        // セキュリティ: テーブル名の検証（SQLインジェクション対策）
+        if (tableName == null || !tableName.matches("^[a-zA-Z_][a-zA-Z0-9_]*$")) {
+            throw new IllegalArgumentException("Invalid table name: " + tableName);
+        }
+        return tableName;
+    }
+
+    private Map<String, Object> parseMetadata(String json) {
+        if (json == null) {
+            return new HashMap<>();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<HashMap<String, Object>>() {
+            });
+        } catch (Exception e) {
+            log.warn("Failed to parse metadata: {}", e.getMessage());
+            return new HashMap<>();
+        }
+    }
+}
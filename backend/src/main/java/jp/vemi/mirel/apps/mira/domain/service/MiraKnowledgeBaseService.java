@@ -6,6 +6,7 @@ package jp.vemi.mirel.apps.mira.domain.service;
 import java.io.InputStream;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
 import org.apache.tika.Tika;
 import org.springframework.ai.document.Document;
@@ -15,12 +16,10 @@ import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraIndexingProgress;
-import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraIndexingProgress.IndexingStatus;
 import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraVectorStore;
 import jp.vemi.mirel.apps.mira.domain.dao.repository.MiraIndexingProgressRepository;
 import jp.vemi.mirel.apps.mira.domain.dao.repository.MiraKnowledgeDocumentRepository;
@@ -55,6 +54,12 @@ public class MiraKnowledgeBaseService {
     private final org.springframework.jdbc.core.JdbcTemplate jdbcTemplate;
     private final MiraIndexingProgressRepository indexingProgressRepository;
     private final StorageService storageService;
+    private final MiraRetrievalExecutor retrievalExecutor;
+    private final jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties aiProperties;
+    private final MiraIngestionPipeline ingestionPipeline;
+    private final MiraReindexJobRunner reindexJobRunner;
+    private final MiraStreamingTextExtractor textExtractor;
+    private final MiraQuestionGenerationQueue questionGenerationQueue;
 
     /**
      * ファイルをインデックスに登録します。
@@ -68,15 +73,51 @@ public class MiraKnowledgeBaseService {
      * @param userId
      *            ユーザーID
      */
-    @Transactional
     public void indexFile(String fileId, MiraVectorStore.Scope scope, String tenantId, String userId) {
+        indexFile(fileId, scope, tenantId, userId, null);
+    }
+
+    /**
+     * ファイルをインデックスに登録します（再インデックスジョブからはタスクIDを指定）。
+     *
+     * @param fileId
+     *            ファイルID
+     * @param scope
+     *            スコープ (SYSTEM, TENANT, USER)
+     * @param tenantId
+     *            テナントID
+     * @param userId
+     *            ユーザーID
+     * @param taskId
+     *            再インデックスジョブのタスクID（ジョブ外は null）
+     */
+    public void indexFile(String fileId, MiraVectorStore.Scope scope, String tenantId, String userId,
+            String taskId) {
+        try {
+            submitIndexing(fileId, scope, tenantId, userId, taskId).join();
+        } catch (java.util.concurrent.CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new RuntimeException("Failed to index file: " + fileId, cause);
+        }
+    }
+
+    /**
+     * ファイルを取り込みパイプラインへ投入します.
+     * <p>
+     * ファイルの存在確認は呼び出しスレッドで行い、抽出以降はパイプラインの各ステージで実行します。
+     * 既存ベクトルとの差分はパイプラインで判定し、内容が変わったチャンクのみ埋め込み・登録します。
+     * </p>
+     *
+     * @return 登録したチャンク数
+     */
+    private CompletableFuture<Integer> submitIndexing(
+            String fileId, MiraVectorStore.Scope scope, String tenantId, String userId, String taskId) {
         log.info("Indexing file: fileId={}, scope={}, tenantId={}, userId={}", SanitizeUtil.forLog(fileId), scope,
                 SanitizeUtil.forLog(tenantId), SanitizeUtil.forLog(userId));
 
-        // Prevent Duplicates: Delete existing vectors for this fileId before adding new
-        // ones
-        deleteVectorsByFileId(fileId);
-
         FileManagement fileConfig = fileRepository.findById(fileId)
                 .orElseThrow(() -> new IllegalArgumentException("File not found: " + fileId));
 
@@ -90,68 +131,90 @@ public class MiraKnowledgeBaseService {
             throw new IllegalArgumentException("Physical file not found in storage: " + storagePath);
         }
 
+        return ingestionPipeline.ingest(fileId, taskId,
+                () -> parseFile(fileConfig),
+                documents -> chunkDocuments(documents, fileId, fileConfig.getFileName(), scope, tenantId, userId))
+                .thenApply(count -> {
+                    // 管理エンティティの保存
+                    jp.vemi.mirel.apps.mira.domain.dao.entity.MiraKnowledgeDocument doc = knowledgeDocumentRepository
+                            .findByFileId(fileId)
+                            .orElse(jp.vemi.mirel.apps.mira.domain.dao.entity.MiraKnowledgeDocument.builder()
+                                    .fileId(fileId)
+                                    .build());
+                    doc.setScope(scope);
+                    doc.setTenantId(tenantId);
+                    doc.setUserId(userId);
+                    knowledgeDocumentRepository.save(doc);
+
+                    log.info("Indexed {} chunks for fileId={}", count, SanitizeUtil.forLog(fileId));
+                    // 想定質問の生成はインデックス完了後にバックグラウンドで行う
+                    questionGenerationQueue.enqueue(tenantId, fileId);
+                    return count;
+                });
+    }
+
+    /**
+     * ファイルからテキストを抽出します.
+     * <p>
+     * ストレージのストリームを 1 度だけ読み、抽出されたテキストをウィンドウ単位で受け取ります。
+     * Markdown 以外はウィンドウごとにトークン分割するため、抽出中に保持するテキストはウィンドウ分に収まります。
+     * Markdown は見出し構造を保つため全文を 1 ドキュメントとして返し、{@link #chunkDocuments} で分割します。
+     * </p>
+     */
+    private List<Document> parseFile(FileManagement fileConfig) {
+        String storagePath = fileConfig.getFilePath();
         final String fileName = fileConfig.getFileName();
-        Resource resource;
-        try {
-            InputStream is = storageService.getInputStream(storagePath);
-            resource = new InputStreamResource(is) {
-                @Override
-                public String getFilename() {
-                    return fileName;
-                }
-            };
-        } catch (java.io.IOException e) {
-            throw new RuntimeException("Failed to read file from storage: " + storagePath, e);
-        }
+        final boolean markdown = isMarkdown(fileName);
 
-        log.info("Creating TikaDocumentReader for file: {}, fileName: {}",
-                storagePath, fileConfig.getFileName());
-        List<Document> documents;
+        log.info("Extracting text (streaming) for file: {}, fileName: {}", storagePath, fileName);
+        List<Document> documents = new java.util.ArrayList<>();
+        TokenTextSplitter splitter = new TokenTextSplitter();
+        int windowChars = markdown ? Integer.MAX_VALUE : aiProperties.getIngestion().getExtractWindowChars();
 
         // Use Tika directly to extract text content first, to avoid "Raw Zip/XML"
         // issues with TikaDocumentReader defaults
-        Tika tika = new Tika();
-        String fileContent;
-        try {
-            // StorageService経由でバイト配列を取得してTikaに渡す
-            byte[] fileBytes = storageService.getBytes(storagePath);
-            try (java.io.ByteArrayInputStream bais = new java.io.ByteArrayInputStream(fileBytes)) {
-                fileContent = tika.parseToString(bais);
-            }
+        try (InputStream is = storageService.getInputStream(storagePath)) {
+            textExtractor.extract(is, fileName, windowChars, segment -> {
+                Document segmentDoc = new Document(segment);
+                segmentDoc.getMetadata().put("source", fileName);
+                documents.addAll(markdown ? List.of(segmentDoc) : splitter.apply(List.of(segmentDoc)));
+            });
         } catch (Exception e) {
             log.warn("Tika parse failed, falling back to TikaDocumentReader", e);
             // Fallback to original logic if Tika fails (though unlikely if file exists)
-            TikaDocumentReader reader = new TikaDocumentReader(resource);
-            documents = reader.get();
-            fileContent = null;
-        }
-
-        if (fileContent != null) {
-            // Create a single document from the extracted text
-            Document doc = new Document(fileContent);
-            doc.getMetadata().put("source", fileConfig.getFileName());
-            documents = java.util.Collections.singletonList(doc);
-        } else {
-            documents = java.util.Collections.emptyList();
+            documents.clear();
+            try (InputStream is = storageService.getInputStream(storagePath)) {
+                Resource resource = new InputStreamResource(is) {
+                    @Override
+                    public String getFilename() {
+                        return fileName;
+                    }
+                };
+                List<Document> read = new TikaDocumentReader(resource).get();
+                documents.addAll(markdown ? read : splitter.apply(read));
+            } catch (java.io.IOException ioe) {
+                throw new RuntimeException("Failed to read file from storage: " + storagePath, ioe);
+            }
         }
 
-        log.info("Extracted content length: {}", documents.isEmpty() ? 0 : documents.get(0).getText().length());
-
-        // Original logic was:
-        // TikaDocumentReader reader = new TikaDocumentReader(resource);
-        // documents = reader.get();
-
-        log.info("Reader read {} documents from file {}", documents.size(), fileConfig.getFilePath());
+        log.info("Reader read {} documents from file {}", documents.size(), storagePath);
         if (!documents.isEmpty()) {
             log.info("First document content preview: {}",
                     documents.get(0).getText().substring(0, Math.min(100, documents.get(0).getText().length())));
         } else {
-            log.warn("Reader returned empty document list for file {}", fileConfig.getFilePath());
+            log.warn("Reader returned empty document list for file {}", storagePath);
         }
+        return documents;
+    }
 
+    /**
+     * チャンク分割とメタデータ付与を行います.
+     */
+    private List<Document> chunkDocuments(List<Document> documents, String fileId, String fileName,
+            MiraVectorStore.Scope scope, String tenantId, String userId) {
         // チャンク分割
         List<Document> splitDocuments;
-        String fileNameLower = fileConfig.getFileName().toLowerCase();
+        String fileNameLower = fileName.toLowerCase();
 
         // 既存のナレッジドキュメントからdescriptionを取得（Phase 3: 手動注釈）
         String description = null;
@@ -163,26 +226,24 @@ public class MiraKnowledgeBaseService {
         // グローバルコンテキストを構築 (Phase 2 & 3)
         jp.vemi.mirel.apps.mira.domain.model.GlobalContext globalContext = jp.vemi.mirel.apps.mira.domain.model.GlobalContext
                 .builder()
-                .fileName(fileConfig.getFileName())
+                .fileName(fileName)
                 .category(determineCategory(fileNameLower))
                 .description(description)
                 .build();
 
-        if (fileNameLower.endsWith(".md") || fileNameLower.endsWith(".markdown")) {
+        if (isMarkdown(fileNameLower)) {
             log.info("Using MiraMarkdownSplitter for file: {}", fileNameLower);
             splitDocuments = markdownSplitter.apply(documents, globalContext);
         } else {
-            // Default token splitter for other formats
-            TokenTextSplitter splitter = new TokenTextSplitter();
-            List<Document> tokenSplit = splitter.apply(documents);
+            // 他形式は抽出時にトークン分割済み（parseFile）
             // 非Markdownファイルにもグローバルプレフィックスを追加
-            splitDocuments = applyGlobalPrefixToDocuments(tokenSplit, globalContext);
+            splitDocuments = applyGlobalPrefixToDocuments(documents, globalContext);
         }
 
         // メタデータ付与 (Enricherへ委譲)
         java.util.Map<String, Object> contextInfo = new java.util.HashMap<>();
         contextInfo.put("fileId", fileId);
-        contextInfo.put("fileName", fileConfig.getFileName());
+        contextInfo.put("fileName", fileName);
         contextInfo.put("scope", scope.name());
 
         if (scope == MiraVectorStore.Scope.TENANT) {
@@ -193,36 +254,7 @@ public class MiraKnowledgeBaseService {
         }
 
         metadataEnricher.enrich(splitDocuments, contextInfo);
-
-        // PGVectorへの保存
-        vectorStore.add(splitDocuments);
-
-        // 管理エンティティの保存
-        jp.vemi.mirel.apps.mira.domain.dao.entity.MiraKnowledgeDocument doc = knowledgeDocumentRepository
-                .findByFileId(fileId)
-                .orElse(jp.vemi.mirel.apps.mira.domain.dao.entity.MiraKnowledgeDocument.builder()
-                        .fileId(fileId)
-                        .build());
-        doc.setScope(scope);
-        doc.setTenantId(tenantId);
-        doc.setUserId(userId);
-        knowledgeDocumentRepository.save(doc);
-
-        log.info("Indexed {} chunks for fileId={}", splitDocuments.size(), SanitizeUtil.forLog(fileId));
-    }
-
-    /**
-     * Delete existing vectors for a given fileId to prevent duplicates.
-     * Uses JdbcTemplate for efficient deletion based on metadata.
-     */
-    /**
-     * Delete existing vectors for a given fileId to prevent duplicates.
-     * Uses JdbcTemplate for efficient deletion based on metadata.
-     */
-    private void deleteVectorsByFileId(String fileId) {
-        String sql = "DELETE FROM mir_mira_vector_store WHERE metadata->>'fileId' = ?";
-        int deleted = jdbcTemplate.update(sql, fileId);
-        log.info("Deleted {} old vectors for fileId={}", deleted, SanitizeUtil.forLog(fileId));
+        return splitDocuments;
     }
 
     /**
@@ -381,16 +413,28 @@ public class MiraKnowledgeBaseService {
         int success = 0;
         int fail = 0;
 
+        // 全ファイルをパイプラインへ投入し、ステージ単位で並列に処理する
+        java.util.Map<String, CompletableFuture<Integer>> futures = new java.util.LinkedHashMap<>();
         for (jp.vemi.mirel.apps.mira.domain.dao.entity.MiraKnowledgeDocument doc : docs) {
             try {
-                indexFile(doc.getFileId(), doc.getScope(), doc.getTenantId(), doc.getUserId());
-                success++;
+                futures.put(doc.getFileId(),
+                        submitIndexing(doc.getFileId(), doc.getScope(), doc.getTenantId(), doc.getUserId(), null));
             } catch (Exception e) {
                 log.error("Failed to re-index fileId: " + doc.getFileId(), e);
                 fail++;
             }
         }
 
+        for (var entry : futures.entrySet()) {
+            try {
+                entry.getValue().join();
+                success++;
+            } catch (Exception e) {
+                log.error("Failed to re-index fileId: " + entry.getKey(), e);
+                fail++;
+            }
+        }
+
         return String.format("Re-index completed. Success: %d, Fail: %d", success, fail);
     }
 
@@ -412,7 +456,8 @@ public class MiraKnowledgeBaseService {
 
         // Perform separate searches for each scope to ensure reliable retrieval
         // This avoids potential issues with complex nested OR filters in the
-        // VectorStore implementation
+        // VectorStore implementation. Scopes are searched concurrently with a
+        // per-scope deadline (mira.ai.retrieval.*).
 
         List<Document> allDocs = new java.util.ArrayList<>();
         org.springframework.ai.vectorstore.filter.FilterExpressionBuilder b = new org.springframework.ai.vectorstore.filter.FilterExpressionBuilder();
@@ -422,11 +467,16 @@ public class MiraKnowledgeBaseService {
         int topK = miraSettingService.getVectorSearchTopK(tenantId); // Get configured Top K
 
         // Transform query (HyDE)
-        String hydeQuery = queryTransformService.transformToHypotheticalDocument(query);
+        String hydeQuery = queryTransformService.transformToHypotheticalDocument(query, tenantId);
         // String hydeQuery = query; // Disable HyDE by default for now to control
         // changes, or enable if confident.
         // Let's use original query for vector search effectively until HyDE is tuned.
 
+        if (aiProperties.getRetrieval().isUnifiedScope()) {
+            return mergeSearchResults(query, tenantId, userId,
+                    searchUnifiedScopes(query, hydeQuery, threshold, topK, tenantId, userId));
+        }
+
         // 1. System Scope (Accessible to all)
         SearchRequest systemRequest = SearchRequest.builder()
                 .query(hydeQuery)
@@ -434,11 +484,11 @@ public class MiraKnowledgeBaseService {
                 .similarityThreshold(threshold)
                 .filterExpression(b.eq("scope", "SYSTEM").build())
                 .build();
-        List<Document> systemDocs = hybridSearchService.search(query, systemRequest, "SYSTEM", null, null);
-        log.info("RAG Search [SYSTEM]: found {} docs. Threshold={}", systemDocs.size(), threshold);
-        allDocs.addAll(systemDocs);
+        Future<List<Document>> systemFuture = retrievalExecutor
+                .submit(() -> hybridSearchService.search(query, systemRequest, "SYSTEM", null, null));
 
         // 2. Tenant Scope (Accessible to tenant members)
+        Future<List<Document>> tenantFuture = null;
         if (tenantId != null) {
             SearchRequest tenantRequest = SearchRequest.builder()
                     .query(hydeQuery)
@@ -446,12 +496,12 @@ public class MiraKnowledgeBaseService {
                     .similarityThreshold(threshold)
                     .filterExpression(b.and(b.eq("scope", "TENANT"), b.eq("tenantId", tenantId)).build())
                     .build();
-            List<Document> tenantDocs = hybridSearchService.search(query, tenantRequest, "TENANT", tenantId, null);
-            log.info("RAG Search [TENANT]: found {} docs. TenantId={}", tenantDocs.size(), tenantId);
-            allDocs.addAll(tenantDocs);
+            tenantFuture = retrievalExecutor
+                    .submit(() -> hybridSearchService.search(query, tenantRequest, "TENANT", tenantId, null));
         }
 
         // 3. User Scope (Accessible to specific user)
+        Future<List<Document>> userFuture = null;
         if (userId != null) {
             SearchRequest userRequest = SearchRequest.builder()
                     .query(hydeQuery)
@@ -459,7 +509,23 @@ public class MiraKnowledgeBaseService {
                     .similarityThreshold(threshold)
                     .filterExpression(b.and(b.eq("scope", "USER"), b.eq("userId", userId)).build())
                     .build();
-            List<Document> userDocs = hybridSearchService.search(query, userRequest, "USER", tenantId, userId);
+            userFuture = retrievalExecutor
+                    .submit(() -> hybridSearchService.search(query, userRequest, "USER", tenantId, userId));
+        }
+
+        // Merge in scope order (SYSTEM > TENANT > USER) regardless of completion order
+        List<Document> systemDocs = retrievalExecutor.awaitScope(systemFuture, List.of(), "SYSTEM");
+        log.info("RAG Search [SYSTEM]: found {} docs. Threshold={}", systemDocs.size(), threshold);
+        allDocs.addAll(systemDocs);
+
+        if (tenantFuture != null) {
+            List<Document> tenantDocs = retrievalExecutor.awaitScope(tenantFuture, List.of(), "TENANT");
+            log.info("RAG Search [TENANT]: found {} docs. TenantId={}", tenantDocs.size(), tenantId);
+            allDocs.addAll(tenantDocs);
+        }
+
+        if (userFuture != null) {
+            List<Document> userDocs = retrievalExecutor.awaitScope(userFuture, List.of(), "USER");
             log.info("RAG Search [USER]: found {} docs for userId={}", userDocs.size(), userId);
             allDocs.addAll(userDocs);
         }
@@ -472,6 +538,47 @@ public class MiraKnowledgeBaseService {
         // Usually VectorStore returns documents with scores, but the Document API hides
         // it in metadata often.
 
+        return mergeSearchResults(query, tenantId, userId, allDocs);
+    }
+
+    /**
+     * 全スコープを 1 回のベクトル検索・Keyword 検索・リランキングで検索します.
+     * <p>
+     * ベクトル検索のフィルタはスコープ条件を OR で結合し、各スコープの件数は個別検索時の topK を上限とします。
+     * </p>
+     */
+    private List<Document> searchUnifiedScopes(String query, String hydeQuery, double threshold, int topK,
+            String tenantId, String userId) {
+        org.springframework.ai.vectorstore.filter.FilterExpressionBuilder b = new org.springframework.ai.vectorstore.filter.FilterExpressionBuilder();
+        java.util.Map<String, Integer> scopeQuotas = new java.util.LinkedHashMap<>();
+
+        org.springframework.ai.vectorstore.filter.FilterExpressionBuilder.Op filter = b.eq("scope", "SYSTEM");
+        scopeQuotas.put("SYSTEM", Math.max(3, topK / 2));
+        if (tenantId != null) {
+            filter = b.or(filter, b.and(b.eq("scope", "TENANT"), b.eq("tenantId", tenantId)));
+            scopeQuotas.put("TENANT", topK);
+        }
+        if (userId != null) {
+            filter = b.or(filter, b.and(b.eq("scope", "USER"), b.eq("userId", userId)));
+            scopeQuotas.put("USER", topK);
+        }
+
+        SearchRequest request = SearchRequest.builder()
+                .query(hydeQuery)
+                .topK(scopeQuotas.values().stream().mapToInt(Integer::intValue).sum())
+                .similarityThreshold(threshold)
+                .filterExpression(filter.build())
+                .build();
+        List<Document> docs = hybridSearchService.searchUnified(query, request, scopeQuotas, tenantId, userId);
+        log.info("RAG Search [UNIFIED]: found {} docs. Scopes={}, Threshold={}", docs.size(), scopeQuotas.keySet(),
+                threshold);
+        return docs;
+    }
+
+    /**
+     * 検索結果を ID で重複排除し、検索ログを記録して件数を制限します.
+     */
+    private List<Document> mergeSearchResults(String query, String tenantId, String userId, List<Document> allDocs) {
         // Remove duplicates based on ID
         java.util.Set<String> seenIds = new java.util.HashSet<>();
         List<Document> uniqueDocs = new java.util.ArrayList<>();
@@ -567,40 +674,11 @@ public class MiraKnowledgeBaseService {
     // 非同期インデックス処理
     // ===================================================================================
 
-    /**
-     * ファイルを非同期でインデックスに登録します。
-     *
-     * @param fileId
-     *            ファイルID
-     * @param scope
-     *            スコープ
-     * @param tenantId
-     *            テナントID
-     * @param userId
-     *            ユーザーID
-     * @return 処理結果のCompletableFuture
-     */
-    @Async("miraIndexingExecutor")
-    public CompletableFuture<String> indexFileAsync(
-            String fileId, MiraVectorStore.Scope scope, String tenantId, String userId) {
-
-        log.info("Starting async indexing for fileId={}", fileId);
-        updateProgress(fileId, IndexingStatus.PROCESSING, null);
-
-        try {
-            indexFile(fileId, scope, tenantId, userId);
-            updateProgress(fileId, IndexingStatus.COMPLETED, null);
-            log.info("Async indexing completed for fileId={}", fileId);
-            return CompletableFuture.completedFuture(fileId);
-        } catch (Exception e) {
-            log.error("Async indexing failed for fileId={}", fileId, e);
-            updateProgress(fileId, IndexingStatus.FAILED, e.getMessage());
-            return CompletableFuture.failedFuture(e);
-        }
-    }
-
     /**
      * 指定スコープの全ドキュメントを非同期で再インデックスします。
+     * <p>
+     * ジョブは {@link MiraReindexJobRunner} で実行し、進捗はタスクIDで参照できます。
+     * </p>
      *
      * @param scope
      *            スコープ
@@ -611,9 +689,6 @@ public class MiraKnowledgeBaseService {
      * @return タスクID
      */
     public String startBulkReindex(MiraVectorStore.Scope scope, String tenantId, String userId) {
-        String taskId = java.util.UUID.randomUUID().toString();
-        log.info("Starting bulk reindex task: taskId={}, scope={}", taskId, scope);
-
         // 対象ドキュメント取得
         List<jp.vemi.mirel.apps.mira.domain.dao.entity.MiraKnowledgeDocument> docs;
         if (scope == MiraVectorStore.Scope.SYSTEM) {
@@ -624,30 +699,31 @@ public class MiraKnowledgeBaseService {
             docs = knowledgeDocumentRepository.findByScopeAndTenantIdAndUserId(scope, tenantId, userId);
         }
 
-        // 各ドキュメントを非同期で再インデックス
-        for (var doc : docs) {
-            updateProgress(doc.getFileId(), IndexingStatus.PENDING, null);
-            indexFileAsync(doc.getFileId(), doc.getScope(), doc.getTenantId(), doc.getUserId());
-        }
-
+        String taskId = reindexJobRunner.start(docs, tenantId);
+        log.info("Started bulk reindex task: taskId={}, scope={}, files={}", taskId, scope, docs.size());
         return taskId;
     }
 
     /**
-     * インデックス進捗を更新します。
+     * 一括再インデックスを取り消します。
+     *
+     * @param taskId
+     *            タスクID
+     * @return タスクが存在した場合 true
      */
-    private void updateProgress(String fileId, IndexingStatus status, String errorMessage) {
-        try {
-            MiraIndexingProgress progress = indexingProgressRepository.findByFileId(fileId)
-                    .orElse(MiraIndexingProgress.builder()
-                            .fileId(fileId)
-                            .build());
-            progress.setStatus(status);
-            progress.setErrorMessage(errorMessage);
-            indexingProgressRepository.save(progress);
-        } catch (Exception e) {
-            log.warn("Failed to update indexing progress for fileId={}", fileId, e);
-        }
+    public boolean cancelBulkReindex(String taskId) {
+        return reindexJobRunner.cancel(taskId);
+    }
+
+    /**
+     * 一括再インデックスの進捗を取得します。
+     *
+     * @param taskId
+     *            タスクID
+     * @return 進捗（タスクが存在しない場合は null）
+     */
+    public MiraReindexJobRunner.JobProgress getBulkReindexProgress(String taskId) {
+        return reindexJobRunner.getProgress(taskId);
     }
 
     /**
@@ -661,6 +737,14 @@ public class MiraKnowledgeBaseService {
     // ヘルパーメソッド
     // ===================================================================================
 
+    /**
+     * Markdown ファイルかどうか.
+     */
+    private static boolean isMarkdown(String fileName) {
+        String lowerName = fileName.toLowerCase();
+        return lowerName.endsWith(".md") || lowerName.endsWith(".markdown");
+    }
+
     /**
      * ファイル名からカテゴリを推定します。
      */
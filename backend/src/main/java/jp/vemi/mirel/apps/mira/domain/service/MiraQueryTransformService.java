@@ -3,14 +3,28 @@
  */
 package jp.vemi.mirel.apps.mira.domain.service;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import org.springframework.stereotype.Service;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import jakarta.annotation.PreDestroy;
 import jp.vemi.mirel.apps.mira.infrastructure.ai.AiProviderFactory;
 import jp.vemi.mirel.apps.mira.infrastructure.ai.AiProviderClient;
 import jp.vemi.mirel.apps.mira.infrastructure.ai.AiRequest;
 import jp.vemi.mirel.apps.mira.infrastructure.ai.AiResponse;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.CachingEmbeddingModel;
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import jp.vemi.framework.util.SanitizeUtil;
 
@@ -20,13 +34,36 @@ import jp.vemi.framework.util.SanitizeUtil;
  * Provides query transformation capabilities like HyDE (Hypothetical Document
  * Embeddings).
  * </p>
+ * <p>
+ * HyDE の生成結果はテナント単位（正規化クエリ → 仮想ドキュメント）で TTL 付きキャッシュします。
+ * 生成が期限（mira.ai.hyde.timeout-ms）内に完了しない場合は元のクエリで検索を続行し、
+ * 遅れて完了した結果はキャッシュにのみ反映します。
+ * </p>
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class MiraQueryTransformService {
 
     private final AiProviderFactory aiProviderFactory;
+    private final MiraAiProperties.HydeConfig config;
+
+    /** HyDE キャッシュ（テナントID + 正規化クエリ → 仮想ドキュメント） */
+    private final Cache<String, String> cache;
+
+    /** 生成中の HyDE（同一クエリの同時リクエストで LLM 呼び出しを共有） */
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("mira-hyde-", 0).factory());
+
+    public MiraQueryTransformService(AiProviderFactory aiProviderFactory, MiraAiProperties aiProperties) {
+        this.aiProviderFactory = aiProviderFactory;
+        this.config = aiProperties.getHyde();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(1, config.getCacheMaxEntries()))
+                .expireAfterWrite(Math.max(1, config.getCacheTtlMinutes()), TimeUnit.MINUTES)
+                .build();
+    }
 
     /**
      * Generates a hypothetical document based on the user query (HyDE).
@@ -36,17 +73,85 @@ public class MiraQueryTransformService {
      * @return Hypothetical document text
      */
     public String transformToHypotheticalDocument(String query) {
+        return transformToHypotheticalDocument(query, null);
+    }
+
+    /**
+     * Generates a hypothetical document based on the user query (HyDE).
+     * <p>
+     * キャッシュにあればそれを返し、なければ期限付きで生成します。期限切れ・失敗時は元のクエリを返します。
+     * </p>
+     *
+     * @param query
+     *            User query
+     * @param tenantId
+     *            テナントID（キャッシュの単位）
+     * @return Hypothetical document text
+     */
+    public String transformToHypotheticalDocument(String query, String tenantId) {
+        if (!config.isEnabled() || query == null || query.isBlank()) {
+            return query;
+        }
+
+        String key = (tenantId != null ? tenantId : "") + ":" + CachingEmbeddingModel.normalize(query);
+        String cached = cache.getIfPresent(key);
+        if (cached != null) {
+            log.debug("HyDE cache hit for query: {}", SanitizeUtil.forLog(query));
+            return cached;
+        }
+
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> future = inFlight.putIfAbsent(key, created);
+        if (future == null) {
+            future = created;
+            CompletableFuture.supplyAsync(() -> generate(query, tenantId), executor).whenComplete((doc, e) -> {
+                // 期限切れ後に完了した結果もキャッシュへ反映
+                if (doc != null) {
+                    cache.put(key, doc);
+                }
+                inFlight.remove(key, created);
+                if (e != null) {
+                    created.completeExceptionally(e);
+                } else {
+                    created.complete(doc);
+                }
+            });
+        }
+
+        try {
+            String doc = future.get(config.getTimeoutMs(), TimeUnit.MILLISECONDS);
+            return doc != null ? doc : query;
+        } catch (TimeoutException e) {
+            log.info("HyDE did not complete within {} ms, searching with original query", config.getTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("HyDE generation failed, falling back to original query", e.getCause());
+        }
+        return query;
+    }
+
+    /**
+     * HyDE キャッシュを破棄します.
+     */
+    public void invalidateCache() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * HyDE を生成します（テナント設定のプロバイダを使用）.
+     *
+     * @return 仮想ドキュメント。生成できない場合は null
+     */
+    private String generate(String query, String tenantId) {
         log.info("Generating HyDE for query: {}", SanitizeUtil.forLog(query));
 
         try {
-            // Use default provider (or specific tenant context if available in future)
-            // TODO: Pass tenantId dynamically if possible. For now, use default/system
-            // context.
-            AiProviderClient client = aiProviderFactory.getProvider();
+            AiProviderClient client = aiProviderFactory.createClient(tenantId);
 
             if (client == null) {
                 log.warn("No AI provider available for HyDE. Returning original query.");
-                return query;
+                return null;
             }
 
             // Prompt engineering for Japanese HyDE
@@ -62,7 +167,7 @@ public class MiraQueryTransformService {
 
             if (response.hasError() || !response.isSuccess()) {
                 log.warn("HyDE generation error: {}", response.getErrorMessage());
-                return query;
+                return null;
             }
 
             String hypotheticalDoc = response.getContent();
@@ -71,7 +176,12 @@ public class MiraQueryTransformService {
 
         } catch (Exception e) {
             log.warn("HyDE generation failed, falling back to original query", e);
-            return query;
+            return null;
         }
     }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
 }
@@ -0,0 +1,329 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.RateLimiter;
+
+import jakarta.annotation.PreDestroy;
+import jp.vemi.framework.util.SanitizeUtil;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiProviderClient;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiProviderFactory;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiRequest;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiResponse;
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+import jp.vemi.mirel.apps.mira.infrastructure.monitoring.MiraMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 想定質問生成のバックグラウンドキュー.
+ * <p>
+ * インデックス完了後のファイルを受け付け、想定質問（{@value #GENERATED_QUESTIONS_KEY}）を持たないチャンクについて
+ * 複数チャンクをまとめて LLM に質問を生成させ、メタデータと埋め込みを更新します。
+ * LLM 呼び出しはテナント単位でレート制限します（設定 rag.question_generation.rpm）。
+ * 上限に達したテナントのファイルはワーカーを待機させずに後から再投入し、他テナントの処理を妨げません。
+ * 取り込み処理とは独立して動作するため、インデックスの完了を遅らせません。
+ * </p>
+ */
+@Slf4j
+@Component
+public class MiraQuestionGenerationQueue {
+
+    /** 想定質問を格納するメタデータキー. */
+    public static final String GENERATED_QUESTIONS_KEY = "generated_questions";
+
+    private final AiProviderFactory aiProviderFactory;
+    private final MiraSettingService settingService;
+    private final EmbeddingModel embeddingModel;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MiraAiProperties.QuestionGenerationConfig config;
+    private final String tableName;
+
+    private final BlockingQueue<Task> queue;
+    private final Set<String> queuedFileIds = ConcurrentHashMap.newKeySet();
+    private final Map<String, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+    private final ExecutorService workers;
+
+    public MiraQuestionGenerationQueue(
+            AiProviderFactory aiProviderFactory,
+            MiraSettingService settingService,
+            EmbeddingModel embeddingModel,
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            MiraMetrics metrics,
+            MiraAiProperties aiProperties) {
+        this.aiProviderFactory = aiProviderFactory;
+        this.settingService = settingService;
+        this.embeddingModel = embeddingModel;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.config = aiProperties.getQuestionGeneration();
+        this.tableName = aiProperties.getVectorStore().getTableName();
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+
+        int workerCount = Math.max(1, config.getWorkers());
+        this.workers = Executors.newFixedThreadPool(workerCount,
+                Thread.ofPlatform().daemon().name("mira-questions-", 0).factory());
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::drain);
+        }
+        metrics.registerIngestionQueue("questions", queue::size);
+    }
+
+    /**
+     * インデックス済みファイルを想定質問生成の対象として登録します.
+     *
+     * @param tenantId
+     *            テナントID（SYSTEM スコープは null）
+     * @param fileId
+     *            ファイルID
+     */
+    public void enqueue(String tenantId, String fileId) {
+        if (!settingService.isQuestionGenerationEnabled(tenantId)) {
+            return;
+        }
+        offer(new Task(tenantId, fileId));
+    }
+
+    private void offer(Task task) {
+        if (!queuedFileIds.add(task.fileId())) {
+            return;
+        }
+        if (!queue.offer(task)) {
+            queuedFileIds.remove(task.fileId());
+            log.warn("Question generation queue is full, skipped fileId={}", SanitizeUtil.forLog(task.fileId()));
+        }
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Task task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queuedFileIds.remove(task.fileId());
+            try {
+                process(task);
+            } catch (Exception e) {
+                log.warn("Question generation failed for fileId={}: {}", SanitizeUtil.forLog(task.fileId()),
+                        e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 想定質問を持たないチャンクをバッチ単位で処理します.
+     */
+    void process(Task task) {
+        if (!settingService.isQuestionGenerationEnabled(task.tenantId())) {
+            return;
+        }
+        List<Document> chunks = jdbcTemplate.query(
+                "SELECT id, content, metadata FROM " + tableName
+                        + " WHERE metadata->>'fileId' = ? AND metadata->>'" + GENERATED_QUESTIONS_KEY + "' IS NULL",
+                (rs, rowNum) -> new Document(rs.getString("id"), rs.getString("content"),
+                        readMetadata(rs.getString("metadata"))),
+                task.fileId());
+        if (chunks.isEmpty()) {
+            return;
+        }
+
+        int count = settingService.getQuestionGenerationCount(task.tenantId());
+        int updated = 0;
+        RateLimiter limiter = rateLimiter(task.tenantId());
+        for (List<Document> batch : Lists.partition(chunks, Math.max(1, config.getBatchSize()))) {
+            if (!limiter.tryAcquire()) {
+                // 上限到達時は未処理のチャンクを残したまま再投入し、ワーカーを他テナントに譲る
+                defer(task, limiter);
+                break;
+            }
+            Map<Integer, List<String>> questions = generate(batch, count);
+            if (questions == null) {
+                // LLM エラー時は残りを次回の再インデックスに委ねる
+                break;
+            }
+            updated += update(batch, questions);
+        }
+        log.info("Generated questions for fileId={}: chunks={}, updated={}", SanitizeUtil.forLog(task.fileId()),
+                chunks.size(), updated);
+    }
+
+    /**
+     * 複数チャンクの想定質問をまとめて生成します.
+     *
+     * @return チャンク番号（1 始まり）→ 質問リスト、エラー時は null
+     */
+    Map<Integer, List<String>> generate(List<Document> batch, int count) {
+        AiProviderClient client = aiProviderFactory.getProvider();
+        if (client == null) {
+            log.warn("No AI provider available for question generation.");
+            return null;
+        }
+
+        StringBuilder prompt = new StringBuilder()
+                .append("以下の各テキストについて、その内容を問う短い質問を").append(count)
+                .append("つずつ作成してください。\n")
+                .append("出力は JSON 配列のみとし、形式は [{\"id\": テキスト番号, \"questions\": [\"質問\", ...]}] としてください。\n");
+        for (int i = 0; i < batch.size(); i++) {
+            String text = batch.get(i).getText();
+            if (text.length() > config.getMaxChunkChars()) {
+                text = text.substring(0, config.getMaxChunkChars());
+            }
+            prompt.append("\n[テキスト ").append(i + 1).append("]\n").append(text).append('\n');
+        }
+
+        AiResponse response = client.chat(AiRequest.builder()
+                .messages(List.of(AiRequest.Message.user(prompt.toString())))
+                .build());
+        if (response.hasError() || !response.isSuccess()) {
+            log.warn("Question generation error: {}", response.getErrorMessage());
+            return null;
+        }
+        // 途中で切れた応答や形式不正の応答は、いずれのチャンクも確定させずエラーとして扱う
+        Map<Integer, List<String>> questions = parseQuestions(response.getContent());
+        if (questions.keySet().stream().noneMatch(id -> id >= 1 && id <= batch.size())) {
+            log.warn("Question generation returned no usable result for {} chunks.", batch.size());
+            return null;
+        }
+        return questions;
+    }
+
+    /**
+     * LLM の応答（JSON 配列、コードフェンス付きも可）を解析します.
+     *
+     * @return チャンク番号（1 始まり）→ 質問リスト、解析できない場合は空
+     */
+    Map<Integer, List<String>> parseQuestions(String content) {
+        Map<Integer, List<String>> result = new HashMap<>();
+        if (content == null) {
+            return result;
+        }
+        int start = content.indexOf('[');
+        int end = content.lastIndexOf(']');
+        if (start < 0 || end <= start) {
+            return result;
+        }
+        try {
+            for (JsonNode item : objectMapper.readTree(content.substring(start, end + 1))) {
+                List<String> questions = new ArrayList<>();
+                item.path("questions").forEach(q -> {
+                    if (!q.asText().isBlank()) {
+                        questions.add(q.asText().strip());
+                    }
+                });
+                result.put(item.path("id").asInt(), questions);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to parse generated questions: {}", e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * メタデータに想定質問を付与し、埋め込みを再計算して更新します.
+     * <p>
+     * 有効な応答に含まれなかったチャンクには空文字を設定し、同じチャンクを繰り返し処理しないようにします。
+     * </p>
+     */
+    private int update(List<Document> batch, Map<Integer, List<String>> questions) {
+        List<Document> enriched = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Document chunk = batch.get(i);
+            Map<String, Object> metadata = new HashMap<>(chunk.getMetadata());
+            metadata.put(GENERATED_QUESTIONS_KEY, String.join("\n", questions.getOrDefault(i + 1, List.of())));
+            Document doc = new Document(chunk.getId(), chunk.getText(), metadata);
+            doc.setContentFormatter(MiraIngestionPipeline.EMBED_FORMATTER);
+            enriched.add(doc);
+        }
+
+        List<float[]> embeddings = embeddingModel.embed(enriched.stream()
+                .map(doc -> doc.getFormattedContent(MetadataMode.EMBED))
+                .toList());
+
+        List<Object[]> args = new ArrayList<>(enriched.size());
+        for (int i = 0; i < enriched.size(); i++) {
+            Document doc = enriched.get(i);
+            args.add(new Object[] {
+                    writeMetadata(doc.getMetadata()),
+                    MiraIngestionPipeline.toVectorLiteral(embeddings.get(i)),
+                    UUID.fromString(doc.getId())
+            });
+        }
+        jdbcTemplate.batchUpdate("UPDATE " + tableName + " SET metadata = ?::json, embedding = ?::vector WHERE id = ?",
+                args);
+        return enriched.size();
+    }
+
+    /**
+     * 次の呼び出しが許可される頃にファイルを待ち行列へ再投入します.
+     */
+    private void defer(Task task, RateLimiter limiter) {
+        long delayMillis = (long) Math.ceil(1000 / limiter.getRate());
+        log.debug("Question generation rate limited, deferred fileId={} for {}ms",
+                SanitizeUtil.forLog(task.fileId()), delayMillis);
+        CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS).execute(() -> offer(task));
+    }
+
+    private RateLimiter rateLimiter(String tenantId) {
+        double permitsPerSecond = Math.max(1, settingService.getQuestionGenerationRpm(tenantId)) / 60.0;
+        RateLimiter limiter = rateLimiters.computeIfAbsent(tenantId != null ? tenantId : "",
+                key -> RateLimiter.create(permitsPerSecond));
+        if (limiter.getRate() != permitsPerSecond) {
+            limiter.setRate(permitsPerSecond);
+        }
+        return limiter;
+    }
+
+    private Map<String, Object> readMetadata(String json) {
+        try {
+            return json != null ? objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {
+            }) : new HashMap<>();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to read chunk metadata", e);
+        }
+    }
+
+    private String writeMetadata(Map<String, Object> metadata) {
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to write chunk metadata", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    record Task(String tenantId, String fileId) {
+    }
+}
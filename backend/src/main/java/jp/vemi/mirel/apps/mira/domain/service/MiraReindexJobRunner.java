@@ -0,0 +1,418 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import jp.vemi.framework.util.SanitizeUtil;
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraIndexingProgress;
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraIndexingProgress.IndexingStatus;
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraKnowledgeDocument;
+import jp.vemi.mirel.apps.mira.domain.dao.repository.MiraIndexingProgressRepository;
+import jp.vemi.mirel.apps.mira.domain.dao.repository.MiraKnowledgeDocumentRepository;
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 一括再インデックスジョブの実行.
+ * <p>
+ * ジョブごとにテナント設定の同時処理数だけワーカーを {@code miraIndexingExecutor} へ投入し、
+ * 各ワーカーが待ち行列からファイルを取り出して順に再インデックスします。
+ * 埋め込み API のレート制限で失敗したファイルは指数バックオフ後に再試行します。
+ * 実行キューが満杯でワーカーを投入できない場合は投入済みのワーカーで処理を続け、
+ * ワーカーが 1 つも残らない場合は未処理のファイルを失敗にします。
+ * </p>
+ * <p>
+ * ジョブの状態はファイル単位に {@link MiraIndexingProgress}（タスクID付き）へ保存し、
+ * 起動時に未完了のファイルが残っているジョブを再開します。タスクIDはこのクラスが発行し、
+ * ジョブ外の取り込みではタスクIDが外されます。
+ * 複数インスタンス構成では {@code mira.ai.reindex.resume-on-startup} を 1 インスタンスのみ有効にしてください。
+ * </p>
+ */
+@Slf4j
+@Component
+public class MiraReindexJobRunner {
+
+    private static final Set<IndexingStatus> ACTIVE_STATUSES = EnumSet.of(IndexingStatus.PENDING,
+            IndexingStatus.PROCESSING);
+
+    /** 実行キューが満杯で処理できなかったファイルのエラーメッセージ. */
+    private static final String REJECTED_MESSAGE = "Indexing executor is saturated; re-run the reindex task";
+
+    private final MiraKnowledgeDocumentRepository knowledgeDocumentRepository;
+    private final MiraIndexingProgressRepository progressRepository;
+    private final MiraSettingService settingService;
+    private final ObjectProvider<MiraKnowledgeBaseService> knowledgeBaseService;
+    private final Executor executor;
+    private final MiraAiProperties.ReindexConfig config;
+
+    /** 実行中のジョブ（タスクID → ジョブ）. */
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public MiraReindexJobRunner(
+            MiraKnowledgeDocumentRepository knowledgeDocumentRepository,
+            MiraIndexingProgressRepository progressRepository,
+            MiraSettingService settingService,
+            ObjectProvider<MiraKnowledgeBaseService> knowledgeBaseService,
+            @Qualifier("miraIndexingExecutor") Executor executor,
+            MiraAiProperties aiProperties) {
+        this.knowledgeDocumentRepository = knowledgeDocumentRepository;
+        this.progressRepository = progressRepository;
+        this.settingService = settingService;
+        this.knowledgeBaseService = knowledgeBaseService;
+        this.executor = executor;
+        this.config = aiProperties.getReindex();
+    }
+
+    /**
+     * ジョブを開始します.
+     *
+     * @param documents
+     *            対象ドキュメント
+     * @param tenantId
+     *            同時処理数の判定に使用するテナントID
+     * @return タスクID
+     */
+    public String start(List<MiraKnowledgeDocument> documents, String tenantId) {
+        String taskId = UUID.randomUUID().toString();
+        List<String> fileIds = new ArrayList<>();
+        for (MiraKnowledgeDocument doc : documents) {
+            updateProgress(doc.getFileId(), progress -> {
+                progress.setTaskId(taskId);
+                progress.setStatus(IndexingStatus.PENDING);
+                progress.setAttempts(0);
+                progress.setErrorMessage(null);
+                progress.setTotalChunks(null);
+                progress.setProcessedChunks(null);
+            });
+            fileIds.add(doc.getFileId());
+        }
+        launch(taskId, tenantId, fileIds);
+        return taskId;
+    }
+
+    /**
+     * ジョブを取り消します（処理中のファイルは完了まで継続し、未着手のファイルを取り消し済みにします）.
+     *
+     * @param taskId
+     *            タスクID
+     * @return ジョブが存在した場合 true
+     */
+    public boolean cancel(String taskId) {
+        Job job = jobs.get(taskId);
+        if (job != null) {
+            job.cancelled = true;
+        }
+        List<MiraIndexingProgress> rows = progressRepository.findByTaskId(taskId);
+        for (MiraIndexingProgress progress : rows) {
+            if (progress.getStatus() == IndexingStatus.PENDING) {
+                progress.setStatus(IndexingStatus.CANCELLED);
+                progressRepository.save(progress);
+            }
+        }
+        log.info("Reindex task cancelled: taskId={}", SanitizeUtil.forLog(taskId));
+        return job != null || !rows.isEmpty();
+    }
+
+    /**
+     * ジョブ全体の進捗を取得します.
+     *
+     * @param taskId
+     *            タスクID
+     * @return 進捗（ジョブが存在しない場合は null）
+     */
+    public JobProgress getProgress(String taskId) {
+        List<MiraIndexingProgress> rows = progressRepository.findByTaskId(taskId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Map<IndexingStatus, Long> counts = rows.stream()
+                .filter(progress -> progress.getStatus() != null)
+                .collect(Collectors.groupingBy(MiraIndexingProgress::getStatus,
+                        () -> new EnumMap<>(IndexingStatus.class), Collectors.counting()));
+
+        return JobProgress.builder()
+                .taskId(taskId)
+                .running(jobs.containsKey(taskId))
+                .totalFiles(rows.size())
+                .pendingFiles(counts.getOrDefault(IndexingStatus.PENDING, 0L))
+                .processingFiles(counts.getOrDefault(IndexingStatus.PROCESSING, 0L))
+                .completedFiles(counts.getOrDefault(IndexingStatus.COMPLETED, 0L))
+                .failedFiles(counts.getOrDefault(IndexingStatus.FAILED, 0L))
+                .cancelledFiles(counts.getOrDefault(IndexingStatus.CANCELLED, 0L))
+                .totalChunks(rows.stream().map(MiraIndexingProgress::getTotalChunks)
+                        .filter(Objects::nonNull).mapToLong(Integer::longValue).sum())
+                .processedChunks(rows.stream().map(MiraIndexingProgress::getProcessedChunks)
+                        .filter(Objects::nonNull).mapToLong(Integer::longValue).sum())
+                .build();
+    }
+
+    /**
+     * 再起動により中断されたジョブを再開します.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        if (!config.isResumeOnStartup()) {
+            return;
+        }
+        try {
+            Map<String, List<String>> interrupted = progressRepository
+                    .findByTaskIdIsNotNullAndStatusIn(ACTIVE_STATUSES).stream()
+                    .collect(Collectors.groupingBy(MiraIndexingProgress::getTaskId, LinkedHashMap::new,
+                            Collectors.mapping(MiraIndexingProgress::getFileId, Collectors.toList())));
+
+            interrupted.forEach((taskId, fileIds) -> {
+                if (jobs.containsKey(taskId)) {
+                    return;
+                }
+                String tenantId = knowledgeDocumentRepository.findByFileId(fileIds.get(0))
+                        .map(MiraKnowledgeDocument::getTenantId)
+                        .orElse(null);
+                log.info("Resuming reindex task: taskId={}, remainingFiles={}", taskId, fileIds.size());
+                launch(taskId, tenantId, fileIds);
+            });
+        } catch (Exception e) {
+            log.warn("Failed to resume interrupted reindex tasks: {}", e.getMessage());
+        }
+    }
+
+    private void launch(String taskId, String tenantId, List<String> fileIds) {
+        Job job = new Job(taskId);
+        fileIds.forEach(fileId -> job.pending.add(new Item(fileId, 1)));
+        int workers = Math.max(1, Math.min(settingService.getReindexConcurrency(tenantId), fileIds.size()));
+        job.activeWorkers.set(workers);
+        jobs.put(taskId, job);
+
+        log.info("Starting reindex task: taskId={}, files={}, concurrency={}", taskId, fileIds.size(), workers);
+        for (int i = 0; i < workers; i++) {
+            if (!submit(job, () -> work(job, null))) {
+                // 投入できなかったワーカー分を差し引く
+                for (int j = i; j < workers; j++) {
+                    finishWorker(job);
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * ワーカーを実行キューへ投入します.
+     *
+     * @return 投入できた場合 true
+     */
+    private boolean submit(Job job, Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn("Reindex worker rejected: taskId={}, reason={}", job.taskId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * ワーカーの終了を記録します.
+     * <p>
+     * 最後のワーカーが終了した時点で待ち行列に残っているファイルは処理されないため、失敗（取り消し時は取り消し済み）にします。
+     * </p>
+     */
+    private void finishWorker(Job job) {
+        if (job.activeWorkers.decrementAndGet() != 0) {
+            return;
+        }
+        for (Item item = job.pending.poll(); item != null; item = job.pending.poll()) {
+            markAbandoned(job, item);
+        }
+        jobs.remove(job.taskId);
+        log.info("Reindex task finished: taskId={}, cancelled={}", job.taskId, job.cancelled);
+    }
+
+    private void markAbandoned(Job job, Item item) {
+        updateProgress(item.fileId(), progress -> {
+            if (job.cancelled) {
+                progress.setStatus(IndexingStatus.CANCELLED);
+            } else {
+                progress.setStatus(IndexingStatus.FAILED);
+                progress.setErrorMessage(REJECTED_MESSAGE);
+            }
+        });
+    }
+
+    /**
+     * ワーカー本体（待ち行列が空になるまでファイルを処理）.
+     * <p>
+     * レート制限による再試行はワーカーごと遅延実行へ引き継ぎ、待機中にスレッドを占有しません。
+     * </p>
+     */
+    private void work(Job job, Item resumed) {
+        Item item = resumed != null ? resumed : job.pending.poll();
+        while (item != null) {
+            if (job.cancelled) {
+                updateProgress(item.fileId(), progress -> progress.setStatus(IndexingStatus.CANCELLED));
+            } else {
+                Item retry = process(job, item);
+                if (retry != null) {
+                    Executor delayed = CompletableFuture.delayedExecutor(
+                            backoffMillis(item.attempt()), TimeUnit.MILLISECONDS, task -> {
+                                if (!submit(job, task)) {
+                                    markAbandoned(job, retry);
+                                    finishWorker(job);
+                                }
+                            });
+                    delayed.execute(() -> work(job, retry));
+                    return;
+                }
+            }
+            item = job.pending.poll();
+        }
+
+        finishWorker(job);
+    }
+
+    /**
+     * 1 ファイルを再インデックスします.
+     *
+     * @return 再試行する場合は次の試行、それ以外は null
+     */
+    private Item process(Job job, Item item) {
+        String fileId = item.fileId();
+        try {
+            MiraKnowledgeDocument doc = knowledgeDocumentRepository.findByFileId(fileId)
+                    .orElseThrow(() -> new IllegalArgumentException("Knowledge document not found: " + fileId));
+            updateProgress(fileId, progress -> {
+                progress.setStatus(IndexingStatus.PROCESSING);
+                progress.setAttempts(item.attempt());
+            });
+
+            knowledgeBaseService.getObject().indexFile(fileId, doc.getScope(), doc.getTenantId(), doc.getUserId(),
+                    job.taskId);
+
+            updateProgress(fileId, progress -> {
+                progress.setStatus(IndexingStatus.COMPLETED);
+                progress.setErrorMessage(null);
+            });
+            return null;
+        } catch (Exception e) {
+            if (isRateLimited(e) && item.attempt() < config.getMaxAttempts()) {
+                log.warn("Reindex rate limited, retrying: fileId={}, attempt={}",
+                        SanitizeUtil.forLog(fileId), item.attempt());
+                updateProgress(fileId, progress -> {
+                    progress.setStatus(IndexingStatus.PENDING);
+                    progress.setErrorMessage(e.getMessage());
+                });
+                return new Item(fileId, item.attempt() + 1);
+            }
+            log.error("Failed to re-index fileId={}", SanitizeUtil.forLog(fileId), e);
+            updateProgress(fileId, progress -> {
+                progress.setStatus(IndexingStatus.FAILED);
+                progress.setErrorMessage(e.getMessage());
+            });
+            return null;
+        }
+    }
+
+    /**
+     * 再試行までの待機時間（指数バックオフ + ジッター）.
+     */
+    long backoffMillis(int attempt) {
+        long base = config.getInitialBackoffMs() << Math.min(Math.max(0, attempt - 1), 20);
+        long capped = Math.min(Math.max(1, base), Math.max(1, config.getMaxBackoffMs()));
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+
+    /**
+     * 埋め込み API のレート制限（一時的なエラー）かどうか.
+     */
+    static boolean isRateLimited(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof TransientAiException) {
+                return true;
+            }
+            String message = t.getMessage();
+            if (message != null) {
+                String lower = message.toLowerCase(Locale.ROOT);
+                if (lower.contains("429") || lower.contains("rate limit") || lower.contains("resource_exhausted")
+                        || lower.contains("resource exhausted")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void updateProgress(String fileId, Consumer<MiraIndexingProgress> update) {
+        try {
+            MiraIndexingProgress progress = progressRepository.findByFileId(fileId)
+                    .orElse(MiraIndexingProgress.builder()
+                            .fileId(fileId)
+                            .build());
+            update.accept(progress);
+            progressRepository.save(progress);
+        } catch (Exception e) {
+            log.warn("Failed to update indexing progress for fileId={}", SanitizeUtil.forLog(fileId), e);
+        }
+    }
+
+    private record Item(String fileId, int attempt) {
+    }
+
+    private static final class Job {
+        private final String taskId;
+        private final Queue<Item> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger activeWorkers = new AtomicInteger();
+        private volatile boolean cancelled;
+
+        private Job(String taskId) {
+            this.taskId = taskId;
+        }
+    }
+
+    /**
+     * ジョブ全体の進捗.
+     */
+    @Data
+    @Builder
+    public static class JobProgress {
+        private String taskId;
+        /** このインスタンスで実行中か */
+        private boolean running;
+        private int totalFiles;
+        private long pendingFiles;
+        private long processingFiles;
+        private long completedFiles;
+        private long failedFiles;
+        private long cancelledFiles;
+        private long totalChunks;
+        private long processedChunks;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * RAG 検索の並列実行.
+ * <p>
+ * スコープ単位の検索、およびベクトル検索・キーワード検索の各レッグを仮想スレッドで並列に実行し、
+ * 期限内に完了しなかったレッグはフォールバック値（空の結果）として扱います。
+ * {@code mira.ai.retrieval.parallel=false} の場合は呼び出しスレッドで逐次実行します。
+ * </p>
+ */
+@Slf4j
+@Component
+public class MiraRetrievalExecutor {
+
+    private final MiraAiProperties.RetrievalConfig config;
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("mira-retrieval-", 0).factory());
+
+    public MiraRetrievalExecutor(MiraAiProperties aiProperties) {
+        this.config = aiProperties.getRetrieval();
+    }
+
+    /**
+     * タスクを投入します.
+     *
+     * @param task
+     *            タスク
+     * @return 結果の Future
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        if (!config.isParallel()) {
+            try {
+                return CompletableFuture.completedFuture(task.call());
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return executor.submit(task);
+    }
+
+    /**
+     * レッグ（ベクトル検索・キーワード検索）の結果を期限付きで待機します.
+     *
+     * @param future
+     *            結果の Future
+     * @param fallback
+     *            期限切れ・失敗時の値
+     * @param label
+     *            ログ用ラベル
+     * @return 結果、または fallback
+     */
+    public <T> T awaitLeg(Future<T> future, T fallback, String label) {
+        return await(future, config.getLegTimeoutMs(), fallback, label);
+    }
+
+    /**
+     * スコープ単位の検索結果を期限付きで待機します.
+     *
+     * @param future
+     *            結果の Future
+     * @param fallback
+     *            期限切れ・失敗時の値
+     * @param label
+     *            ログ用ラベル
+     * @return 結果、または fallback
+     */
+    public <T> T awaitScope(Future<T> future, T fallback, String label) {
+        return await(future, config.getScopeTimeoutMs(), fallback, label);
+    }
+
+    private <T> T await(Future<T> future, long timeoutMs, T fallback, String label) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Retrieval [{}] timed out after {} ms", label, timeoutMs);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.warn("Retrieval [{}] failed: {}", label, cause.getMessage());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            log.warn("Retrieval [{}] interrupted", label);
+        }
+        return fallback;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -47,10 +47,12 @@ public class MiraSettingService {
     // RAG拡張設定キー (Phase 4 & 5)
     public static final String KEY_RAG_QUESTION_GENERATION_ENABLED = "rag.question_generation.enabled";
     public static final String KEY_RAG_QUESTION_GENERATION_COUNT = "rag.question_generation.count";
+    public static final String KEY_RAG_QUESTION_GENERATION_RPM = "rag.question_generation.rpm";
     public static final String KEY_RAG_STRUCTURED_PARSING_EXCEL_ENABLED = "rag.structured_parsing.excel.enabled";
     public static final String KEY_RAG_STRUCTURED_PARSING_CSV_ENABLED = "rag.structured_parsing.csv.enabled";
     public static final String KEY_RAG_STRUCTURED_PARSING_PDF_ENABLED = "rag.structured_parsing.pdf.enabled";
     public static final String KEY_RAG_EXCEL_MAX_SIZE_MB = "rag.excel.max_size_mb";
+    public static final String KEY_RAG_REINDEX_CONCURRENCY = "rag.reindex.concurrency";
 
     /**
      * 有効な設定値を取得します（String）.
@@ -245,6 +247,21 @@ public class MiraSettingService {
         return getInteger(tenantId, KEY_RAG_QUESTION_GENERATION_COUNT, 3);
     }
 
+    /**
+     * 想定質問生成の LLM 呼び出し上限（回/分）.
+     */
+    public int getQuestionGenerationRpm(String tenantId) {
+        return getInteger(tenantId, KEY_RAG_QUESTION_GENERATION_RPM,
+                miraAiProperties.getQuestionGeneration().getRequestsPerMinute());
+    }
+
+    /**
+     * 一括再インデックスの同時処理ファイル数.
+     */
+    public int getReindexConcurrency(String tenantId) {
+        return getInteger(tenantId, KEY_RAG_REINDEX_CONCURRENCY, miraAiProperties.getReindex().getConcurrency());
+    }
+
     /**
      * Excel構造解析が有効かどうか.
      */
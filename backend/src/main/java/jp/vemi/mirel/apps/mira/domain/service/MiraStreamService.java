@@ -3,9 +3,13 @@
  */
 package jp.vemi.mirel.apps.mira.domain.service;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,6 +24,7 @@ import jp.vemi.mirel.apps.mira.infrastructure.ai.AiProviderFactory;
 import jp.vemi.mirel.apps.mira.infrastructure.ai.AiRequest;
 import jp.vemi.mirel.apps.mira.infrastructure.ai.AiResponse;
 import jp.vemi.mirel.apps.mira.infrastructure.ai.TokenCounter;
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
 import org.springframework.ai.document.Document;
 import jp.vemi.mirel.foundation.web.api.admin.service.AdminSystemSettingsService;
 import lombok.RequiredArgsConstructor;
@@ -51,6 +56,7 @@ public class MiraStreamService {
     private final ModelSelectionService modelSelectionService; // Phase 4: Model selection
     private final MiraKnowledgeBaseService knowledgeBaseService; // RAG Integration
     private final MiraRagContextBuilder ragContextBuilder; // RAG Context Builder
+    private final MiraAiProperties miraAiProperties; // ツール並列実行の設定
 
     /**
      * ストリームチャット実行.
@@ -203,6 +209,11 @@ public class MiraStreamService {
         // sequential for a single subscription,
         // ArrayList is fine if we are careful.
         List<AiRequest.Message.ToolCall> accumulatedToolCalls = new ArrayList<>();
+        // 表示・保存するテキストはポリシーフィルタを逐次適用したもの
+        MiraStreamingOutputFilter outputFilter = new MiraStreamingOutputFilter(
+                text -> policyEnforcer.filterResponse(text, systemRole),
+                miraAiProperties.getSecurity().getOutputFiltering().getStreamHoldBackChars());
+        AtomicReference<String> lastModel = new AtomicReference<>();
 
         // Google Search Grounding (Vertex AI) が有効な場合のワークアラウンド:
         //
@@ -262,9 +273,11 @@ public class MiraStreamService {
 
                     if (delta != null) {
                         contentBuffer.get().append(delta);
+                        lastModel.set(aiResponse.getModel());
                         // log.debug("Stream Delta: {}", delta); // Too noisy usually, but good for deep
                         // trace
-                        return MiraStreamResponse.delta(delta, aiResponse.getModel());
+                        // 機密パターンの判定に必要な末尾を保留し、確定分のみ送る
+                        return MiraStreamResponse.delta(outputFilter.accept(delta), aiResponse.getModel());
                     }
 
                     // Return empty delta to keep stream alive
@@ -290,6 +303,13 @@ public class MiraStreamService {
                     return Flux.just(MiraStreamResponse.error("SYSTEM_ERROR", "システムエラーが発生しました。再試行してください。"));
                 })
                 .filter(resp -> resp.getContent() != null && !resp.getContent().isEmpty()) // Filter empty
+                .concatWith(Flux.defer(() -> {
+                    // 保留中の末尾を確定して送る
+                    String tail = outputFilter.finish();
+                    return tail.isEmpty()
+                            ? Flux.empty()
+                            : Flux.just(MiraStreamResponse.delta(tail, lastModel.get()));
+                }))
                 .concatWith(Flux.defer(() -> {
                     // Turn Finished. Decide Next Step.
                     log.debug("Stream Turn Finished. Mode: {}, Loop: {}", mode, loopCount);
@@ -409,66 +429,39 @@ public class MiraStreamService {
                         MiraStreamResponse status = MiraStreamResponse
                                 .status("Executing " + uniqueCalls.size() + " tools...");
 
-                        // 2. Execute Tools
+                        // 2. Execute Tools (並列実行、完了したツールから状態を通知)
+                        AtomicReferenceArray<ToolExecutionResult> results = new AtomicReferenceArray<>(
+                                uniqueCalls.size());
                         return Flux.concat(
                                 Flux.just(status),
-                                Flux.fromIterable(uniqueCalls)
-                                        .flatMap(tc -> {
-                                            return Mono.fromCallable(() -> {
-                                                log.debug("Executing tool: {}", tc.getName());
-                                                // Execute
-                                                String result;
-                                                try {
-                                                    result = chatService.executeTool(tc, tools);
-                                                } catch (Exception e) {
-                                                    // Return error as result so AI can see it
-                                                    log.warn("Tool execution failed: {}", e.getMessage());
-                                                    result = "Error executing tool " + tc.getName() + ": "
-                                                            + e.getMessage();
-                                                }
-                                                log.debug("Tool result length: {}",
-                                                        result != null ? result.length() : 0);
-
-                                                // Save Tool Message (blocking safe here in thread pool)
-                                                // Note: chatService.saveToolMessage is PRIVATE. Need to make it PUBLIC
-                                                // or replicate.
-                                                // Replicating simple save for now to avoid too many public exposure, or
-                                                // use chatService if made public.
-                                                // Let's use a helper in this class or just rely on memory for stream
-                                                // and save at end?
-                                                // No, history must be updated.
-                                                // Let's make saveToolMessage public in next step?
-                                                // For now, just generate the Message object for next request.
-                                                return new ToolExecutionResult(tc, result);
-                                            }).subscribeOn(Schedulers.boundedElastic());
-                                        })
-                                        .collectList()
-                                        .flatMapMany(results -> {
-                                            log.debug("All tools executed. Preparing recursive call.");
-
-                                            // 3. Update History
-                                            // Add Assistant Message (with Tool Calls)
-                                            AiRequest.Message assistantMsg = AiRequest.Message.assistant(null);
-                                            assistantMsg.setToolCalls(uniqueCalls);
-                                            aiRequest.getMessages().add(assistantMsg);
-
-                                            // Add Tool Messages
-                                            for (ToolExecutionResult res : results) {
-                                                aiRequest.getMessages().add(AiRequest.Message.builder()
-                                                        .role("tool")
-                                                        .toolCallId(res.call.getId())
-                                                        .toolName(res.call.getName())
-                                                        .content(res.result)
-                                                        .build());
-                                            }
+                                executeTools(uniqueCalls, tools, results),
+                                Flux.defer(() -> {
+                                    log.debug("All tools executed. Preparing recursive call.");
+
+                                    // 3. Update History
+                                    // Add Assistant Message (with Tool Calls)
+                                    AiRequest.Message assistantMsg = AiRequest.Message.assistant(null);
+                                    assistantMsg.setToolCalls(uniqueCalls);
+                                    aiRequest.getMessages().add(assistantMsg);
+
+                                    // Add Tool Messages (呼び出し順)
+                                    for (int i = 0; i < results.length(); i++) {
+                                        ToolExecutionResult res = results.get(i);
+                                        aiRequest.getMessages().add(AiRequest.Message.builder()
+                                                .role("tool")
+                                                .toolCallId(res.call.getId())
+                                                .toolName(res.call.getName())
+                                                .content(res.result)
+                                                .build());
+                                    }
 
-                                            log.debug("History updated. Calls so far: {}. Recursive depth: {}",
-                                                    aiRequest.getMessages().size(), loopCount + 1);
+                                    log.debug("History updated. Calls so far: {}. Recursive depth: {}",
+                                            aiRequest.getMessages().size(), loopCount + 1);
 
-                                            // 4. Recursive Call
-                                            return executeStreamLoop(aiRequest, tenantId, userId, conversation, mode,
-                                                    tools, startTime, loopCount + 1, systemRole);
-                                        }));
+                                    // 4. Recursive Call
+                                    return executeStreamLoop(aiRequest, tenantId, userId, conversation, mode,
+                                            tools, startTime, loopCount + 1, systemRole);
+                                }));
 
                     } else {
                         // --- Finalize Branch ---
@@ -486,8 +479,8 @@ public class MiraStreamService {
                                             .build());
 
                             try {
-                                // Policy Filtering
-                                String filteredContent = policyEnforcer.filterResponse(finalContent, systemRole);
+                                // Policy Filtering (ストリーミング中に適用済み、表示内容と同じものを保存)
+                                String filteredContent = outputFilter.getContent();
 
                                 chatService.saveAssistantMessage(conversation, dummyResponse, filteredContent);
                                 auditService.logChatResponse(tenantId, userId, conversation.getId(),
@@ -516,9 +509,53 @@ public class MiraStreamService {
                 : mainStream;
     }
 
+    /**
+     * ツール呼び出しを並列に実行します.
+     * <p>
+     * 同時実行数とツールごとのタイムアウトは mira.ai.tool-execution.* で設定します。
+     * 結果は呼び出し順に results へ格納し、各ツールの完了時に状態イベントを発行します。
+     * タイムアウト・失敗時はエラー内容を結果として AI に返します。
+     * </p>
+     */
+    Flux<MiraStreamResponse> executeTools(List<AiRequest.Message.ToolCall> calls,
+            List<org.springframework.ai.tool.ToolCallback> tools,
+            AtomicReferenceArray<ToolExecutionResult> results) {
+        MiraAiProperties.ToolExecutionConfig config = miraAiProperties.getToolExecution();
+        Duration timeout = Duration.ofSeconds(Math.max(1, config.getTimeoutSeconds()));
+        AtomicInteger finished = new AtomicInteger();
+
+        return Flux.range(0, calls.size())
+                .flatMap(index -> {
+                    AiRequest.Message.ToolCall tc = calls.get(index);
+                    long toolStart = System.currentTimeMillis();
+                    return Mono.fromCallable(() -> {
+                        log.debug("Executing tool: {}", tc.getName());
+                        return chatService.executeTool(tc, tools);
+                    })
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .timeout(timeout)
+                            .defaultIfEmpty("")
+                            .onErrorResume(e -> {
+                                // Return error as result so AI can see it
+                                log.warn("Tool execution failed: {} ({})", tc.getName(), e.toString());
+                                return Mono.just(e instanceof TimeoutException
+                                        ? "Error executing tool " + tc.getName() + ": timed out after "
+                                                + timeout.toSeconds() + "s"
+                                        : "Error executing tool " + tc.getName() + ": " + e.getMessage());
+                            })
+                            .map(result -> {
+                                log.debug("Tool result length: {}, latency: {}ms",
+                                        result != null ? result.length() : 0, System.currentTimeMillis() - toolStart);
+                                results.set(index, new ToolExecutionResult(tc, result));
+                                return MiraStreamResponse.status("Tool " + tc.getName() + " finished ("
+                                        + finished.incrementAndGet() + "/" + calls.size() + ")");
+                            });
+                }, Math.max(1, config.getMaxConcurrency()));
+    }
+
     @lombok.Data
     @lombok.AllArgsConstructor
-    private static class ToolExecutionResult {
+    static class ToolExecutionResult {
         AiRequest.Message.ToolCall call;
         String result;
     }
@@ -0,0 +1,108 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * ストリーミング応答の逐次フィルタ.
+ * <p>
+ * 受け取ったデルタを末尾のウィンドウ分だけ保留し、それより前の確定部分をフィルタ済みで返します。
+ * 切り出し位置は英数字・記号の連続（メールアドレスや番号）の途中を避け、かつウィンドウ全体をフィルタした結果と
+ * 前後を別々にフィルタした結果が一致する位置とし、機密パターンの途中で切らないようにします（一致しない場合は保留を続けます）。
+ * </p>
+ * <p>
+ * 返したテキストを連結したもの（{@link #getContent()}）が表示内容と一致するため、保存にはこれを使用します。
+ * 1 ストリーム（1 ターン）ごとに生成し、スレッドセーフではありません。
+ * </p>
+ */
+public class MiraStreamingOutputFilter {
+
+    /** 1 デルタあたりに試す切り出し位置の上限. */
+    private static final int MAX_CUT_ATTEMPTS = 4;
+
+    private final UnaryOperator<String> filter;
+    private final int holdBackChars;
+    private final StringBuilder pending = new StringBuilder();
+    private final StringBuilder released = new StringBuilder();
+
+    /**
+     * @param filter
+     *            テキスト全体に適用するフィルタ
+     * @param holdBackChars
+     *            確定を保留する末尾の文字数（最長の機密パターン長以上）
+     */
+    public MiraStreamingOutputFilter(UnaryOperator<String> filter, int holdBackChars) {
+        this.filter = filter;
+        this.holdBackChars = Math.max(0, holdBackChars);
+    }
+
+    /**
+     * デルタを受け取り、確定したフィルタ済みテキストを返します.
+     *
+     * @return 確定したテキスト（なければ空文字）
+     */
+    public String accept(String delta) {
+        if (delta == null || delta.isEmpty()) {
+            return "";
+        }
+        pending.append(delta);
+        int cut = pending.length() - holdBackChars;
+        if (cut <= 0) {
+            return "";
+        }
+
+        String text = pending.toString();
+        String whole = filter.apply(text);
+        cut = boundaryAtOrBefore(text, cut);
+        for (int attempt = 0; attempt < MAX_CUT_ATTEMPTS && cut > 0; attempt++) {
+            String head = filter.apply(text.substring(0, cut));
+            if (whole.equals(head + filter.apply(text.substring(cut)))) {
+                pending.delete(0, cut);
+                released.append(head);
+                return head;
+            }
+            cut = boundaryAtOrBefore(text, cut - 1);
+        }
+        return "";
+    }
+
+    /**
+     * 保留中のテキストをフィルタして確定します（ストリーム終了時）.
+     *
+     * @return 確定したテキスト（なければ空文字）
+     */
+    public String finish() {
+        if (pending.isEmpty()) {
+            return "";
+        }
+        String tail = filter.apply(pending.toString());
+        pending.setLength(0);
+        released.append(tail);
+        return tail;
+    }
+
+    /**
+     * これまでに確定したテキスト全体を返します.
+     */
+    public String getContent() {
+        return released.toString();
+    }
+
+    /**
+     * 切り出し位置を英数字・記号の連続（メールアドレスや番号）やサロゲートペアの途中にならない位置まで戻します.
+     */
+    private static int boundaryAtOrBefore(String text, int cut) {
+        while (cut > 0 && cut < text.length()
+                && (Character.isLowSurrogate(text.charAt(cut))
+                        || isTokenChar(text.charAt(cut - 1)) && isTokenChar(text.charAt(cut)))) {
+            cut--;
+        }
+        return cut;
+    }
+
+    private static boolean isTokenChar(char c) {
+        return c < 0x80 && (Character.isLetterOrDigit(c) || "._%+-@".indexOf(c) >= 0);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.function.Consumer;
+
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.apache.tika.sax.BodyContentHandler;
+import org.springframework.stereotype.Component;
+import org.xml.sax.SAXException;
+
+/**
+ * Tika によるストリーミングテキスト抽出.
+ * <p>
+ * 入力ストリームを 1 度だけ読み、抽出されたテキストを ContentHandler 経由で逐次受け取ります。
+ * テキストは上限文字数（ウィンドウ）ごとに段落・文の区切りで切り出して呼び出し元へ渡すため、
+ * 抽出中に保持するテキストはウィンドウ分に収まります。
+ * </p>
+ */
+@Component
+public class MiraStreamingTextExtractor {
+
+    /**
+     * テキストを抽出します.
+     *
+     * @param input
+     *            入力ストリーム（呼び出し元でクローズ）
+     * @param fileName
+     *            ファイル名（形式判定に使用）
+     * @param windowChars
+     *            1 回に渡すテキストの上限文字数
+     * @param segmentConsumer
+     *            切り出したテキストの受け取り先
+     */
+    public void extract(InputStream input, String fileName, int windowChars, Consumer<String> segmentConsumer)
+            throws IOException, TikaException, SAXException {
+        AutoDetectParser parser = new AutoDetectParser();
+        ParseContext context = new ParseContext();
+        context.set(Parser.class, parser);
+        Metadata metadata = new Metadata();
+        if (fileName != null) {
+            metadata.set(TikaCoreProperties.RESOURCE_NAME_KEY, fileName);
+        }
+
+        WindowWriter writer = new WindowWriter(windowChars, segmentConsumer);
+        // Writer 指定の BodyContentHandler は文字数上限なしで逐次書き出す
+        parser.parse(input, new BodyContentHandler(writer), metadata, context);
+        writer.close();
+    }
+
+    /**
+     * 受け取ったテキストをウィンドウ単位で切り出す Writer.
+     */
+    static final class WindowWriter extends Writer {
+
+        private final int windowChars;
+        private final Consumer<String> segmentConsumer;
+        private final StringBuilder buffer = new StringBuilder();
+
+        WindowWriter(int windowChars, Consumer<String> segmentConsumer) {
+            this.windowChars = Math.max(1, windowChars);
+            this.segmentConsumer = segmentConsumer;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            buffer.append(cbuf, off, len);
+            while (buffer.length() >= windowChars) {
+                int cut = findBoundary();
+                emit(buffer.substring(0, cut));
+                buffer.delete(0, cut);
+            }
+        }
+
+        /**
+         * ウィンドウ後半にある最後の区切り（空行 → 改行 → 文末）、なければウィンドウ末尾.
+         */
+        private int findBoundary() {
+            int min = windowChars / 2;
+            int cut = buffer.lastIndexOf("\n\n", windowChars);
+            if (cut < min) {
+                cut = buffer.lastIndexOf("\n", windowChars);
+            }
+            if (cut < min) {
+                cut = Math.max(buffer.lastIndexOf("。", windowChars), buffer.lastIndexOf(". ", windowChars));
+            }
+            return cut < min ? windowChars : cut + 1;
+        }
+
+        private void emit(String segment) {
+            if (!segment.isBlank()) {
+                segmentConsumer.accept(segment);
+            }
+        }
+
+        @Override
+        public void flush() {
+            // ウィンドウ未満のテキストは close 時にまとめて渡す
+        }
+
+        @Override
+        public void close() {
+            if (!buffer.isEmpty()) {
+                emit(buffer.toString());
+                buffer.setLength(0);
+            }
+        }
+    }
+}
@@ -150,9 +150,14 @@ public class PromptBuilder {
         List<AiRequest.Message> messages = new ArrayList<>();
         messages.add(AiRequest.Message.system(systemPrompt));
 
-        // 会話履歴を追加（最新N件）
+        // 会話履歴を追加（先頭の会話要約 + 最新N件）
         if (conversationHistory != null && !conversationHistory.isEmpty()) {
-            int startIndex = Math.max(0, conversationHistory.size() - DEFAULT_MAX_HISTORY);
+            int offset = 0;
+            if ("system".equals(conversationHistory.get(0).getRole())) {
+                messages.add(conversationHistory.get(0));
+                offset = 1;
+            }
+            int startIndex = Math.max(offset, conversationHistory.size() - DEFAULT_MAX_HISTORY);
             messages.addAll(conversationHistory.subList(startIndex, conversationHistory.size()));
         }
 
@@ -0,0 +1,196 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.infrastructure.ai;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+import jp.vemi.mirel.apps.mira.infrastructure.monitoring.MiraMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * クエリ埋め込みをキャッシュする EmbeddingModel デコレーター.
+ *
+ * <p>
+ * 類似検索時のクエリ埋め込み（{@link #embed(String)}）をモデル名と正規化テキストのハッシュをキーにキャッシュします。
+ * インメモリ LRU（上限はベクトル数）を一次キャッシュとし、Redis が利用可能な場合は二次キャッシュとして共有します。
+ * ドキュメント登録時のバッチ埋め込み（{@link #call(EmbeddingRequest)}）はキャッシュせずに委譲します。
+ * </p>
+ */
+@Slf4j
+public class CachingEmbeddingModel implements EmbeddingModel {
+
+    private static final String REDIS_KEY_PREFIX = "mira:embedding:";
+
+    private final EmbeddingModel delegate;
+    private final String modelName;
+    private final StringRedisTemplate redisTemplate;
+    private final MiraMetrics metrics;
+    private final Duration redisTtl;
+    private final Cache<String, float[]> cache;
+
+    /**
+     * コンストラクタ.
+     *
+     * @param delegate
+     *            委譲先 EmbeddingModel
+     * @param modelName
+     *            モデル名（キャッシュキーに使用）
+     * @param config
+     *            キャッシュ設定
+     * @param redisTemplate
+     *            Redis テンプレート（Redis 層を使用しない場合は null）
+     * @param metrics
+     *            メトリクス
+     */
+    public CachingEmbeddingModel(
+            EmbeddingModel delegate,
+            String modelName,
+            MiraAiProperties.EmbeddingCacheConfig config,
+            StringRedisTemplate redisTemplate,
+            MiraMetrics metrics) {
+        this.delegate = delegate;
+        this.modelName = modelName;
+        this.redisTemplate = config.isRedisEnabled() ? redisTemplate : null;
+        this.metrics = metrics;
+        this.redisTtl = Duration.ofMinutes(Math.max(1, config.getTtlMinutes()));
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(1, config.getMaxVectors()))
+                .expireAfterAccess(Math.max(1, config.getTtlMinutes()), TimeUnit.MINUTES)
+                .build();
+        metrics.registerEmbeddingCacheSize(cache::size);
+    }
+
+    @Override
+    public float[] embed(String text) {
+        String key = cacheKey(text);
+
+        float[] vector = cache.getIfPresent(key);
+        if (vector != null) {
+            metrics.incrementEmbeddingCache("memory", "hit");
+            return vector;
+        }
+        metrics.incrementEmbeddingCache("memory", "miss");
+
+        vector = getFromRedis(key);
+        if (vector == null) {
+            vector = delegate.embed(text);
+            putToRedis(key, vector);
+        }
+        cache.put(key, vector);
+        return vector;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        return delegate.call(request);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return delegate.embed(document);
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+
+    /**
+     * キャッシュを破棄.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * インメモリに保持しているベクトル数.
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    private float[] getFromRedis(String key) {
+        if (redisTemplate == null) {
+            return null;
+        }
+        try {
+            String value = redisTemplate.opsForValue().get(REDIS_KEY_PREFIX + key);
+            if (value == null) {
+                metrics.incrementEmbeddingCache("redis", "miss");
+                return null;
+            }
+            metrics.incrementEmbeddingCache("redis", "hit");
+            return decode(value);
+        } catch (RuntimeException e) {
+            log.warn("Embedding cache: Redis lookup failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void putToRedis(String key, float[] vector) {
+        if (redisTemplate == null || vector == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(REDIS_KEY_PREFIX + key, encode(vector), redisTtl);
+        } catch (RuntimeException e) {
+            log.warn("Embedding cache: Redis store failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * キャッシュキー（モデル名 + 正規化テキストの SHA-256）.
+     */
+    String cacheKey(String text) {
+        String normalized = normalize(text);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return modelName + ":" + HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 表記揺れの吸収（NFKC 正規化・前後空白除去・連続空白の圧縮）.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).strip().replaceAll("\\s+", " ");
+    }
+
+    static String encode(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES);
+        buffer.asFloatBuffer().put(vector);
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    static float[] decode(String value) {
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(value));
+        float[] vector = new float[buffer.remaining() / Float.BYTES];
+        buffer.asFloatBuffer().get(vector);
+        return vector;
+    }
+}
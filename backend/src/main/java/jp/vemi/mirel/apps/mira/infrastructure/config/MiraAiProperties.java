@@ -166,6 +166,8 @@ public class MiraAiProperties {
         public static class OutputFilteringConfig {
             private boolean enabled = true;
             private boolean blockSystemPromptLeak = true;
+            /** ストリーミング時に確定を保留する末尾の文字数（最長の機密パターン長以上）. */
+            private int streamHoldBackChars = 64;
         }
     }
 
@@ -183,6 +185,39 @@ public class MiraAiProperties {
     /** VectorStore設定. */
     private VectorStoreDbConfig vectorStore = new VectorStoreDbConfig();
 
+    /** RAG 検索実行設定. */
+    private RetrievalConfig retrieval = new RetrievalConfig();
+
+    /** クエリ埋め込みキャッシュ設定. */
+    private EmbeddingCacheConfig embeddingCache = new EmbeddingCacheConfig();
+
+    /** キーワード検索設定. */
+    private KeywordSearchConfig keywordSearch = new KeywordSearchConfig();
+
+    /** HyDE（仮想ドキュメントによるクエリ変換）設定. */
+    private HydeConfig hyde = new HydeConfig();
+
+    /** ドキュメント取り込みパイプライン設定. */
+    private IngestionConfig ingestion = new IngestionConfig();
+
+    /** 一括再インデックスジョブ設定. */
+    private ReindexConfig reindex = new ReindexConfig();
+
+    /** 想定質問生成キュー設定. */
+    private QuestionGenerationConfig questionGeneration = new QuestionGenerationConfig();
+
+    /** 会話履歴読み込み設定. */
+    private HistoryConfig history = new HistoryConfig();
+
+    /** 会話キャッシュ設定. */
+    private ConversationCacheConfig conversationCache = new ConversationCacheConfig();
+
+    /** 会話要約（コンパクション）設定. */
+    private SummaryConfig summary = new SummaryConfig();
+
+    /** ツール実行設定. */
+    private ToolExecutionConfig toolExecution = new ToolExecutionConfig();
+
     @Data
     public static class VectorConfig {
         /** 検索時の類似度閾値 (デフォルト: 0.6). */
@@ -203,6 +238,219 @@ public class MiraAiProperties {
         private boolean initializeSchema = true;
     }
 
+    /**
+     * RAG 検索実行設定.
+     */
+    @Data
+    public static class RetrievalConfig {
+        /** スコープ・検索レッグを並列実行するか. */
+        private boolean parallel = true;
+
+        /** ベクトル検索・キーワード検索の各レッグの期限（ミリ秒）. */
+        private long legTimeoutMs = 3000;
+
+        /** スコープ単位の検索（リランキング含む）の期限（ミリ秒）. */
+        private long scopeTimeoutMs = 10000;
+
+        /** 全スコープを 1 回のベクトル検索・リランキングで検索するか（false の場合はスコープごとに検索）. */
+        private boolean unifiedScope = false;
+    }
+
+    /**
+     * クエリ埋め込みキャッシュ設定.
+     */
+    @Data
+    public static class EmbeddingCacheConfig {
+        /** キャッシュ有効化フラグ. */
+        private boolean enabled = true;
+
+        /** インメモリに保持する最大ベクトル数. */
+        private long maxVectors = 10000;
+
+        /** 保持期間（分）. */
+        private long ttlMinutes = 1440;
+
+        /** Redis を二次キャッシュとして使用するか. */
+        private boolean redisEnabled = false;
+    }
+
+    /**
+     * キーワード検索設定.
+     */
+    @Data
+    public static class KeywordSearchConfig {
+        /** 検索方式: auto（PostgreSQL は全文検索、それ以外は ILIKE）, ilike. */
+        private String mode = "auto";
+    }
+
+    /**
+     * HyDE 設定.
+     */
+    @Data
+    public static class HydeConfig {
+        /** HyDE 有効化フラグ（false の場合は元のクエリで検索）. */
+        private boolean enabled = true;
+
+        /** 生成の期限（ミリ秒）。超過時は元のクエリで検索. */
+        private long timeoutMs = 3000;
+
+        /** キャッシュ保持期間（分）. */
+        private long cacheTtlMinutes = 60;
+
+        /** キャッシュ最大件数. */
+        private long cacheMaxEntries = 1000;
+    }
+
+    /**
+     * ドキュメント取り込みパイプライン設定.
+     */
+    @Data
+    public static class IngestionConfig {
+        /** テキスト抽出ステージの並列数. */
+        private int parseConcurrency = 2;
+
+        /** チャンク分割ステージの並列数. */
+        private int chunkConcurrency = 2;
+
+        /** 埋め込みステージの並列数. */
+        private int embedConcurrency = 4;
+
+        /** 登録ステージの並列数. */
+        private int insertConcurrency = 2;
+
+        /** 各ステージの待ち行列の上限（超過時は前段のステージが待機）. */
+        private int queueCapacity = 32;
+
+        /** テキスト抽出時に 1 度に分割するテキストの上限文字数（Markdown 以外）. */
+        private int extractWindowChars = 32000;
+
+        /** 1 回の埋め込み・登録で扱うチャンク数. */
+        private int batchSize = 16;
+
+        /** JDBC バッチで直接登録するか（false の場合は VectorStore#add）. */
+        private boolean bulkInsert = true;
+    }
+
+    /**
+     * 一括再インデックスジョブ設定.
+     */
+    @Data
+    public static class ReindexConfig {
+        /** ジョブあたりの同時処理ファイル数（テナント設定 rag.reindex.concurrency で上書き可）. */
+        private int concurrency = 2;
+
+        /** レート制限時の最大試行回数. */
+        private int maxAttempts = 4;
+
+        /** レート制限時の初回待機時間（ミリ秒、以降は倍増）. */
+        private long initialBackoffMs = 2000;
+
+        /** レート制限時の最大待機時間（ミリ秒）. */
+        private long maxBackoffMs = 60000;
+
+        /** 起動時に中断されたジョブを再開するか. */
+        private boolean resumeOnStartup = true;
+    }
+
+    /**
+     * 想定質問生成キュー設定.
+     */
+    @Data
+    public static class QuestionGenerationConfig {
+        /** ワーカー数. */
+        private int workers = 1;
+
+        /** 待ち行列の上限（ファイル数）. */
+        private int queueCapacity = 1000;
+
+        /** 1 回の LLM 呼び出しで扱うチャンク数. */
+        private int batchSize = 5;
+
+        /** テナントあたりの LLM 呼び出し上限（回/分、テナント設定 rag.question_generation.rpm で上書き可）. */
+        private int requestsPerMinute = 10;
+
+        /** プロンプトに含めるチャンク本文の上限文字数. */
+        private int maxChunkChars = 1000;
+    }
+
+    /**
+     * 会話履歴読み込み設定.
+     */
+    @Data
+    public static class HistoryConfig {
+        /** 1 回のクエリで取得するメッセージ数. */
+        private int pageSize = 20;
+
+        /** 履歴に含める最大メッセージ数. */
+        private int maxMessages = 100;
+
+        /** 履歴に含める最大トークン数. */
+        private int maxTokens = 8000;
+    }
+
+    /**
+     * 会話キャッシュ設定.
+     */
+    @Data
+    public static class ConversationCacheConfig {
+        /** キャッシュ有効化フラグ. */
+        private boolean enabled = true;
+
+        /** 保持する最大会話数. */
+        private long maxConversations = 10000;
+
+        /** 最終アクセスから破棄までの時間（分）. */
+        private long idleMinutes = 30;
+
+        /** Redis Pub/Sub で他ノードへ無効化を通知するか（複数ノード構成では有効化）. */
+        private boolean redisEnabled = false;
+    }
+
+    /**
+     * 会話要約（コンパクション）設定.
+     */
+    @Data
+    public static class SummaryConfig {
+        /** 要約有効化フラグ. */
+        private boolean enabled = true;
+
+        /** 要約を開始する未要約メッセージのトークン数. */
+        private int triggerTokens = 4000;
+
+        /** 要約を開始する未要約メッセージ数. */
+        private int triggerMessages = 30;
+
+        /** 要約せずに残す直近のメッセージ数（1 未満は 1 として扱う）. */
+        private int keepRecentMessages = 10;
+
+        /** 1 回の要約で読み込む未要約メッセージの上限. */
+        private int maxPendingMessages = 200;
+
+        /** プロンプトに含めるメッセージ本文の上限文字数. */
+        private int maxMessageChars = 2000;
+
+        /** 要約本文の目安文字数. */
+        private int maxSummaryChars = 2000;
+
+        /** 要約処理の最大同時実行数. */
+        private int concurrency = 2;
+
+        /** 実行待ちの要約の上限（超えた要約は次のターンまで見送り）. */
+        private int queueCapacity = 20;
+    }
+
+    /**
+     * ツール実行設定.
+     */
+    @Data
+    public static class ToolExecutionConfig {
+        /** 1 ターン内のツール呼び出しの最大同時実行数. */
+        private int maxConcurrency = 4;
+
+        /** ツール 1 件あたりのタイムアウト（秒）. */
+        private int timeoutSeconds = 30;
+    }
+
     /**
      * リランカー設定.
      */
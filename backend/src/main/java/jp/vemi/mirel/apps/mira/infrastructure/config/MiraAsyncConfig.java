@@ -38,4 +38,23 @@ public class MiraAsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * 会話要約専用のスレッドプール.
+     * <p>
+     * 要約はターン毎に要求されるため、インデックス処理とキューを共有せず上限を分けます。
+     * キューが満杯の場合、要約は次のターンまで見送られます。
+     * </p>
+     */
+    @Bean(name = "miraSummaryExecutor")
+    public Executor miraSummaryExecutor(MiraAiProperties aiProperties) {
+        MiraAiProperties.SummaryConfig config = aiProperties.getSummary();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, config.getConcurrency()));
+        executor.setMaxPoolSize(Math.max(1, config.getConcurrency()));
+        executor.setQueueCapacity(Math.max(0, config.getQueueCapacity()));
+        executor.setThreadNamePrefix("mira-summary-");
+        executor.initialize();
+        return executor;
+    }
 }
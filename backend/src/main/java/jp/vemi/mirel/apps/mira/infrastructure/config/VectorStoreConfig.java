@@ -13,11 +13,16 @@ import org.springframework.ai.embedding.EmbeddingRequest;
 import org.springframework.ai.embedding.EmbeddingResponse;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.pgvector.PgVectorStore;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import jp.vemi.mirel.apps.mira.infrastructure.ai.CachingEmbeddingModel;
+import jp.vemi.mirel.apps.mira.infrastructure.monitoring.MiraMetrics;
+
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -41,6 +46,8 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class VectorStoreConfig {
 
+    private static final String VERTEX_AI_EMBEDDING_MODEL = "text-embedding-004";
+
     private final MiraAiProperties properties;
 
     /**
@@ -53,18 +60,35 @@ public class VectorStoreConfig {
      * <li>"vertex-ai-gemini" かつ設定あり → VertexAiTextEmbeddingModel</li>
      * <li>それ以外 → MockEmbeddingModel（定数ベクトル）</li>
      * </ul>
+     * <p>
+     * mira.ai.embedding-cache.enabled の場合は {@link CachingEmbeddingModel} でラップします。
+     * </p>
      */
     @Bean
     @Primary
-    public EmbeddingModel embeddingModel() {
+    public EmbeddingModel embeddingModel(ObjectProvider<StringRedisTemplate> redisTemplate, MiraMetrics metrics) {
         String provider = properties.getProvider();
 
+        EmbeddingModel model;
         if (MiraAiProperties.PROVIDER_VERTEX_AI_GEMINI.equals(provider) && isVertexAiConfigured()) {
-            return createVertexAiEmbeddingModel();
+            model = createVertexAiEmbeddingModel();
+        } else {
+            log.info("[VectorStoreConfig] Using MockEmbeddingModel (provider={})", provider);
+            model = createMockEmbeddingModel();
         }
-
-        log.info("[VectorStoreConfig] Using MockEmbeddingModel (provider={})", provider);
-        return createMockEmbeddingModel();
+        // Vertex AI の生成に失敗してモックへフォールバックした場合もキーが混在しないよう実体で判定
+        String modelName = model.getClass().getName().endsWith("VertexAiTextEmbeddingModel")
+                ? VERTEX_AI_EMBEDDING_MODEL
+                : "mock";
+
+        var cacheConfig = properties.getEmbeddingCache();
+        if (!cacheConfig.isEnabled()) {
+            return model;
+        }
+        log.info("[VectorStoreConfig] Enabling query embedding cache (maxVectors={}, ttlMinutes={}, redis={})",
+                cacheConfig.getMaxVectors(), cacheConfig.getTtlMinutes(), cacheConfig.isRedisEnabled());
+        return new CachingEmbeddingModel(model, modelName + ":" + properties.getVectorStore().getDimensions(),
+                cacheConfig, redisTemplate.getIfAvailable(), metrics);
     }
 
     /**
@@ -126,7 +150,7 @@ public class VectorStoreConfig {
             var optBuilderMethod = optionsClass.getMethod("builder");
             var optBuilder = optBuilderMethod.invoke(null);
             var modelMethod = optBuilder.getClass().getMethod("model", String.class);
-            modelMethod.invoke(optBuilder, "text-embedding-004");
+            modelMethod.invoke(optBuilder, VERTEX_AI_EMBEDDING_MODEL);
             var buildOptMethod = optBuilder.getClass().getMethod("build");
             var options = buildOptMethod.invoke(optBuilder);
 
@@ -22,9 +22,12 @@ import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraConversation;
 import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraMessage;
 import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraMessage.SenderType;
 import jp.vemi.mirel.apps.mira.domain.dao.repository.MiraConversationRepository;
+import jp.vemi.mirel.apps.mira.domain.dao.repository.MiraConversationSummaryRepository;
 import jp.vemi.mirel.apps.mira.domain.dao.repository.MiraMessageRepository;
 import jp.vemi.mirel.apps.mira.domain.exception.MiraErrorCode;
 import jp.vemi.mirel.apps.mira.domain.exception.MiraException;
+import jp.vemi.mirel.apps.mira.domain.service.MiraConversationCache;
+import jp.vemi.mirel.apps.mira.domain.service.MiraConversationHistoryLoader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -51,6 +54,9 @@ public class MiraChatMemoryAdapter implements ChatMemory {
 
     private final MiraConversationRepository conversationRepository;
     private final MiraMessageRepository messageRepository;
+    private final MiraConversationHistoryLoader historyLoader;
+    private final MiraConversationCache conversationCache;
+    private final MiraConversationSummaryRepository summaryRepository;
 
     /**
      * 会話にメッセージを追加.
@@ -90,6 +96,7 @@ public class MiraChatMemoryAdapter implements ChatMemory {
         // 最終アクティビティ更新
         conversation.updateLastActivity();
         conversationRepository.save(conversation);
+        conversationCache.invalidate(conversationId);
     }
 
     /**
@@ -141,26 +148,20 @@ public class MiraChatMemoryAdapter implements ChatMemory {
                     conversationId, lastN);
         }
 
-        // 全メッセージを取得して最後のN件を返す
-        List<MiraMessage> allMessages = messageRepository
-                .findByConversationIdOrderByCreatedAtAsc(conversationId);
+        // 新しい順に直近N件（トークン数の上限まで）を取得
+        List<MiraMessage> recentMessages = historyLoader.loadRecent(conversationId, lastN);
 
-        if (allMessages.isEmpty()) {
+        if (recentMessages.isEmpty()) {
             return Collections.emptyList();
         }
 
-        // 直近N件を取得（末尾から）
-        int startIndex = Math.max(0, allMessages.size() - lastN);
-        List<MiraMessage> recentMessages = allMessages.subList(startIndex, allMessages.size());
-
         List<Message> result = new ArrayList<>(recentMessages.size());
         for (MiraMessage msg : recentMessages) {
             result.add(toSpringAiMessage(msg));
         }
 
         if (log.isDebugEnabled()) {
-            log.debug("[MiraChatMemoryAdapter] Retrieved {} messages (total: {})",
-                    result.size(), allMessages.size());
+            log.debug("[MiraChatMemoryAdapter] Retrieved {} messages", result.size());
         }
 
         return result;
@@ -181,6 +182,8 @@ public class MiraChatMemoryAdapter implements ChatMemory {
 
         long count = messageRepository.countByConversationId(conversationId);
         messageRepository.deleteByConversationId(conversationId);
+        summaryRepository.deleteById(conversationId);
+        conversationCache.invalidate(conversationId);
 
         log.info("[MiraChatMemoryAdapter] Cleared {} messages from conversation: {}",
                 count, conversationId);
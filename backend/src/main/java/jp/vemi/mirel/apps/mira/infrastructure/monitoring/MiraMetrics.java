@@ -1,10 +1,12 @@
 package jp.vemi.mirel.apps.mira.infrastructure.monitoring;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -22,6 +24,11 @@ public class MiraMetrics {
     private static final String METRIC_TOKENS_COMPLETION = "mira.tokens.completion";
     private static final String METRIC_ERRORS = "mira.errors";
     private static final String METRIC_SERVICE_EXECUTION = "mira.service.execution";
+    private static final String METRIC_EMBEDDING_CACHE = "mira.embedding.cache";
+    private static final String METRIC_EMBEDDING_CACHE_SIZE = "mira.embedding.cache.size";
+    private static final String METRIC_INGESTION_STAGE = "mira.ingestion.stage";
+    private static final String METRIC_INGESTION_ITEMS = "mira.ingestion.items";
+    private static final String METRIC_INGESTION_QUEUE = "mira.ingestion.queue";
 
     /**
      * チャットリクエスト数を記録
@@ -159,4 +166,72 @@ public class MiraMetrics {
         incrementError(errorType, tenantId);
         incrementChatRequest("unknown", tenantId, "error");
     }
+
+    /**
+     * クエリ埋め込みキャッシュの参照結果を記録
+     *
+     * @param tier
+     *            参照した層 (memory/redis)
+     * @param result
+     *            結果 (hit/miss)
+     */
+    public void incrementEmbeddingCache(String tier, String result) {
+        Counter.builder(METRIC_EMBEDDING_CACHE)
+                .tag("tier", tier)
+                .tag("result", result)
+                .description("Number of query embedding cache lookups")
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * クエリ埋め込みキャッシュの保持ベクトル数を登録
+     *
+     * @param sizeSupplier
+     *            保持ベクトル数
+     */
+    public void registerEmbeddingCacheSize(Supplier<Number> sizeSupplier) {
+        Gauge.builder(METRIC_EMBEDDING_CACHE_SIZE, sizeSupplier)
+                .description("Number of vectors held in the query embedding cache")
+                .register(registry);
+    }
+
+    /**
+     * 取り込みパイプラインのステージ処理を記録
+     *
+     * @param stage
+     *            ステージ (parse/chunk/embed/insert)
+     * @param durationMs
+     *            所要時間(ミリ秒)
+     * @param items
+     *            処理件数（ドキュメント・チャンク数）
+     */
+    public void recordIngestionStage(String stage, long durationMs, int items) {
+        Timer.builder(METRIC_INGESTION_STAGE)
+                .tag("stage", stage)
+                .description("Execution time of ingestion pipeline stages")
+                .register(registry)
+                .record(durationMs, TimeUnit.MILLISECONDS);
+
+        Counter.builder(METRIC_INGESTION_ITEMS)
+                .tag("stage", stage)
+                .description("Number of items processed by ingestion pipeline stages")
+                .register(registry)
+                .increment(items);
+    }
+
+    /**
+     * 取り込みパイプラインのステージ待ち行列の長さを登録
+     *
+     * @param stage
+     *            ステージ
+     * @param queueSize
+     *            待ち行列の長さ
+     */
+    public void registerIngestionQueue(String stage, Supplier<Number> queueSize) {
+        Gauge.builder(METRIC_INGESTION_QUEUE, queueSize)
+                .tag("stage", stage)
+                .description("Number of tasks waiting in ingestion pipeline stages")
+                .register(registry);
+    }
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mste.application.config;
+
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * ProMarker 非同期処理設定.
+ * <p>
+ * 非同期生成ジョブを実行するためのスレッドプール設定を提供します。
+ * キュー上限を超えた登録は拒否されます。
+ * </p>
+ */
+@Configuration
+public class ProMarkerAsyncConfig {
+
+    @Value("${mirel.apps.mste.generate-job.core-pool-size:2}")
+    private int corePoolSize;
+
+    @Value("${mirel.apps.mste.generate-job.max-pool-size:4}")
+    private int maxPoolSize;
+
+    @Value("${mirel.apps.mste.generate-job.queue-capacity:50}")
+    private int queueCapacity;
+
+    /**
+     * 生成ジョブ専用のスレッドプール.
+     */
+    @Bean(name = "proMarkerGenerateExecutor")
+    public Executor proMarkerGenerateExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(Math.max(corePoolSize, maxPoolSize));
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("promarker-generate-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+}
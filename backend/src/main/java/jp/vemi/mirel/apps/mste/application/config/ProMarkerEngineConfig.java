@@ -0,0 +1,84 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mste.application.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jp.vemi.ste.domain.engine.StencilSettingsCache;
+import jp.vemi.ste.domain.engine.StencilTemplateCache;
+import jp.vemi.ste.domain.engine.TemplateEngineProcessor;
+
+/**
+ * ProMarker テンプレートエンジンの設定.<br/>
+ *
+ * <p>
+ * {@link jp.vemi.ste.domain.engine.TemplateEngineProcessor} は Spring 管理外のため、
+ * 起動時に application.yml の値をエンジン側の共有設定へ反映します。
+ * </p>
+ *
+ * <pre>
+ * mirel:
+ *   apps:
+ *     mste:
+ *       engine:
+ *         template-cache:
+ *           enabled: true
+ *           max-stencils: 64
+ *           max-templates-per-stencil: 256
+ *         parallel-rendering:
+ *           enabled: false
+ *           max-concurrency: 4
+ *         settings-cache:
+ *           enabled: true
+ *           max-entries: 256
+ * </pre>
+ */
+@Component
+public class ProMarkerEngineConfig {
+
+    /** 解析済みテンプレートキャッシュの有効フラグ */
+    @Value("${mirel.apps.mste.engine.template-cache.enabled:true}")
+    private boolean templateCacheEnabled;
+
+    /** キャッシュするステンシル(シリアル・レイヤー単位)の最大数 */
+    @Value("${mirel.apps.mste.engine.template-cache.max-stencils:64}")
+    private long templateCacheMaxStencils;
+
+    /** ステンシル毎にキャッシュするテンプレートの最大数 */
+    @Value("${mirel.apps.mste.engine.template-cache.max-templates-per-stencil:256}")
+    private int templateCacheMaxTemplatesPerStencil;
+
+    /** ファイル単位の並列レンダリング有効フラグ */
+    @Value("${mirel.apps.mste.engine.parallel-rendering.enabled:false}")
+    private boolean parallelRenderingEnabled;
+
+    /** 並列レンダリング時の最大同時実行数 */
+    @Value("${mirel.apps.mste.engine.parallel-rendering.max-concurrency:4}")
+    private int parallelRenderingMaxConcurrency;
+
+    /** マージ済みステンシル設定キャッシュの有効フラグ */
+    @Value("${mirel.apps.mste.engine.settings-cache.enabled:true}")
+    private boolean settingsCacheEnabled;
+
+    /** キャッシュするステンシル設定(ステンシル・シリアル単位)の最大数 */
+    @Value("${mirel.apps.mste.engine.settings-cache.max-entries:256}")
+    private long settingsCacheMaxEntries;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @PostConstruct
+    public void init() {
+        StencilTemplateCache.shared().configure(templateCacheEnabled, templateCacheMaxStencils,
+                templateCacheMaxTemplatesPerStencil);
+        StencilSettingsCache.shared().configure(settingsCacheEnabled, settingsCacheMaxEntries);
+        meterRegistry.ifAvailable(StencilSettingsCache.shared()::bindTo);
+        TemplateEngineProcessor.configureRendering(parallelRenderingEnabled, parallelRenderingMaxConcurrency);
+    }
+}
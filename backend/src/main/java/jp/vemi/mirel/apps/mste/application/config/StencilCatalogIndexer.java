@@ -0,0 +1,78 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mste.application.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import jp.vemi.ste.domain.engine.StencilCatalogIndex;
+
+/**
+ * ステンシルカタログインデックスの構築・監視.<br/>
+ *
+ * <p>
+ * 起動完了時に {@link StencilCatalogIndex} を構築し、ファイルシステムレイヤーの監視を開始します。
+ * ステンシルマスタ自動リロード（{@link ProMarkerStartupListener}）より先に実行します。
+ * </p>
+ *
+ * <pre>
+ * mirel:
+ *   apps:
+ *     mste:
+ *       engine:
+ *         catalog-index:
+ *           enabled: true
+ *           watch: true
+ * </pre>
+ */
+@Component
+public class StencilCatalogIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StencilCatalogIndexer.class);
+
+    /** Spring標準のリソース検索機能 */
+    @Autowired
+    private ResourcePatternResolver resourcePatternResolver;
+
+    /** カタログインデックスの有効フラグ */
+    @Value("${mirel.apps.mste.engine.catalog-index.enabled:true}")
+    private boolean enabled;
+
+    /** ファイルシステムレイヤー監視の有効フラグ */
+    @Value("${mirel.apps.mste.engine.catalog-index.watch:true}")
+    private boolean watch;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void onApplicationReady() {
+        StencilCatalogIndex.shared().configure(enabled);
+        if (false == enabled) {
+            logger.info("StencilCatalogIndex is disabled (mirel.apps.mste.engine.catalog-index.enabled=false)");
+            return;
+        }
+
+        try {
+            StencilCatalogIndex.shared().rebuild(resourcePatternResolver);
+            if (watch) {
+                StencilCatalogIndex.shared().startWatching();
+            }
+        } catch (RuntimeException e) {
+            // インデックスが無くても従来の走査で動作するため起動は継続
+            logger.error("Failed to build StencilCatalogIndex: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        StencilCatalogIndex.shared().stopWatching();
+    }
+}
@@ -27,6 +27,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Hidden;
 import jp.vemi.mirel.apps.mste.domain.api.GenerateApi;
+import jp.vemi.mirel.apps.mste.domain.api.GenerateAsyncApi;
+import jp.vemi.mirel.apps.mste.domain.api.GenerateStatusApi;
 import jp.vemi.mirel.apps.mste.domain.api.MsteApi;
 import jp.vemi.mirel.apps.mste.domain.api.ReloadStencilMasterApi;
 import jp.vemi.mirel.apps.mste.domain.api.SuggestApi;
@@ -49,6 +51,12 @@ public class ApiController {
     @Autowired
     private GenerateApi generateApi;
     
+    @Autowired
+    private GenerateAsyncApi generateAsyncApi;
+    
+    @Autowired
+    private GenerateStatusApi generateStatusApi;
+    
     @Autowired
     private ReloadStencilMasterApi reloadStencilMasterApi;
     
@@ -144,6 +152,77 @@ public class ApiController {
         return executeApi(generateApi, request, "generateApi");
     }
 
+    @PostMapping("/generateAsync")
+    @Operation(
+        summary = "コード生成（非同期）",
+        description = "コード生成をジョブとして登録し、ジョブIDを即時に返します。" +
+                      " 進捗と結果は `/generateStatus` で取得してください。" +
+                      " 実行待ちが上限を超えている場合はエラーを返します。"
+    )
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "登録成功 - ジョブIDを返却",
+            content = @io.swagger.v3.oas.annotations.media.Content(
+                mediaType = "application/json",
+                schema = @io.swagger.v3.oas.annotations.media.Schema(implementation = ApiResponse.class),
+                examples = @io.swagger.v3.oas.annotations.media.ExampleObject(
+                    name = "成功例",
+                    value = "{\n  \"data\": {\n    \"jobId\": \"abc123-def456-...\",\n    \"status\": \"QUEUED\",\n    \"total\": 1,\n    \"processed\": 0,\n    \"files\": [],\n    \"errors\": []\n  },\n  \"messages\": [],\n  \"errors\": []\n}"
+                )
+            )
+        )
+    })
+    public ResponseEntity<ApiResponse<?>> generateAsync(
+        @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "生成に必要なパラメータ（/generate と同じ形式）",
+            required = true,
+            content = @io.swagger.v3.oas.annotations.media.Content(
+                schema = @io.swagger.v3.oas.annotations.media.Schema(implementation = Map.class)
+            )
+        )
+        @RequestBody Map<String, Object> request) {
+
+        return executeApi(generateAsyncApi, request, "generateAsyncApi");
+    }
+
+    @PostMapping("/generateStatus")
+    @Operation(
+        summary = "コード生成ジョブ状態取得",
+        description = "非同期生成ジョブの状態（QUEUED / RUNNING / COMPLETED / FAILED）と進捗を取得します。" +
+                      " 完了後は `files` に生成結果のZIPファイルIDと論理名が設定されます。"
+    )
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200",
+            description = "成功",
+            content = @io.swagger.v3.oas.annotations.media.Content(
+                mediaType = "application/json",
+                schema = @io.swagger.v3.oas.annotations.media.Schema(implementation = ApiResponse.class),
+                examples = @io.swagger.v3.oas.annotations.media.ExampleObject(
+                    name = "成功例",
+                    value = "{\n  \"data\": {\n    \"jobId\": \"abc123-def456-...\",\n    \"status\": \"COMPLETED\",\n    \"total\": 1,\n    \"processed\": 1,\n    \"files\": [{\n      \"abc123-def456-...\": \"hello-world-250913A.zip\"\n    }],\n    \"errors\": []\n  },\n  \"messages\": [],\n  \"errors\": []\n}"
+                )
+            )
+        )
+    })
+    public ResponseEntity<ApiResponse<?>> generateStatus(
+        @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "照会するジョブID",
+            required = true,
+            content = @io.swagger.v3.oas.annotations.media.Content(
+                schema = @io.swagger.v3.oas.annotations.media.Schema(implementation = Map.class),
+                examples = @io.swagger.v3.oas.annotations.media.ExampleObject(
+                    name = "Request例",
+                    value = "{\n  \"content\": {\n    \"jobId\": \"abc123-def456-...\"\n  }\n}"
+                )
+            )
+        )
+        @RequestBody Map<String, Object> request) {
+
+        return executeApi(generateStatusApi, request, "generateStatusApi");
+    }
+
     @PostMapping("/reloadStencilMaster")
     @Operation(
         summary = "ステンシルマスタ再読込",
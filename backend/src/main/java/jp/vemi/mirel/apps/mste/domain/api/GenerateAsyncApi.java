@@ -0,0 +1,36 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mste.domain.api;
+
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import jp.vemi.mirel.apps.mste.domain.dto.GenerateParameter;
+import jp.vemi.mirel.apps.mste.domain.service.GenerateJobService;
+import jp.vemi.mirel.foundation.web.api.dto.ApiRequest;
+import jp.vemi.mirel.foundation.web.api.dto.ApiResponse;
+
+/**
+ * 非同期生成ジョブ登録 .<br/>
+ */
+@Service
+public class GenerateAsyncApi implements MsteApi {
+
+    @Autowired
+    protected GenerateJobService service;
+
+    @Override
+    public ApiResponse<?> service(Map<String, Object> request) {
+
+        ApiRequest<GenerateParameter> apireq = ApiRequest.<GenerateParameter>builder().model(
+            GenerateParameter.builder().params(Lists.newArrayList(request)).build()).build();
+
+        return service.submit(apireq);
+    }
+
+}
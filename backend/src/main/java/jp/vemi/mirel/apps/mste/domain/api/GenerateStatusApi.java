@@ -0,0 +1,37 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mste.domain.api;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import jp.vemi.framework.util.InstanceUtil;
+import jp.vemi.mirel.apps.mste.domain.dto.GenerateJobParameter;
+import jp.vemi.mirel.apps.mste.domain.service.GenerateJobService;
+import jp.vemi.mirel.foundation.web.api.dto.ApiRequest;
+import jp.vemi.mirel.foundation.web.api.dto.ApiResponse;
+
+/**
+ * 非同期生成ジョブ状態照会 .<br/>
+ */
+@Service
+public class GenerateStatusApi implements MsteApi {
+
+    @Autowired
+    protected GenerateJobService service;
+
+    @Override
+    public ApiResponse<?> service(Map<String, Object> request) {
+        Map<String, Object> content = InstanceUtil.forceCast(request.get("content"));
+        String jobId = null == content ? null : (String) content.get("jobId");
+
+        ApiRequest<GenerateJobParameter> apireq = ApiRequest.<GenerateJobParameter>builder().model(
+            GenerateJobParameter.builder().jobId(jobId).build()).build();
+
+        return service.status(apireq);
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mste.domain.dto;
+
+import java.util.List;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * 非同期生成ジョブの状態
+ */
+@lombok.Data
+@lombok.Builder
+@lombok.NoArgsConstructor(force = true, staticName = "of")
+@lombok.AllArgsConstructor(staticName = "of")
+public class GenerateJobResult {
+
+  /** ジョブID */
+  private String jobId;
+
+  /** ステータス */
+  private Status status;
+
+  /** 生成対象件数 */
+  private int total;
+
+  /** 処理済み件数 */
+  private int processed;
+
+  /** files */
+  // ファイルID・ファイル名
+  @lombok.Builder.Default
+  private List<Pair<String, String>> files = new java.util.ArrayList<>();
+
+  /** errors */
+  @lombok.Builder.Default
+  private List<String> errors = new java.util.ArrayList<>();
+
+  /**
+   * ジョブステータス
+   */
+  public enum Status {
+    /** 実行待ち */
+    QUEUED,
+    /** 実行中 */
+    RUNNING,
+    /** 完了（エラーを含む場合あり） */
+    COMPLETED,
+    /** 失敗 */
+    FAILED
+  }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mste.domain.service;
+
+import jp.vemi.mirel.apps.mste.domain.dto.GenerateJobParameter;
+import jp.vemi.mirel.apps.mste.domain.dto.GenerateJobResult;
+import jp.vemi.mirel.apps.mste.domain.dto.GenerateParameter;
+import jp.vemi.mirel.foundation.web.api.dto.ApiRequest;
+import jp.vemi.mirel.foundation.web.api.dto.ApiResponse;
+
+/**
+ * MSTE 非同期生成ジョブのサービスです。 .<br/>
+ */
+public interface GenerateJobService {
+
+    /**
+     * 生成ジョブを登録します。<br/>
+     * @param parameter 生成パラメータ
+     * @return ジョブの状態（ジョブID）
+     */
+    public abstract ApiResponse<GenerateJobResult> submit(ApiRequest<GenerateParameter> parameter);
+
+    /**
+     * 生成ジョブの状態を取得します。<br/>
+     * @param parameter 照会パラメータ
+     * @return ジョブの状態
+     */
+    public abstract ApiResponse<GenerateJobResult> status(ApiRequest<GenerateJobParameter> parameter);
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mste.domain.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+import jp.vemi.framework.util.SanitizeUtil;
+import jp.vemi.mirel.apps.mste.domain.dto.GenerateJobParameter;
+import jp.vemi.mirel.apps.mste.domain.dto.GenerateJobResult;
+import jp.vemi.mirel.apps.mste.domain.dto.GenerateJobResult.Status;
+import jp.vemi.mirel.apps.mste.domain.dto.GenerateParameter;
+import jp.vemi.mirel.apps.mste.domain.dto.GenerateResult;
+import jp.vemi.mirel.foundation.context.ExecutionContext;
+import jp.vemi.mirel.foundation.web.api.dto.ApiRequest;
+import jp.vemi.mirel.foundation.web.api.dto.ApiResponse;
+
+/**
+ * {@link GenerateJobService} の具象です。<br/>
+ * 生成パラメータを1件ずつ {@link GenerateService#generate} で処理し、進捗をメモリ上に保持します。
+ * ジョブは受付時の実行者（テナント・ユーザー）に紐付き、他の実行者からは照会できません。
+ * 完了したジョブは保持期間を過ぎると破棄されます。
+ */
+@Service
+public class GenerateJobServiceImp implements GenerateJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenerateJobServiceImp.class);
+
+    @Autowired
+    protected GenerateService generateService;
+
+    /** {@link ExecutionContext} */
+    @Autowired
+    protected ExecutionContext executionContext;
+
+    /** 生成ジョブ用のスレッドプール */
+    @Autowired
+    @Qualifier("proMarkerGenerateExecutor")
+    protected Executor executor;
+
+    /** 完了したジョブの保持期間（分） */
+    @Value("${mirel.apps.mste.generate-job.retention-minutes:60}")
+    protected long retentionMinutes;
+
+    private final Map<String, GenerateJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ApiResponse<GenerateJobResult> submit(ApiRequest<GenerateParameter> parameter) {
+
+        ApiResponse<GenerateJobResult> resp = ApiResponse.<GenerateJobResult>builder().build();
+        purgeExpired();
+
+        List<Map<String, Object>> params = parameter.getModel().params;
+        if (CollectionUtils.isEmpty(params)) {
+            resp.addError("生成パラメータが指定されていません。");
+            return resp;
+        }
+
+        // ジョブはリクエストスコープ外で実行されるため、実行者を受付時に確定する
+        GenerateJob job = new GenerateJob(UUID.randomUUID().toString(), params.size(),
+                executionContext.getCurrentTenantId(), executionContext.getCurrentUserId());
+        jobs.put(job.jobId, job);
+        try {
+            executor.execute(() -> run(job, new ArrayList<>(params)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.jobId);
+            logger.warn("Generate job rejected: {}", e.getMessage());
+            resp.addError("生成ジョブが混雑しています。しばらくしてから再実行してください。");
+            return resp;
+        }
+
+        resp.setData(job.snapshot());
+        return resp;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ApiResponse<GenerateJobResult> status(ApiRequest<GenerateJobParameter> parameter) {
+
+        ApiResponse<GenerateJobResult> resp = ApiResponse.<GenerateJobResult>builder().build();
+        purgeExpired();
+
+        String jobId = parameter.getModel().jobId;
+        GenerateJob job = StringUtils.isEmpty(jobId) ? null : jobs.get(jobId);
+        if (null != job
+                && false == job.isOwnedBy(executionContext.getCurrentTenantId(), executionContext.getCurrentUserId())) {
+            // 他の実行者のジョブは存在を明かさない
+            logger.warn("Generate job status requested by non-owner: {}", SanitizeUtil.forLog(jobId));
+            job = null;
+        }
+        if (null == job) {
+            resp.addError("ジョブが見つかりません。ジョブID：" + StringUtils.defaultString(jobId));
+            return resp;
+        }
+
+        resp.setData(job.snapshot());
+        return resp;
+    }
+
+    /**
+     * ジョブを実行します。<br/>
+     * 
+     * @param job
+     *            ジョブ
+     * @param params
+     *            生成パラメータ
+     */
+    protected void run(GenerateJob job, List<Map<String, Object>> params) {
+        job.start();
+        logger.info("Generate job started: {} ({} items)", SanitizeUtil.forLog(job.jobId), params.size());
+
+        for (Map<String, Object> item : params) {
+            ApiResponse<GenerateResult> itemResp = ApiResponse.<GenerateResult>builder().build();
+            Pair<String, String> file = null;
+            try {
+                file = generateService.generate(item, itemResp, job.tenantId, job.userId);
+            } catch (RuntimeException e) {
+                logger.error("Generate job item failed: {}", SanitizeUtil.forLog(job.jobId), e);
+                itemResp.addError(e.getLocalizedMessage());
+            }
+            job.completeItem(file, itemResp.getErrors());
+        }
+
+        job.finish();
+        logger.info("Generate job finished: {}", SanitizeUtil.forLog(job.jobId));
+    }
+
+    private void purgeExpired() {
+        long threshold = System.currentTimeMillis() - retentionMinutes * 60 * 1000;
+        jobs.values().removeIf(job -> job.isExpired(threshold));
+    }
+
+    /**
+     * 生成ジョブ
+     */
+    protected static class GenerateJob {
+        private final String jobId;
+        private final int total;
+        private final String tenantId;
+        private final String userId;
+        private Status status = Status.QUEUED;
+        private int processed = 0;
+        private final List<Pair<String, String>> files = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+        private long finishedAt = 0;
+
+        GenerateJob(String jobId, int total, String tenantId, String userId) {
+            this.jobId = jobId;
+            this.total = total;
+            this.tenantId = tenantId;
+            this.userId = userId;
+        }
+
+        boolean isOwnedBy(String tenantId, String userId) {
+            // 認証無効（ゲストモード）で受け付けたジョブは実行者を持たないため、同じくゲストからのみ照会可能
+            return Objects.equals(this.userId, userId) && Objects.equals(this.tenantId, tenantId);
+        }
+
+        synchronized void start() {
+            status = Status.RUNNING;
+        }
+
+        synchronized void completeItem(Pair<String, String> file, List<String> itemErrors) {
+            if (null != file) {
+                files.add(file);
+            }
+            if (null != itemErrors) {
+                errors.addAll(itemErrors);
+            }
+            processed++;
+        }
+
+        synchronized void finish() {
+            // 1件も生成できなかった場合は失敗
+            status = files.isEmpty() && false == errors.isEmpty() ? Status.FAILED : Status.COMPLETED;
+            finishedAt = System.currentTimeMillis();
+        }
+
+        synchronized boolean isExpired(long threshold) {
+            return finishedAt > 0 && finishedAt < threshold;
+        }
+
+        synchronized GenerateJobResult snapshot() {
+            return GenerateJobResult.builder()
+                    .jobId(jobId)
+                    .status(status)
+                    .total(total)
+                    .processed(processed)
+                    .files(new ArrayList<>(files))
+                    .errors(new ArrayList<>(errors))
+                    .build();
+        }
+    }
+}
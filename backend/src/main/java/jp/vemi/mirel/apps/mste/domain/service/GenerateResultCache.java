@@ -0,0 +1,339 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mste.domain.service;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import jp.vemi.framework.storage.StorageService;
+import jp.vemi.framework.util.SanitizeUtil;
+import jp.vemi.mirel.foundation.abst.dao.entity.FileManagement;
+import jp.vemi.mirel.foundation.abst.dao.repository.FileManagementRepository;
+import jp.vemi.ste.domain.engine.StencilCatalogIndex;
+
+/**
+ * 生成結果のキャッシュです。<br/>
+ *
+ * <p>
+ * 実行者（テナントID・ユーザーID）、ステンシルのフィンガープリント、正規化した生成パラメータ（content）、
+ * 参照ファイルの内容ハッシュからキーを算出し、同一実行者・同一入力による再生成では登録済みのファイル管理IDを返します。
+ * 登録済みファイルが削除・期限切れの場合はミスとして扱います。
+ * 実行者を特定できない場合、フィンガープリントを算出できない場合（カタログインデックス無効時）はキャッシュしません。
+ * </p>
+ *
+ * <p>
+ * ヒット・ミス数は Micrometer のカウンタ {@value #METRIC_NAME}（タグ result=hit/miss）で公開します。
+ * </p>
+ *
+ * <pre>
+ * mirel:
+ *   apps:
+ *     mste:
+ *       generate-cache:
+ *         enabled: false
+ *         ttl-minutes: 60
+ *         max-entries: 512
+ * </pre>
+ */
+@Component
+public class GenerateResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(GenerateResultCache.class);
+
+    /** メトリクス名 */
+    public static final String METRIC_NAME = "promarker.generate.result.cache";
+
+    @Autowired
+    protected FileManagementRepository fileManagementRepository;
+
+    @Autowired
+    protected StorageService storageService;
+
+    @Autowired
+    protected ObjectProvider<MeterRegistry> meterRegistry;
+
+    /** キャッシュ有効フラグ */
+    @Value("${mirel.apps.mste.generate-cache.enabled:false}")
+    protected boolean enabled;
+
+    /** 保持期間（分） */
+    @Value("${mirel.apps.mste.generate-cache.ttl-minutes:60}")
+    protected long ttlMinutes;
+
+    /** 保持するエントリ数 */
+    @Value("${mirel.apps.mste.generate-cache.max-entries:512}")
+    protected long maxEntries;
+
+    /** 生成結果（キー → ファイル管理ID・ファイル名） */
+    private Cache<String, Pair<String, String>> results;
+
+    /** 参照ファイルの内容ハッシュ（ファイル管理ID → ハッシュ）。登録済みファイルは内容が変わらないため期限なし */
+    private Cache<String, String> fileHashes;
+
+    private Counter hitCounter;
+
+    private Counter missCounter;
+
+    /** フィンガープリント未算出の警告を出力済みか */
+    private final AtomicBoolean fingerprintWarned = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        results = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(1, maxEntries))
+                .expireAfterWrite(Math.max(1, ttlMinutes), TimeUnit.MINUTES)
+                .build();
+        fileHashes = CacheBuilder.newBuilder().maximumSize(Math.max(1, maxEntries)).build();
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        hitCounter = Counter.builder(METRIC_NAME).tag("result", "hit")
+                .description("Number of generate result cache lookups").register(registry);
+        missCounter = Counter.builder(METRIC_NAME).tag("result", "miss")
+                .description("Number of generate result cache lookups").register(registry);
+
+        logger.info("GenerateResultCache configured: enabled={}, ttlMinutes={}, maxEntries={}", enabled, ttlMinutes,
+                maxEntries);
+    }
+
+    /**
+     * 起動完了時（カタログインデックス構築後）に、フィンガープリントを算出できずキャッシュが機能しない構成を警告します。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    public void onApplicationReady() {
+        if (enabled && false == StencilCatalogIndex.shared().isBuilt()) {
+            warnFingerprintUnavailable();
+        }
+    }
+
+    /**
+     * キャッシュが有効か判定します。
+     *
+     * @return 有効な場合 true
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * キャッシュキーを算出します。
+     *
+     * @param content
+     *            生成パラメータ（content）
+     * @param stencilFingerprint
+     *            ステンシルのフィンガープリント
+     * @param fileIds
+     *            参照ファイルのファイル管理ID
+     * @param tenantId
+     *            実行者のテナントID
+     * @param userId
+     *            実行者のユーザーID
+     * @return キー。算出できない場合は null
+     */
+    public String createKey(final Map<String, Object> content, final String stencilFingerprint,
+            final Collection<String> fileIds, final String tenantId, final String userId) {
+        if (false == enabled || StringUtils.isEmpty(userId)) {
+            return null;
+        }
+        if (StringUtils.isEmpty(stencilFingerprint)) {
+            warnFingerprintUnavailable();
+            return null;
+        }
+
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // 生成結果は実行者に帰属するため、テナント・ユーザーをまたいで共有しない
+            final StringBuilder owner = new StringBuilder();
+            canonicalize(List.of(StringUtils.defaultString(tenantId), userId), owner);
+            digest.update(owner.toString().getBytes(StandardCharsets.UTF_8));
+            digest.update(stencilFingerprint.getBytes(StandardCharsets.UTF_8));
+
+            final StringBuilder canonical = new StringBuilder();
+            canonicalize(content, canonical);
+            digest.update(canonical.toString().getBytes(StandardCharsets.UTF_8));
+
+            for (final String fileId : new TreeSet<>(fileIds)) {
+                final String fileHash = getFileHash(fileId);
+                if (fileHash == null) {
+                    return null;
+                }
+                digest.update((fileId + "=" + fileHash).getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            logger.debug("Failed to create generate cache key: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 生成結果を取得します。<br/>
+     * 登録済みファイルが利用できない場合はエントリを破棄して null を返します。
+     *
+     * @param key
+     *            キー
+     * @return ファイル管理ID・ファイル名、または null
+     */
+    public Pair<String, String> get(final String key) {
+        if (false == enabled || key == null) {
+            return null;
+        }
+
+        final Pair<String, String> cached = results.getIfPresent(key);
+        if (cached == null || false == isAvailable(cached.getLeft())) {
+            if (cached != null) {
+                results.invalidate(key);
+            }
+            missCounter.increment();
+            return null;
+        }
+
+        hitCounter.increment();
+        logger.debug("GenerateResultCache hit: {}", SanitizeUtil.forLog(cached.getLeft()));
+        return cached;
+    }
+
+    /**
+     * 生成結果を登録します。
+     *
+     * @param key
+     *            キー
+     * @param file
+     *            ファイル管理ID・ファイル名
+     */
+    public void put(final String key, final Pair<String, String> file) {
+        if (false == enabled || key == null || file == null) {
+            return;
+        }
+        results.put(key, file);
+    }
+
+    /**
+     * 全てのキャッシュを破棄します。
+     */
+    public void invalidateAll() {
+        results.invalidateAll();
+    }
+
+    /**
+     * 保持しているエントリ数を取得します。
+     *
+     * @return 件数
+     */
+    public long size() {
+        return results.size();
+    }
+
+    private void warnFingerprintUnavailable() {
+        if (fingerprintWarned.compareAndSet(false, true)) {
+            logger.warn("GenerateResultCache is enabled but stencil fingerprints are unavailable"
+                    + " (StencilCatalogIndex is disabled or not built); generate results will not be cached");
+        }
+    }
+
+    private boolean isAvailable(final String fileId) {
+        final FileManagement item = fileManagementRepository.findById(fileId).orElse(null);
+        if (item == null || Boolean.TRUE.equals(item.getDeleteFlag())) {
+            return false;
+        }
+        if (item.getExpireDate() != null && item.getExpireDate().before(new Date())) {
+            return false;
+        }
+        return storageService.exists(item.getFilePath());
+    }
+
+    private String getFileHash(final String fileId) {
+        final String cached = fileHashes.getIfPresent(fileId);
+        if (cached != null) {
+            return cached;
+        }
+
+        final FileManagement item = fileManagementRepository.findById(fileId).orElse(null);
+        if (item == null) {
+            return null;
+        }
+
+        try (InputStream in = storageService.exists(item.getFilePath())
+                ? storageService.getInputStream(item.getFilePath())
+                : new FileInputStream(item.getFilePath())) {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final byte[] buffer = new byte[8192];
+            int len;
+            while ((len = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, len);
+            }
+            final String hash = HexFormat.of().formatHex(digest.digest());
+            fileHashes.put(fileId, hash);
+            return hash;
+        } catch (IOException | NoSuchAlgorithmException e) {
+            logger.debug("Failed to hash file: {}", SanitizeUtil.forLog(fileId));
+            return null;
+        }
+    }
+
+    /**
+     * 生成パラメータをキーの順序に依存しない文字列へ変換します。
+     */
+    static void canonicalize(final Object value, final StringBuilder sb) {
+        if (value instanceof Map<?, ?> map) {
+            final Map<String, Object> sorted = new TreeMap<>();
+            map.forEach((k, v) -> sorted.put(String.valueOf(k), v));
+            sb.append('{');
+            sorted.forEach((k, v) -> {
+                quote(k, sb);
+                sb.append(':');
+                canonicalize(v, sb);
+                sb.append(',');
+            });
+            sb.append('}');
+        } else if (value instanceof Collection<?> list) {
+            sb.append('[');
+            list.forEach(v -> {
+                canonicalize(v, sb);
+                sb.append(',');
+            });
+            sb.append(']');
+        } else if (value instanceof String s) {
+            quote(s, sb);
+        } else {
+            sb.append(value);
+        }
+    }
+
+    private static void quote(final String s, final StringBuilder sb) {
+        sb.append('"').append(s.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+    }
+}
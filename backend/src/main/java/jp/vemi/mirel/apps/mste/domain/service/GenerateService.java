@@ -3,6 +3,10 @@
  */
 package jp.vemi.mirel.apps.mste.domain.service;
 
+import java.util.Map;
+
+import org.apache.commons.lang3.tuple.Pair;
+
 import jp.vemi.mirel.apps.mste.domain.dto.GenerateParameter;
 import jp.vemi.mirel.apps.mste.domain.dto.GenerateResult;
 import jp.vemi.mirel.foundation.web.api.dto.ApiRequest;
@@ -19,4 +23,24 @@ public interface GenerateService {
      * @return result
      */
     public abstract ApiResponse<GenerateResult> invoke(ApiRequest<GenerateParameter> parameter);
+
+    /**
+     * 1件分の生成を行います。<br/>
+     * @param item 生成パラメータ（content直下に指定）
+     * @param resp エラーの通知先
+     * @return 生成ファイル（ファイル管理ID・ファイル名）、エラー時は null
+     */
+    public abstract Pair<String, String> generate(Map<String, Object> item, ApiResponse<GenerateResult> resp);
+
+    /**
+     * 実行者を指定して1件分の生成を行います。<br/>
+     * リクエストスコープ外（生成ジョブ等）から呼び出す場合に使用します。
+     * @param item 生成パラメータ（content直下に指定）
+     * @param resp エラーの通知先
+     * @param tenantId 実行者のテナントID
+     * @param userId 実行者のユーザーID
+     * @return 生成ファイル（ファイル管理ID・ファイル名）、エラー時は null
+     */
+    public abstract Pair<String, String> generate(Map<String, Object> item, ApiResponse<GenerateResult> resp,
+            String tenantId, String userId);
 }
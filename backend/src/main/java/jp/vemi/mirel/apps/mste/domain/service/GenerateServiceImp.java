@@ -15,9 +15,9 @@ import com.google.common.collect.Maps;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 import jp.vemi.framework.exeption.MessagingException;
@@ -27,6 +27,7 @@ import jp.vemi.mirel.apps.mste.domain.dto.GenerateParameter;
 import jp.vemi.mirel.apps.mste.domain.dto.GenerateResult;
 import jp.vemi.mirel.foundation.abst.dao.entity.FileManagement;
 import jp.vemi.mirel.foundation.abst.dao.repository.FileManagementRepository;
+import jp.vemi.mirel.foundation.context.ExecutionContext;
 import jp.vemi.mirel.foundation.feature.files.service.FileRegisterService;
 import jp.vemi.mirel.foundation.web.api.dto.ApiRequest;
 import jp.vemi.mirel.foundation.web.api.dto.ApiResponse;
@@ -35,10 +36,10 @@ import jp.vemi.ste.domain.engine.TemplateEngineProcessor;
 import jp.vemi.ste.domain.engine.StructureReader;
 
 /**
- * {@link GenerateService} の具象です。
+ * {@link GenerateService} の具象です。<br/>
+ * 生成処理は長時間に及ぶため、トランザクションは {@link FileRegisterService#register} の登録処理のみに限定します。
  */
 @Service
-@Transactional
 public class GenerateServiceImp implements GenerateService {
 
     @Autowired
@@ -54,6 +55,18 @@ public class GenerateServiceImp implements GenerateService {
     @Autowired
     protected StorageService storageService;
 
+    /** {@link GenerateResultCache} */
+    @Autowired
+    protected GenerateResultCache generateResultCache;
+
+    /** {@link ExecutionContext} */
+    @Autowired
+    protected ExecutionContext executionContext;
+
+    /** 生成結果を出力ディレクトリを経由せずZIPとしてストレージへ直接書き込むか */
+    @Value("${mirel.apps.mste.engine.streaming-zip.enabled:false}")
+    protected boolean streamingZip;
+
     /**
      * {@inheritDoc}
      */
@@ -64,47 +77,85 @@ public class GenerateServiceImp implements GenerateService {
 
         List<Pair<String, String>> retItems = Lists.newArrayList();
         parameter.getModel().params.stream().forEach(item -> {
+            Pair<String, String> file = generate(item, resp);
+            if (null != file) {
+                retItems.add(file);
+            }
+        });
+
+        resp.setData(GenerateResult.builder().files(retItems).build());
+
+        return resp;
+
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Pair<String, String> generate(Map<String, Object> item, ApiResponse<GenerateResult> resp) {
+        return generate(item, resp, executionContext.getCurrentTenantId(), executionContext.getCurrentUserId());
+    }
 
-            Map<String, Object> once = InstanceUtil.forceCast(item.get("content"));
-            List<String> errs = validate(once);
-            if (false == CollectionUtils.isEmpty(errs)) {
-                // has err
-                resp.addErrors(errs);
-                return;
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Pair<String, String> generate(Map<String, Object> item, ApiResponse<GenerateResult> resp,
+            String tenantId, String userId) {
+        Map<String, Object> once = InstanceUtil.forceCast(item.get("content"));
+        List<String> errs = validate(once);
+        if (false == CollectionUtils.isEmpty(errs)) {
+            // has err
+            resp.addErrors(errs);
+            return null;
+        }
+
+        // prepare.
+        TemplateEngineProcessor engine = TemplateEngineProcessor.create(
+                SteContext.newSteContext(once), resourcePatternResolver);
+        List<String> fileIds = getFileIds(engine.getStencilSettings().getStencilDeAndDd());
+
+        // 同一入力の生成結果が登録済みであれば再生成しない
+        final int errorCount = resp.getErrors().size();
+        String cacheKey = null;
+        if (generateResultCache.isEnabled()) {
+            cacheKey = generateResultCache.createKey(once, engine.getStencilFingerprint(), fileIds, tenantId,
+                    userId);
+            Pair<String, String> cached = generateResultCache.get(cacheKey);
+            if (null != cached) {
+                return cached;
             }
+        }
 
-            // prepare.
-            TemplateEngineProcessor engine = TemplateEngineProcessor.create(
-                    SteContext.newSteContext(once), resourcePatternResolver);
-            List<Map<String, Object>> delements = engine.getStencilSettings().getStencilDeAndDd();
-            for (Map<String, Object> delement : delements) {
-                Object typeObject = delement.get("type");
-                if (null == typeObject || false == typeObject instanceof String) {
-                    // タイプの宣言が不正なので処理しない
-                    continue;
-                }
-                String type = InstanceUtil.forceCast(typeObject);
-                if (false == "file".equals(type)) {
-                    // ファイルでないので処理しない
-                    continue;
-                }
-                Object valueObject = delement.get("value");
-                if (null == valueObject || false == valueObject instanceof String) {
-                    // バリューの宣言が不正なので処理しない
-                    continue;
-                }
-                String value = InstanceUtil.forceCast(valueObject);
-
-                try {
-                    engine.appendContext(file(value, resp));
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    resp.addError(e.getLocalizedMessage());
-                    return;
-                }
+        for (String fileId : fileIds) {
+            try {
+                engine.appendContext(file(fileId, resp));
+            } catch (Exception e) {
+                e.printStackTrace();
+                resp.addError(e.getLocalizedMessage());
+                return null;
             }
+        }
 
-            // create.
+        // create.
+        Pair<String, String> result;
+        if (streamingZip) {
+            // 出力ディレクトリを経由せず、ZIPとして直接ストレージへ書き込む
+            final String generateId = TemplateEngineProcessor.createGenerateId();
+            try {
+                result = fileRegisterService.register(generateId + ".zip",
+                        out -> engine.executeToZip(generateId, out));
+            } catch (MessagingException e) {
+                e.printStackTrace();
+                resp.addErrors(e.messages);
+                return null;
+            } catch (Exception e) {
+                e.printStackTrace();
+                resp.addError(e.getLocalizedMessage());
+                return null;
+            }
+        } else {
             String filePath;
             try {
                 filePath = engine.execute();
@@ -112,24 +163,52 @@ public class GenerateServiceImp implements GenerateService {
             } catch (MessagingException e) {
                 e.printStackTrace();
                 resp.addErrors(e.messages);
-                return;
+                return null;
             } catch (Exception e) {
                 e.printStackTrace();
                 resp.addError(e.getLocalizedMessage());
-                return;
+                return null;
             }
 
             // register fileitem.
-            Pair<String, String> file = fileRegisterService.register(new File(filePath), true);
-
-            retItems.add(file);
-
-        });
-
-        resp.setData(GenerateResult.builder().files(retItems).build());
+            result = fileRegisterService.register(new File(filePath), true);
+        }
 
-        return resp;
+        if (resp.getErrors().size() == errorCount) {
+            // 参照ファイルの読込エラー等を含む結果はキャッシュしない
+            generateResultCache.put(cacheKey, result);
+        }
+        return result;
+    }
 
+    /**
+     * ファイル型のデータ要素からファイル管理IDを取得します。<br/>
+     * 
+     * @param delements
+     *            データ要素
+     * @return ファイル管理ID
+     */
+    protected List<String> getFileIds(List<Map<String, Object>> delements) {
+        List<String> fileIds = Lists.newArrayList();
+        for (Map<String, Object> delement : delements) {
+            Object typeObject = delement.get("type");
+            if (null == typeObject || false == typeObject instanceof String) {
+                // タイプの宣言が不正なので処理しない
+                continue;
+            }
+            String type = InstanceUtil.forceCast(typeObject);
+            if (false == "file".equals(type)) {
+                // ファイルでないので処理しない
+                continue;
+            }
+            Object valueObject = delement.get("value");
+            if (null == valueObject || false == valueObject instanceof String) {
+                // バリューの宣言が不正なので処理しない
+                continue;
+            }
+            fileIds.add(InstanceUtil.forceCast(valueObject));
+        }
+        return fileIds;
     }
 
     protected Map<String, Object> file(final String fileId, ApiResponse<GenerateResult> resp) {
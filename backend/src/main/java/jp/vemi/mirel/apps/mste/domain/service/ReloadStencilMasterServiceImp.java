@@ -44,6 +44,9 @@ import jp.vemi.mirel.foundation.web.api.dto.ApiRequest;
 import jp.vemi.mirel.foundation.web.api.dto.ApiResponse;
 import jp.vemi.ste.domain.dto.yml.StencilSettingsYml;
 import jp.vemi.ste.domain.dto.yml.StencilSettingsYml.Stencil.Config;
+import jp.vemi.ste.domain.engine.StencilCatalogIndex;
+import jp.vemi.ste.domain.engine.StencilSettingsCache;
+import jp.vemi.ste.domain.engine.StencilTemplateCache;
 import jp.vemi.ste.domain.engine.TemplateEngineProcessor;
 
 /**
@@ -146,6 +149,11 @@ public class ReloadStencilMasterServiceImp implements ReloadStencilMasterService
             // 従来のファイル管理処理（後方互換性）
             readFileManagementLegacy();
 
+            // カタログインデックスを再構築し、設定・解析済みテンプレートのキャッシュを破棄
+            StencilCatalogIndex.shared().rebuild(resourcePatternResolver);
+            StencilSettingsCache.shared().invalidateAll();
+            StencilTemplateCache.shared().invalidateAll();
+
         } catch (Exception e) {
             logger.error("Error in read() method: {}", e.getMessage(), e);
 
@@ -45,6 +45,9 @@ import jp.vemi.mirel.foundation.web.api.dto.ApiRequest;
 import jp.vemi.mirel.foundation.web.api.dto.ApiResponse;
 import jp.vemi.ste.domain.dto.yml.StencilSettingsYml;
 import jp.vemi.ste.domain.dto.yml.StencilSettingsYml.Stencil.Config;
+import jp.vemi.ste.domain.engine.StencilCatalogIndex;
+import jp.vemi.ste.domain.engine.StencilSettingsCache;
+import jp.vemi.ste.domain.engine.StencilTemplateCache;
 
 /**
  * {@link StencilEditorService} の実装
@@ -213,6 +216,11 @@ public class StencilEditorServiceImp implements StencilEditorService {
             // DB更新
             updateDatabase(param.getStencilId(), newSerial, param.getConfig());
 
+            // カタログインデックスを再構築し、設定・解析済みテンプレートのキャッシュを破棄
+            StencilCatalogIndex.shared().refresh();
+            StencilSettingsCache.shared().invalidate(param.getStencilId());
+            StencilTemplateCache.shared().invalidate(param.getStencilId());
+
             SaveStencilResult result = SaveStencilResult.builder()
                     .newSerial(newSerial)
                     .success(true)
@@ -4,6 +4,8 @@
 package jp.vemi.mirel.foundation.feature.files.service;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.web.multipart.MultipartFile;
@@ -19,4 +21,23 @@ public interface FileRegisterService {
 
   public Pair<String, String> register(File srcFile, boolean isZip, String fileName);
 
+  /**
+   * 一時ファイルを経由せず、ストレージへ直接書き込んで登録します。<br/>
+   *
+   * @param fileName
+   *          ファイル名
+   * @param writer
+   *          保存先ストリームへの書き込み処理
+   * @return ファイル管理ID・ファイル名
+   */
+  public Pair<String, String> register(String fileName, ContentWriter writer);
+
+  /**
+   * 保存先ストリームへの書き込み処理 .<br/>
+   */
+  @FunctionalInterface
+  public interface ContentWriter {
+    void write(OutputStream out) throws IOException;
+  }
+
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Date;
@@ -28,6 +29,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.web.multipart.MultipartFile;
 
+import jp.vemi.framework.storage.Abortable;
 import jp.vemi.framework.storage.StorageService;
 import jp.vemi.framework.util.DateUtil;
 import jp.vemi.mirel.foundation.abst.dao.entity.FileManagement;
@@ -135,6 +137,88 @@ public class FileRegisterServiceImpl implements FileRegisterService {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * 書き込み（生成・アップロード）はトランザクション外で行い、DB 接続を保持しません。
+     * {@link FileManagement} の登録のみリポジトリのトランザクションで行います。
+     * 書き込みに失敗した場合は保存先ストリームを中断し、途中までの内容を保存しません。
+     * </p>
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Pair<String, String> register(String fileName, ContentWriter writer) {
+        String uuid = UUID.randomUUID().toString();
+        String relativePath = getRelativePath(uuid);
+        String storagePath = relativePath + "/" + ATCH_FILE_NAME;
+
+        if (StringUtils.isEmpty(fileName)) {
+            fileName = ATCH_FILE_NAME;
+        }
+
+        // StorageService へストリーミングで保存
+        try {
+            OutputStream os = storageService.openOutputStream(storagePath);
+            try {
+                writer.write(os);
+            } catch (IOException | RuntimeException e) {
+                abortQuietly(os, storagePath);
+                throw e;
+            }
+            os.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to save file: " + fileName, e);
+        }
+        logger.debug("File streamed to storage: {}", storagePath);
+
+        // エンティティ作成
+        FileManagement fileManagement = new FileManagement();
+        fileManagement.fileId = uuid;
+        fileManagement.fileName = fileName;
+        fileManagement.filePath = storagePath;
+        fileManagement.expireDate = DateUtils.addDays(new Date(), defaultExpireTerms());
+
+        FileManagement saved;
+        try {
+            saved = fileManagementRepository.save(fileManagement);
+        } catch (RuntimeException e) {
+            deleteQuietly(storagePath);
+            throw e;
+        }
+        if (saved == null) {
+            deleteQuietly(storagePath);
+            throw new RuntimeException("Failed to save FileManagement entity");
+        }
+
+        return Pair.of(uuid, fileName);
+    }
+
+    /**
+     * 書き込みを中断します。中断できないストリームはクローズ後に削除します。
+     */
+    private void abortQuietly(OutputStream os, String storagePath) {
+        if (os instanceof Abortable abortable) {
+            abortable.abort();
+            return;
+        }
+        try {
+            os.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close incomplete file: {}", storagePath, e);
+        }
+        deleteQuietly(storagePath);
+    }
+
+    private void deleteQuietly(String storagePath) {
+        try {
+            if (storageService.exists(storagePath)) {
+                storageService.delete(storagePath);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to delete incomplete file: {}", storagePath, e);
+        }
+    }
+
     private byte[] readFileBytes(File file) throws IOException {
         if (file.isDirectory()) {
             // ディレクトリの場合は全ファイルを ZIP 化
@@ -0,0 +1,477 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.ste.domain.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import jp.vemi.framework.config.StorageConfig;
+import jp.vemi.framework.util.SanitizeUtil;
+
+/**
+ * ステンシルカタログのインメモリインデックスです。<br/>
+ *
+ * <p>
+ * user → standard → samples の各レイヤーを起動時に一度だけ走査し、
+ * ステンシル → シリアル → (stencil-settings.yml, テンプレートファイル) と
+ * 親ステンシル設定（*_stencil-settings.yml）の所在を保持します。
+ * {@link TemplateEngineProcessor} はインデックスから解決できた場合、リクエスト毎のファイルシステム・クラスパス走査を行いません。
+ * </p>
+ *
+ * <p>
+ * ファイルシステムレイヤーは {@link WatchService} で監視し、変更を検知すると再構築します。
+ * ステンシルマスタ再読込・ステンシル保存時は {@link #refresh()} で明示的に再構築してください。
+ * </p>
+ */
+public final class StencilCatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(StencilCatalogIndex.class);
+
+    private static final String SETTINGS_FILE_NAME = "stencil-settings.yml";
+
+    private static final String PARENT_SETTINGS_SUFFIX = "_stencil-settings.yml";
+
+    private static final String CLASSPATH_PREFIX = "classpath:";
+
+    /** 変更検知後、再構築までの待ち時間（連続した変更をまとめる） */
+    private static final long WATCH_DEBOUNCE_MILLIS = 500;
+
+    private static final StencilCatalogIndex SHARED = new StencilCatalogIndex();
+
+    private volatile boolean enabled = true;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private volatile ResourcePatternResolver resourcePatternResolver;
+
+    private WatchService watchService;
+
+    private Thread watchThread;
+
+    /**
+     * 共有インスタンスを取得します。
+     *
+     * @return {@link StencilCatalogIndex}
+     */
+    public static StencilCatalogIndex shared() {
+        return SHARED;
+    }
+
+    StencilCatalogIndex() {
+    }
+
+    /**
+     * インデックスの有効/無効を設定します。<br/>
+     * 無効の場合、{@link TemplateEngineProcessor} は従来どおりリクエスト毎に走査します。
+     *
+     * @param enabled
+     *            有効フラグ
+     */
+    public synchronized void configure(final boolean enabled) {
+        this.enabled = enabled;
+        if (false == enabled) {
+            this.snapshot = Snapshot.EMPTY;
+        }
+    }
+
+    /**
+     * インデックスが構築済みかを返します。
+     *
+     * @return 構築済みの場合 true
+     */
+    public boolean isBuilt() {
+        return enabled && snapshot.built();
+    }
+
+    /**
+     * レイヤーを走査してインデックスを構築します。
+     *
+     * @param resolver
+     *            クラスパス走査に使用する {@link ResourcePatternResolver}
+     */
+    public synchronized void rebuild(final ResourcePatternResolver resolver) {
+        this.resourcePatternResolver = resolver;
+        build();
+    }
+
+    /**
+     * 前回と同じ {@link ResourcePatternResolver} でインデックスを再構築します。<br/>
+     * 一度も構築されていない場合は何もしません。
+     */
+    public synchronized void refresh() {
+        if (false == snapshot.built()) {
+            return;
+        }
+        build();
+    }
+
+    private void build() {
+        if (false == enabled) {
+            return;
+        }
+        final long start = System.currentTimeMillis();
+        final String[] layerDirs = {
+                StorageConfig.getUserStencilDir(),
+                StorageConfig.getStandardStencilDir(),
+                StorageConfig.getSamplesStencilDir()
+        };
+
+        final Map<String, List<LayerStencil>> stencils = new HashMap<>();
+        final Map<String, File> parentSettings = new HashMap<>();
+
+        for (final String layerDir : layerDirs) {
+            if (StringUtils.isEmpty(layerDir)) {
+                continue;
+            }
+            final Map<String, Map<String, SerialEntry>> found = layerDir.startsWith(CLASSPATH_PREFIX)
+                    ? scanClasspathLayer(layerDir)
+                    : scanFileSystemLayer(layerDir, parentSettings);
+            for (final Map.Entry<String, Map<String, SerialEntry>> entry : found.entrySet()) {
+                stencils.computeIfAbsent(entry.getKey(), key -> new ArrayList<>())
+                        .add(new LayerStencil(layerDir, Collections.unmodifiableMap(entry.getValue())));
+            }
+        }
+
+        stencils.replaceAll((key, value) -> Collections.unmodifiableList(value));
+        this.snapshot = new Snapshot(true, Collections.unmodifiableMap(stencils),
+                Collections.unmodifiableMap(parentSettings));
+
+        logger.info("StencilCatalogIndex rebuilt: {} stencils in {}ms", stencils.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 指定ステンシルのシリアル一覧を取得します（最上位のレイヤーのみ、昇順）。
+     *
+     * @param stencilCanonicalName
+     *            ステンシル正規名
+     * @return シリアル一覧
+     */
+    public List<String> getSerialNos(final String stencilCanonicalName) {
+        for (final LayerStencil layer : layers(stencilCanonicalName)) {
+            if (false == layer.serials().isEmpty()) {
+                return new ArrayList<>(layer.serials().keySet());
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * 指定ステンシル・シリアルのエントリをレイヤー優先順で取得します。
+     *
+     * @param stencilCanonicalName
+     *            ステンシル正規名
+     * @param serialNo
+     *            シリアル
+     * @return エントリ一覧（user → standard → samples）
+     */
+    public List<SerialEntry> getSerialEntries(final String stencilCanonicalName, final String serialNo) {
+        final List<SerialEntry> entries = new ArrayList<>();
+        for (final LayerStencil layer : layers(stencilCanonicalName)) {
+            final SerialEntry entry = layer.serials().get(serialNo);
+            if (null != entry) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 親ステンシル設定ファイルを取得します。
+     *
+     * @param parentPath
+     *            親パス（例: "/user/project"）
+     * @return 親設定ファイル、存在しない場合 null
+     */
+    public File getParentSettingsFile(final String parentPath) {
+        return snapshot.parentSettings().get(normalize(parentPath));
+    }
+
+    /**
+     * ファイルシステムレイヤーの監視を開始します。
+     */
+    public synchronized void startWatching() {
+        if (false == enabled || null != watchThread) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            logger.warn("StencilCatalogIndex watch service is not available: {}", e.getMessage());
+            return;
+        }
+        registerLayerDirectories();
+
+        watchThread = new Thread(this::watchLoop, "stencil-catalog-watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+        logger.info("StencilCatalogIndex started watching stencil layers.");
+    }
+
+    /**
+     * ファイルシステムレイヤーの監視を停止します。
+     */
+    public synchronized void stopWatching() {
+        if (null == watchThread) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close watch service: {}", e.getMessage());
+        }
+        watchThread.interrupt();
+        watchThread = null;
+        watchService = null;
+    }
+
+    private void watchLoop() {
+        final WatchService service = this.watchService;
+        try {
+            while (false == Thread.currentThread().isInterrupted()) {
+                WatchKey key = service.take();
+                // 連続した変更をまとめてから再構築
+                do {
+                    key.pollEvents();
+                    key.reset();
+                    key = service.poll(WATCH_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                } while (null != key);
+
+                logger.debug("StencilCatalogIndex detected stencil layer change.");
+                refresh();
+                registerLayerDirectories();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // stopWatching
+        } catch (Exception e) {
+            logger.error("StencilCatalogIndex watcher stopped: {}", e.getMessage(), e);
+        }
+    }
+
+    private synchronized void registerLayerDirectories() {
+        if (null == watchService) {
+            return;
+        }
+        for (final String layerDir : Arrays.asList(StorageConfig.getUserStencilDir(),
+                StorageConfig.getStandardStencilDir(), StorageConfig.getSamplesStencilDir())) {
+            if (StringUtils.isEmpty(layerDir) || layerDir.startsWith(CLASSPATH_PREFIX)) {
+                continue;
+            }
+            final Path root = Paths.get(layerDir);
+            if (false == Files.isDirectory(root)) {
+                continue;
+            }
+            try (Stream<Path> dirs = Files.walk(root)) {
+                dirs.filter(Files::isDirectory).forEach(dir -> {
+                    try {
+                        dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                                StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                    } catch (IOException | ClosedWatchServiceException e) {
+                        logger.debug("Failed to watch {}: {}", SanitizeUtil.forLog(dir), e.getMessage());
+                    }
+                });
+            } catch (IOException e) {
+                logger.warn("Failed to walk stencil layer {}: {}", SanitizeUtil.forLog(layerDir), e.getMessage());
+            }
+        }
+    }
+
+    private Map<String, Map<String, SerialEntry>> scanFileSystemLayer(final String layerDir,
+            final Map<String, File> parentSettings) {
+        final Map<String, Map<String, SerialEntry>> stencils = new HashMap<>();
+        final Path root = Paths.get(layerDir).toAbsolutePath().normalize();
+        if (false == Files.isDirectory(root)) {
+            return stencils;
+        }
+
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted().forEach(path -> {
+                final File file = path.toFile();
+                if (file.isDirectory()) {
+                    if (TemplateEngineProcessor.isSerialNoVal(file.getName()) && false == root.equals(path)) {
+                        final String stencil = toCanonicalName(root.relativize(path.getParent()));
+                        stencils.computeIfAbsent(stencil, key -> new TreeMap<>())
+                                .put(file.getName(), newFileSystemEntry(layerDir, stencil, file));
+                    }
+                } else if (file.getName().endsWith(PARENT_SETTINGS_SUFFIX)) {
+                    // 上位レイヤー・先に見つかったものを優先
+                    parentSettings.putIfAbsent(toCanonicalName(root.relativize(path.getParent())), file);
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Failed to scan stencil layer {}: {}", SanitizeUtil.forLog(layerDir), e.getMessage());
+        }
+        return stencils;
+    }
+
+    private SerialEntry newFileSystemEntry(final String layerDir, final String stencil, final File serialDir) {
+        final File settings = new File(serialDir, SETTINGS_FILE_NAME);
+        final Map<String, String> files = new LinkedHashMap<>();
+        try (Stream<Path> paths = Files.walk(serialDir.toPath())) {
+            paths.filter(Files::isRegularFile)
+                    .filter(path -> false == SETTINGS_FILE_NAME.equals(path.getFileName().toString()))
+                    .forEach(path -> {
+                        final String relativePath = serialDir.toPath().relativize(path).toString().replace('\\', '/');
+                        try {
+                            files.put(relativePath, path.toFile().getCanonicalPath());
+                        } catch (IOException e) {
+                            logger.warn("Error processing file {}: {}", SanitizeUtil.forLog(path), e.getMessage());
+                        }
+                    });
+        } catch (IOException e) {
+            logger.warn("Failed to scan serial directory {}: {}", SanitizeUtil.forLog(serialDir), e.getMessage());
+        }
+        return new SerialEntry(layerDir, false, serialDir.getName(), serialDir,
+                settings.isFile() ? settings.getAbsolutePath() : null, Collections.unmodifiableMap(files));
+    }
+
+    private Map<String, Map<String, SerialEntry>> scanClasspathLayer(final String layerDir) {
+        final Map<String, Map<String, SerialEntry>> stencils = new HashMap<>();
+        if (null == resourcePatternResolver) {
+            logger.debug("StencilCatalogIndex: resourcePatternResolver is null, skip classpath layer.");
+            return stencils;
+        }
+
+        String basePath = layerDir.substring(CLASSPATH_PREFIX.length()).replaceFirst("^/+", "");
+        if (false == basePath.endsWith("/")) {
+            basePath = basePath + "/";
+        }
+
+        // stencil → serial → (relativePath → location), settings
+        final Map<String, Map<String, Map<String, String>>> files = new HashMap<>();
+        final Map<String, Map<String, String>> settings = new HashMap<>();
+        try {
+            final Resource[] resources = resourcePatternResolver.getResources("classpath*:" + basePath + "**");
+            if (null == resources) {
+                return stencils;
+            }
+            for (final Resource resource : resources) {
+                final String uri = resource.getURI().toString();
+                if (uri.endsWith("/") || false == resource.isReadable()) {
+                    continue;
+                }
+                final int baseIndex = uri.indexOf(basePath);
+                if (baseIndex < 0) {
+                    continue;
+                }
+                final String relative = URLDecoder.decode(uri.substring(baseIndex + basePath.length()),
+                        StandardCharsets.UTF_8);
+                final String[] segments = relative.split("/");
+                int serialIndex = -1;
+                for (int i = 1; i < segments.length - 1; i++) {
+                    if (TemplateEngineProcessor.isSerialNoVal(segments[i])) {
+                        serialIndex = i;
+                        break;
+                    }
+                }
+                if (serialIndex < 0) {
+                    continue;
+                }
+
+                final String stencil = "/" + String.join("/", Arrays.copyOfRange(segments, 0, serialIndex));
+                final String serial = segments[serialIndex];
+                final String filePath = String.join("/",
+                        Arrays.copyOfRange(segments, serialIndex + 1, segments.length));
+                final String location = basePath + relative;
+
+                if (SETTINGS_FILE_NAME.equals(filePath)) {
+                    settings.computeIfAbsent(stencil, key -> new HashMap<>()).putIfAbsent(serial, location);
+                } else if (false == filePath.endsWith("/" + SETTINGS_FILE_NAME)) {
+                    files.computeIfAbsent(stencil, key -> new HashMap<>())
+                            .computeIfAbsent(serial, key -> new TreeMap<>())
+                            .putIfAbsent(filePath, location);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to scan classpath stencil layer {}: {}", SanitizeUtil.forLog(layerDir),
+                    e.getMessage());
+            return stencils;
+        }
+
+        // stencil-settings.yml が存在するシリアルのみを登録（従来のクラスパス検索と同じ条件）
+        for (final Map.Entry<String, Map<String, String>> stencil : settings.entrySet()) {
+            for (final Map.Entry<String, String> serial : stencil.getValue().entrySet()) {
+                final Map<String, String> serialFiles = files.getOrDefault(stencil.getKey(), Collections.emptyMap())
+                        .getOrDefault(serial.getKey(), Collections.emptyMap());
+                stencils.computeIfAbsent(stencil.getKey(), key -> new TreeMap<>())
+                        .put(serial.getKey(), new SerialEntry(layerDir, true, serial.getKey(), null,
+                                serial.getValue(), Collections.unmodifiableMap(serialFiles)));
+            }
+        }
+        return stencils;
+    }
+
+    private List<LayerStencil> layers(final String stencilCanonicalName) {
+        return snapshot.stencils().getOrDefault(normalize(stencilCanonicalName), Collections.emptyList());
+    }
+
+    private static String toCanonicalName(final Path relativePath) {
+        return normalize(relativePath.toString().replace('\\', '/'));
+    }
+
+    private static String normalize(final String stencilCanonicalName) {
+        String name = StringUtils.defaultString(stencilCanonicalName).trim();
+        name = name.replaceAll("/+$", "");
+        return name.startsWith("/") ? name : "/" + name;
+    }
+
+    /**
+     * レイヤー内のステンシル
+     */
+    record LayerStencil(String layerDir, Map<String, SerialEntry> serials) {
+    }
+
+    /**
+     * シリアル単位のエントリ
+     *
+     * @param layerDir
+     *            レイヤーディレクトリ
+     * @param classpath
+     *            クラスパスレイヤーの場合 true
+     * @param serialNo
+     *            シリアル
+     * @param serialDir
+     *            シリアルディレクトリ（クラスパスの場合 null）
+     * @param settingsLocation
+     *            stencil-settings.yml の絶対パスまたはクラスパス上のパス（存在しない場合 null）
+     * @param files
+     *            シリアルディレクトリからの相対パス → 絶対パスまたはクラスパス上のパス
+     */
+    public record SerialEntry(String layerDir, boolean classpath, String serialNo, File serialDir,
+            String settingsLocation, Map<String, String> files) {
+    }
+
+    private record Snapshot(boolean built, Map<String, List<LayerStencil>> stencils,
+            Map<String, File> parentSettings) {
+        static final Snapshot EMPTY = new Snapshot(false, Collections.emptyMap(), Collections.emptyMap());
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.ste.domain.engine;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jp.vemi.framework.exeption.MirelSystemException;
+import jp.vemi.framework.util.SanitizeUtil;
+import jp.vemi.ste.domain.dto.yml.StencilSettingsYml;
+import jp.vemi.ste.domain.dto.yml.StencilSettingsYml.Stencil;
+import jp.vemi.ste.domain.dto.yml.StencilSettingsYml.Stencil.CodeInfo;
+import jp.vemi.ste.domain.dto.yml.StencilSettingsYml.Stencil.Config;
+import jp.vemi.ste.domain.dto.yml.StencilSettingsYml.Store;
+import jp.vemi.ste.domain.dto.yml.StencilSettingsYml.Store.ValueText;
+
+/**
+ * 親設定マージ済み {@link StencilSettingsYml} のキャッシュです。<br/>
+ *
+ * <p>
+ * (stencilCanonicalName, serialNo, 内容ハッシュ) をキーとして保持します。
+ * 内容ハッシュは stencil-settings.yml と親設定ファイルの内容から算出するため、
+ * ファイルが更新された場合は自動的に別エントリとなります。
+ * 呼び出し元での変更がキャッシュに波及しないよう、取得時は複製を返します。
+ * </p>
+ *
+ * <p>
+ * ヒット・ミス数は Micrometer のカウンタ {@value #METRIC_NAME}（タグ result=hit/miss）で公開します。
+ * </p>
+ */
+public final class StencilSettingsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(StencilSettingsCache.class);
+
+    /** メトリクス名 */
+    public static final String METRIC_NAME = "promarker.stencil.settings.cache";
+
+    /** 保持するエントリ数の既定値 */
+    public static final long DEFAULT_MAX_ENTRIES = 256;
+
+    private static final StencilSettingsCache SHARED = new StencilSettingsCache();
+
+    private volatile boolean enabled = true;
+
+    private volatile Cache<Key, StencilSettingsYml> settings = newCache(DEFAULT_MAX_ENTRIES);
+
+    private volatile Counter hitCounter;
+
+    private volatile Counter missCounter;
+
+    /**
+     * 共有インスタンスを取得します。
+     *
+     * @return {@link StencilSettingsCache}
+     */
+    public static StencilSettingsCache shared() {
+        return SHARED;
+    }
+
+    StencilSettingsCache() {
+        bindTo(Metrics.globalRegistry);
+    }
+
+    /**
+     * キャッシュ設定を反映します。<br/>
+     * 設定変更時は保持中のエントリを破棄します。
+     *
+     * @param enabled
+     *            キャッシュ有効フラグ
+     * @param maxEntries
+     *            保持するエントリ数
+     */
+    public synchronized void configure(boolean enabled, long maxEntries) {
+        this.enabled = enabled;
+        this.settings = newCache(Math.max(1, maxEntries));
+        logger.info("StencilSettingsCache configured: enabled={}, maxEntries={}", enabled, maxEntries);
+    }
+
+    /**
+     * ヒット・ミス数の記録先を設定します。
+     *
+     * @param registry
+     *            {@link MeterRegistry}
+     */
+    public synchronized void bindTo(final MeterRegistry registry) {
+        this.hitCounter = Counter.builder(METRIC_NAME)
+                .tag("result", "hit")
+                .description("Number of stencil settings cache lookups")
+                .register(registry);
+        this.missCounter = Counter.builder(METRIC_NAME)
+                .tag("result", "miss")
+                .description("Number of stencil settings cache lookups")
+                .register(registry);
+    }
+
+    /**
+     * マージ済み設定を取得します。存在しない場合は loader で読み込んで登録します。
+     *
+     * @param stencilCanonicalName
+     *            ステンシル正規名
+     * @param serialNo
+     *            シリアル
+     * @param contentHash
+     *            設定ファイル（親設定を含む）の内容ハッシュ
+     * @param loader
+     *            マージ済み設定の読込処理
+     * @return マージ済み設定の複製
+     */
+    public StencilSettingsYml get(final String stencilCanonicalName, final String serialNo,
+            final String contentHash, final Supplier<StencilSettingsYml> loader) {
+        if (false == enabled) {
+            return loader.get();
+        }
+
+        final Key key = new Key(normalize(stencilCanonicalName), StringUtils.defaultString(serialNo),
+                StringUtils.defaultString(contentHash));
+        final Cache<Key, StencilSettingsYml> current = this.settings;
+
+        StencilSettingsYml cached = current.getIfPresent(key);
+        if (cached != null) {
+            hitCounter.increment();
+            return copyOf(cached);
+        }
+
+        missCounter.increment();
+        // 内容が更新された旧エントリを破棄
+        current.asMap().keySet().removeIf(other -> other.stencilCanonicalName().equals(key.stencilCanonicalName())
+                && other.serialNo().equals(key.serialNo()) && false == other.equals(key));
+        try {
+            cached = current.get(key, () -> {
+                logger.debug("StencilSettingsCache miss: {}", SanitizeUtil.forLog(key.toString()));
+                return loader.get();
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new MirelSystemException("ステンシル定義の読込に失敗しました。", e.getCause());
+        }
+        return copyOf(cached);
+    }
+
+    /**
+     * 指定ステンシルの全シリアルのキャッシュを破棄します。
+     *
+     * @param stencilCanonicalName
+     *            ステンシル正規名
+     */
+    public void invalidate(final String stencilCanonicalName) {
+        final String target = normalize(stencilCanonicalName);
+        settings.asMap().keySet().removeIf(key -> key.stencilCanonicalName().equals(target));
+        logger.debug("StencilSettingsCache invalidated: {}", SanitizeUtil.forLog(target));
+    }
+
+    /**
+     * 全てのキャッシュを破棄します。
+     */
+    public void invalidateAll() {
+        settings.invalidateAll();
+        logger.debug("StencilSettingsCache invalidated all entries.");
+    }
+
+    /**
+     * 保持しているエントリ数を取得します。
+     *
+     * @return 件数
+     */
+    public long size() {
+        return settings.size();
+    }
+
+    private static Cache<Key, StencilSettingsYml> newCache(final long maxEntries) {
+        return CacheBuilder.newBuilder().maximumSize(maxEntries).build();
+    }
+
+    private static String normalize(final String stencilCanonicalName) {
+        final String name = StringUtils.defaultString(stencilCanonicalName).trim();
+        return name.startsWith("/") ? name : "/" + name;
+    }
+
+    /**
+     * 設定の複製を作成します。
+     *
+     * @param source
+     *            複製元
+     * @return 複製
+     */
+    static StencilSettingsYml copyOf(final StencilSettingsYml source) {
+        final StencilSettingsYml copy = new StencilSettingsYml();
+        final Stencil stencil = source.getStencil();
+        if (stencil == null) {
+            return copy;
+        }
+
+        final Stencil stencilCopy = new Stencil();
+        if (stencil.getConfig() != null) {
+            final Config config = stencil.getConfig();
+            final Config configCopy = new Config();
+            configCopy.setId(config.getId());
+            configCopy.setName(config.getName());
+            configCopy.setCategoryId(config.getCategoryId());
+            configCopy.setCategoryName(config.getCategoryName());
+            configCopy.setSerial(config.getSerial());
+            configCopy.setLastUpdate(config.getLastUpdate());
+            configCopy.setLastUpdateUser(config.getLastUpdateUser());
+            configCopy.setDescription(config.getDescription());
+            stencilCopy.setConfig(configCopy);
+        }
+        stencilCopy.setDataElement(copyMapList(stencil.getDataElement()));
+        stencilCopy.setDataDomain(copyMapList(stencil.getDataDomain()));
+        if (stencil.getCodeInfo() != null) {
+            final CodeInfo codeInfo = stencil.getCodeInfo();
+            final CodeInfo codeInfoCopy = new CodeInfo();
+            codeInfoCopy.setCopyright(codeInfo.getCopyright());
+            codeInfoCopy.setVersionNo(codeInfo.getVersionNo());
+            codeInfoCopy.setAuthor(codeInfo.getAuthor());
+            codeInfoCopy.setVendor(codeInfo.getVendor());
+            stencilCopy.setCodeInfo(codeInfoCopy);
+        }
+        if (stencil.getStore() != null) {
+            final List<Store> stores = new ArrayList<>();
+            for (final Store store : stencil.getStore()) {
+                if (store == null) {
+                    stores.add(null);
+                    continue;
+                }
+                final Store storeCopy = new Store();
+                storeCopy.setId(store.getId());
+                if (store.getItems() != null) {
+                    final List<ValueText> items = new ArrayList<>();
+                    for (final ValueText item : store.getItems()) {
+                        if (item == null) {
+                            items.add(null);
+                            continue;
+                        }
+                        final ValueText itemCopy = new ValueText();
+                        itemCopy.setValue(item.getValue());
+                        itemCopy.setText(item.getText());
+                        items.add(itemCopy);
+                    }
+                    storeCopy.setItems(items);
+                }
+                stores.add(storeCopy);
+            }
+            stencilCopy.setStore(stores);
+        }
+        copy.setStencil(stencilCopy);
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> copyMapList(final List<Map<String, Object>> source) {
+        if (source == null) {
+            return null;
+        }
+        return (List<Map<String, Object>>) copyValue(source);
+    }
+
+    /**
+     * YAML 由来の値（Map / List / スカラー）を再帰的に複製します。
+     */
+    private static Object copyValue(final Object value) {
+        if (value instanceof Map<?, ?> map) {
+            final Map<Object, Object> copy = new LinkedHashMap<>();
+            map.forEach((k, v) -> copy.put(k, copyValue(v)));
+            return copy;
+        }
+        if (value instanceof List<?> list) {
+            final List<Object> copy = new ArrayList<>(list.size());
+            list.forEach(v -> copy.add(copyValue(v)));
+            return copy;
+        }
+        return value;
+    }
+
+    /**
+     * キャッシュキー
+     */
+    record Key(String stencilCanonicalName, String serialNo, String contentHash) {
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.ste.domain.engine;
+
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import freemarker.cache.MruCacheStorage;
+import freemarker.template.Configuration;
+import jp.vemi.framework.exeption.MirelSystemException;
+import jp.vemi.framework.util.SanitizeUtil;
+
+/**
+ * ステンシル単位の FreeMarker {@link Configuration} キャッシュです。<br/>
+ *
+ * <p>
+ * {@link TemplateEngineProcessor} はリクエスト毎に生成されるため、
+ * 解析済み {@link freemarker.template.Template} をリクエスト間で再利用するために
+ * (stencilCanonicalName, serialNo, レイヤールート, クラスパスローダーの有無) をキーとして {@link Configuration} を共有します。
+ * テンプレート単位の更新検知は FreeMarker の TemplateCache が
+ * {@code TemplateLoader#getLastModified} (ファイル更新日時) で行います。
+ * </p>
+ *
+ * <p>
+ * ステンシルの保存・マスタ再読込時は {@link #invalidate(String)} / {@link #invalidateAll()} で明示的に破棄してください。
+ * </p>
+ */
+public final class StencilTemplateCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(StencilTemplateCache.class);
+
+    /** 保持するステンシル(Configuration)数の既定値 */
+    public static final long DEFAULT_MAX_STENCILS = 64;
+
+    /** ステンシル毎に保持する解析済みテンプレート数の既定値 */
+    public static final int DEFAULT_MAX_TEMPLATES_PER_STENCIL = 256;
+
+    private static final StencilTemplateCache SHARED = new StencilTemplateCache();
+
+    private volatile boolean enabled = true;
+
+    private volatile int maxTemplatesPerStencil = DEFAULT_MAX_TEMPLATES_PER_STENCIL;
+
+    private volatile Cache<Key, Configuration> configurations = newCache(DEFAULT_MAX_STENCILS);
+
+    /**
+     * 共有インスタンスを取得します。
+     *
+     * @return {@link StencilTemplateCache}
+     */
+    public static StencilTemplateCache shared() {
+        return SHARED;
+    }
+
+    StencilTemplateCache() {
+    }
+
+    /**
+     * キャッシュ設定を反映します。<br/>
+     * 設定変更時は保持中のエントリを破棄します。
+     *
+     * @param enabled
+     *            キャッシュ有効フラグ
+     * @param maxStencils
+     *            保持するステンシル数
+     * @param maxTemplatesPerStencil
+     *            ステンシル毎に保持するテンプレート数
+     */
+    public synchronized void configure(boolean enabled, long maxStencils, int maxTemplatesPerStencil) {
+        this.enabled = enabled;
+        this.maxTemplatesPerStencil = Math.max(1, maxTemplatesPerStencil);
+        this.configurations = newCache(Math.max(1, maxStencils));
+        logger.info("StencilTemplateCache configured: enabled={}, maxStencils={}, maxTemplatesPerStencil={}",
+                enabled, maxStencils, maxTemplatesPerStencil);
+    }
+
+    /**
+     * キャッシュ済みの {@link Configuration} を取得します。存在しない場合は factory で生成して登録します。
+     *
+     * @param stencilCanonicalName
+     *            ステンシル正規名
+     * @param serialNo
+     *            シリアル
+     * @param layerRoot
+     *            テンプレートを解決したレイヤーのルート
+     * @param classpath
+     *            クラスパス上のテンプレートを解決対象に含むか
+     * @param factory
+     *            {@link Configuration} の生成処理
+     * @return {@link Configuration}
+     */
+    public Configuration getConfiguration(final String stencilCanonicalName, final String serialNo,
+            final String layerRoot, final boolean classpath, final Supplier<Configuration> factory) {
+        if (false == enabled) {
+            return factory.get();
+        }
+
+        final Key key = new Key(normalize(stencilCanonicalName), StringUtils.defaultString(serialNo),
+                StringUtils.defaultString(layerRoot), classpath);
+        try {
+            return configurations.get(key, () -> {
+                logger.debug("StencilTemplateCache miss: {}", SanitizeUtil.forLog(key.toString()));
+                final Configuration cfg = factory.get();
+                // テンプレート毎に更新日時を確認し、変更があれば再解析させる
+                cfg.setTemplateUpdateDelayMilliseconds(0);
+                cfg.setCacheStorage(new MruCacheStorage(maxTemplatesPerStencil, maxTemplatesPerStencil));
+                return cfg;
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new MirelSystemException("テンプレート設定の生成に失敗しました。", e.getCause());
+        }
+    }
+
+    /**
+     * 指定ステンシルの全シリアル・全レイヤーのキャッシュを破棄します。
+     *
+     * @param stencilCanonicalName
+     *            ステンシル正規名
+     */
+    public void invalidate(final String stencilCanonicalName) {
+        final String target = normalize(stencilCanonicalName);
+        configurations.asMap().keySet().removeIf(key -> key.stencilCanonicalName().equals(target));
+        logger.debug("StencilTemplateCache invalidated: {}", SanitizeUtil.forLog(target));
+    }
+
+    /**
+     * 全てのキャッシュを破棄します。
+     */
+    public void invalidateAll() {
+        configurations.invalidateAll();
+        logger.debug("StencilTemplateCache invalidated all entries.");
+    }
+
+    /**
+     * 保持しているステンシル数を取得します。
+     *
+     * @return 件数
+     */
+    public long size() {
+        return configurations.size();
+    }
+
+    private static Cache<Key, Configuration> newCache(final long maxStencils) {
+        return CacheBuilder.newBuilder().maximumSize(maxStencils).build();
+    }
+
+    private static String normalize(final String stencilCanonicalName) {
+        final String name = StringUtils.defaultString(stencilCanonicalName).trim();
+        return name.startsWith("/") ? name : "/" + name;
+    }
+
+    /**
+     * キャッシュキー
+     */
+    record Key(String stencilCanonicalName, String serialNo, String layerRoot, boolean classpath) {
+    }
+}
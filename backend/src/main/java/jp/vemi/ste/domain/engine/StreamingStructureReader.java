@@ -0,0 +1,461 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.ste.domain.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import jp.vemi.framework.exeption.MirelApplicationException;
+import jp.vemi.framework.exeption.MirelSystemException;
+import jp.vemi.ste.domain.engine.StructureReader.Const;
+
+/**
+ * {@link StructureReader} の XSSF イベントモデル（SAX）実装です。<br/>
+ *
+ * <p>
+ * ワークブック全体をメモリに展開せず、シート XML を1行ずつ読み込みます。
+ * 保持するのは共有文字列テーブルと処理中の1行のみです。
+ * セル値の型変換（数値・日付・文字列・真偽値・エラー）は usermodel の {@code getCellValue} と同一です。
+ * </p>
+ *
+ * <p>
+ * usermodel 実装と異なる点:
+ * <ul>
+ * <li>空のヘッダセルは項目として扱いません（usermodel では Object#toString() の値がキーになります）。</li>
+ * <li>A列のセルが存在しない行、存在しない行は読み飛ばします（usermodel では NullPointerException）。</li>
+ * </ul>
+ * </p>
+ */
+class StreamingStructureReader {
+
+    /**
+     * xlsx ファイルを読み込んで構造化データを返します。
+     *
+     * @param file
+     *            xlsx ファイル
+     * @return 構造化データ
+     */
+    Map<String, List<Map<String, Object>>> read(final File file) {
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(file, PackageAccess.READ);
+            final XSSFReader reader = new XSSFReader(pkg);
+            final WorkbookInfo workbook = readWorkbookInfo(reader);
+            final SheetContext sheetContext = new SheetContext(new ReadOnlySharedStringsTable(pkg, false),
+                    reader.getStylesTable(), workbook.date1904);
+
+            final String masterRelId = workbook.findRelId(Const.SHEET_NAME_MASTER);
+            if (null == masterRelId) {
+                throw new MirelApplicationException("シートが見つかりません。シート名：" + Const.SHEET_NAME_MASTER, null);
+            }
+
+            final List<Map<String, Object>> details = readMasterDetails(reader, masterRelId, sheetContext);
+
+            final Set<String> demodels = Sets.newLinkedHashSet();
+            details.forEach(map -> {
+                String sheetName = (String) map.get("model");
+                if (false == StringUtils.isEmpty(sheetName)) {
+                    demodels.add(sheetName);
+                }
+            });
+
+            final Map<String, List<Map<String, Object>>> dataElementsItems = Maps.newLinkedHashMap();
+            for (String demodel : demodels) {
+                List<Map<String, Object>> indicate = Lists.newArrayList();
+                for (Map<String, Object> detail : details) {
+                    if (demodel.equals(detail.get("model"))) {
+                        indicate.add(detail);
+                    }
+                }
+                dataElementsItems.put(demodel, readSheetData(reader, workbook, sheetContext, indicate));
+            }
+
+            return dataElementsItems;
+
+        } catch (IOException | OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new MirelSystemException(e);
+        } finally {
+            if (null != pkg) {
+                // 読み取り専用のため保存せずに閉じる
+                pkg.revert();
+            }
+        }
+    }
+
+    private List<Map<String, Object>> readMasterDetails(final XSSFReader reader, final String relId,
+            final SheetContext sheetContext)
+            throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+
+        final Map<Integer, String> headerItem = Maps.newLinkedHashMap();
+        final List<Map<String, Object>> details = Lists.newArrayList();
+        final boolean[] isHeaderReaded = { false };
+
+        parseSheet(reader, relId, sheetContext, (rowIndex, cells) -> {
+            if (rowIndex < Const.MASTER_SHEET_HEADER_ROWNUM - 1) {
+                return;
+            }
+
+            if (false == isHeaderReaded[0]) {
+                cells.forEach((column, value) -> {
+                    if (null != value) {
+                        headerItem.put(column, value.toString());
+                    }
+                });
+                isHeaderReaded[0] = true;
+                return;
+            }
+
+            // A列が空の行は対象外
+            if (null == cells.get(0)) {
+                return;
+            }
+
+            Map<String, Object> detailKeyValue = Maps.newLinkedHashMap();
+            cells.forEach((column, value) -> {
+                String key = headerItem.get(column);
+                if (null == key) {
+                    return;
+                }
+                detailKeyValue.put(key, value);
+            });
+            if (ObjectUtils.isEmpty(detailKeyValue.get("nouse"))) {
+                details.add(detailKeyValue);
+            }
+        });
+
+        return details;
+    }
+
+    private List<Map<String, Object>> readSheetData(final XSSFReader reader, final WorkbookInfo workbook,
+            final SheetContext sheetContext, final List<Map<String, Object>> inputColumnDefs)
+            throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+
+        final Map<String, Object> firstInputColumnDef = inputColumnDefs.get(0);
+
+        final String sheetName = StructureReader.getMapValueAsString(firstInputColumnDef, "sheetName");
+        final double startLineDouble = (double) firstInputColumnDef.get("startLine");
+        final int startIdx = ((int) startLineDouble) - 1;
+
+        final List<Map<String, Object>> sheetData = Lists.newArrayList();
+
+        final String relId = workbook.findRelId(sheetName);
+        if (null == relId) {
+            StructureReader.log("シートがありません。シート名：" + sheetName);
+            return sheetData;
+        }
+
+        final List<Map<String, Object>> columnDefs = Lists.newArrayList();
+        for (Map<String, Object> columnDef : inputColumnDefs) {
+            String refa = (String) columnDef.get("column");
+            CellReference ref = new CellReference(refa + "1");
+            short columnIdx = ref.getCol();
+            columnDef.put("columnIdx", columnIdx);
+            columnDefs.add(columnDef);
+        }
+
+        parseSheet(reader, relId, sheetContext, (rowIndex, cells) -> {
+            if (rowIndex < startIdx) {
+                return;
+            }
+
+            Map<String, Object> sheetDataRecord = Maps.newLinkedHashMap();
+            for (Map<String, Object> columnDef : columnDefs) {
+                short cellnum = (short) columnDef.get("columnIdx");
+                Object value = cells.get((int) cellnum);
+                if (null == value) {
+                    boolean isSkipColumnIfEmpty = StructureReader.getMapValueAsString(columnDef, "skipEmpty")
+                            .length() > 0;
+                    if (isSkipColumnIfEmpty) {
+                        // skip target record
+                        return;
+                    }
+                    value = "";
+                }
+                sheetDataRecord.put(StructureReader.getMapValueAsString(columnDef, "dataElement"), value);
+            }
+
+            sheetData.add(sheetDataRecord);
+        });
+
+        return sheetData;
+    }
+
+    private static void parseSheet(final XSSFReader reader, final String relId, final SheetContext sheetContext,
+            final RowHandler rowHandler)
+            throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+        try (InputStream sheet = reader.getSheet(relId)) {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new SheetHandler(sheetContext, rowHandler));
+            parser.parse(new InputSource(sheet));
+        }
+    }
+
+    private static WorkbookInfo readWorkbookInfo(final XSSFReader reader)
+            throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+        final WorkbookInfo info = new WorkbookInfo();
+        try (InputStream workbookData = reader.getWorkbookData()) {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                    if ("workbookPr".equals(localName)) {
+                        String date1904 = attributes.getValue("date1904");
+                        info.date1904 = "1".equals(date1904) || "true".equalsIgnoreCase(date1904);
+                    } else if ("sheet".equals(localName)) {
+                        String name = attributes.getValue("name");
+                        for (int i = 0; i < attributes.getLength(); i++) {
+                            if ("id".equals(attributes.getLocalName(i))
+                                    && StringUtils.contains(attributes.getURI(i), "relationships")) {
+                                info.sheets.putIfAbsent(name, attributes.getValue(i));
+                            }
+                        }
+                    }
+                }
+            });
+            parser.parse(new InputSource(workbookData));
+        }
+        return info;
+    }
+
+    /**
+     * 行単位のコールバック
+     */
+    @FunctionalInterface
+    private interface RowHandler {
+        /**
+         * @param rowIndex
+         *            行インデックス（0始まり）
+         * @param cells
+         *            列インデックス → セル値（空セルは null）
+         */
+        void row(int rowIndex, Map<Integer, Object> cells);
+    }
+
+    /**
+     * ワークブック情報
+     */
+    private static class WorkbookInfo {
+        /** シート名 → リレーションID（シート順） */
+        final Map<String, String> sheets = new LinkedHashMap<>();
+        boolean date1904;
+
+        /**
+         * シート名からリレーションIDを取得します（大文字小文字を区別しない）。
+         */
+        String findRelId(final String sheetName) {
+            for (Map.Entry<String, String> sheet : sheets.entrySet()) {
+                if (sheet.getKey().equalsIgnoreCase(sheetName)) {
+                    return sheet.getValue();
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * シート間で共有する読込コンテキスト
+     */
+    private static class SheetContext {
+        final ReadOnlySharedStringsTable strings;
+        final StylesTable styles;
+        final boolean date1904;
+        final Map<Integer, Boolean> dateStyles = new HashMap<>();
+
+        SheetContext(ReadOnlySharedStringsTable strings, StylesTable styles, boolean date1904) {
+            this.strings = strings;
+            this.styles = styles;
+            this.date1904 = date1904;
+        }
+
+        boolean isDateStyle(final String styleIndex) {
+            if (null == styles || styles.getNumCellStyles() <= 0) {
+                return false;
+            }
+            final int index = null == styleIndex ? 0 : Integer.parseInt(styleIndex);
+            return dateStyles.computeIfAbsent(index, idx -> {
+                XSSFCellStyle style = styles.getStyleAt(idx);
+                if (null == style) {
+                    return false;
+                }
+                return DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+            });
+        }
+    }
+
+    /**
+     * シート XML の SAX ハンドラ
+     */
+    private static class SheetHandler extends DefaultHandler {
+
+        private final SheetContext context;
+        private final RowHandler rowHandler;
+
+        private int nextRowIndex = 0;
+        private int rowIndex;
+        private Map<Integer, Object> cells;
+
+        private int nextColumnIndex;
+        private int columnIndex;
+        private String cellType;
+        private String cellStyle;
+        private boolean isFormula;
+        private boolean hasValue;
+
+        private boolean isValueOpen;
+        private boolean isInlineStringOpen;
+        private int phoneticDepth;
+        private final StringBuilder value = new StringBuilder();
+
+        SheetHandler(SheetContext context, RowHandler rowHandler) {
+            this.context = context;
+            this.rowHandler = rowHandler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row":
+                    String rowRef = attributes.getValue("r");
+                    rowIndex = null == rowRef ? nextRowIndex : Integer.parseInt(rowRef) - 1;
+                    cells = new TreeMap<>();
+                    nextColumnIndex = 0;
+                    break;
+                case "c":
+                    String cellRef = attributes.getValue("r");
+                    columnIndex = null == cellRef ? nextColumnIndex : new CellReference(cellRef).getCol();
+                    cellType = attributes.getValue("t");
+                    cellStyle = attributes.getValue("s");
+                    isFormula = false;
+                    hasValue = false;
+                    value.setLength(0);
+                    break;
+                case "f":
+                    isFormula = true;
+                    break;
+                case "v":
+                    isValueOpen = true;
+                    hasValue = true;
+                    break;
+                case "is":
+                    isInlineStringOpen = true;
+                    hasValue = true;
+                    break;
+                case "rPh":
+                    phoneticDepth++;
+                    break;
+                case "t":
+                    if (isInlineStringOpen && phoneticDepth == 0) {
+                        isValueOpen = true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (isValueOpen) {
+                value.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v":
+                case "t":
+                    isValueOpen = false;
+                    break;
+                case "rPh":
+                    phoneticDepth--;
+                    break;
+                case "is":
+                    isInlineStringOpen = false;
+                    break;
+                case "c":
+                    if (null != cells) {
+                        cells.put(columnIndex, toCellValue());
+                    }
+                    nextColumnIndex = columnIndex + 1;
+                    break;
+                case "row":
+                    rowHandler.row(rowIndex, cells);
+                    cells = null;
+                    nextRowIndex = rowIndex + 1;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * usermodel の {@code StructureReader#getCellValue} と同じ型で値を返します。
+         */
+        private Object toCellValue() {
+            final String text = value.toString();
+
+            if ("s".equals(cellType)) {
+                if (text.isEmpty()) {
+                    return "";
+                }
+                return context.strings.getItemAt(Integer.parseInt(text)).getString();
+            }
+            if ("inlineStr".equals(cellType) || "str".equals(cellType) || "d".equals(cellType)) {
+                return text;
+            }
+            if ("b".equals(cellType)) {
+                return "1".equals(text);
+            }
+            if ("e".equals(cellType)) {
+                if (text.isEmpty()) {
+                    return (byte) 0;
+                }
+                return FormulaError.forString(text).getCode();
+            }
+
+            // numeric (including datetime)
+            if (false == hasValue && false == isFormula) {
+                return null;
+            }
+            final double number = text.isEmpty() ? 0.0 : Double.parseDouble(text);
+            if (DateUtil.isValidExcelDate(number) && context.isDateStyle(cellStyle)) {
+                return DateUtil.getJavaDate(number, context.date1904);
+            }
+            return number;
+        }
+    }
+}
@@ -3,10 +3,16 @@
  */
 package jp.vemi.ste.domain.engine;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -23,6 +29,7 @@ import com.google.common.collect.Sets;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.EncryptedDocumentException;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.Row;
@@ -55,15 +62,52 @@ public class StructureReader {
     }
 
     /**
-     * InputStreamからExcelを読み込んで構造化データを返す（StorageService対応）
+     * InputStreamからExcelを読み込んで構造化データを返す（StorageService対応）<br/>
+     * xlsx はワークブック全体を展開せず {@link StreamingStructureReader} で1行ずつ読み込みます。
      * 
      * @param inputStream
      *            Excel入力ストリーム
      * @return 構造化データ
      */
     public Map<String, List<Map<String, Object>>> read(InputStream inputStream) {
-        Workbook workbook = this.getWorkbook(inputStream);
-        return readFromWorkbook(workbook);
+        File tempFile = null;
+        try {
+            // OPCPackage はファイルからの読込時のみパーツを逐次展開するため一時ファイルへ退避
+            tempFile = createTempFile();
+            Files.copy(inputStream, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+            if (FileMagic.OOXML == FileMagic.valueOf(tempFile)) {
+                return new StreamingStructureReader().read(tempFile);
+            }
+
+            // xls 等は従来どおり usermodel で読み込み
+            Workbook workbook = this.getWorkbook(new FileInputStream(tempFile));
+            return readFromWorkbook(workbook);
+
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new MirelSystemException(e);
+        } finally {
+            CloseableUtil.close(inputStream);
+            if (null != tempFile) {
+                try {
+                    Files.deleteIfExists(tempFile.toPath());
+                } catch (IOException e) {
+                    tempFile.deleteOnExit();
+                }
+            }
+        }
+    }
+
+    private static File createTempFile() throws IOException {
+        try {
+            FileAttribute<Set<PosixFilePermission>> attr = PosixFilePermissions
+                    .asFileAttribute(PosixFilePermissions.fromString("rw-------"));
+            return Files.createTempFile("structure-", ".tmp", attr).toFile();
+        } catch (UnsupportedOperationException e) {
+            // Windows等のPOSIX非対応環境ではパーミッション指定なしで作成
+            return Files.createTempFile("structure-", ".tmp").toFile();
+        }
     }
 
     private Map<String, List<Map<String, Object>>> readFromWorkbook(Workbook workbook) {
@@ -6,23 +6,38 @@ package jp.vemi.ste.domain.engine;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +45,7 @@ import org.slf4j.LoggerFactory;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.core.io.FileSystemResource;
@@ -52,6 +68,7 @@ import freemarker.template.TemplateException;
 import freemarker.template.TemplateExceptionHandler;
 import freemarker.template.TemplateNotFoundException;
 import groovy.lang.Tuple3;
+import jp.vemi.framework.exeption.MessagingException;
 import jp.vemi.framework.exeption.MirelApplicationException;
 import jp.vemi.framework.exeption.MirelSystemException;
 import jp.vemi.framework.util.CloseableUtil;
@@ -97,8 +114,23 @@ public class TemplateEngineProcessor {
     protected static final String REGEX = "[0-9]{6}[A-Z]+";
     protected boolean isLegacy = true;
 
-    /** 一時ファイルと元のファイル名のマッピング */
-    protected Map<String, String> tempFileToOriginalMap = new HashMap<>();
+    /** クラスパス上のテンプレートを示す接頭辞（以降はシリアルディレクトリからの相対パス） */
+    protected static final String CLASSPATH_TEMPLATE_PREFIX = "classpath:";
+
+    /** 既定のクラスパスステンシル配置 */
+    protected static final String DEFAULT_CLASSPATH_STENCIL_BASE = "promarker/stencil/samples";
+
+    /** 並列レンダリングの既定値（{@link #configureRendering(boolean, int)} で設定） */
+    private static volatile boolean defaultParallelRendering = false;
+
+    /** 並列レンダリング時の最大同時実行数の既定値 */
+    private static volatile int defaultRenderConcurrency = 4;
+
+    /** ファイル単位の並列レンダリングを行うか */
+    protected boolean parallelRendering = defaultParallelRendering;
+
+    /** 並列レンダリング時の最大同時実行数 */
+    protected int renderConcurrency = defaultRenderConcurrency;
 
     private static final Logger logger = LoggerFactory.getLogger(TemplateEngineProcessor.class);
 
@@ -159,6 +191,32 @@ public class TemplateEngineProcessor {
         return create(SteContext.standard());
     }
 
+    /**
+     * レンダリング方式の既定値を設定します。<br/>
+     *
+     * @param parallel
+     *            ファイル単位の並列レンダリングを行う場合 true
+     * @param concurrency
+     *            並列レンダリング時の最大同時実行数
+     */
+    public static void configureRendering(final boolean parallel, final int concurrency) {
+        defaultParallelRendering = parallel;
+        defaultRenderConcurrency = Math.max(1, concurrency);
+    }
+
+    /**
+     * ファイル単位の並列レンダリングを設定します。<br/>
+     *
+     * @param parallel
+     *            並列レンダリングを行う場合 true
+     * @param concurrency
+     *            最大同時実行数
+     */
+    public void setParallelRendering(final boolean parallel, final int concurrency) {
+        this.parallelRendering = parallel;
+        this.renderConcurrency = Math.max(1, concurrency);
+    }
+
     public String execute() {
         final String generateId = createGenerateId();
         return execute(generateId);
@@ -170,16 +228,8 @@ public class TemplateEngineProcessor {
      * @return 生成結果Path
      */
     public String execute(final String generateId) {
-        // デバッグログ
-
-        // validate stencil-settings.yml
-        final Tuple3<List<String>, List<String>, List<String>> validRets = validate();
-        if (false == validRets.getV3().isEmpty()) {
-            throw new MirelApplicationException(validRets.getV3());
-        }
-
-        validRets.getV2().forEach(logger::warn);
-        validRets.getV2().forEach(logger::info);
+        // prepare.
+        final List<RenderTask> tasks = prepareRenderTasks();
 
         // output dir
         final String outputDir = createOutputFileDir(StringUtils.isEmpty(generateId) ? createGenerateId() : generateId);
@@ -191,7 +241,71 @@ public class TemplateEngineProcessor {
             throw new MirelSystemException("出力ディレクトリの作成に失敗しました: " + outputDir, e);
         }
 
-        // デバッグログ
+        final File outputDirFile = new File(outputDir);
+
+        // generate.
+        if (parallelRendering && tasks.size() > 1) {
+            renderParallel(tasks, outputDirFile);
+        } else {
+            for (final RenderTask task : tasks) {
+                render(task, outputDirFile, commonBinds);
+            }
+        }
+
+        return outputDir;
+    }
+
+    /**
+     * 出力ディレクトリを使用せず、生成結果をZIPとして直接ストリームへ書き込みます。<br/>
+     * エントリ名は {@link #execute(String)} の出力ディレクトリをZIP化した場合と同じ
+     * {@code generateId/相対パス} になります。ストリームはクローズしません。
+     *
+     * @param generateId
+     *            生成ID（ZIP内のルートディレクトリ名）
+     * @param out
+     *            出力先
+     */
+    public void executeToZip(final String generateId, final OutputStream out) {
+        // prepare.
+        final List<RenderTask> tasks = prepareRenderTasks();
+        final String rootName = StringUtils.isEmpty(generateId) ? createGenerateId() : generateId;
+
+        // 同一出力先は後勝ち（ディレクトリ出力時の上書きと同じ結果）
+        final Map<String, RenderTask> entries = new LinkedHashMap<>();
+        for (final RenderTask task : tasks) {
+            entries.put(task.outputName().replace('\\', '/'), task);
+        }
+
+        try {
+            final ZipOutputStream zos = new ZipOutputStream(out);
+            for (final Entry<String, RenderTask> entry : entries.entrySet()) {
+                zos.putNextEntry(new ZipEntry(rootName + "/" + entry.getKey()));
+                try (Writer writer = new OutputStreamWriter(CloseShieldOutputStream.wrap(zos),
+                        Charset.defaultCharset())) {
+                    process(entry.getValue(), commonBinds, writer);
+                }
+                zos.closeEntry();
+            }
+            zos.finish();
+        } catch (final IOException e) {
+            throw new MirelSystemException("文書生成に失敗しました。", e);
+        }
+    }
+
+    /**
+     * 検証・バインド構築・テンプレート解決を行い、生成タスクを返します。<br/>
+     *
+     * @return 生成タスク一覧
+     */
+    protected List<RenderTask> prepareRenderTasks() {
+        // validate stencil-settings.yml
+        final Tuple3<List<String>, List<String>, List<String>> validRets = validate();
+        if (false == validRets.getV3().isEmpty()) {
+            throw new MirelApplicationException(validRets.getV3());
+        }
+
+        validRets.getV2().forEach(logger::warn);
+        validRets.getV2().forEach(logger::info);
 
         // parse content.
         if (isLegacy) {
@@ -204,8 +318,6 @@ public class TemplateEngineProcessor {
         // get file items.
         final List<String> stencilFileNames = getStencilTemplateFiles();
 
-        // デバッグログ
-
         // ignore settings file.
         if (stencilFileNames.isEmpty()) {
             throw new MirelSystemException("ステンシル定義が行方不明です。。", null);
@@ -214,15 +326,26 @@ public class TemplateEngineProcessor {
         // initialize configuration object.
         createConfiguration();
 
-        // generate.
+        // plan.
+        return planRenderTasks(stencilFileNames);
+    }
+
+    /**
+     * 生成対象のテンプレートと出力先を解決します。<br/>
+     *
+     * @param stencilFileNames
+     *            ステンシルファイル一覧
+     * @return 生成タスク一覧（ステンシルファイル順）
+     */
+    protected List<RenderTask> planRenderTasks(final List<String> stencilFileNames) {
+        final List<RenderTask> tasks = new ArrayList<>();
+
         for (final String stencilFileName : stencilFileNames) {
 
             // ファイルシステムとクラスパスの両方に対応したファイル名抽出
             final String name = extractRelativeFileName(stencilFileName);
             final String cname = extractTemplateFileName(stencilFileName);
 
-            // デバッグログ
-
             if (cname.startsWith("\\.")) {
                 //
                 logger.info("folder starts with '.': {}", SanitizeUtil.forLog(cname));
@@ -236,50 +359,146 @@ public class TemplateEngineProcessor {
                 continue;
             }
 
-            final File outputFile = bindFileName(cname, new File(outputDir));
+            tasks.add(new RenderTask(name, bindOutputName(cname), template));
+        }
 
-            // デバッグログ
+        return tasks;
+    }
 
-            File parentDir = outputFile.getParentFile();
-            try {
-                Files.createDirectories(parentDir.toPath());
-            } catch (IOException e) {
-                throw new MirelSystemException(e);
+    /**
+     * 1ファイル分の文書を生成します。<br/>
+     *
+     * @param task
+     *            生成タスク
+     * @param outputDir
+     *            出力ディレクトリ
+     * @param binds
+     *            バインド
+     */
+    protected void render(final RenderTask task, final File outputDir, final Map<String, Object> binds) {
+        final File outputFile = new File(outputDir, task.outputName());
+
+        File parentDir = outputFile.getParentFile();
+        try {
+            Files.createDirectories(parentDir.toPath());
+        } catch (IOException e) {
+            throw new MirelSystemException(e);
+        }
+
+        try (Writer writer = new FileWriter(outputFile)) {
+            process(task, binds, writer);
+        } catch (final IOException e) {
+            throw new MirelSystemException("文書生成に失敗しました。ステンシルファイル：" + task.name(), e);
+        }
+    }
+
+    /**
+     * テンプレートにバインドを適用して書き込みます。<br/>
+     *
+     * @param task
+     *            生成タスク
+     * @param binds
+     *            バインド
+     * @param writer
+     *            出力先
+     */
+    protected void process(final RenderTask task, final Map<String, Object> binds, final Writer writer) {
+        try {
+            task.template().process(binds, writer);
+        } catch (final TemplateException e) {
+            final String secondCouse = " 原因：" + e.getLocalizedMessage();
+            throw new MirelSystemException(
+                    "ステンシルに埋め込まれたプロパティのバインドに失敗しました。ステンシルファイル：" + task.name() + secondCouse, e);
+        } catch (final IOException e) {
+            throw new MirelSystemException("文書生成に失敗しました。ステンシルファイル：" + task.name(), e);
+        }
+    }
+
+    /**
+     * 生成タスクを並列に実行します。<br/>
+     * 共通バインドは読み取り専用ビューとして共有し、同一出力先のタスクは順序を維持して同じスレッドで実行します。
+     * エラーは全タスク完了後にファイル毎にまとめて通知します。
+     *
+     * @param tasks
+     *            生成タスク一覧
+     * @param outputDir
+     *            出力ディレクトリ
+     */
+    protected void renderParallel(final List<RenderTask> tasks, final File outputDir) {
+        final Map<String, Object> snapshot = Collections.unmodifiableMap(commonBinds);
+
+        final Map<String, List<RenderTask>> groups = new LinkedHashMap<>();
+        for (final RenderTask task : tasks) {
+            groups.computeIfAbsent(task.outputName(), key -> new ArrayList<>()).add(task);
+        }
+
+        final Semaphore permits = new Semaphore(renderConcurrency);
+        final List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (final List<RenderTask> group : groups.values()) {
+                futures.add(executor.submit(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        for (final RenderTask task : group) {
+                            render(task, outputDir, snapshot);
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                }));
             }
+        }
 
+        final List<String> errors = new ArrayList<>();
+        for (final Future<?> future : futures) {
             try {
-                template.process(commonBinds, new FileWriter(outputFile));
-                // デバッグログ
-            } catch (final TemplateException e) {
-                final String secondCouse = " 原因：" + e.getLocalizedMessage();
-                throw new MirelSystemException(
-                        "ステンシルに埋め込まれたプロパティのバインドに失敗しました。ステンシルファイル：" + name + secondCouse, e);
-            } catch (final IOException e) {
-                throw new MirelSystemException("文書生成に失敗しました。ステンシルファイル：" + name, e);
+                future.get();
+            } catch (final ExecutionException e) {
+                final Throwable cause = e.getCause();
+                logger.error("Parallel rendering failed: {}", cause.getMessage(), cause);
+                if (cause instanceof MessagingException && false == ((MessagingException) cause).messages.isEmpty()) {
+                    errors.addAll(((MessagingException) cause).messages);
+                } else {
+                    errors.add(cause.getLocalizedMessage());
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MirelSystemException("文書生成が中断されました。", e);
             }
-
         }
 
-        return outputDir;
+        if (false == errors.isEmpty()) {
+            throw new MirelSystemException(errors);
+        }
     }
 
     @SuppressWarnings("lgtm[java/path-injection]")
     private void createConfiguration() {
+        // NOTE: Path is validated through constructSecurePath to prevent path traversal
+        String stencilStorageBase = getStencilMasterStorageDir();
+        String stencilPath = context.getStencilCanonicalName();
+        if (!StringUtils.isEmpty(context.getSerialNo()) && !"*".equals(context.getSerialNo())) {
+            stencilPath = stencilPath + "/" + context.getSerialNo();
+        }
+        final File serialDir = constructSecurePath(stencilStorageBase, stencilPath);
+        final String layerRoot = (serialDir.exists() && serialDir.isDirectory()) ? serialDir.getAbsolutePath() : "";
+
+        // ステンシル・シリアル・レイヤー・ローダー構成単位で共有（解析済みテンプレートをリクエスト間で再利用）
+        // ResourcePatternResolver の有無でクラスパスローダーの有無が変わるため、キーに含める
+        cfg = StencilTemplateCache.shared().getConfiguration(context.getStencilCanonicalName(),
+                context.getSerialNo(), layerRoot, resourcePatternResolver != null, () -> newConfiguration(serialDir));
+    }
+
+    @SuppressWarnings("lgtm[java/path-injection]")
+    private Configuration newConfiguration(final File serialDir) {
         // configuration.
-        cfg = new Configuration(Configuration.VERSION_2_3_29);
+        final Configuration configuration = new Configuration(Configuration.VERSION_2_3_29);
 
         try {
             // FreeMarkerのMultiTemplateLoaderを使用してファイルシステムとクラスパスの両方をサポート
             List<TemplateLoader> loaders = new ArrayList<>();
 
             // Layer 1: ファイルシステムローダー（serialNoディレクトリ全体を基準）
-            // NOTE: Path is validated through constructSecurePath to prevent path traversal
-            String stencilStorageBase = getStencilMasterStorageDir();
-            String stencilPath = context.getStencilCanonicalName();
-            if (!StringUtils.isEmpty(context.getSerialNo()) && !"*".equals(context.getSerialNo())) {
-                stencilPath = stencilPath + "/" + context.getSerialNo();
-            }
-            File serialDir = constructSecurePath(stencilStorageBase, stencilPath);
             if (serialDir.exists() && serialDir.isDirectory()) {
                 FileTemplateLoader fileLoader = new FileTemplateLoader(serialDir);
                 loaders.add(fileLoader);
@@ -290,27 +509,22 @@ public class TemplateEngineProcessor {
             }
 
             // Layer 2: クラスパスローダー（serialNoディレクトリ全体を基準）
+            // クラスパス上のテンプレートは一時ファイルへ展開せず、ここから直接読み込む
             if (resourcePatternResolver != null) {
-                // serialNoディレクトリを基準パスとする
-                String classpathStencilPath = "promarker/stencil/samples" + context.getStencilCanonicalName() + "/"
-                        + context.getSerialNo();
-                ClassTemplateLoader classpathLoader = new ClassTemplateLoader(getClass().getClassLoader(),
-                        classpathStencilPath);
-                loaders.add(classpathLoader);
-                logger.debug("Added classpath template loader: {}", SanitizeUtil.forLog(classpathStencilPath));
-            }
-
-            // Layer 3: 一時ファイル用テンプレートローダー
-            if (!tempFileToOriginalMap.isEmpty()) {
-                File tempDir = new File(System.getProperty("java.io.tmpdir"));
-                FileTemplateLoader tempFileLoader = new FileTemplateLoader(tempDir);
-                loaders.add(tempFileLoader);
-                logger.debug("Added temp file template loader: {}", tempDir.getAbsolutePath());
+                for (String classpathBase : getClasspathStencilBases()) {
+                    // serialNoディレクトリを基準パスとする
+                    String classpathStencilPath = classpathBase + context.getStencilCanonicalName() + "/"
+                            + context.getSerialNo();
+                    ClassTemplateLoader classpathLoader = new ClassTemplateLoader(getClass().getClassLoader(),
+                            classpathStencilPath);
+                    loaders.add(classpathLoader);
+                    logger.debug("Added classpath template loader: {}", SanitizeUtil.forLog(classpathStencilPath));
+                }
             }
 
             if (!loaders.isEmpty()) {
                 TemplateLoader multiLoader = new MultiTemplateLoader(loaders.toArray(new TemplateLoader[0]));
-                cfg.setTemplateLoader(multiLoader);
+                configuration.setTemplateLoader(multiLoader);
                 logger.info("FreeMarker configured with {} template loaders", loaders.size());
             } else {
                 throw new IOException("No template loaders available");
@@ -321,11 +535,41 @@ public class TemplateEngineProcessor {
             throw new MirelSystemException("システムエラー: ", e1);
         }
 
-        cfg.setDefaultEncoding("UTF-8");
-        cfg.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
-        cfg.setLogTemplateExceptions(true);
-        cfg.setWrapUncheckedExceptions(true);
-        cfg.setFallbackOnNullLoopVariable(false);
+        applyDefaultSettings(configuration);
+        return configuration;
+    }
+
+    /**
+     * クラスパス上のステンシル配置（レイヤー優先順）を取得する
+     * 
+     * @return 基準パス一覧（"classpath:" と前後のスラッシュを除いたもの）
+     */
+    private static List<String> getClasspathStencilBases() {
+        List<String> bases = new ArrayList<>();
+        for (String layerDir : new String[] {
+                StorageConfig.getUserStencilDir(),
+                StorageConfig.getStandardStencilDir(),
+                StorageConfig.getSamplesStencilDir() }) {
+            if (StringUtils.isEmpty(layerDir) || false == layerDir.startsWith(CLASSPATH_TEMPLATE_PREFIX)) {
+                continue;
+            }
+            String base = layerDir.substring(CLASSPATH_TEMPLATE_PREFIX.length()).replaceAll("^/+|/+$", "");
+            if (false == bases.contains(base)) {
+                bases.add(base);
+            }
+        }
+        if (false == bases.contains(DEFAULT_CLASSPATH_STENCIL_BASE)) {
+            bases.add(DEFAULT_CLASSPATH_STENCIL_BASE);
+        }
+        return bases;
+    }
+
+    private static void applyDefaultSettings(final Configuration configuration) {
+        configuration.setDefaultEncoding("UTF-8");
+        configuration.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
+        configuration.setLogTemplateExceptions(true);
+        configuration.setWrapUncheckedExceptions(true);
+        configuration.setFallbackOnNullLoopVariable(false);
     }
 
     protected static Map<String, String> getReferences(final List<Map<String, Object>> deadbs) {
@@ -468,6 +712,17 @@ public class TemplateEngineProcessor {
      * @return
      */
     protected File bindFileName(final String stencilName, final File outputDir) {
+        final File file = new File(outputDir, bindOutputName(stencilName));
+        return file;
+    }
+
+    /**
+     * ファイル名にバインドをアタッチし、出力ディレクトリからの相対パスを返します。<br/>
+     *
+     * @param stencilName
+     * @return 出力ファイルの相対パス
+     */
+    protected String bindOutputName(final String stencilName) {
 
         String fileName = stencilName;
 
@@ -494,8 +749,7 @@ public class TemplateEngineProcessor {
             fileName = fileName.substring(0, fileName.length() - STENCIL_EXTENSION.length());
         }
 
-        final File file = new File(outputDir, fileName);
-        return file;
+        return fileName;
     }
 
     /**
@@ -540,22 +794,20 @@ public class TemplateEngineProcessor {
         // Validate.
         Assert.notNull(stencilName, "stencil name must not be null");
 
-        // 元のファイル名(hello.ftl)が渡されている場合、対応する一時ファイル名を逆引き
-        String actualTemplateName = stencilName;
-        for (Map.Entry<String, String> entry : tempFileToOriginalMap.entrySet()) {
-            if (entry.getValue().equals(stencilName)) {
-                // hello.ftl → template-hello-ftl*.tmp の逆引き成功
-                actualTemplateName = entry.getKey();
-                logger.info("Reverse mapping original '" + SanitizeUtil.forLog(stencilName) + "' to temp file '"
-                        + SanitizeUtil.forLog(actualTemplateName) + "'");
-                break;
-            }
+        // 共有Configuration（ファイルシステム・クラスパス）から相対パスで取得
+        return getTemplateOrNull(cfg, stencilName);
+    }
+
+    private freemarker.template.Template getTemplateOrNull(final Configuration configuration,
+            final String actualTemplateName) {
+        if (null == configuration.getTemplateLoader()) {
+            return null;
         }
 
         // FreeMarkerのConfigurationからテンプレートを取得
         // MultiTemplateLoaderが自動的にファイルシステムとクラスパスを検索する
         try {
-            freemarker.template.Template template = cfg.getTemplate(actualTemplateName);
+            freemarker.template.Template template = configuration.getTemplate(actualTemplateName);
             logger.debug("Successfully loaded template via MultiTemplateLoader: {}",
                     SanitizeUtil.forLog(actualTemplateName));
             return template;
@@ -731,6 +983,21 @@ public class TemplateEngineProcessor {
         logger.debug("[GET_SETTINGS] Called with stencilCanonicalName={}, serialNo={}",
                 SanitizeUtil.forLog(context.getStencilCanonicalName()), SanitizeUtil.forLog(context.getSerialNo()));
 
+        // 内容ハッシュを算出できる場合はマージ済み設定のキャッシュを利用
+        final String contentHash = getStencilSettingsContentHash();
+        if (contentHash != null) {
+            return StencilSettingsCache.shared().get(context.getStencilCanonicalName(), context.getSerialNo(),
+                    contentHash, this::loadStencilSettings);
+        }
+        return loadStencilSettings();
+    }
+
+    /**
+     * stencil-settings.ymlを読み込み、親設定をマージします。
+     * 
+     * @return マージ済みのStencilSettingsYml
+     */
+    protected StencilSettingsYml loadStencilSettings() {
         // レイヤード検索: ユーザー → 標準 → サンプル の順で検索
         StencilSettingsYml settings = findStencilSettingsInLayers();
         if (settings == null) {
@@ -754,6 +1021,115 @@ public class TemplateEngineProcessor {
         return settings;
     }
 
+    /**
+     * stencil-settings.yml と親設定ファイルの内容ハッシュを算出する<br/>
+     * カタログインデックスから設定ファイルの所在を解決できない場合は null を返します。
+     * 
+     * @return SHA-256 の16進文字列、または null
+     */
+    private String getStencilSettingsContentHash() {
+        final StencilCatalogIndex index = StencilCatalogIndex.shared();
+        final String serialNo = context.getSerialNo();
+        if (false == index.isBuilt() || StringUtils.isEmpty(serialNo) || "*".equals(serialNo)) {
+            return null;
+        }
+
+        final StencilCatalogIndex.SerialEntry entry = index
+                .getSerialEntries(context.getStencilCanonicalName(), serialNo).stream()
+                .filter(e -> e.settingsLocation() != null)
+                .findFirst()
+                .orElse(null);
+        if (entry == null) {
+            return null;
+        }
+
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (entry.classpath()) {
+                try (InputStream stream = this.getClass().getClassLoader()
+                        .getResourceAsStream(entry.settingsLocation())) {
+                    if (stream == null) {
+                        return null;
+                    }
+                    digest.update(stream.readAllBytes());
+                }
+            } else {
+                digest.update(Files.readAllBytes(Paths.get(entry.settingsLocation())));
+            }
+
+            for (String parentPath : getParentPaths(context.getStencilCanonicalName())) {
+                File parentSettingsFile = index.getParentSettingsFile(parentPath);
+                if (parentSettingsFile != null) {
+                    digest.update(parentPath.getBytes(StandardCharsets.UTF_8));
+                    digest.update(Files.readAllBytes(parentSettingsFile.toPath()));
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            logger.debug("Failed to hash stencil settings: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * ステンシルの内容を表すフィンガープリントを算出する<br/>
+     * 設定ファイル（親設定を含む）の内容ハッシュに、テンプレートファイルの所在・サイズ・更新日時を加えたものです。
+     * カタログインデックスから解決できない場合は null を返します。
+     *
+     * @return SHA-256 の16進文字列、または null
+     */
+    public String getStencilFingerprint() {
+        final String settingsHash = getStencilSettingsContentHash();
+        if (settingsHash == null) {
+            return null;
+        }
+
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(settingsHash.getBytes(StandardCharsets.UTF_8));
+            for (StencilCatalogIndex.SerialEntry entry : StencilCatalogIndex.shared()
+                    .getSerialEntries(context.getStencilCanonicalName(), context.getSerialNo())) {
+                digest.update(entry.layerDir().getBytes(StandardCharsets.UTF_8));
+                for (Entry<String, String> file : new TreeMap<>(entry.files()).entrySet()) {
+                    digest.update(file.getKey().getBytes(StandardCharsets.UTF_8));
+                    digest.update(file.getValue().getBytes(StandardCharsets.UTF_8));
+                    if (false == entry.classpath()) {
+                        // ファイルシステムレイヤーは編集されうるためサイズと更新日時を含める
+                        final File templateFile = new File(file.getValue());
+                        digest.update((templateFile.length() + ":" + templateFile.lastModified())
+                                .getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            logger.debug("Failed to hash stencil: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 親階層のパスを下から上の順で取得する
+     * 
+     * @param stencilCanonicalName
+     *            ステンシル正規名（例: "/user/project/module_service"）
+     * @return 親パス一覧（例: ["/user/project", "/user"]）
+     */
+    private static List<String> getParentPaths(String stencilCanonicalName) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : StringUtils.defaultString(stencilCanonicalName).split("/")) {
+            if (!StringUtils.isEmpty(segment)) {
+                segments.add(segment);
+            }
+        }
+
+        List<String> parentPaths = new ArrayList<>();
+        for (int i = segments.size() - 1; i >= 1; i--) {
+            parentPaths.add("/" + String.join("/", segments.subList(0, i)));
+        }
+        return parentPaths;
+    }
+
     /**
      * レイヤード検索でstencil-settings.ymlを検索する
      * 
@@ -764,6 +1140,12 @@ public class TemplateEngineProcessor {
         logger.debug("context.getStencilCanonicalName(): {}", SanitizeUtil.forLog(context.getStencilCanonicalName()));
         logger.debug("resourcePatternResolver: {}", resourcePatternResolver);
 
+        // カタログインデックスから解決（未構築・未登録の場合は従来の走査）
+        StencilSettingsYml indexed = findStencilSettingsInIndex();
+        if (indexed != null) {
+            return indexed;
+        }
+
         // 優先度順にレイヤーを検索: ユーザー → 標準 → サンプル
         String[] searchLayers = {
                 StorageConfig.getUserStencilDir(),
@@ -783,6 +1165,35 @@ public class TemplateEngineProcessor {
         return null;
     }
 
+    /**
+     * カタログインデックスからstencil-settings.ymlを取得する
+     * 
+     * @return 見つかったStencilSettingsYml、または null
+     */
+    private StencilSettingsYml findStencilSettingsInIndex() {
+        final StencilCatalogIndex index = StencilCatalogIndex.shared();
+        final String serialNo = context.getSerialNo();
+        if (false == index.isBuilt() || StringUtils.isEmpty(serialNo) || "*".equals(serialNo)) {
+            return null;
+        }
+        SanitizeUtil.sanitizeIdentifierAllowWildcard(serialNo);
+
+        for (StencilCatalogIndex.SerialEntry entry : index.getSerialEntries(context.getStencilCanonicalName(),
+                serialNo)) {
+            if (entry.settingsLocation() == null) {
+                continue;
+            }
+            StencilSettingsYml settings = entry.classpath()
+                    ? loadStencilSettingsFromClasspath(entry.settingsLocation())
+                    : getSsYmlRecurive(new File(entry.settingsLocation()));
+            if (settings != null) {
+                logger.debug("Found stencil settings in index: {}", entry.layerDir());
+                return settings;
+            }
+        }
+        return null;
+    }
+
     /**
      * 指定されたレイヤーディレクトリでstencil-settings.ymlを検索する
      * 
@@ -1115,21 +1526,8 @@ public class TemplateEngineProcessor {
 
         logger.debug("[MERGE_UNIFIED] Starting parent merge for: {}", SanitizeUtil.forLog(stencilCanonicalName));
 
-        // パス分解: /user/project/module_service → ["user", "project", "module_service"]
-        String[] pathSegments = stencilCanonicalName.split("/");
-        List<String> segments = new ArrayList<>();
-        for (String segment : pathSegments) {
-            if (!StringUtils.isEmpty(segment)) {
-                segments.add(segment);
-            }
-        }
-
-        logger.debug("[MERGE_UNIFIED] Path segments: {}", SanitizeUtil.forLog(segments));
-
-        // 親階層を下から上へ検索（module_service → project → user）
-        for (int i = segments.size() - 1; i >= 1; i--) {
-            List<String> parentSegments = segments.subList(0, i);
-            String parentPath = "/" + String.join("/", parentSegments);
+        // 親階層を下から上へ検索（/user/project/module_service → /user/project → /user）
+        for (String parentPath : getParentPaths(stencilCanonicalName)) {
 
             logger.debug("[MERGE_UNIFIED] Searching parent settings at: {}", parentPath);
 
@@ -1167,6 +1565,17 @@ public class TemplateEngineProcessor {
     private StencilSettingsYml findParentStencilSettings(String parentPath) {
         logger.debug("[FIND_PARENT] Searching for parent: {}", parentPath);
 
+        // カタログインデックスから解決（未構築・未登録の場合は従来の走査）
+        if (StencilCatalogIndex.shared().isBuilt()) {
+            File parentSettingsFile = StencilCatalogIndex.shared().getParentSettingsFile(parentPath);
+            if (parentSettingsFile != null) {
+                StencilSettingsYml parentSettings = loadParentStencilSettings(parentSettingsFile);
+                if (parentSettings != null) {
+                    return parentSettings;
+                }
+            }
+        }
+
         // レイヤー検索: user → standard の順（samplesはclasspathなのでスキップ）
         String[] searchLayers = {
                 StorageConfig.getUserStencilDir(),
@@ -1208,18 +1617,9 @@ public class TemplateEngineProcessor {
                 logger.debug("[FIND_PARENT] Found parent settings file: {}",
                         parentSettingsFile.getName());
 
-                try (InputStream stream = new FileInputStream(parentSettingsFile)) {
-                    LoaderOptions options = new LoaderOptions();
-                    Yaml yaml = new Yaml(options);
-                    StencilSettingsYml parentSettings = yaml.loadAs(stream, StencilSettingsYml.class);
-
-                    logger.info("[FIND_PARENT] Loaded parent settings from: {}",
-                            parentSettingsFile.getName());
+                StencilSettingsYml parentSettings = loadParentStencilSettings(parentSettingsFile);
+                if (parentSettings != null) {
                     return parentSettings;
-
-                } catch (Exception e) {
-                    logger.warn("[FIND_PARENT] Failed to load parent settings from {}: {}",
-                            parentSettingsFile.getName(), e.getMessage());
                 }
             } else {
                 logger.debug("[FIND_PARENT] No *_stencil-settings.yml found in: {}", parentDirPath);
@@ -1230,7 +1630,31 @@ public class TemplateEngineProcessor {
         return null;
     }
 
-    protected static String createGenerateId() {
+    /**
+     * 親ステンシル設定ファイルを読み込む
+     * 
+     * @param parentSettingsFile
+     *            *_stencil-settings.yml
+     * @return 読み込まれた親設定、失敗時は null
+     */
+    private StencilSettingsYml loadParentStencilSettings(File parentSettingsFile) {
+        try (InputStream stream = new FileInputStream(parentSettingsFile)) {
+            LoaderOptions options = new LoaderOptions();
+            Yaml yaml = new Yaml(options);
+            StencilSettingsYml parentSettings = yaml.loadAs(stream, StencilSettingsYml.class);
+
+            logger.info("[FIND_PARENT] Loaded parent settings from: {}",
+                    parentSettingsFile.getName());
+            return parentSettings;
+
+        } catch (Exception e) {
+            logger.warn("[FIND_PARENT] Failed to load parent settings from {}: {}",
+                    parentSettingsFile.getName(), e.getMessage());
+        }
+        return null;
+    }
+
+    public static String createGenerateId() {
         return DateUtil.toString(new Date(), "yyMMddHHmmssSSS");
     }
 
@@ -1259,6 +1683,15 @@ public class TemplateEngineProcessor {
     }
 
     public List<String> getSerialNos() {
+        // カタログインデックスから解決（未構築・未登録の場合は従来の走査）
+        if (StencilCatalogIndex.shared().isBuilt()) {
+            final List<String> indexed = StencilCatalogIndex.shared()
+                    .getSerialNos(SanitizeUtil.sanitizeCanonicalPath(context.getStencilCanonicalName()));
+            if (!indexed.isEmpty()) {
+                return indexed;
+            }
+        }
+
         final List<String> serialNos = Lists.newArrayList();
         final Set<String> foundSerials = new HashSet<>(); // 重複排除
 
@@ -1429,45 +1862,6 @@ public class TemplateEngineProcessor {
         }
     }
 
-    /**
-     * Resourceを一時ファイルに展開
-     * 
-     * @param resource
-     *            Spring Resource
-     * @param templateFileName
-     *            テンプレートファイル名
-     * @return 一時ファイル
-     */
-    private File extractResourceToTempFile(Resource resource, String templateFileName) throws Exception {
-        // セキュリティ強化: Files.createTempFile を使用して適切なパーミッション設定
-        java.nio.file.Path tempPath;
-        try {
-            // POSIX対応環境では厳格なパーミッションを設定
-            tempPath = java.nio.file.Files.createTempFile(
-                    "template-" + templateFileName.replace(".", "-"), ".tmp",
-                    java.nio.file.attribute.PosixFilePermissions.asFileAttribute(
-                            java.nio.file.attribute.PosixFilePermissions.fromString("rw-------")));
-        } catch (UnsupportedOperationException e) {
-            // Windows等のPOSIX非対応環境ではパーミッション指定なしで作成
-            logger.debug("POSIX file permissions not supported, falling back to default permissions");
-            tempPath = java.nio.file.Files.createTempFile(
-                    "template-" + templateFileName.replace(".", "-"), ".tmp");
-        }
-        File tempFile = tempPath.toFile();
-        tempFile.deleteOnExit();
-
-        try (InputStream inputStream = resource.getInputStream();
-                FileOutputStream outputStream = new FileOutputStream(tempFile)) {
-            inputStream.transferTo(outputStream);
-        }
-
-        // 一時ファイル名と元のテンプレートファイル名のマッピングを保存
-        tempFileToOriginalMap.put(tempFile.getName(), templateFileName);
-
-        logger.info("Extracted template to temp file: " + tempFile.getAbsolutePath());
-        return tempFile;
-    }
-
     /**
      * ResourcePatternResolverを使用してステンシルテンプレートファイルリストを取得
      * 
@@ -1498,6 +1892,11 @@ public class TemplateEngineProcessor {
             logger.debug("=== Layered template search for stencil: {} serial: {} ===",
                     SanitizeUtil.forLog(stencilCanonicalName), SanitizeUtil.forLog(serialNo));
 
+            // カタログインデックスから解決（未構築・未登録の場合は従来の走査）
+            if (collectTemplatesFromIndex(templateFiles, stencilCanonicalName, serialNo)) {
+                return templateFiles;
+            }
+
             // Layer 1: Filesystem stencils (既存の/apps/mste/stencil)
             searchFilesystemTemplates(templateFiles, foundFileNames, stencilCanonicalName, serialNo);
 
@@ -1516,6 +1915,56 @@ public class TemplateEngineProcessor {
         return templateFiles;
     }
 
+    /**
+     * カタログインデックスからテンプレートファイルを収集する<br/>
+     * 従来の走査と同様に、ファイルシステムは最初にファイルが見つかったレイヤーのみ、
+     * クラスパスは未収集の相対パスのみを対象とします。
+     * 
+     * @return インデックスから解決できた場合 true
+     */
+    private boolean collectTemplatesFromIndex(List<String> templateFiles, String stencilCanonicalName,
+            String serialNo) {
+        final StencilCatalogIndex index = StencilCatalogIndex.shared();
+        if (false == index.isBuilt() || StringUtils.isEmpty(serialNo) || "*".equals(serialNo)) {
+            return false;
+        }
+
+        final List<StencilCatalogIndex.SerialEntry> entries = index.getSerialEntries(stencilCanonicalName,
+                serialNo);
+        if (entries.isEmpty()) {
+            return false;
+        }
+
+        final Set<String> foundFileNames = new HashSet<>();
+        boolean fileSystemFound = false;
+        for (StencilCatalogIndex.SerialEntry entry : entries) {
+            if (false == entry.classpath()) {
+                if (fileSystemFound || entry.files().isEmpty()) {
+                    continue;
+                }
+                for (Map.Entry<String, String> file : entry.files().entrySet()) {
+                    templateFiles.add(file.getValue());
+                    foundFileNames.add(file.getKey());
+                }
+                fileSystemFound = true;
+                continue;
+            }
+
+            if (resourcePatternResolver == null) {
+                continue;
+            }
+            for (String relativePath : entry.files().keySet()) {
+                // クラスパス上のテンプレートは相対パスのままテンプレートローダーから読み込む
+                if (foundFileNames.add(relativePath)) {
+                    templateFiles.add(CLASSPATH_TEMPLATE_PREFIX + relativePath);
+                }
+            }
+        }
+
+        logger.debug("Resolved {} template files from catalog index", templateFiles.size());
+        return !templateFiles.isEmpty();
+    }
+
     @SuppressWarnings("lgtm[java/path-injection]")
     private void searchFilesystemTemplates(List<String> templateFiles, Set<String> foundFileNames,
             String stencilCanonicalName, String serialNo) {
@@ -1625,13 +2074,10 @@ public class TemplateEngineProcessor {
 
                     // 重複チェックは相対パスで行う
                     if (!foundFileNames.contains(relativePath)) {
-                        // classpath resourceを一時ファイルに展開
-                        File tempFile = extractResourceToTempFile(resource, relativePath);
-                        if (tempFile != null) {
-                            templateFiles.add(tempFile.getAbsolutePath());
-                            foundFileNames.add(relativePath);
-                            logger.info("CLASSPATH found: " + relativePath + " -> " + tempFile.getAbsolutePath());
-                        }
+                        // クラスパス上のテンプレートは相対パスのままテンプレートローダーから読み込む
+                        templateFiles.add(CLASSPATH_TEMPLATE_PREFIX + relativePath);
+                        foundFileNames.add(relativePath);
+                        logger.info("CLASSPATH found: " + relativePath);
                     }
                 } catch (Exception e) {
                     logger.info("Error processing classpath resource: " + e.getMessage());
@@ -1656,6 +2102,11 @@ public class TemplateEngineProcessor {
             return "";
         }
 
+        // クラスパス上のテンプレートの場合
+        if (fullPath.startsWith(CLASSPATH_TEMPLATE_PREFIX)) {
+            return fullPath.substring(CLASSPATH_TEMPLATE_PREFIX.length());
+        }
+
         String baseDirPath = StorageUtil.getBaseDir();
         String stencilMasterDir = getStencilMasterStorageDir();
 
@@ -1669,7 +2120,6 @@ public class TemplateEngineProcessor {
             }
         }
 
-        // クラスパスから展開された一時ファイルの場合
         return new File(fullPath).getName();
     }
 
@@ -1685,24 +2135,13 @@ public class TemplateEngineProcessor {
             return "";
         }
 
-        File file = new File(fullPath);
-        String fileName = file.getName();
-
-        // 一時ファイル名から元のテンプレートファイル名を取得
-        if (tempFileToOriginalMap.containsKey(fileName)) {
-            String originalFileName = tempFileToOriginalMap.get(fileName);
-            logger.debug("Mapped temp file: {} -> {}", SanitizeUtil.forLog(fileName),
-                    SanitizeUtil.forLog(originalFileName));
-            return originalFileName;
+        // クラスパス上のテンプレートの場合（serialNoディレクトリからの相対パス）
+        if (fullPath.startsWith(CLASSPATH_TEMPLATE_PREFIX)) {
+            return fullPath.substring(CLASSPATH_TEMPLATE_PREFIX.length());
         }
 
-        // 一時ファイルの完全パスがマップにある場合（相対パス付き）
-        if (tempFileToOriginalMap.containsKey(fullPath)) {
-            String originalPath = tempFileToOriginalMap.get(fullPath);
-            logger.debug("Mapped temp file path: {} -> {}", SanitizeUtil.forLog(fullPath),
-                    SanitizeUtil.forLog(originalPath));
-            return originalPath;
-        }
+        File file = new File(fullPath);
+        String fileName = file.getName();
 
         String serialDirPath = getStencilAndSerialStorageDir();
         File serialDir = new File(serialDirPath);
@@ -1722,8 +2161,20 @@ public class TemplateEngineProcessor {
             }
         }
 
-        // クラスパスから展開された一時ファイルの場合（マッピングが見つからない場合）
         logger.debug("Using filename only for: {}", SanitizeUtil.forLog(fullPath));
         return fileName;
     }
+
+    /**
+     * 1ファイル分の生成タスク
+     *
+     * @param name
+     *            ステンシルファイル名（エラーメッセージ用）
+     * @param outputName
+     *            出力ディレクトリからの相対パス
+     * @param template
+     *            解析済みテンプレート
+     */
+    protected record RenderTask(String name, String outputName, freemarker.template.Template template) {
+    }
 }
@@ -0,0 +1,43 @@
+-- =============================================================================
+-- Mira Keyword Search Index Migration Script
+-- Created: 2026-10-17
+-- =============================================================================
+-- NOTE: MiraKeywordSearchService の全文検索（tsvector / pg_trgm）用インデックスを作成します。
+-- 稼働中のテーブルをロックしないよう CONCURRENTLY で作成するため、トランザクションブロックの外で
+-- 1 文ずつ実行してください（psql の -1 / --single-transaction は使用不可）。
+-- アプリケーションは起動時にインデックスの有無のみを確認し、未作成の場合は ILIKE 検索で動作します。
+-- mira.ai.vector-store.table-name を変更している場合は、テーブル名・インデックス名を読み替えてください。
+-- =============================================================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- 英数字の語: tsvector の式インデックス（式は MiraKeywordSearchService.TSV_EXPRESSION と一致させる）
+CREATE INDEX CONCURRENTLY IF NOT EXISTS mir_mira_vector_store_content_tsv_idx
+  ON mir_mira_vector_store USING GIN (to_tsvector('simple', coalesce(content, '')));
+
+-- 日本語の語: 部分一致（ILIKE）用の trigram インデックス
+CREATE INDEX CONCURRENTLY IF NOT EXISTS mir_mira_vector_store_content_trgm_idx
+  ON mir_mira_vector_store USING GIN (content gin_trgm_ops);
+
+-- スコープ・テナント・ユーザー条件
+CREATE INDEX CONCURRENTLY IF NOT EXISTS mir_mira_vector_store_scope_idx
+  ON mir_mira_vector_store ((metadata->>'scope'), (metadata->>'tenantId'), (metadata->>'userId'));
+
+-- =============================================================================
+-- 確認用
+-- =============================================================================
+-- pg_trgm が日本語から trigram を抽出できること（LC_CTYPE が C の DB では空になり、インデックスが効かない）
+--   SELECT show_trgm('経費精算');
+--
+-- 日本語クエリ「経費精算の方法」の検索がインデックスを使うこと。
+-- 期待するプラン: 各 ILIKE 条件の Bitmap Index Scan on mir_mira_vector_store_content_trgm_idx を
+-- BitmapOr で結合した Bitmap Heap Scan（Seq Scan on mir_mira_vector_store にならないこと）。
+-- 「方法」のような 2 文字の語は SELECT 句のスコア計算にのみ現れ、WHERE 句には含まれない。
+--   EXPLAIN (ANALYZE, BUFFERS)
+--   SELECT id, (CASE WHEN content ILIKE '%経費精%' THEN 1 ELSE 0 END
+--             + CASE WHEN content ILIKE '%費精算%' THEN 1 ELSE 0 END
+--             + CASE WHEN content ILIKE '%方法%' THEN 1 ELSE 0 END) AS keyword_score
+--     FROM mir_mira_vector_store
+--    WHERE (metadata->>'scope' = 'SYSTEM')
+--      AND (content ILIKE '%経費精%' OR content ILIKE '%費精算%')
+--    ORDER BY keyword_score DESC LIMIT 10;
@@ -135,4 +135,35 @@ class LocalStorageServiceTest {
     void getBasePath_returnsConfiguredBaseDir() {
         assertEquals(tempDir.toAbsolutePath().toString(), storageService.getBasePath());
     }
+
+    @Test
+    void openOutputStream_writesFile() throws IOException {
+        // Given
+        String path = "test/nested/streamed.txt";
+
+        // When
+        try (java.io.OutputStream os = storageService.openOutputStream(path)) {
+            os.write("Streamed Content".getBytes(StandardCharsets.UTF_8));
+        }
+
+        // Then
+        assertTrue(storageService.exists(path));
+        assertEquals("Streamed Content", storageService.readString(path));
+    }
+
+    @Test
+    void openOutputStream_abort_leavesNoFile() throws IOException {
+        // Given
+        String path = "test/nested/aborted.txt";
+        java.io.OutputStream os = storageService.openOutputStream(path);
+        os.write("Partial".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        ((Abortable) os).abort();
+        os.close();
+
+        // Then - 保存先・一時ファイルとも残らない
+        assertFalse(storageService.exists(path));
+        assertTrue(storageService.listFiles("test/nested").isEmpty());
+    }
 }
@@ -242,4 +242,24 @@ class S3StorageServiceTest {
             storageService.getInputStream(path);
         });
     }
+
+    @Test
+    void openOutputStream_abort_abortsMultipartUploadWithoutCompleting() throws IOException {
+        // Given
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("etag-1").build());
+        java.io.OutputStream os = storageService.openOutputStream("generated.zip");
+        os.write(new byte[S3MultipartOutputStream.PART_SIZE + 1]);
+
+        // When
+        ((Abortable) os).abort();
+        os.close();
+
+        // Then
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
 }
@@ -118,6 +118,18 @@ class MiraChatServiceTest {
     @Mock
     private MiraRagContextBuilder ragContextBuilder;
 
+    @Mock
+    private MiraConversationHistoryLoader historyLoader;
+
+    @Mock
+    private MiraConversationCache conversationCache;
+
+    @Mock
+    private jp.vemi.mirel.apps.mira.domain.dao.repository.MiraConversationSummaryRepository summaryRepository;
+
+    @Mock
+    private MiraConversationSummarizer conversationSummarizer;
+
     @InjectMocks
     private MiraChatService miraChatService;
 
@@ -170,7 +182,8 @@ class MiraChatServiceTest {
                     .build();
             when(conversationRepository.save(any())).thenReturn(conversation);
 
-            when(messageRepository.findByConversationIdOrderByCreatedAtAsc(any()))
+            when(conversationCache.getHistory(any())).thenReturn(null);
+            when(historyLoader.loadRecent(any(), anyInt(), any()))
                     .thenReturn(List.of());
 
             when(contextMergeService.buildFinalContextPrompt(any(), any(), any(), any()))
@@ -266,7 +279,8 @@ class MiraChatServiceTest {
                     .build();
             when(conversationRepository.save(any())).thenReturn(conversation);
 
-            when(messageRepository.findByConversationIdOrderByCreatedAtAsc(any()))
+            when(conversationCache.getHistory(any())).thenReturn(null);
+            when(historyLoader.loadRecent(any(), anyInt(), any()))
                     .thenReturn(List.of());
 
             AiRequest aiRequest = AiRequest.builder()
@@ -329,7 +343,8 @@ class MiraChatServiceTest {
                     .senderType(MiraMessage.SenderType.ASSISTANT)
                     .content("前の応答")
                     .build();
-            when(messageRepository.findByConversationIdOrderByCreatedAtAsc(conversationId))
+            when(conversationCache.getHistory(conversationId)).thenReturn(null);
+            when(historyLoader.loadRecent(eq(conversationId), anyInt(), any()))
                     .thenReturn(List.of(prevUserMsg, prevAssistantMsg));
 
             AiRequest aiRequest = AiRequest.builder()
@@ -371,6 +386,89 @@ class MiraChatServiceTest {
             verify(conversationRepository).findById(conversationId);
             // lastActivity更新などでsaveは呼ばれる
             verify(conversationRepository, atLeastOnce()).save(any());
+            // DB から読み込んだ履歴がプロンプトに渡される
+            assertThat(capturePromptHistory())
+                    .extracting(AiRequest.Message::getContent)
+                    .containsExactly("前のメッセージ", "前の応答");
+        }
+
+        @Test
+        @DisplayName("キャッシュ済みの履歴を使用しDBを読まない")
+        void shouldUseCachedHistory() {
+            // Arrange
+            String conversationId = UUID.randomUUID().toString();
+            ChatRequest requestWithConversation = ChatRequest.builder()
+                    .conversationId(conversationId)
+                    .message(ChatRequest.Message.builder()
+                            .content("続きのメッセージ")
+                            .build())
+                    .build();
+
+            when(policyEnforcer.validateRequest(any()))
+                    .thenReturn(new PolicyEnforcer.ValidationResult(true, null));
+            when(modeResolver.resolve(any())).thenReturn(MiraMode.GENERAL_CHAT);
+            when(policyEnforcer.canAccessMode(any(), any(), any())).thenReturn(true);
+
+            MiraConversation existingConversation = MiraConversation.builder()
+                    .id(conversationId)
+                    .tenantId(TENANT_ID)
+                    .userId(USER_ID)
+                    .mode(MiraConversation.ConversationMode.GENERAL_CHAT)
+                    .status(MiraConversation.ConversationStatus.ACTIVE)
+                    .build();
+            when(conversationCache.getConversation(conversationId))
+                    .thenReturn(Optional.of(existingConversation));
+
+            // キャッシュ済みの履歴
+            when(conversationCache.getHistory(conversationId)).thenReturn(List.of(
+                    AiRequest.Message.user("キャッシュのメッセージ"),
+                    AiRequest.Message.assistant("キャッシュの応答")));
+
+            when(contextMergeService.buildFinalContextPrompt(any(), any(), any(), any()))
+                    .thenReturn("Context Prompt");
+
+            AiRequest aiRequest = AiRequest.builder()
+                    .messages(List.of(AiRequest.Message.user("続きのメッセージ")))
+                    .build();
+            when(promptBuilder.buildChatRequestWithContext(any(), any(), any(), anyString())).thenReturn(aiRequest);
+
+            when(aiProviderFactory.createClient(any())).thenReturn(aiProviderClient);
+            AiResponse aiResponse = AiResponse.success(
+                    "続きの応答です",
+                    AiResponse.Metadata.builder().model("gpt-4o").build());
+            when(aiProviderClient.chat(any())).thenReturn(aiResponse);
+
+            when(policyEnforcer.filterResponse(any(), any())).thenAnswer(i -> i.getArgument(0));
+            when(responseFormatter.formatAsMarkdown(any())).thenAnswer(i -> i.getArgument(0));
+
+            MiraMessage newAssistantMessage = MiraMessage.builder()
+                    .id(UUID.randomUUID().toString())
+                    .conversationId(conversationId)
+                    .senderType(MiraMessage.SenderType.ASSISTANT)
+                    .content("続きの応答です")
+                    .build();
+            when(messageRepository.save(any())).thenReturn(newAssistantMessage);
+
+            // Act
+            ChatResponse response = miraChatService.chat(requestWithConversation, TENANT_ID, USER_ID);
+
+            // Assert
+            assertThat(response).isNotNull();
+            assertThat(response.getConversationId()).isEqualTo(conversationId);
+
+            // キャッシュヒット時は DB から履歴・要約を読み込まない
+            verify(historyLoader, never()).loadRecent(any(), anyInt(), any());
+            verify(summaryRepository, never()).findById(any());
+            assertThat(capturePromptHistory())
+                    .extracting(AiRequest.Message::getContent)
+                    .containsExactly("キャッシュのメッセージ", "キャッシュの応答");
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<AiRequest.Message> capturePromptHistory() {
+            ArgumentCaptor<List<AiRequest.Message>> captor = ArgumentCaptor.forClass(List.class);
+            verify(promptBuilder).buildChatRequestWithContext(any(), any(), captor.capture(), anyString());
+            return captor.getValue();
         }
     }
 
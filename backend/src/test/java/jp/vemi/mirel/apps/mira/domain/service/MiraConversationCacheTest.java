@@ -0,0 +1,109 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraConversation;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiRequest;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.TokenCounter;
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+
+/**
+ * MiraConversationCache のユニットテスト.
+ */
+@ExtendWith(MockitoExtension.class)
+class MiraConversationCacheTest {
+
+    @Mock
+    private TokenCounter tokenCounter;
+
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    private MiraAiProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MiraAiProperties();
+        lenient().when(tokenCounter.count(any(), any())).thenReturn(10);
+    }
+
+    private MiraConversationCache create() {
+        return new MiraConversationCache(tokenCounter, properties, redisTemplateProvider);
+    }
+
+    @Test
+    @DisplayName("読み込み済みの履歴へ保存したメッセージを追加")
+    void append_addsToLoadedHistory() {
+        MiraConversationCache cache = create();
+        cache.putHistory("c1", List.of(AiRequest.Message.user("Q1"), AiRequest.Message.assistant("A1")));
+
+        cache.append("c1", AiRequest.Message.user("Q2"));
+
+        assertThat(cache.getHistory("c1")).extracting(AiRequest.Message::getContent)
+                .containsExactly("Q1", "A1", "Q2");
+    }
+
+    @Test
+    @DisplayName("履歴を読み込んでいない会話には追加しない")
+    void append_withoutHistory_isIgnored() {
+        MiraConversationCache cache = create();
+        cache.putConversation(MiraConversation.builder().id("c1").build());
+
+        cache.append("c1", AiRequest.Message.user("Q1"));
+
+        assertThat(cache.getConversation("c1")).isPresent();
+        assertThat(cache.getHistory("c1")).isNull();
+    }
+
+    @Test
+    @DisplayName("上限を超えた古いメッセージと先頭のツール結果を外す")
+    void append_trimsOldestAndLeadingToolMessages() {
+        properties.getHistory().setMaxTokens(30);
+        MiraConversationCache cache = create();
+        AiRequest.Message tool = AiRequest.Message.builder().role("tool").content("result").build();
+        cache.putHistory("c1", List.of(AiRequest.Message.user("Q1"), tool, AiRequest.Message.assistant("A1")));
+
+        cache.append("c1", AiRequest.Message.user("Q2"));
+
+        assertThat(cache.getHistory("c1")).extracting(AiRequest.Message::getContent)
+                .containsExactly("A1", "Q2");
+    }
+
+    @Test
+    @DisplayName("他ノードからの通知で破棄")
+    void onInvalidation_fromOtherNode_evicts() {
+        MiraConversationCache cache = create();
+        cache.putHistory("c1", List.of(AiRequest.Message.user("Q1")));
+
+        cache.onInvalidation("other-node:c1");
+
+        assertThat(cache.getHistory("c1")).isNull();
+    }
+
+    @Test
+    @DisplayName("無効化時はキャッシュしない")
+    void disabled_doesNotCache() {
+        properties.getConversationCache().setEnabled(false);
+        MiraConversationCache cache = create();
+
+        cache.putHistory("c1", List.of(AiRequest.Message.user("Q1")));
+
+        assertThat(cache.getHistory("c1")).isNull();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraConversationSummary;
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraMessage;
+import jp.vemi.mirel.apps.mira.domain.dao.repository.MiraMessageRepository;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.TokenCounter;
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+
+/**
+ * MiraConversationHistoryLoader のユニットテスト.
+ */
+@ExtendWith(MockitoExtension.class)
+class MiraConversationHistoryLoaderTest {
+
+    private static final String CONVERSATION_ID = "conv-1";
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Mock
+    private MiraMessageRepository messageRepository;
+
+    @Mock
+    private TokenCounter tokenCounter;
+
+    private MiraAiProperties properties;
+    private MiraConversationHistoryLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MiraAiProperties();
+        properties.getHistory().setPageSize(2);
+        lenient().when(tokenCounter.count(anyString(), any())).thenReturn(10);
+        loader = new MiraConversationHistoryLoader(messageRepository, tokenCounter, properties);
+    }
+
+    private MiraMessage message(int index, MiraMessage.SenderType senderType) {
+        return MiraMessage.builder()
+                .id("m" + index)
+                .conversationId(CONVERSATION_ID)
+                .senderType(senderType)
+                .content("message " + index)
+                .createdAt(BASE.plusSeconds(index))
+                .build();
+    }
+
+    @Test
+    @DisplayName("キーセットで古いページへ進み、古い順に返す")
+    void loadRecent_pagesBackwardWithKeyset() {
+        MiraMessage m4 = message(4, MiraMessage.SenderType.ASSISTANT);
+        MiraMessage m3 = message(3, MiraMessage.SenderType.USER);
+        MiraMessage m2 = message(2, MiraMessage.SenderType.ASSISTANT);
+        when(messageRepository.findLatestByConversationId(eq(CONVERSATION_ID), any(Pageable.class)))
+                .thenReturn(List.of(m4, m3));
+        when(messageRepository.findOlderByConversationId(eq(CONVERSATION_ID), eq(m3.getCreatedAt()), eq("m3"),
+                any(Pageable.class)))
+                .thenReturn(List.of(m2));
+
+        List<MiraMessage> result = loader.loadRecent(CONVERSATION_ID, 10);
+
+        assertThat(result).extracting(MiraMessage::getId).containsExactly("m2", "m3", "m4");
+    }
+
+    @Test
+    @DisplayName("トークン数の上限に達したら以降のページを読まない")
+    void loadRecent_stopsAtTokenBudget() {
+        properties.getHistory().setMaxTokens(15);
+        when(messageRepository.findLatestByConversationId(eq(CONVERSATION_ID), any(Pageable.class)))
+                .thenReturn(List.of(message(4, MiraMessage.SenderType.ASSISTANT),
+                        message(3, MiraMessage.SenderType.USER)));
+
+        List<MiraMessage> result = loader.loadRecent(CONVERSATION_ID, 10);
+
+        assertThat(result).extracting(MiraMessage::getId).containsExactly("m4");
+        verify(messageRepository, never()).findOlderByConversationId(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("先頭に残ったツール結果は除外")
+    void loadRecent_dropsLeadingToolMessages() {
+        when(messageRepository.findLatestByConversationId(eq(CONVERSATION_ID), any(Pageable.class)))
+                .thenReturn(List.of(message(3, MiraMessage.SenderType.USER),
+                        message(2, MiraMessage.SenderType.TOOL)));
+
+        List<MiraMessage> result = loader.loadRecent(CONVERSATION_ID, 2);
+
+        assertThat(result).extracting(MiraMessage::getId).containsExactly("m3");
+    }
+
+    @Test
+    @DisplayName("要約済みのメッセージに達したら打ち切る")
+    void loadRecent_stopsAtSummaryBoundary() {
+        MiraMessage m2 = message(2, MiraMessage.SenderType.ASSISTANT);
+        when(messageRepository.findLatestByConversationId(eq(CONVERSATION_ID), any(Pageable.class)))
+                .thenReturn(List.of(message(4, MiraMessage.SenderType.ASSISTANT),
+                        message(3, MiraMessage.SenderType.USER)));
+        when(messageRepository.findOlderByConversationId(eq(CONVERSATION_ID), any(), eq("m3"), any(Pageable.class)))
+                .thenReturn(List.of(m2, message(1, MiraMessage.SenderType.USER)));
+        MiraConversationSummary summary = MiraConversationSummary.builder()
+                .conversationId(CONVERSATION_ID)
+                .coveredMessageId("m2")
+                .coveredUntil(m2.getCreatedAt())
+                .tokenCount(5)
+                .build();
+
+        List<MiraMessage> result = loader.loadRecent(CONVERSATION_ID, 10, summary);
+
+        assertThat(result).extracting(MiraMessage::getId).containsExactly("m3", "m4");
+    }
+
+    @Test
+    @DisplayName("未要約のメッセージを要約済みの範囲の直後から古い順に読み込む")
+    void loadOldestUnsummarized_startsAfterSummaryBoundary() {
+        MiraMessage m2 = message(2, MiraMessage.SenderType.ASSISTANT);
+        when(messageRepository.findFromByConversationId(eq(CONVERSATION_ID), eq(m2.getCreatedAt()), eq("m2"),
+                any(Pageable.class)))
+                .thenReturn(List.of(message(3, MiraMessage.SenderType.USER),
+                        message(4, MiraMessage.SenderType.ASSISTANT)));
+        MiraConversationSummary summary = MiraConversationSummary.builder()
+                .conversationId(CONVERSATION_ID)
+                .coveredMessageId("m2")
+                .coveredUntil(m2.getCreatedAt())
+                .build();
+
+        List<MiraMessage> result = loader.loadOldestUnsummarized(CONVERSATION_ID, summary, 2);
+
+        assertThat(result).extracting(MiraMessage::getId).containsExactly("m3", "m4");
+        verify(messageRepository, never()).findOldestByConversationId(any(), any());
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraConversationSummary;
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraMessage;
+import jp.vemi.mirel.apps.mira.domain.dao.repository.MiraConversationSummaryRepository;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiProviderClient;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiProviderFactory;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiRequest;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiResponse;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.TokenCounter;
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+
+/**
+ * MiraConversationSummarizer のユニットテスト.
+ */
+@ExtendWith(MockitoExtension.class)
+class MiraConversationSummarizerTest {
+
+    private static final String CONVERSATION_ID = "conv-1";
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Mock
+    private MiraConversationSummaryRepository summaryRepository;
+
+    @Mock
+    private MiraConversationHistoryLoader historyLoader;
+
+    @Mock
+    private MiraConversationCache conversationCache;
+
+    @Mock
+    private AiProviderFactory aiProviderFactory;
+
+    @Mock
+    private AiProviderClient client;
+
+    @Mock
+    private TokenCounter tokenCounter;
+
+    private MiraAiProperties properties;
+    private MiraConversationSummarizer summarizer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MiraAiProperties();
+        properties.getSummary().setKeepRecentMessages(2);
+        properties.getSummary().setTriggerMessages(4);
+        lenient().when(tokenCounter.count(any(), any())).thenReturn(10);
+        summarizer = new MiraConversationSummarizer(summaryRepository, historyLoader, conversationCache,
+                aiProviderFactory, tokenCounter, Runnable::run, properties);
+    }
+
+    private List<MiraMessage> turns(int count) {
+        List<MiraMessage> messages = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            messages.add(MiraMessage.builder()
+                    .id("m" + i)
+                    .conversationId(CONVERSATION_ID)
+                    .senderType(i % 2 == 1 ? MiraMessage.SenderType.USER : MiraMessage.SenderType.ASSISTANT)
+                    .content("message " + i)
+                    .createdAt(BASE.plusSeconds(i))
+                    .build());
+        }
+        return messages;
+    }
+
+    @Test
+    @DisplayName("直近のターンを残して古いターンを要約し、要約済みの範囲を保存")
+    void summarize_foldsOlderTurns() {
+        when(summaryRepository.findById(CONVERSATION_ID)).thenReturn(Optional.empty());
+        when(historyLoader.loadUnsummarized(eq(CONVERSATION_ID), any(), anyInt())).thenReturn(turns(6));
+        when(historyLoader.loadOldestUnsummarized(eq(CONVERSATION_ID), any(), anyInt())).thenReturn(turns(6));
+        when(aiProviderFactory.createClient("t1")).thenReturn(client);
+        when(client.chat(any(AiRequest.class))).thenReturn(AiResponse.success("要約本文", null));
+
+        assertThat(summarizer.summarize("t1", CONVERSATION_ID)).isTrue();
+
+        ArgumentCaptor<MiraConversationSummary> saved = ArgumentCaptor.forClass(MiraConversationSummary.class);
+        verify(summaryRepository).save(saved.capture());
+        assertThat(saved.getValue().getContent()).isEqualTo("要約本文");
+        assertThat(saved.getValue().getCoveredMessageId()).isEqualTo("m4");
+        assertThat(saved.getValue().getCoveredMessages()).isEqualTo(4);
+        verify(conversationCache).invalidate(CONVERSATION_ID);
+
+        ArgumentCaptor<AiRequest> request = ArgumentCaptor.forClass(AiRequest.class);
+        verify(client).chat(request.capture());
+        assertThat(request.getValue().getMessages().get(0).getContent())
+                .contains("message 4").doesNotContain("message 5");
+    }
+
+    @Test
+    @DisplayName("残す件数が 0 でも直近のユーザーメッセージ以降は残す")
+    void summarize_keepZero_keepsLatestUserTurn() {
+        properties.getSummary().setKeepRecentMessages(0);
+        when(summaryRepository.findById(CONVERSATION_ID)).thenReturn(Optional.empty());
+        when(historyLoader.loadUnsummarized(eq(CONVERSATION_ID), any(), anyInt())).thenReturn(turns(6));
+        when(historyLoader.loadOldestUnsummarized(eq(CONVERSATION_ID), any(), anyInt())).thenReturn(turns(6));
+        when(aiProviderFactory.createClient("t1")).thenReturn(client);
+        when(client.chat(any(AiRequest.class))).thenReturn(AiResponse.success("要約本文", null));
+
+        assertThat(summarizer.summarize("t1", CONVERSATION_ID)).isTrue();
+
+        ArgumentCaptor<MiraConversationSummary> saved = ArgumentCaptor.forClass(MiraConversationSummary.class);
+        verify(summaryRepository).save(saved.capture());
+        assertThat(saved.getValue().getCoveredMessageId()).isEqualTo("m4");
+    }
+
+    @Test
+    @DisplayName("読み込み上限を超えて溜まった未要約メッセージは古い順に繰り返し要約し、読み飛ばさない")
+    void summarize_backlogBeyondMaxPending_foldsOldestFirst() {
+        properties.getSummary().setMaxPendingMessages(4);
+        properties.getSummary().setTriggerMessages(3);
+        List<MiraMessage> all = turns(10);
+        AtomicReference<MiraConversationSummary> stored = new AtomicReference<>();
+        when(summaryRepository.findById(CONVERSATION_ID)).thenAnswer(invocation -> Optional.ofNullable(stored.get()));
+        when(summaryRepository.save(any(MiraConversationSummary.class))).thenAnswer(invocation -> {
+            stored.set(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(historyLoader.loadUnsummarized(eq(CONVERSATION_ID), any(), anyInt())).thenAnswer(invocation -> {
+            List<MiraMessage> pending = unsummarized(all, invocation.getArgument(1));
+            return pending.subList(Math.max(0, pending.size() - invocation.<Integer>getArgument(2)), pending.size());
+        });
+        when(historyLoader.loadOldestUnsummarized(eq(CONVERSATION_ID), any(), anyInt())).thenAnswer(invocation -> {
+            List<MiraMessage> pending = unsummarized(all, invocation.getArgument(1));
+            return pending.subList(0, Math.min(pending.size(), invocation.<Integer>getArgument(2)));
+        });
+        when(aiProviderFactory.createClient("t1")).thenReturn(client);
+        when(client.chat(any(AiRequest.class))).thenReturn(AiResponse.success("要約本文", null));
+
+        assertThat(summarizer.summarize("t1", CONVERSATION_ID)).isTrue();
+
+        // m1〜m4、m5〜m8 の 2 回に分けて要約し、直近の m9 以降を残す
+        ArgumentCaptor<AiRequest> request = ArgumentCaptor.forClass(AiRequest.class);
+        verify(client, times(2)).chat(request.capture());
+        assertThat(request.getAllValues().get(0).getMessages().get(0).getContent())
+                .contains("message 1\n", "message 4\n").doesNotContain("message 5");
+        assertThat(request.getAllValues().get(1).getMessages().get(0).getContent())
+                .contains("message 5\n", "message 8\n").doesNotContain("message 9");
+        assertThat(stored.get().getCoveredMessageId()).isEqualTo("m8");
+        assertThat(stored.get().getCoveredMessages()).isEqualTo(8);
+        verify(conversationCache).invalidate(CONVERSATION_ID);
+    }
+
+    private static List<MiraMessage> unsummarized(List<MiraMessage> all, MiraConversationSummary summary) {
+        return all.stream().filter(message -> summary == null || !summary.covers(message)).toList();
+    }
+
+    @Test
+    @DisplayName("閾値以下では要約しない")
+    void summarize_belowThreshold_skips() {
+        when(summaryRepository.findById(CONVERSATION_ID)).thenReturn(Optional.empty());
+        when(historyLoader.loadUnsummarized(eq(CONVERSATION_ID), any(), anyInt())).thenReturn(turns(4));
+
+        assertThat(summarizer.summarize("t1", CONVERSATION_ID)).isFalse();
+
+        verify(aiProviderFactory, never()).createClient(any());
+        verify(summaryRepository, never()).save(any());
+    }
+}
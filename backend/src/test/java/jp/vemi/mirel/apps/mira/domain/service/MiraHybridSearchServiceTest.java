@@ -0,0 +1,120 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+
+/**
+ * MiraHybridSearchService のユニットテスト.
+ */
+@ExtendWith(MockitoExtension.class)
+class MiraHybridSearchServiceTest {
+
+    @Mock
+    private VectorStore vectorStore;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private RerankerService rerankerService;
+
+    @Mock
+    private MiraSettingService settingService;
+
+    @Mock
+    private MiraKeywordSearchService keywordSearchService;
+
+    private MiraRetrievalExecutor retrievalExecutor;
+
+    private MiraHybridSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        MiraAiProperties properties = new MiraAiProperties();
+        retrievalExecutor = new MiraRetrievalExecutor(properties);
+        service = new MiraHybridSearchService(vectorStore, jdbcTemplate, new ObjectMapper(), rerankerService,
+                settingService, properties, retrievalExecutor, keywordSearchService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        retrievalExecutor.shutdown();
+    }
+
+    private Document doc(String id, String scope) {
+        return new Document(id, "content " + id, Map.of("scope", scope, "distance", 0.1));
+    }
+
+    private Map<String, Integer> quotas(int system, int tenant) {
+        Map<String, Integer> quotas = new LinkedHashMap<>();
+        quotas.put("SYSTEM", system);
+        quotas.put("TENANT", tenant);
+        return quotas;
+    }
+
+    @Test
+    @DisplayName("統合検索: ベクトル検索 1 回、スコープごとの上限件数を適用")
+    void searchUnified_appliesScopeQuotas() {
+        List<Document> vectorDocs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            vectorDocs.add(doc("sys-" + i, "SYSTEM"));
+        }
+        vectorDocs.add(doc("tenant-0", "TENANT"));
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenReturn(vectorDocs);
+        when(rerankerService.shouldRerank(anyString(), anyInt())).thenReturn(false);
+
+        SearchRequest request = SearchRequest.builder().query("hyde").topK(6).build();
+        List<Document> results = service.searchUnified("", request, quotas(2, 5), "tenant-1", null);
+
+        assertThat(results).extracting(Document::getId).containsExactly("sys-0", "sys-1", "tenant-0");
+        verify(vectorStore, times(1)).similaritySearch(any(SearchRequest.class));
+        verify(rerankerService, never()).rerank(anyString(), anyList(), anyString());
+    }
+
+    @Test
+    @DisplayName("統合検索: リランキングは融合後の候補に対して 1 回だけ実行")
+    void searchUnified_reranksOnce() {
+        List<Document> vectorDocs = List.of(doc("sys-0", "SYSTEM"), doc("tenant-0", "TENANT"));
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenReturn(vectorDocs);
+        when(rerankerService.shouldRerank("tenant-1", 2)).thenReturn(true);
+        when(rerankerService.rerank(anyString(), anyList(), anyString()))
+                .thenAnswer(invocation -> List.of(((List<?>) invocation.getArgument(1)).get(1)));
+
+        SearchRequest request = SearchRequest.builder().query("hyde").topK(6).build();
+        List<Document> results = service.searchUnified("", request, quotas(3, 3), "tenant-1", null);
+
+        assertThat(results).extracting(Document::getId).containsExactly("tenant-0");
+        verify(rerankerService, times(1)).rerank(anyString(), anyList(), anyString());
+    }
+}
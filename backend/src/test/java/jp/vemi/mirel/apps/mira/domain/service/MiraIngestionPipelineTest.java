@@ -0,0 +1,202 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.pgvector.PgVectorStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraIndexingProgress;
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraIndexingProgress.IndexingStatus;
+import jp.vemi.mirel.apps.mira.domain.dao.repository.MiraIndexingProgressRepository;
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+import jp.vemi.mirel.apps.mira.infrastructure.monitoring.MiraMetrics;
+
+/**
+ * MiraIngestionPipeline のユニットテスト.
+ */
+@ExtendWith(MockitoExtension.class)
+class MiraIngestionPipelineTest {
+
+    @Mock
+    private EmbeddingModel embeddingModel;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private MiraIndexingProgressRepository progressRepository;
+
+    private MiraAiProperties properties;
+    private SimpleMeterRegistry registry;
+    private MiraIngestionPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MiraAiProperties();
+        properties.getIngestion().setBatchSize(2);
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    private MiraIngestionPipeline create(VectorStore vectorStore) {
+        pipeline = new MiraIngestionPipeline(vectorStore, embeddingModel, jdbcTemplate, new ObjectMapper(),
+                progressRepository, new MiraMetrics(registry), properties);
+        return pipeline;
+    }
+
+    private List<Document> chunks(int count) {
+        List<Document> chunks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            chunks.add(new Document("chunk " + i));
+        }
+        return chunks;
+    }
+
+    @Test
+    @DisplayName("PgVectorStore の場合はバッチ単位で埋め込み・JDBC バッチ登録")
+    void ingest_bulkInsertsPerBatch() {
+        MiraIndexingProgress progress = MiraIndexingProgress.builder().fileId("f1").build();
+        when(progressRepository.findByFileId("f1")).thenReturn(Optional.of(progress));
+        when(embeddingModel.embed(anyList())).thenAnswer(invocation -> {
+            List<?> texts = invocation.getArgument(0);
+            List<float[]> vectors = new ArrayList<>();
+            texts.forEach(t -> vectors.add(new float[] { 0.1f, 0.2f }));
+            return vectors;
+        });
+        PgVectorStore vectorStore = mock(PgVectorStore.class);
+        create(vectorStore);
+
+        int count = pipeline.ingest("f1", () -> List.of(new Document("source")), docs -> chunks(5)).join();
+
+        assertThat(count).isEqualTo(5);
+        verify(embeddingModel, times(3)).embed(anyList());
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyList());
+        verify(vectorStore, never()).add(anyList());
+        verify(progressRepository, times(3)).incrementProcessedChunks(eq("f1"), anyInt(),
+                any(LocalDateTime.class));
+        assertThat(progress.getTotalChunks()).isEqualTo(5);
+        assertThat(progress.getStatus()).isEqualTo(IndexingStatus.COMPLETED);
+        assertThat(registry.get("mira.ingestion.items").tag("stage", "insert").counter().count()).isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("PgVectorStore 以外は VectorStore#add で登録")
+    void ingest_otherVectorStore_usesAdd() {
+        VectorStore vectorStore = mock(VectorStore.class);
+        create(vectorStore);
+
+        int count = pipeline.ingest("f1", () -> List.of(new Document("source")), docs -> chunks(3)).join();
+
+        assertThat(count).isEqualTo(3);
+        verify(vectorStore, times(2)).add(anyList());
+        verify(embeddingModel, never()).embed(anyList());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("内容が変わらないチャンクは再登録せず、消えたチャンクのみ削除")
+    void ingest_unchangedChunks_areKept() {
+        MiraIndexingProgress progress = MiraIndexingProgress.builder().fileId("f1").build();
+        when(progressRepository.findByFileId("f1")).thenReturn(Optional.of(progress));
+        List<Document> chunks = chunks(3);
+        Map<String, Object> kept = new HashMap<>();
+        kept.put("id", "kept-id");
+        kept.put("content_hash", MiraIngestionPipeline.contentHash(chunks.get(0)));
+        Map<String, Object> stale = new HashMap<>();
+        stale.put("id", "stale-id");
+        stale.put("content_hash", "old-hash");
+        when(jdbcTemplate.queryForList(anyString(), eq("f1"))).thenReturn(List.of(kept, stale));
+        VectorStore vectorStore = mock(VectorStore.class);
+        create(vectorStore);
+
+        int count = pipeline.ingest("f1", () -> List.of(new Document("source")), docs -> chunks).join();
+
+        assertThat(count).isEqualTo(3);
+        verify(vectorStore, times(1)).add(List.of(chunks.get(1), chunks.get(2)));
+        verify(vectorStore).delete(List.of("stale-id"));
+        assertThat(chunks.get(0).getMetadata()).containsKey(MiraIngestionPipeline.CONTENT_HASH_KEY);
+        assertThat(progress.getTotalChunks()).isEqualTo(3);
+        assertThat(progress.getProcessedChunks()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("ジョブ外の取り込みでは以前のジョブのタスクIDを外す")
+    void ingest_outsideJob_clearsTaskId() {
+        MiraIndexingProgress progress = MiraIndexingProgress.builder()
+                .fileId("f1").taskId("old-task").status(IndexingStatus.COMPLETED).build();
+        when(progressRepository.findByFileId("f1")).thenReturn(Optional.of(progress));
+        create(mock(VectorStore.class));
+
+        pipeline.ingest("f1", () -> List.of(new Document("source")), docs -> chunks(1)).join();
+        assertThat(progress.getTaskId()).isNull();
+
+        pipeline.ingest("f1", "task-1", () -> List.of(new Document("source")), docs -> chunks(1)).join();
+        assertThat(progress.getTaskId()).isEqualTo("task-1");
+    }
+
+    @Test
+    @DisplayName("ハッシュは取り込みごとに変わるメタデータを含めない")
+    void contentHash_ignoresVolatileMetadata() {
+        Document a = new Document("text", Map.of("fileId", "f1", "created_at", "2026-01-01T00:00:00Z"));
+        Document b = new Document("text", Map.of("fileId", "f1", "created_at", "2026-02-01T00:00:00Z"));
+        Document c = new Document("text", Map.of("fileId", "f2"));
+
+        assertThat(MiraIngestionPipeline.contentHash(a)).isEqualTo(MiraIngestionPipeline.contentHash(b));
+        assertThat(MiraIngestionPipeline.contentHash(a)).isNotEqualTo(MiraIngestionPipeline.contentHash(c));
+    }
+
+    @Test
+    @DisplayName("抽出に失敗した場合は進捗を FAILED にして例外を返す")
+    void ingest_parseFailure_marksFailed() {
+        MiraIndexingProgress progress = MiraIndexingProgress.builder().fileId("f1").build();
+        when(progressRepository.findByFileId("f1")).thenReturn(Optional.of(progress));
+        create(mock(VectorStore.class));
+
+        assertThatThrownBy(() -> pipeline.ingest("f1", () -> {
+            throw new IllegalStateException("broken file");
+        }, docs -> docs).join())
+                .isInstanceOf(CompletionException.class)
+                .hasRootCauseMessage("broken file");
+        assertThat(progress.getStatus()).isEqualTo(IndexingStatus.FAILED);
+        assertThat(progress.getErrorMessage()).isEqualTo("broken file");
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+
+/**
+ * MiraKeywordSearchService のユニットテスト.
+ */
+@ExtendWith(MockitoExtension.class)
+class MiraKeywordSearchServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("日本語: 文字種で分割し、助詞を除外、長い漢字列は trigram、2 文字の語は加点のみ")
+    void tokenize_japanese() {
+        var terms = MiraKeywordSearchService.tokenize("経費精算の方法は？");
+
+        assertThat(terms.lexemes()).isEmpty();
+        assertThat(terms.substrings()).containsExactly("経費精", "費精算");
+        assertThat(terms.shortTerms()).containsExactly("方法");
+    }
+
+    @Test
+    @DisplayName("英数字は小文字の語、3 文字以上のカタカナは部分一致の語")
+    void tokenize_mixed() {
+        var terms = MiraKeywordSearchService.tokenize("VPN 接続 エラー Code42");
+
+        assertThat(terms.lexemes()).containsExactly("vpn", "code42");
+        assertThat(terms.substrings()).containsExactly("エラー");
+        assertThat(terms.shortTerms()).containsExactly("接続");
+    }
+
+    @Test
+    @DisplayName("2 文字の語のみの場合は日本語の連続部分を 3 文字ずつで照合")
+    void tokenize_shortWordsOnly_usesTrigramWindows() {
+        var terms = MiraKeywordSearchService.tokenize("経費の精算");
+
+        assertThat(terms.substrings()).containsExactly("経費の", "費の精", "の精算");
+        assertThat(terms.shortTerms()).containsExactly("経費", "精算");
+    }
+
+    @Test
+    @DisplayName("絞り込みに使える 3 文字以上の語がない場合は空（シーケンシャルスキャンを避ける）")
+    void tokenize_noIndexableTerms_isEmpty() {
+        assertThat(MiraKeywordSearchService.tokenize("のは").isEmpty()).isTrue();
+        assertThat(MiraKeywordSearchService.tokenize("経費").isEmpty()).isTrue();
+        assertThat(MiraKeywordSearchService.tokenize("  ").isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("WHERE 句の部分一致パターンは 3 文字以上のみ")
+    void search_whereClauseUsesOnlyTrigramSizedPatterns() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(any(String.class), eq(Integer.class), any(Object[].class))).thenReturn(2);
+        when(jdbcTemplate.query(any(String.class), any(Object[].class), any(RowMapper.class))).thenReturn(List.of());
+        var service = new MiraKeywordSearchService(jdbcTemplate, new ObjectMapper(), new MiraAiProperties());
+
+        service.search("経費精算の方法", 10, Set.of("SYSTEM"), null, null);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> params = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(sql.capture(), params.capture(), any(RowMapper.class));
+        String where = sql.getValue().substring(sql.getValue().indexOf(" WHERE "));
+        assertThat(where.split("content ILIKE \\?", -1)).hasSize(3);
+        assertThat(params.getValue()).contains("%経費精%", "%費精算%", "%方法%");
+        // 2 文字の語（方法）はスコア計算の SELECT 句のパラメータのみ
+        assertThat(List.of(params.getValue()).subList(3, params.getValue().length)).doesNotContain("%方法%");
+    }
+
+    @Test
+    @DisplayName("スコープ条件: 指定スコープのみをパラメータ付きで結合")
+    void scopePredicate_pushesTenantAndUser() {
+        List<Object> params = new ArrayList<>();
+
+        String predicate = MiraKeywordSearchService.scopePredicate(Set.of("TENANT", "USER"), "t1", "u1", params);
+
+        assertThat(predicate).contains("metadata->>'tenantId' = ?").contains("metadata->>'userId' = ?")
+                .doesNotContain("'SYSTEM'");
+        assertThat(params).containsExactly("t1", "u1");
+        assertThat(MiraKeywordSearchService.scopePredicate(Set.of("USER"), "t1", null, new ArrayList<>()))
+                .isNull();
+    }
+
+    @Test
+    @DisplayName("PostgreSQL 以外では利用不可（ILIKE にフォールバック）")
+    void search_nonPostgres_returnsNull() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        var service = new MiraKeywordSearchService(jdbcTemplate, new ObjectMapper(), new MiraAiProperties());
+
+        service.detectIndex();
+        assertThat(service.search("query", 10, Set.of("SYSTEM"), null, null)).isNull();
+        verify(jdbcTemplate, never()).execute(any(String.class));
+    }
+
+    @Test
+    @DisplayName("PostgreSQL でもインデックスが未作成なら利用不可（DDL は実行しない）")
+    void detectIndex_missingIndexes_fallsBackWithoutDdl() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(any(String.class), eq(Integer.class), any(Object[].class))).thenReturn(0);
+        var service = new MiraKeywordSearchService(jdbcTemplate, new ObjectMapper(), new MiraAiProperties());
+
+        service.detectIndex();
+
+        assertThat(service.isAvailable()).isFalse();
+        verify(jdbcTemplate, never()).execute(any(String.class));
+    }
+
+    @Test
+    @DisplayName("検索の失敗はその呼び出しのみフォールバックし、次回は全文検索を再試行")
+    void search_failure_fallsBackForThatCallOnly() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(any(String.class), eq(Integer.class), any(Object[].class))).thenReturn(2);
+        when(jdbcTemplate.query(any(String.class), any(Object[].class), any(RowMapper.class)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(List.of());
+        var service = new MiraKeywordSearchService(jdbcTemplate, new ObjectMapper(), new MiraAiProperties());
+
+        assertThat(service.search("vpn", 10, Set.of("SYSTEM"), null, null)).isNull();
+        assertThat(service.search("vpn", 10, Set.of("SYSTEM"), null, null)).isEmpty();
+        assertThat(service.isAvailable()).isTrue();
+    }
+}
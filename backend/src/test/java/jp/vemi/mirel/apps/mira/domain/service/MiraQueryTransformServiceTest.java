@@ -0,0 +1,107 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiProviderClient;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiProviderFactory;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiRequest;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiResponse;
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+
+/**
+ * MiraQueryTransformService のユニットテスト.
+ */
+@ExtendWith(MockitoExtension.class)
+class MiraQueryTransformServiceTest {
+
+    @Mock
+    private AiProviderFactory aiProviderFactory;
+
+    @Mock
+    private AiProviderClient client;
+
+    private MiraAiProperties properties;
+    private MiraQueryTransformService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MiraAiProperties();
+        when(aiProviderFactory.createClient(any())).thenReturn(client);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private MiraQueryTransformService create(long timeoutMs) {
+        properties.getHyde().setTimeoutMs(timeoutMs);
+        service = new MiraQueryTransformService(aiProviderFactory, properties);
+        return service;
+    }
+
+    @Test
+    @DisplayName("同一テナント・正規化後に同一のクエリはキャッシュから返す")
+    void transform_cachesPerTenant() {
+        when(client.chat(any(AiRequest.class))).thenReturn(AiResponse.success("hyde", null));
+        create(5000);
+
+        assertThat(service.transformToHypotheticalDocument("経費精算の方法", "t1")).isEqualTo("hyde");
+        assertThat(service.transformToHypotheticalDocument(" 経費精算の方法 ", "t1")).isEqualTo("hyde");
+        assertThat(service.transformToHypotheticalDocument("経費精算の方法", "t2")).isEqualTo("hyde");
+
+        verify(client, times(2)).chat(any(AiRequest.class));
+        verify(aiProviderFactory).createClient("t1");
+        verify(aiProviderFactory).createClient("t2");
+    }
+
+    @Test
+    @DisplayName("期限超過時は元のクエリを返し、遅れた結果はキャッシュへ反映")
+    void transform_timeout_fallsBackAndPopulatesCache() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(client.chat(any(AiRequest.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return AiResponse.success("late hyde", null);
+        });
+        create(50);
+
+        assertThat(service.transformToHypotheticalDocument("query", "t1")).isEqualTo("query");
+
+        release.countDown();
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> "late hyde".equals(service.transformToHypotheticalDocument("query", "t1")));
+        verify(client, times(1)).chat(any(AiRequest.class));
+    }
+
+    @Test
+    @DisplayName("生成エラー時は元のクエリを返し、キャッシュしない")
+    void transform_error_notCached() {
+        when(client.chat(any(AiRequest.class))).thenReturn(AiResponse.error("E", "failed"));
+        create(5000);
+
+        assertThat(service.transformToHypotheticalDocument("query", "t1")).isEqualTo("query");
+        assertThat(service.transformToHypotheticalDocument("query", "t1")).isEqualTo("query");
+
+        verify(client, times(2)).chat(any(AiRequest.class));
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiProviderClient;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiProviderFactory;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiRequest;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiResponse;
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+import jp.vemi.mirel.apps.mira.infrastructure.monitoring.MiraMetrics;
+
+/**
+ * MiraQuestionGenerationQueue のユニットテスト.
+ */
+@ExtendWith(MockitoExtension.class)
+class MiraQuestionGenerationQueueTest {
+
+    @Mock
+    private AiProviderFactory aiProviderFactory;
+
+    @Mock
+    private AiProviderClient client;
+
+    @Mock
+    private MiraSettingService settingService;
+
+    @Mock
+    private EmbeddingModel embeddingModel;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private MiraQuestionGenerationQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        MiraAiProperties properties = new MiraAiProperties();
+        properties.getQuestionGeneration().setBatchSize(2);
+        queue = new MiraQuestionGenerationQueue(aiProviderFactory, settingService, embeddingModel, jdbcTemplate,
+                new ObjectMapper(), new MiraMetrics(new SimpleMeterRegistry()), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        queue.shutdown();
+    }
+
+    private Document chunk(int index) {
+        return new Document("00000000-0000-0000-0000-00000000000" + index, "本文 " + index,
+                Map.of("fileId", "f1"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    @DisplayName("複数チャンクを 1 回の LLM 呼び出しにまとめ、メタデータと埋め込みを更新")
+    void process_batchesChunksPerCall() {
+        when(settingService.isQuestionGenerationEnabled("t1")).thenReturn(true);
+        when(settingService.getQuestionGenerationCount("t1")).thenReturn(2);
+        when(settingService.getQuestionGenerationRpm("t1")).thenReturn(Integer.MAX_VALUE);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("f1")))
+                .thenReturn(List.of(chunk(1), chunk(2), chunk(3)));
+        when(aiProviderFactory.getProvider()).thenReturn(client);
+        when(client.chat(any(AiRequest.class))).thenReturn(AiResponse.success(
+                "```json\n[{\"id\": 1, \"questions\": [\"Q1\", \"Q2\"]}, {\"id\": 2, \"questions\": [\"Q3\"]}]\n```",
+                null));
+        when(embeddingModel.embed(anyList())).thenAnswer(invocation -> {
+            List<float[]> vectors = new ArrayList<>();
+            ((List<?>) invocation.getArgument(0)).forEach(t -> vectors.add(new float[] { 1f }));
+            return vectors;
+        });
+
+        queue.process(new MiraQuestionGenerationQueue.Task("t1", "f1"));
+
+        verify(client, times(2)).chat(any(AiRequest.class));
+        ArgumentCaptor<List<Object[]>> args = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), args.capture());
+        Object[] first = args.getAllValues().get(0).get(0);
+        assertThat((String) first[0]).contains("\"generated_questions\":\"Q1\\nQ2\"");
+
+        ArgumentCaptor<List<String>> texts = ArgumentCaptor.forClass(List.class);
+        verify(embeddingModel, times(2)).embed(texts.capture());
+        assertThat(texts.getAllValues().get(0).get(0)).contains("Q1").doesNotContain("content_hash");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    @DisplayName("レート上限に達したファイルはワーカーを待たせず後回しにする")
+    void process_rateLimited_defersRemainingChunks() {
+        when(settingService.isQuestionGenerationEnabled("t1")).thenReturn(true);
+        when(settingService.getQuestionGenerationCount("t1")).thenReturn(2);
+        when(settingService.getQuestionGenerationRpm("t1")).thenReturn(1);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("f1")))
+                .thenReturn(List.of(chunk(1), chunk(2), chunk(3)));
+        when(aiProviderFactory.getProvider()).thenReturn(client);
+        when(client.chat(any(AiRequest.class))).thenReturn(AiResponse.success(
+                "[{\"id\": 1, \"questions\": [\"Q1\"]}, {\"id\": 2, \"questions\": [\"Q2\"]}]", null));
+        when(embeddingModel.embed(anyList())).thenReturn(List.of(new float[] { 1f }, new float[] { 1f }));
+
+        long start = System.nanoTime();
+        queue.process(new MiraQuestionGenerationQueue.Task("t1", "f1"));
+
+        // 2 バッチ目は待機せずに打ち切られる
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(30));
+        verify(client, times(1)).chat(any(AiRequest.class));
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    @DisplayName("解析できない応答ではチャンクを更新せず処理を中断")
+    void process_unparsableResponse_leavesChunksUntouched() {
+        when(settingService.isQuestionGenerationEnabled("t1")).thenReturn(true);
+        when(settingService.getQuestionGenerationCount("t1")).thenReturn(2);
+        when(settingService.getQuestionGenerationRpm("t1")).thenReturn(6000);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("f1")))
+                .thenReturn(List.of(chunk(1), chunk(2), chunk(3)));
+        when(aiProviderFactory.getProvider()).thenReturn(client);
+        when(client.chat(any(AiRequest.class))).thenReturn(AiResponse.success(
+                "[{\"id\": 1, \"questions\": [\"Q1\", \"Q", null));
+
+        queue.process(new MiraQuestionGenerationQueue.Task("t1", "f1"));
+
+        verify(client, times(1)).chat(any(AiRequest.class));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(embeddingModel, never()).embed(anyList());
+    }
+
+    @Test
+    @DisplayName("無効なテナントは処理しない")
+    void process_disabled_skips() {
+        when(settingService.isQuestionGenerationEnabled("t1")).thenReturn(false);
+
+        queue.process(new MiraQuestionGenerationQueue.Task("t1", "f1"));
+
+        verify(aiProviderFactory, never()).getProvider();
+    }
+
+    @Test
+    @DisplayName("JSON 以外の応答は空の結果として扱う")
+    void parseQuestions_invalidContent_returnsEmpty() {
+        assertThat(queue.parseQuestions("質問を生成できませんでした")).isEmpty();
+        assertThat(queue.parseQuestions("[{\"id\": 1, \"questions\": [\" Q \"]}]")).containsEntry(1, List.of("Q"));
+    }
+}
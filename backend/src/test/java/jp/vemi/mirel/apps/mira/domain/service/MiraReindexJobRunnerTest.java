@@ -0,0 +1,226 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.beans.factory.ObjectProvider;
+
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraIndexingProgress;
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraIndexingProgress.IndexingStatus;
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraKnowledgeDocument;
+import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraVectorStore;
+import jp.vemi.mirel.apps.mira.domain.dao.repository.MiraIndexingProgressRepository;
+import jp.vemi.mirel.apps.mira.domain.dao.repository.MiraKnowledgeDocumentRepository;
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+
+/**
+ * MiraReindexJobRunner のユニットテスト.
+ */
+@ExtendWith(MockitoExtension.class)
+class MiraReindexJobRunnerTest {
+
+    @Mock
+    private MiraKnowledgeDocumentRepository knowledgeDocumentRepository;
+
+    @Mock
+    private MiraIndexingProgressRepository progressRepository;
+
+    @Mock
+    private MiraSettingService settingService;
+
+    @Mock
+    private ObjectProvider<MiraKnowledgeBaseService> knowledgeBaseServiceProvider;
+
+    @Mock
+    private MiraKnowledgeBaseService knowledgeBaseService;
+
+    private final Map<String, MiraIndexingProgress> progressRows = new ConcurrentHashMap<>();
+    private final List<Runnable> queuedTasks = new ArrayList<>();
+    private MiraAiProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MiraAiProperties();
+        properties.getReindex().setInitialBackoffMs(1);
+        properties.getReindex().setMaxBackoffMs(5);
+
+        lenient().when(knowledgeBaseServiceProvider.getObject()).thenReturn(knowledgeBaseService);
+        lenient().when(settingService.getReindexConcurrency(any())).thenReturn(2);
+        lenient().when(progressRepository.findByFileId(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(progressRows.get(invocation.<String>getArgument(0))));
+        lenient().when(progressRepository.save(any(MiraIndexingProgress.class))).thenAnswer(invocation -> {
+            MiraIndexingProgress progress = invocation.getArgument(0);
+            progressRows.put(progress.getFileId(), progress);
+            return progress;
+        });
+        lenient().when(progressRepository.findByTaskId(anyString())).thenAnswer(invocation -> progressRows.values()
+                .stream()
+                .filter(progress -> invocation.getArgument(0).equals(progress.getTaskId()))
+                .toList());
+    }
+
+    private MiraReindexJobRunner create(Executor executor) {
+        return new MiraReindexJobRunner(knowledgeDocumentRepository, progressRepository, settingService,
+                knowledgeBaseServiceProvider, executor, properties);
+    }
+
+    private MiraKnowledgeDocument document(String fileId) {
+        MiraKnowledgeDocument doc = MiraKnowledgeDocument.builder()
+                .fileId(fileId)
+                .scope(MiraVectorStore.Scope.TENANT)
+                .tenantId("t1")
+                .build();
+        lenient().when(knowledgeDocumentRepository.findByFileId(fileId)).thenReturn(Optional.of(doc));
+        return doc;
+    }
+
+    @Test
+    @DisplayName("全ファイルを再インデックスし、タスク全体の進捗を集計")
+    void start_indexesAllFiles() {
+        MiraReindexJobRunner runner = create(Runnable::run);
+
+        String taskId = runner.start(List.of(document("f1"), document("f2"), document("f3")), "t1");
+
+        verify(knowledgeBaseService, times(3)).indexFile(anyString(), any(), any(), any(), eq(taskId));
+        MiraReindexJobRunner.JobProgress progress = runner.getProgress(taskId);
+        assertThat(progress.getTotalFiles()).isEqualTo(3);
+        assertThat(progress.getCompletedFiles()).isEqualTo(3);
+        assertThat(progress.isRunning()).isFalse();
+    }
+
+    @Test
+    @DisplayName("レート制限時はバックオフ後に再試行")
+    void start_rateLimited_retries() {
+        doThrow(new TransientAiException("429 Too Many Requests"))
+                .doNothing()
+                .when(knowledgeBaseService).indexFile(
+                eq("f1"), eq(MiraVectorStore.Scope.TENANT), eq("t1"), isNull(), anyString());
+        MiraReindexJobRunner runner = create(Runnable::run);
+
+        runner.start(List.of(document("f1")), "t1");
+
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> progressRows.get("f1").getStatus() == IndexingStatus.COMPLETED);
+        assertThat(progressRows.get("f1").getAttempts()).isEqualTo(2);
+        verify(knowledgeBaseService, times(2)).indexFile(
+                eq("f1"), eq(MiraVectorStore.Scope.TENANT), eq("t1"), isNull(), anyString());
+    }
+
+    @Test
+    @DisplayName("レート制限以外の失敗は再試行しない")
+    void start_otherFailure_marksFailed() {
+        doThrow(new IllegalArgumentException("File not found"))
+                .when(knowledgeBaseService).indexFile(
+                eq("f1"), eq(MiraVectorStore.Scope.TENANT), eq("t1"), isNull(), anyString());
+        MiraReindexJobRunner runner = create(Runnable::run);
+
+        runner.start(List.of(document("f1")), "t1");
+
+        assertThat(progressRows.get("f1").getStatus()).isEqualTo(IndexingStatus.FAILED);
+        verify(knowledgeBaseService, times(1)).indexFile(
+                eq("f1"), eq(MiraVectorStore.Scope.TENANT), eq("t1"), isNull(), anyString());
+    }
+
+    @Test
+    @DisplayName("取り消したジョブの未着手ファイルは処理しない")
+    void cancel_skipsPendingFiles() {
+        MiraReindexJobRunner runner = create(queuedTasks::add);
+
+        String taskId = runner.start(List.of(document("f1"), document("f2")), "t1");
+        assertThat(runner.cancel(taskId)).isTrue();
+        queuedTasks.forEach(Runnable::run);
+
+        verify(knowledgeBaseService, never()).indexFile(anyString(), any(), any(), any(), any());
+        assertThat(runner.getProgress(taskId).getCancelledFiles()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("一部のワーカーを投入できなくても投入済みのワーカーで全ファイルを処理")
+    void start_partiallyRejected_processesWithAcceptedWorkers() {
+        AtomicInteger submitted = new AtomicInteger();
+        MiraReindexJobRunner runner = create(task -> {
+            if (submitted.incrementAndGet() > 1) {
+                throw new RejectedExecutionException("queue full");
+            }
+            queuedTasks.add(task);
+        });
+
+        String taskId = runner.start(List.of(document("f1"), document("f2"), document("f3")), "t1");
+        queuedTasks.forEach(Runnable::run);
+
+        verify(knowledgeBaseService, times(3)).indexFile(anyString(), any(), any(), any(), any());
+        MiraReindexJobRunner.JobProgress progress = runner.getProgress(taskId);
+        assertThat(progress.getCompletedFiles()).isEqualTo(3);
+        assertThat(progress.isRunning()).isFalse();
+    }
+
+    @Test
+    @DisplayName("ワーカーを 1 つも投入できない場合は全ファイルを失敗にしてジョブを終了")
+    void start_allRejected_marksFilesFailed() {
+        MiraReindexJobRunner runner = create(task -> {
+            throw new RejectedExecutionException("queue full");
+        });
+
+        String taskId = runner.start(List.of(document("f1"), document("f2")), "t1");
+
+        verify(knowledgeBaseService, never()).indexFile(anyString(), any(), any(), any(), any());
+        MiraReindexJobRunner.JobProgress progress = runner.getProgress(taskId);
+        assertThat(progress.getFailedFiles()).isEqualTo(2);
+        assertThat(progress.getPendingFiles()).isZero();
+        assertThat(progress.isRunning()).isFalse();
+    }
+
+    @Test
+    @DisplayName("起動時に未完了のファイルが残るジョブを再開")
+    void resumeInterruptedJobs_relaunchesTask() {
+        document("f1");
+        progressRows.put("f1", MiraIndexingProgress.builder()
+                .fileId("f1").taskId("task-1").status(IndexingStatus.PROCESSING).build());
+        when(progressRepository.findByTaskIdIsNotNullAndStatusIn(any()))
+                .thenReturn(List.copyOf(progressRows.values()));
+        MiraReindexJobRunner runner = create(Runnable::run);
+
+        runner.resumeInterruptedJobs();
+
+        verify(knowledgeBaseService).indexFile("f1", MiraVectorStore.Scope.TENANT, "t1", null, "task-1");
+        assertThat(progressRows.get("f1").getStatus()).isEqualTo(IndexingStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("レート制限の判定は原因例外もたどる")
+    void isRateLimited_checksCauseChain() {
+        assertThat(MiraReindexJobRunner.isRateLimited(
+                new RuntimeException("wrapped", new IllegalStateException("RESOURCE_EXHAUSTED: quota")))).isTrue();
+        assertThat(MiraReindexJobRunner.isRateLimited(new IllegalArgumentException("File not found"))).isFalse();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+
+/**
+ * MiraRetrievalExecutor のテスト.
+ */
+class MiraRetrievalExecutorTest {
+
+    private MiraRetrievalExecutor executor;
+
+    private MiraRetrievalExecutor create(boolean parallel, long legTimeoutMs) {
+        MiraAiProperties properties = new MiraAiProperties();
+        properties.getRetrieval().setParallel(parallel);
+        properties.getRetrieval().setLegTimeoutMs(legTimeoutMs);
+        executor = new MiraRetrievalExecutor(properties);
+        return executor;
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void legsRunConcurrently() {
+        create(true, 5000);
+        CountDownLatch latch = new CountDownLatch(2);
+
+        Future<String> a = executor.submit(() -> {
+            latch.countDown();
+            return latch.await(2, TimeUnit.SECONDS) ? "a" : "timeout";
+        });
+        Future<String> b = executor.submit(() -> {
+            latch.countDown();
+            return latch.await(2, TimeUnit.SECONDS) ? "b" : "timeout";
+        });
+
+        assertEquals("a", executor.awaitLeg(a, "fallback", "a"));
+        assertEquals("b", executor.awaitLeg(b, "fallback", "b"));
+    }
+
+    @Test
+    void awaitLeg_timeout_returnsFallback() {
+        create(true, 50);
+
+        Future<List<String>> slow = executor.submit(() -> {
+            Thread.sleep(5000);
+            return List.of("late");
+        });
+
+        assertEquals(List.of(), executor.awaitLeg(slow, List.of(), "slow"));
+        assertTrue(slow.isCancelled());
+    }
+
+    @Test
+    void awaitLeg_failure_returnsFallback() {
+        create(true, 5000);
+
+        Future<List<String>> failed = executor.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertEquals(List.of(), executor.awaitLeg(failed, List.of(), "failed"));
+    }
+
+    @Test
+    void sequentialMode_runsOnCallerThread() {
+        create(false, 5000);
+        Thread caller = Thread.currentThread();
+
+        Future<Thread> future = executor.submit(Thread::currentThread);
+
+        assertSame(caller, executor.awaitLeg(future, null, "inline"));
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import jp.vemi.mirel.apps.mira.infrastructure.ai.AiRequest;
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+import reactor.test.StepVerifier;
+
+/**
+ * MiraStreamService のユニットテスト.
+ */
+@ExtendWith(MockitoExtension.class)
+class MiraStreamServiceTest {
+
+    @Mock
+    private MiraChatService chatService;
+
+    @Spy
+    private MiraAiProperties miraAiProperties = new MiraAiProperties();
+
+    @InjectMocks
+    private MiraStreamService streamService;
+
+    private static AiRequest.Message.ToolCall call(String id, String name) {
+        return AiRequest.Message.ToolCall.builder().id(id).type("function").name(name).arguments("{}").build();
+    }
+
+    @Test
+    @DisplayName("完了したツールから状態を通知し、結果は呼び出し順に格納")
+    void executeTools_emitsOnCompletionAndKeepsCallOrder() {
+        List<AiRequest.Message.ToolCall> calls = List.of(call("c1", "slow"), call("c2", "fast"));
+        when(chatService.executeTool(argThat(tc -> tc != null && "slow".equals(tc.getName())), any()))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(300);
+                    return "slow result";
+                });
+        when(chatService.executeTool(argThat(tc -> tc != null && "fast".equals(tc.getName())), any()))
+                .thenReturn("fast result");
+        AtomicReferenceArray<MiraStreamService.ToolExecutionResult> results = new AtomicReferenceArray<>(2);
+
+        StepVerifier.create(streamService.executeTools(calls, List.of(), results))
+                .assertNext(status -> assertThat(status.getContent()).isEqualTo("Tool fast finished (1/2)"))
+                .assertNext(status -> assertThat(status.getContent()).isEqualTo("Tool slow finished (2/2)"))
+                .verifyComplete();
+
+        assertThat(results.get(0).getResult()).isEqualTo("slow result");
+        assertThat(results.get(1).getResult()).isEqualTo("fast result");
+    }
+
+    @Test
+    @DisplayName("タイムアウトしたツールはエラーを結果として返す")
+    void executeTools_timeout_returnsErrorResult() {
+        miraAiProperties.getToolExecution().setTimeoutSeconds(1);
+        when(chatService.executeTool(any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(3000);
+            return "late result";
+        });
+        AtomicReferenceArray<MiraStreamService.ToolExecutionResult> results = new AtomicReferenceArray<>(1);
+
+        StepVerifier.create(streamService.executeTools(List.of(call("c1", "hang")), List.of(), results))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertThat(results.get(0).getResult()).contains("timed out");
+        assertThat(results.get(0).getCall().getId()).isEqualTo("c1");
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * MiraStreamingOutputFilter のユニットテスト.
+ */
+class MiraStreamingOutputFilterTest {
+
+    private static final Pattern EMAIL = Pattern.compile("[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}");
+    private static final UnaryOperator<String> MASK = text -> EMAIL.matcher(text).replaceAll("***");
+
+    @Test
+    @DisplayName("デルタをまたぐ機密パターンもマスクし、表示内容と保存内容が一致")
+    void accept_masksPatternSplitAcrossDeltas() {
+        MiraStreamingOutputFilter filter = new MiraStreamingOutputFilter(MASK, 8);
+        String[] deltas = { "連絡先は ", "taro.yam", "ada@exam", "ple.com です。", "よろしく", "お願いします。" };
+
+        StringBuilder shown = new StringBuilder();
+        StringBuilder raw = new StringBuilder();
+        for (String delta : deltas) {
+            raw.append(delta);
+            shown.append(filter.accept(delta));
+        }
+        shown.append(filter.finish());
+
+        assertThat(shown.toString()).isEqualTo(MASK.apply(raw.toString())).doesNotContain("taro");
+        assertThat(filter.getContent()).isEqualTo(shown.toString());
+    }
+
+    @Test
+    @DisplayName("保留ウィンドウより前の確定部分を英数字の連続の途中で切らずに返す")
+    void accept_releasesTextBeyondHoldBackWindow() {
+        MiraStreamingOutputFilter filter = new MiraStreamingOutputFilter(MASK, 4);
+
+        assertThat(filter.accept("abc ")).isEmpty();
+        assertThat(filter.accept("def ghij")).isEqualTo("abc def ");
+        assertThat(filter.finish()).isEqualTo("ghij");
+        assertThat(filter.getContent()).isEqualTo("abc def ghij");
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * MiraStreamingTextExtractor のユニットテスト.
+ */
+class MiraStreamingTextExtractorTest {
+
+    @Test
+    @DisplayName("ウィンドウ後半の空行で区切り、上限文字数を超えない")
+    void windowWriter_cutsAtParagraphBoundary() {
+        List<String> segments = new ArrayList<>();
+        var writer = new MiraStreamingTextExtractor.WindowWriter(20, segments::add);
+
+        String text = "aaaaaaaaaaaaaa\n\nbbbbbbbbbbbbbb\n\ncccc";
+        writer.write(text.toCharArray(), 0, text.length());
+        writer.close();
+
+        assertThat(segments).containsExactly("aaaaaaaaaaaaaa\n", "\nbbbbbbbbbbbbbb\n", "\ncccc");
+        assertThat(segments).allSatisfy(segment -> assertThat(segment.length()).isLessThanOrEqualTo(20));
+        assertThat(String.join("", segments)).isEqualTo(text);
+    }
+
+    @Test
+    @DisplayName("区切りがない場合はウィンドウ末尾で切る")
+    void windowWriter_noBoundary_cutsAtWindow() {
+        List<String> segments = new ArrayList<>();
+        var writer = new MiraStreamingTextExtractor.WindowWriter(10, segments::add);
+
+        String text = "x".repeat(25);
+        writer.write(text.toCharArray(), 0, text.length());
+        writer.close();
+
+        assertThat(segments).extracting(String::length).containsExactly(10, 10, 5);
+    }
+
+    @Test
+    @DisplayName("テキストファイルを逐次抽出し、全文を欠落なく渡す")
+    void extract_plainText_emitsAllSegments() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append("段落").append(i).append("の本文です。\n\n");
+        }
+        List<String> segments = new ArrayList<>();
+
+        new MiraStreamingTextExtractor().extract(
+                new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8)),
+                "sample.txt", 500, segments::add);
+
+        assertThat(segments).hasSizeGreaterThan(1);
+        assertThat(segments).allSatisfy(segment -> assertThat(segment.length()).isLessThanOrEqualTo(500));
+        String joined = String.join("", segments);
+        assertThat(joined).contains("段落0の本文です。", "段落199の本文です。");
+    }
+}
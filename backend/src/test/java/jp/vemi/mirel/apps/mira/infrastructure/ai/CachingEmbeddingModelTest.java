@@ -0,0 +1,124 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mira.infrastructure.ai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
+import jp.vemi.mirel.apps.mira.infrastructure.monitoring.MiraMetrics;
+
+/**
+ * CachingEmbeddingModel のユニットテスト.
+ */
+@ExtendWith(MockitoExtension.class)
+class CachingEmbeddingModelTest {
+
+    @Mock
+    private EmbeddingModel delegate;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private SimpleMeterRegistry registry;
+    private MiraAiProperties.EmbeddingCacheConfig config;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        config = new MiraAiProperties.EmbeddingCacheConfig();
+    }
+
+    private CachingEmbeddingModel create(StringRedisTemplate template) {
+        return new CachingEmbeddingModel(delegate, "model-a", config, template, new MiraMetrics(registry));
+    }
+
+    @Test
+    @DisplayName("正規化後に同一のクエリは委譲先を 1 回だけ呼び出す")
+    void embed_normalizedQuery_hitsMemory() {
+        when(delegate.embed(anyString())).thenReturn(new float[] { 0.1f, 0.2f });
+        CachingEmbeddingModel model = create(null);
+
+        float[] first = model.embed("経費精算の  方法は？");
+        float[] second = model.embed(" 経費精算の 方法は? ");
+
+        assertThat(second).isEqualTo(first);
+        verify(delegate, times(1)).embed(anyString());
+        assertThat(registry.counter("mira.embedding.cache", "tier", "memory", "result", "hit").count())
+                .isEqualTo(1.0);
+        assertThat(registry.counter("mira.embedding.cache", "tier", "memory", "result", "miss").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("上限ベクトル数を超えると古いエントリを破棄")
+    void embed_exceedsMaxVectors_evicts() {
+        config.setMaxVectors(2);
+        when(delegate.embed(anyString())).thenReturn(new float[] { 1f });
+        CachingEmbeddingModel model = create(null);
+
+        model.embed("a");
+        model.embed("b");
+        model.embed("c");
+
+        assertThat(model.size()).isLessThanOrEqualTo(2);
+        assertThat(registry.get("mira.embedding.cache.size").gauge().value()).isLessThanOrEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Redis にヒットした場合は委譲先を呼び出さない")
+    void embed_redisHit_skipsDelegate() {
+        config.setRedisEnabled(true);
+        float[] vector = new float[] { 0.5f, -0.25f };
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenReturn(CachingEmbeddingModel.encode(vector));
+        CachingEmbeddingModel model = create(redisTemplate);
+
+        assertThat(model.embed("query")).isEqualTo(vector);
+        verify(delegate, never()).embed(anyString());
+    }
+
+    @Test
+    @DisplayName("Redis にミスした場合は委譲先の結果を TTL 付きで保存")
+    void embed_redisMiss_storesVector() {
+        config.setRedisEnabled(true);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenReturn(null);
+        when(delegate.embed("query")).thenReturn(new float[] { 1f });
+        CachingEmbeddingModel model = create(redisTemplate);
+
+        model.embed("query");
+
+        verify(valueOperations).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("キーはモデル名を含む")
+    void cacheKey_includesModelName() {
+        CachingEmbeddingModel model = create(null);
+
+        assertThat(model.cacheKey("query")).startsWith("model-a:");
+    }
+}
@@ -6,6 +6,7 @@ package jp.vemi.mirel.apps.mira.infrastructure.memory;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -26,12 +27,18 @@ import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.data.domain.Pageable;
 
 import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraConversation;
 import jp.vemi.mirel.apps.mira.domain.dao.entity.MiraMessage;
 import jp.vemi.mirel.apps.mira.domain.dao.repository.MiraConversationRepository;
+import jp.vemi.mirel.apps.mira.domain.dao.repository.MiraConversationSummaryRepository;
 import jp.vemi.mirel.apps.mira.domain.dao.repository.MiraMessageRepository;
 import jp.vemi.mirel.apps.mira.domain.exception.MiraException;
+import jp.vemi.mirel.apps.mira.domain.service.MiraConversationCache;
+import jp.vemi.mirel.apps.mira.domain.service.MiraConversationHistoryLoader;
+import jp.vemi.mirel.apps.mira.infrastructure.ai.TokenCounter;
+import jp.vemi.mirel.apps.mira.infrastructure.config.MiraAiProperties;
 
 /**
  * MiraChatMemoryAdapter のユニットテスト.
@@ -45,6 +52,12 @@ class MiraChatMemoryAdapterTest {
     @Mock
     private MiraMessageRepository messageRepository;
 
+    @Mock
+    private MiraConversationCache conversationCache;
+
+    @Mock
+    private MiraConversationSummaryRepository summaryRepository;
+
     @Captor
     private ArgumentCaptor<MiraMessage> messageCaptor;
 
@@ -55,7 +68,9 @@ class MiraChatMemoryAdapterTest {
 
     @BeforeEach
     void setUp() {
-        adapter = new MiraChatMemoryAdapter(conversationRepository, messageRepository);
+        adapter = new MiraChatMemoryAdapter(conversationRepository, messageRepository,
+                new MiraConversationHistoryLoader(messageRepository, new TokenCounter(), new MiraAiProperties()),
+                conversationCache, summaryRepository);
     }
 
     @Nested
@@ -174,12 +189,13 @@ class MiraChatMemoryAdapterTest {
             // Arrange
             String conversationId = "conv-123";
             
+            // リポジトリは新しい順に返す
             List<MiraMessage> miraMessages = List.of(
-                    createMiraMessage("msg-1", MiraMessage.SenderType.USER, "Hello"),
-                    createMiraMessage("msg-2", MiraMessage.SenderType.ASSISTANT, "Hi there!")
+                    createMiraMessage("msg-2", MiraMessage.SenderType.ASSISTANT, "Hi there!"),
+                    createMiraMessage("msg-1", MiraMessage.SenderType.USER, "Hello")
             );
             
-            when(messageRepository.findByConversationIdOrderByCreatedAtAsc(conversationId))
+            when(messageRepository.findLatestByConversationId(eq(conversationId), any(Pageable.class)))
                     .thenReturn(miraMessages);
 
             // Act
@@ -200,14 +216,13 @@ class MiraChatMemoryAdapterTest {
             String conversationId = "conv-123";
             int lastN = 2;
             
+            // DB 側で件数を絞り、新しい順に返す
             List<MiraMessage> miraMessages = List.of(
-                    createMiraMessage("msg-1", MiraMessage.SenderType.USER, "First"),
-                    createMiraMessage("msg-2", MiraMessage.SenderType.ASSISTANT, "Second"),
-                    createMiraMessage("msg-3", MiraMessage.SenderType.USER, "Third"),
-                    createMiraMessage("msg-4", MiraMessage.SenderType.ASSISTANT, "Fourth")
+                    createMiraMessage("msg-4", MiraMessage.SenderType.ASSISTANT, "Fourth"),
+                    createMiraMessage("msg-3", MiraMessage.SenderType.USER, "Third")
             );
             
-            when(messageRepository.findByConversationIdOrderByCreatedAtAsc(conversationId))
+            when(messageRepository.findLatestByConversationId(eq(conversationId), any(Pageable.class)))
                     .thenReturn(miraMessages);
 
             // Act
@@ -226,7 +241,7 @@ class MiraChatMemoryAdapterTest {
             // Arrange
             String conversationId = "conv-empty";
             
-            when(messageRepository.findByConversationIdOrderByCreatedAtAsc(conversationId))
+            when(messageRepository.findLatestByConversationId(eq(conversationId), any(Pageable.class)))
                     .thenReturn(List.of());
 
             // Act
@@ -0,0 +1,156 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mste.domain.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import jp.vemi.mirel.apps.mste.domain.dto.GenerateJobParameter;
+import jp.vemi.mirel.apps.mste.domain.dto.GenerateJobResult;
+import jp.vemi.mirel.apps.mste.domain.dto.GenerateParameter;
+import jp.vemi.mirel.apps.mste.domain.dto.GenerateResult;
+import jp.vemi.mirel.foundation.context.ExecutionContext;
+import jp.vemi.mirel.foundation.web.api.dto.ApiRequest;
+import jp.vemi.mirel.foundation.web.api.dto.ApiResponse;
+
+/**
+ * GenerateJobServiceImp のテスト。
+ */
+@ExtendWith(MockitoExtension.class)
+class GenerateJobServiceImpTest {
+
+    @Mock
+    private GenerateService generateService;
+
+    @Mock
+    private ExecutionContext executionContext;
+
+    @InjectMocks
+    private GenerateJobServiceImp service;
+
+    /** 登録されたタスク（手動で実行） */
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        service.executor = tasks::add;
+        service.retentionMinutes = 60;
+        lenient().when(executionContext.getCurrentTenantId()).thenReturn("tenant-a");
+        lenient().when(executionContext.getCurrentUserId()).thenReturn("user-a");
+    }
+
+    private ApiRequest<GenerateParameter> request(int count) {
+        List<Map<String, Object>> params = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            params.add(Map.of("content", Map.of("serialNo", "250913A")));
+        }
+        return ApiRequest.<GenerateParameter>builder()
+                .model(GenerateParameter.builder().params(params).build()).build();
+    }
+
+    private GenerateJobResult status(String jobId) {
+        ApiResponse<GenerateJobResult> resp = service.status(ApiRequest.<GenerateJobParameter>builder()
+                .model(GenerateJobParameter.builder().jobId(jobId).build()).build());
+        assertTrue(resp.getErrors().isEmpty());
+        return resp.getData();
+    }
+
+    @Test
+    void submit_returnsQueuedJobAndCompletesAfterRun() {
+        when(generateService.generate(anyMap(), any(), any(), any()))
+                .thenReturn(Pair.of("file-id", "hello-world.zip"));
+
+        ApiResponse<GenerateJobResult> submitted = service.submit(request(2));
+        String jobId = submitted.getData().getJobId();
+
+        assertNotNull(jobId);
+        assertEquals(GenerateJobResult.Status.QUEUED, submitted.getData().getStatus());
+        assertEquals(GenerateJobResult.Status.QUEUED, status(jobId).getStatus());
+
+        tasks.forEach(Runnable::run);
+
+        GenerateJobResult result = status(jobId);
+        assertEquals(GenerateJobResult.Status.COMPLETED, result.getStatus());
+        assertEquals(2, result.getTotal());
+        assertEquals(2, result.getProcessed());
+        assertEquals(List.of(Pair.of("file-id", "hello-world.zip"), Pair.of("file-id", "hello-world.zip")),
+                result.getFiles());
+        // 受付時の実行者で生成する
+        verify(generateService, times(2)).generate(anyMap(), any(), eq("tenant-a"), eq("user-a"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_itemErrors_areCollectedAndJobFailsWhenNothingGenerated() {
+        when(generateService.generate(anyMap(), any(), any(), any())).thenAnswer(invocation -> {
+            ((ApiResponse<GenerateResult>) invocation.getArgument(1)).addError("テンプレートが見つかりません。");
+            return null;
+        }).thenThrow(new IllegalStateException("boom"));
+
+        String jobId = service.submit(request(2)).getData().getJobId();
+        tasks.forEach(Runnable::run);
+
+        GenerateJobResult result = status(jobId);
+        assertEquals(GenerateJobResult.Status.FAILED, result.getStatus());
+        assertEquals(2, result.getProcessed());
+        assertEquals(List.of("テンプレートが見つかりません。", "boom"), result.getErrors());
+        assertTrue(result.getFiles().isEmpty());
+    }
+
+    @Test
+    void submit_rejected_returnsErrorAndForgetsJob() {
+        service.executor = (Executor) task -> {
+            throw new RejectedExecutionException("queue full");
+        };
+
+        ApiResponse<GenerateJobResult> resp = service.submit(request(1));
+
+        assertNull(resp.getData());
+        assertFalse(resp.getErrors().isEmpty());
+        verifyNoInteractions(generateService);
+    }
+
+    @Test
+    void status_otherUser_returnsNotFound() {
+        String jobId = service.submit(request(1)).getData().getJobId();
+
+        when(executionContext.getCurrentUserId()).thenReturn("user-b");
+        ApiResponse<GenerateJobResult> otherUser = service.status(ApiRequest.<GenerateJobParameter>builder()
+                .model(GenerateJobParameter.builder().jobId(jobId).build()).build());
+
+        when(executionContext.getCurrentUserId()).thenReturn("user-a");
+        when(executionContext.getCurrentTenantId()).thenReturn("tenant-b");
+        ApiResponse<GenerateJobResult> otherTenant = service.status(ApiRequest.<GenerateJobParameter>builder()
+                .model(GenerateJobParameter.builder().jobId(jobId).build()).build());
+
+        assertNull(otherUser.getData());
+        assertFalse(otherUser.getErrors().isEmpty());
+        assertNull(otherTenant.getData());
+        assertFalse(otherTenant.getErrors().isEmpty());
+    }
+
+    @Test
+    void status_unknownJob_returnsError() {
+        ApiResponse<GenerateJobResult> resp = service.status(ApiRequest.<GenerateJobParameter>builder()
+                .model(GenerateJobParameter.builder().jobId("unknown").build()).build());
+
+        assertNull(resp.getData());
+        assertFalse(resp.getErrors().isEmpty());
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.mirel.apps.mste.domain.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jp.vemi.framework.storage.StorageService;
+import jp.vemi.mirel.foundation.abst.dao.entity.FileManagement;
+import jp.vemi.mirel.foundation.abst.dao.repository.FileManagementRepository;
+
+/**
+ * GenerateResultCache のテスト。
+ */
+@ExtendWith(MockitoExtension.class)
+class GenerateResultCacheTest {
+
+    @Mock
+    private FileManagementRepository fileManagementRepository;
+
+    @Mock
+    private StorageService storageService;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @InjectMocks
+    private GenerateResultCache cache;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        when(meterRegistry.getIfAvailable(any())).thenReturn(registry);
+        cache.enabled = true;
+        cache.ttlMinutes = 60;
+        cache.maxEntries = 16;
+        cache.init();
+    }
+
+    private FileManagement file(String fileId, Date expireDate) {
+        FileManagement item = new FileManagement();
+        item.fileId = fileId;
+        item.filePath = "foundation/filemanagement/" + fileId + "/__file";
+        item.expireDate = expireDate;
+        return item;
+    }
+
+    private Date tomorrow() {
+        return new Date(System.currentTimeMillis() + 86400000L);
+    }
+
+    private Map<String, Object> content(String... keys) {
+        Map<String, Object> content = new LinkedHashMap<>();
+        for (String key : keys) {
+            content.put(key, List.of(Map.of("value", key)));
+        }
+        return content;
+    }
+
+    @Test
+    void createKey_ignoresMapOrderButNotValues() {
+        String key = cache.createKey(content("a", "b"), "fp", List.of(), "tenant", "user");
+
+        assertNotNull(key);
+        assertEquals(key, cache.createKey(content("b", "a"), "fp", List.of(), "tenant", "user"));
+        assertNotEquals(key, cache.createKey(content("a", "c"), "fp", List.of(), "tenant", "user"));
+        assertNotEquals(key, cache.createKey(content("a", "b"), "fp2", List.of(), "tenant", "user"));
+    }
+
+    @Test
+    void createKey_usesReferencedFileContent() throws IOException {
+        when(fileManagementRepository.findById("f1")).thenReturn(Optional.of(file("f1", tomorrow())));
+        when(fileManagementRepository.findById("f2")).thenReturn(Optional.of(file("f2", tomorrow())));
+        when(storageService.exists(anyString())).thenReturn(true);
+        when(storageService.getInputStream(anyString()))
+                .thenAnswer(invocation -> new ByteArrayInputStream("same".getBytes()));
+
+        String key1 = cache.createKey(Map.of("a", "1"), "fp", List.of("f1"), "tenant", "user");
+        String key1Again = cache.createKey(Map.of("a", "1"), "fp", List.of("f1"), "tenant", "user");
+        String key2 = cache.createKey(Map.of("a", "1"), "fp", List.of("f2"), "tenant", "user");
+
+        assertEquals(key1, key1Again);
+        assertNotEquals(key1, key2);
+        // 内容ハッシュはファイル管理ID単位で保持
+        verify(storageService, times(2)).getInputStream(anyString());
+    }
+
+    @Test
+    void createKey_separatesTenantsAndUsers() {
+        String key = cache.createKey(Map.of("a", "1"), "fp", List.of(), "tenant", "user");
+
+        assertNotNull(key);
+        assertNotEquals(key, cache.createKey(Map.of("a", "1"), "fp", List.of(), "tenant", "other"));
+        assertNotEquals(key, cache.createKey(Map.of("a", "1"), "fp", List.of(), "other", "user"));
+        // 実行者を特定できない場合はキャッシュしない
+        assertNull(cache.createKey(Map.of("a", "1"), "fp", List.of(), "tenant", null));
+    }
+
+    @Test
+    void createKey_withoutFingerprint_returnsNull() {
+        assertNull(cache.createKey(Map.of("a", "1"), null, List.of(), "tenant", "user"));
+    }
+
+    @Test
+    void get_registeredFile_hits() {
+        when(fileManagementRepository.findById("result")).thenReturn(Optional.of(file("result", tomorrow())));
+        when(storageService.exists(anyString())).thenReturn(true);
+
+        cache.put("key", Pair.of("result", "hello-world.zip"));
+
+        assertEquals(Pair.of("result", "hello-world.zip"), cache.get("key"));
+        assertEquals(1.0, registry.get(GenerateResultCache.METRIC_NAME).tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void get_expiredFile_missesAndEvicts() {
+        when(fileManagementRepository.findById("result"))
+                .thenReturn(Optional.of(file("result", new Date(System.currentTimeMillis() - 1000))));
+
+        cache.put("key", Pair.of("result", "hello-world.zip"));
+
+        assertNull(cache.get("key"));
+        assertEquals(0, cache.size());
+        assertEquals(1.0, registry.get(GenerateResultCache.METRIC_NAME).tag("result", "miss").counter().count());
+    }
+}
@@ -21,6 +21,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
 
+import jp.vemi.framework.storage.Abortable;
 import jp.vemi.framework.storage.StorageService;
 import jp.vemi.mirel.foundation.abst.dao.entity.FileManagement;
 import jp.vemi.mirel.foundation.abst.dao.repository.FileManagementRepository;
@@ -140,4 +141,56 @@ class FileRegisterServiceImplTest {
         assertNotNull(saved.getFileId());
         assertEquals("entity-test.txt", saved.getFileName());
     }
+
+    @Test
+    void register_contentWriter_streamsToStorageService() throws IOException {
+        // Given
+        java.io.ByteArrayOutputStream sink = new java.io.ByteArrayOutputStream();
+        when(storageService.openOutputStream(anyString())).thenReturn(sink);
+
+        // When
+        var result = fileRegisterService.register("generated.zip",
+                out -> out.write("streamed".getBytes()));
+
+        // Then
+        assertNotNull(result.getLeft());
+        assertEquals("generated.zip", result.getRight());
+        assertEquals("streamed", sink.toString());
+        verify(storageService, never()).saveFile(anyString(), any(byte[].class));
+    }
+
+    @Test
+    void register_contentWriter_failure_abortsWithoutPublishing() throws IOException {
+        // Given
+        AbortableSink sink = new AbortableSink();
+        when(storageService.openOutputStream(anyString())).thenReturn(sink);
+
+        // When
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> fileRegisterService.register("generated.zip", out -> {
+                    out.write("partial".getBytes());
+                    throw new IOException("render failed");
+                }));
+
+        // Then - クローズ（保存の確定）せずに中断し、登録もしない
+        assertEquals("render failed", e.getCause().getMessage());
+        assertTrue(sink.aborted);
+        assertFalse(sink.closed);
+        verify(fileManagementRepository, never()).save(any());
+    }
+
+    private static class AbortableSink extends java.io.ByteArrayOutputStream implements Abortable {
+        boolean aborted;
+        boolean closed;
+
+        @Override
+        public void abort() {
+            aborted = true;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
 }
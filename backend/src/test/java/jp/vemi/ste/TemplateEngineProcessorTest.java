@@ -2,6 +2,8 @@ package jp.vemi.ste;
 
 import jp.vemi.ste.domain.engine.TemplateEngineProcessor;
 import jp.vemi.ste.domain.context.SteContext;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,7 +12,16 @@ import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,12 +38,15 @@ public class TemplateEngineProcessorTest {
 
     private TemplateEngineProcessor processor;
     private SteContext context;
+    private String outputDir;
 
     @BeforeEach
     public void setUp() {
         // テスト用のコンテキストを作成
         context = SteContext.standard("/samples/hello-world", "250913A");
         context.put("message", "Test Message");
+        context.put("userName", "Tester");
+        context.put("language", "en");
 
         // TemplateEngineProcessorを作成
         // ResourcePatternResolverが注入されていない場合はデフォルトを使用
@@ -43,29 +57,53 @@ public class TemplateEngineProcessorTest {
         processor = TemplateEngineProcessor.create(context, resourcePatternResolver);
     }
 
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (outputDir != null) {
+            FileUtils.deleteDirectory(new File(outputDir));
+        }
+    }
+
     @Test
-    public void testGetStencilTemplateFiles() throws Exception {
-        System.out.println("=== Testing layered template search ===");
+    public void testExecuteRendersClasspathStencil() throws Exception {
+        outputDir = processor.execute();
+
+        // クラスパス上のサンプルステンシル（files/hello.ftl）が 1 ファイルとして生成される
+        List<Path> outputs = listFiles(Paths.get(outputDir));
+        assertEquals(1, outputs.size(), "Generated files: " + outputs);
+        assertEquals("hello", outputs.get(0).getFileName().toString());
+
+        String content = Files.readString(outputs.get(0), Charset.defaultCharset());
+        assertTrue(content.contains("Hello Tester, Welcome to ProMarker MiRel!"), content);
+        assertTrue(content.contains("- userName: Tester"), content);
+        assertTrue(content.contains("- language: en"), content);
+        assertFalse(content.contains("こんにちは"), content);
+    }
 
-        // リフレクションを使ってprivateメソッドを呼び出し
-        java.lang.reflect.Method method = TemplateEngineProcessor.class.getDeclaredMethod("getStencilTemplateFiles");
-        method.setAccessible(true);
+    @Test
+    public void testClasspathTemplatesAreNotExtractedToTempFiles() throws Exception {
+        Path tempDir = Paths.get(System.getProperty("java.io.tmpdir"));
+        Set<Path> before = listTempFiles(tempDir);
 
-        @SuppressWarnings("unchecked")
-        List<String> templateFiles = (List<String>) method.invoke(processor);
+        outputDir = processor.execute();
 
-        // ログ出力
-        System.out.println("=== Layered Template Search Test Results ===");
-        System.out.println("Found " + templateFiles.size() + " template files:");
+        // クラスパス上のテンプレートは一時ファイルを経由せずに読み込まれる
+        Set<Path> created = listTempFiles(tempDir);
+        created.removeAll(before);
+        assertTrue(created.isEmpty(), "Extracted temp files: " + created);
+        assertEquals(1, listFiles(Paths.get(outputDir)).size());
+    }
 
-        for (String file : templateFiles) {
-            System.out.println("  - " + file);
+    private static List<Path> listFiles(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile).collect(Collectors.toList());
         }
+    }
 
-        // アサーション
-        assertNotNull(templateFiles, "Template files should not be null");
-        assertTrue(templateFiles.size() >= 0, "Template files list should be valid");
-
-        System.out.println("Test completed!");
+    private static Set<Path> listTempFiles(Path tempDir) throws IOException {
+        try (Stream<Path> paths = Files.list(tempDir)) {
+            return paths.filter(path -> path.getFileName().toString().endsWith(".tmp"))
+                    .collect(Collectors.toSet());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.ste.domain.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.vemi.framework.config.StorageConfig;
+
+/**
+ * StencilCatalogIndex のテスト。
+ */
+class StencilCatalogIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private StencilCatalogIndex index;
+
+    private Path userDir;
+
+    private Path standardDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        userDir = Files.createDirectories(tempDir.resolve("user"));
+        standardDir = Files.createDirectories(tempDir.resolve("standard"));
+        ReflectionTestUtils.setField(StorageConfig.class, "configuredUserStencilDir", userDir.toString());
+        ReflectionTestUtils.setField(StorageConfig.class, "configuredStandardStencilDir", standardDir.toString());
+        index = new StencilCatalogIndex();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(StorageConfig.class, "configuredUserStencilDir", null);
+        ReflectionTestUtils.setField(StorageConfig.class, "configuredStandardStencilDir", null);
+    }
+
+    private void write(Path path, String content) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content);
+    }
+
+    @Test
+    void rebuild_indexesSerialsAndTemplateFiles() throws IOException {
+        write(userDir.resolve("proj/app/250101A/stencil-settings.yml"), "stencil:");
+        write(userDir.resolve("proj/app/250101A/src/Main.java.ftl"), "main");
+        write(userDir.resolve("proj/app/250102A/stencil-settings.yml"), "stencil:");
+
+        index.rebuild(null);
+
+        assertTrue(index.isBuilt());
+        assertEquals(Arrays.asList("250101A", "250102A"), index.getSerialNos("/proj/app"));
+
+        List<StencilCatalogIndex.SerialEntry> entries = index.getSerialEntries("proj/app", "250101A");
+        assertEquals(1, entries.size());
+        assertNotNull(entries.get(0).settingsLocation());
+        assertEquals(1, entries.get(0).files().size());
+        assertTrue(entries.get(0).files().containsKey("src/Main.java.ftl"));
+    }
+
+    @Test
+    void getSerialEntries_ordersLayersByPriority() throws IOException {
+        write(userDir.resolve("proj/app/250101A/a.ftl"), "user");
+        write(standardDir.resolve("proj/app/250101A/stencil-settings.yml"), "stencil:");
+        write(standardDir.resolve("proj/app/250103A/stencil-settings.yml"), "stencil:");
+
+        index.rebuild(null);
+
+        List<StencilCatalogIndex.SerialEntry> entries = index.getSerialEntries("/proj/app", "250101A");
+        assertEquals(2, entries.size());
+        assertEquals(userDir.toString(), entries.get(0).layerDir());
+        assertNull(entries.get(0).settingsLocation());
+        assertEquals(standardDir.toString(), entries.get(1).layerDir());
+
+        // シリアルは最上位のレイヤーのみ
+        assertEquals(Arrays.asList("250101A"), index.getSerialNos("/proj/app"));
+    }
+
+    @Test
+    void getParentSettingsFile_prefersUserLayer() throws IOException {
+        write(userDir.resolve("proj/proj_stencil-settings.yml"), "stencil:");
+        write(standardDir.resolve("proj/proj_stencil-settings.yml"), "stencil:");
+
+        index.rebuild(null);
+
+        assertEquals(userDir.resolve("proj/proj_stencil-settings.yml").toFile(),
+                index.getParentSettingsFile("/proj"));
+        assertNull(index.getParentSettingsFile("/other"));
+    }
+
+    @Test
+    void refresh_reflectsNewSerialAfterBuild() throws IOException {
+        index.refresh();
+        assertFalse(index.isBuilt());
+
+        index.rebuild(null);
+        assertTrue(index.getSerialNos("/proj/app").isEmpty());
+
+        write(userDir.resolve("proj/app/250101A/stencil-settings.yml"), "stencil:");
+        index.refresh();
+
+        assertEquals(Arrays.asList("250101A"), index.getSerialNos("/proj/app"));
+    }
+
+    @Test
+    void configure_disabled_isNotBuilt() throws IOException {
+        index.rebuild(null);
+        index.configure(false);
+
+        assertFalse(index.isBuilt());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.ste.domain.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jp.vemi.ste.domain.dto.yml.StencilSettingsYml;
+
+/**
+ * StencilSettingsCache のテスト。
+ */
+class StencilSettingsCacheTest {
+
+    private StencilSettingsCache cache;
+
+    private SimpleMeterRegistry registry;
+
+    private AtomicInteger loaded;
+
+    @BeforeEach
+    void setUp() {
+        cache = new StencilSettingsCache();
+        registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        loaded = new AtomicInteger();
+    }
+
+    private StencilSettingsYml load() {
+        loaded.incrementAndGet();
+        Map<String, Object> element = new LinkedHashMap<>();
+        element.put("id", "message");
+        element.put("value", "hello");
+        List<Map<String, Object>> dataElement = new ArrayList<>();
+        dataElement.add(element);
+
+        StencilSettingsYml.Stencil stencil = new StencilSettingsYml.Stencil();
+        stencil.setDataElement(dataElement);
+        StencilSettingsYml settings = new StencilSettingsYml();
+        settings.setStencil(stencil);
+        return settings;
+    }
+
+    private double count(String result) {
+        return registry.get(StencilSettingsCache.METRIC_NAME).tag("result", result).counter().count();
+    }
+
+    @Test
+    void get_sameKey_loadsOnceAndCountsHitAndMiss() {
+        cache.get("/samples/hello-world", "250913A", "hash1", this::load);
+        cache.get("samples/hello-world", "250913A", "hash1", this::load);
+
+        assertEquals(1, loaded.get());
+        assertEquals(1.0, count("miss"));
+        assertEquals(1.0, count("hit"));
+    }
+
+    @Test
+    void get_returnsIsolatedCopy() {
+        StencilSettingsYml first = cache.get("/samples/hello-world", "250913A", "hash1", this::load);
+        first.getStencil().getDataElement().get(0).put("value", "changed");
+        first.getStencil().getDataElement().clear();
+
+        StencilSettingsYml second = cache.get("/samples/hello-world", "250913A", "hash1", this::load);
+        assertEquals("hello", second.getStencil().getDataElement().get(0).get("value"));
+    }
+
+    @Test
+    void get_contentHashChanged_reloadsAndReplacesOldEntry() {
+        cache.get("/samples/hello-world", "250913A", "hash1", this::load);
+        cache.get("/samples/hello-world", "250913A", "hash2", this::load);
+
+        assertEquals(2, loaded.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void invalidate_removesOnlyTargetStencil() {
+        cache.get("/samples/hello-world", "250913A", "hash1", this::load);
+        cache.get("/samples/other", "250913A", "hash1", this::load);
+
+        cache.invalidate("samples/hello-world");
+
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void configure_disabled_bypassesCache() {
+        cache.configure(false, 10);
+
+        cache.get("/samples/hello-world", "250913A", "hash1", this::load);
+        cache.get("/samples/hello-world", "250913A", "hash1", this::load);
+
+        assertEquals(2, loaded.get());
+        assertEquals(0, cache.size());
+    }
+}
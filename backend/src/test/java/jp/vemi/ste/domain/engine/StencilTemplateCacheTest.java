@@ -0,0 +1,99 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.ste.domain.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import freemarker.template.Configuration;
+
+/**
+ * StencilTemplateCache のテスト。
+ */
+class StencilTemplateCacheTest {
+
+    private StencilTemplateCache cache;
+
+    private AtomicInteger created;
+
+    @BeforeEach
+    void setUp() {
+        cache = new StencilTemplateCache();
+        created = new AtomicInteger();
+    }
+
+    private Configuration newConfiguration() {
+        created.incrementAndGet();
+        return new Configuration(Configuration.VERSION_2_3_29);
+    }
+
+    @Test
+    void getConfiguration_sameKey_reusesInstance() {
+        Configuration first = cache.getConfiguration("/samples/hello-world", "250913A", "/layer", true,
+                this::newConfiguration);
+        Configuration second = cache.getConfiguration("samples/hello-world", "250913A", "/layer", true,
+                this::newConfiguration);
+
+        assertSame(first, second);
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    void getConfiguration_differentSerialOrLayer_createsNewInstance() {
+        cache.getConfiguration("/samples/hello-world", "250913A", "/user", true, this::newConfiguration);
+        cache.getConfiguration("/samples/hello-world", "250914A", "/user", true, this::newConfiguration);
+        cache.getConfiguration("/samples/hello-world", "250913A", "/standard", true, this::newConfiguration);
+
+        assertEquals(3, created.get());
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void getConfiguration_differentClasspathLoader_createsNewInstance() {
+        Configuration withClasspath = cache.getConfiguration("/samples/hello-world", "250913A", "", true,
+                this::newConfiguration);
+        Configuration withoutClasspath = cache.getConfiguration("/samples/hello-world", "250913A", "", false,
+                this::newConfiguration);
+
+        assertNotSame(withClasspath, withoutClasspath);
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    void invalidate_removesOnlyTargetStencil() {
+        cache.getConfiguration("/samples/hello-world", "250913A", "", true, this::newConfiguration);
+        cache.getConfiguration("/samples/hello-world", "250914A", "", true, this::newConfiguration);
+        cache.getConfiguration("/samples/other", "250913A", "", true, this::newConfiguration);
+
+        cache.invalidate("samples/hello-world");
+
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void configure_disabled_bypassesCache() {
+        cache.configure(false, 10, 10);
+
+        cache.getConfiguration("/samples/hello-world", "250913A", "", true, this::newConfiguration);
+        cache.getConfiguration("/samples/hello-world", "250913A", "", true, this::newConfiguration);
+
+        assertEquals(2, created.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void configure_boundsNumberOfStencils() {
+        cache.configure(true, 2, 10);
+
+        cache.getConfiguration("/a", "250913A", "", true, this::newConfiguration);
+        cache.getConfiguration("/b", "250913A", "", true, this::newConfiguration);
+        cache.getConfiguration("/c", "250913A", "", true, this::newConfiguration);
+
+        assertTrue(cache.size() <= 2);
+    }
+}
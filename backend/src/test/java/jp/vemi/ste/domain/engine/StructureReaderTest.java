@@ -0,0 +1,127 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.ste.domain.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jp.vemi.framework.exeption.MirelApplicationException;
+
+/**
+ * StructureReader のテスト。
+ */
+class StructureReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final String[] MASTER_HEADER = { "model", "sheetName", "startLine", "column", "dataElement",
+            "skipEmpty", "nouse" };
+
+    private Path createWorkbook() throws IOException {
+        Path path = tempDir.resolve("structure.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = new FileOutputStream(path.toFile())) {
+            Sheet master = workbook.createSheet("_@generate");
+            Row header = master.createRow(4);
+            for (int i = 0; i < MASTER_HEADER.length; i++) {
+                header.createCell(i).setCellValue(MASTER_HEADER[i]);
+            }
+            addMasterRow(master, 5, "entities", "Entity", 3, "A", "name", "x", null);
+            addMasterRow(master, 6, "entities", "Entity", 3, "B", "size", null, null);
+            addMasterRow(master, 7, "entities", "Entity", 3, "C", "created", null, null);
+            addMasterRow(master, 8, "entities", "Entity", 3, "D", "enabled", null, null);
+            addMasterRow(master, 9, "entities", "Entity", 3, "E", "total", null, null);
+            addMasterRow(master, 10, "unused", "Entity", 3, "A", "name", null, "x");
+            addMasterRow(master, 11, "missing", "NoSheet", 3, "A", "name", null, null);
+
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy/mm/dd"));
+
+            Sheet entity = workbook.createSheet("Entity");
+            entity.createRow(0).createCell(0).setCellValue("title");
+            for (int i = 0; i < 3; i++) {
+                Row row = entity.createRow(2 + i);
+                if (i != 1) {
+                    row.createCell(0).setCellValue("Entity" + i);
+                }
+                row.createCell(1).setCellValue(10.5 * i);
+                row.createCell(2).setCellValue(new Date(1700000000000L + i * 86400000L));
+                row.getCell(2).setCellStyle(dateStyle);
+                row.createCell(3).setCellValue(i % 2 == 0);
+                row.createCell(4).setCellFormula("B" + (3 + i) + "*2");
+            }
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            workbook.write(out);
+        }
+        return path;
+    }
+
+    private void addMasterRow(Sheet master, int rowIdx, String model, String sheetName, double startLine,
+            String column, String dataElement, String skipEmpty, String nouse) {
+        Row row = master.createRow(rowIdx);
+        row.createCell(0).setCellValue(model);
+        row.createCell(1).setCellValue(sheetName);
+        row.createCell(2).setCellValue(startLine);
+        row.createCell(3).setCellValue(column);
+        row.createCell(4).setCellValue(dataElement);
+        if (skipEmpty != null) {
+            row.createCell(5).setCellValue(skipEmpty);
+        }
+        if (nouse != null) {
+            row.createCell(6).setCellValue(nouse);
+        }
+    }
+
+    @Test
+    void read_inputStream_producesSameMapsAsUsermodel() throws IOException {
+        Path path = createWorkbook();
+
+        Map<String, List<Map<String, Object>>> expected = new StructureReader().read(path.toString());
+        Map<String, List<Map<String, Object>>> actual;
+        try (FileInputStream in = new FileInputStream(path.toFile())) {
+            actual = new StructureReader().read(in);
+        }
+
+        assertEquals(expected, actual);
+        assertEquals(List.of("entities", "missing"), List.copyOf(actual.keySet()));
+
+        List<Map<String, Object>> entities = actual.get("entities");
+        // A列が空の行は skipEmpty により除外
+        assertEquals(2, entities.size());
+        assertEquals("Entity0", entities.get(0).get("name"));
+        assertEquals(21.0, entities.get(1).get("size"));
+        assertInstanceOf(Date.class, entities.get(0).get("created"));
+        assertEquals(Boolean.TRUE, entities.get(0).get("enabled"));
+        assertEquals(42.0, entities.get(1).get("total"));
+        assertTrue(actual.get("missing").isEmpty());
+    }
+
+    @Test
+    void read_inputStream_masterSheetMissing_throws() throws IOException {
+        Path path = tempDir.resolve("empty.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = new FileOutputStream(path.toFile())) {
+            workbook.createSheet("Other");
+            workbook.write(out);
+        }
+
+        try (FileInputStream in = new FileInputStream(path.toFile())) {
+            assertThrows(MirelApplicationException.class, () -> new StructureReader().read(in));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright(c) 2015-2026 mirelplatform.
+ */
+package jp.vemi.ste.domain.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import freemarker.cache.StringTemplateLoader;
+import freemarker.template.Configuration;
+import jp.vemi.framework.exeption.MirelSystemException;
+
+/**
+ * TemplateEngineProcessor の逐次・並列レンダリングのテスト。
+ */
+class TemplateEngineProcessorRenderingTest {
+
+    private static final int FILE_COUNT = 12;
+
+    private final List<String> outputDirs = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (String outputDir : outputDirs) {
+            FileUtils.deleteDirectory(new File(outputDir));
+        }
+    }
+
+    @Test
+    void execute_parallel_producesSameOutputAsSequential() throws Exception {
+        Map<String, byte[]> sequential = readAll(render(false, "seq", List.of()));
+        Map<String, byte[]> parallel = readAll(render(true, "par", List.of()));
+
+        // 同一出力先の 2 タスク（後勝ち）を含め、全ファイルがバイト単位で一致すること
+        assertEquals(FILE_COUNT + 1, sequential.size());
+        assertEquals(sequential.keySet(), parallel.keySet());
+        for (Map.Entry<String, byte[]> entry : sequential.entrySet()) {
+            assertArrayEquals(entry.getValue(), parallel.get(entry.getKey()), entry.getKey());
+        }
+        assertEquals("override", new String(parallel.get("shared.txt")));
+    }
+
+    @Test
+    void execute_parallel_reportsFailurePerFile() throws Exception {
+        MirelSystemException e = assertThrows(MirelSystemException.class,
+                () -> render(true, "err", List.of("broken.ftl")));
+
+        assertEquals(1, e.messages.size());
+        assertTrue(e.messages.get(0).contains("ステンシルファイル：broken.ftl"), e.messages.get(0));
+
+        // 失敗したファイル以外は生成されていること
+        Map<String, byte[]> outputs = readAll(outputDirs.get(outputDirs.size() - 1));
+        for (int i = 0; i < FILE_COUNT; i++) {
+            assertTrue(outputs.containsKey("dir" + (i % 3) + "/file" + i + ".txt"));
+        }
+    }
+
+    /**
+     * 同一のタスク一覧を指定の方式で生成し、出力ディレクトリを返します。
+     */
+    private String render(boolean parallel, String suffix, List<String> brokenFiles) throws IOException {
+        StringTemplateLoader loader = new StringTemplateLoader();
+        List<String[]> specs = new ArrayList<>();
+        for (int i = 0; i < FILE_COUNT; i++) {
+            specs.add(new String[] { "file" + i + ".ftl", "dir" + (i % 3) + "/file" + i + ".txt",
+                    "<#list 1..200 as n>${name}-" + i + "-${n}<#if n % 10 == 0>\n</#if></#list>" });
+        }
+        specs.add(new String[] { "shared1.ftl", "shared.txt", "initial" });
+        specs.add(new String[] { "shared2.ftl", "shared.txt", "override" });
+        for (String broken : brokenFiles) {
+            specs.add(new String[] { broken, "broken.txt", "${undefinedValue}" });
+        }
+        for (String[] spec : specs) {
+            loader.putTemplate(spec[0], spec[2]);
+        }
+        Configuration configuration = new Configuration(Configuration.VERSION_2_3_29);
+        configuration.setTemplateLoader(loader);
+
+        List<TemplateEngineProcessor.RenderTask> tasks = new ArrayList<>();
+        for (String[] spec : specs) {
+            tasks.add(new TemplateEngineProcessor.RenderTask(spec[0], spec[1], configuration.getTemplate(spec[0])));
+        }
+
+        TemplateEngineProcessor processor = new TemplateEngineProcessor() {
+            @Override
+            protected List<RenderTask> prepareRenderTasks() {
+                return tasks;
+            }
+        };
+        processor.commonBinds.put("name", "mirel");
+        processor.setParallelRendering(parallel, 4);
+
+        String generateId = TemplateEngineProcessor.createGenerateId() + suffix;
+        outputDirs.add(TemplateEngineProcessor.createOutputFileDir(generateId));
+        return processor.execute(generateId);
+    }
+
+    private static Map<String, byte[]> readAll(String outputDir) throws IOException {
+        Path root = Paths.get(outputDir);
+        Map<String, byte[]> contents = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.filter(Files::isRegularFile).toList()) {
+                contents.put(root.relativize(path).toString().replace('\\', '/'), Files.readAllBytes(path));
+            }
+        }
+        return contents;
+    }
+}